@@ -0,0 +1,74 @@
+package com.github.mengxianun.core.parser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mengxianun.core.parser.info.SimpleInfo;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+/**
+ * 字符串请求的解析耗时: 流式解析与先构建 Json 树再解析的对比
+ *
+ * @author mengxiangyun
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimpleParserBenchmark {
+
+	private static final Gson GSON = new Gson();
+
+	@Param({ "lookup", "select", "insert" })
+	public String request;
+
+	private String json;
+
+	@Setup
+	public void setup() {
+		switch (request) {
+		case "lookup":
+			json = "{\"detail\":\"ds.user\",\"where\":\"id=1\"}";
+			break;
+		case "select":
+			json = "{\"select\":\"ds.user as u\",\"fields\":[\"u.id\",\"u.name as n\",\"role.name\"],"
+					+ "\"join\":[\"role\",{\"inner\":\"dept\"}],\"where\":[\"age>=18\",{\"or\":\"name%=a%\"},"
+					+ "[\"status=1,2,3\",{\"or\":\"created_at=2020-01-01~2020-12-31\"}]],\"group\":\"u.id\","
+					+ "\"order\":[\"-u.id\",\"name asc\"],\"limit\":[0,20]}";
+			break;
+		case "insert":
+			json = "{\"insert\":\"ds.user\",\"values\":[{\"name\":\"a\",\"age\":1,\"tags\":[\"x\",\"y\"]},"
+					+ "{\"name\":\"b\",\"age\":2,\"tags\":null}]}";
+			break;
+
+		default:
+			throw new IllegalArgumentException(request);
+		}
+	}
+
+	@Benchmark
+	public SimpleInfo streaming() {
+		return SimpleParser.parse(json);
+	}
+
+	@Benchmark
+	public SimpleInfo tree() {
+		return SimpleParser.parse(GSON.fromJson(json, JsonObject.class));
+	}
+
+}
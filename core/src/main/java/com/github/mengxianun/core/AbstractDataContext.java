@@ -2,11 +2,28 @@ package com.github.mengxianun.core;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -15,38 +32,64 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.mengxianun.core.cache.ResultCache;
+import com.github.mengxianun.core.cache.TotalCache;
 import com.github.mengxianun.core.config.AssociationType;
 import com.github.mengxianun.core.config.ResultAttributes;
 import com.github.mengxianun.core.data.Row;
 import com.github.mengxianun.core.data.Summary;
+import com.github.mengxianun.core.data.summary.DefaultQuerySummary;
 import com.github.mengxianun.core.data.summary.FileSummary;
 import com.github.mengxianun.core.data.summary.InsertSummary;
 import com.github.mengxianun.core.data.summary.MultiSummary;
 import com.github.mengxianun.core.data.summary.QuerySummary;
 import com.github.mengxianun.core.data.summary.UpdateSummary;
 import com.github.mengxianun.core.exception.DataException;
+import com.github.mengxianun.core.item.LimitItem;
 import com.github.mengxianun.core.item.ValuesItem;
+import com.github.mengxianun.core.plan.PlanCache;
+import com.github.mengxianun.core.plan.PlanSQLBuilder;
 import com.github.mengxianun.core.render.FileRenderer;
-import com.github.mengxianun.core.render.JsonRenderer;
+import com.github.mengxianun.core.render.MapRenderer;
+import com.github.mengxianun.core.request.TotalMode;
 import com.github.mengxianun.core.schema.Column;
+import com.github.mengxianun.core.schema.MetadataLoad;
 import com.github.mengxianun.core.schema.Schema;
 import com.github.mengxianun.core.schema.Table;
 import com.github.mengxianun.core.schema.relationship.Relationship;
 import com.github.mengxianun.core.schema.relationship.RelationshipGraph;
 import com.github.mengxianun.core.schema.relationship.RelationshipPath;
+import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
-import com.google.gson.JsonArray;
-import com.google.gson.reflect.TypeToken;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
 
 public abstract class AbstractDataContext implements DataContext {
 
 	private static final Logger logger = LoggerFactory.getLogger(AbstractDataContext.class);
+	// 请求结果占位符 $n.column
+	private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("^[$]\\d+\\..+");
+	// 分页获取 Schema 信息时每次读取的表数量
+	private static final int SCHEMA_INFO_PAGE_SIZE = 500;
 
 	protected Schema schema;
 
 	protected Dialect dialect;
 	protected SQLBuilder sqlBuilder;
 	private final RelationshipGraph graph = new RelationshipGraph();
+	// 默认不缓存执行计划, 由具体的数据源开启
+	protected PlanCache planCache = new PlanCache(0);
+	protected final ResultCache resultCache = ResultCache.create();
+	protected final TotalCache totalCache = TotalCache.create();
+	// 异步请求的执行线程池, 首次使用时创建
+	private volatile ExecutorService executor;
+	// 元数据加载方式, 由具体的数据源指定
+	protected MetadataLoad metadataLoad = MetadataLoad.EAGER;
+	// 正在加载的表, key 为小写表名
+	private final ConcurrentMap<String, FutureTask<Table>> loadingTables = new ConcurrentHashMap<>();
+	// 根据数据库外键添加的关联关系, 表名和列名组成的 key. 表配置中相同列的关联关系会覆盖外键的关联关系
+	private final Set<String> foreignKeyRelationships = ConcurrentHashMap.newKeySet();
 
 	protected abstract void initMetadata();
 
@@ -64,37 +107,171 @@ public abstract class AbstractDataContext implements DataContext {
 	@Override
 	public MultiSummary execute(NewAction... actions) {
 		List<Summary> summaries = new ArrayList<>();
-		trans(new Atom() {
-
-			@Override
-			public void run() {
-				for (NewAction action : actions) {
-					if (action instanceof Action) {
-						Action curdAction = (Action) action;
-						boolean parsed = parsePlaceholder(curdAction, summaries);
-						if (parsed) {
-							curdAction.reBuild();
+		try {
+			trans(new Atom() {
+
+				@Override
+				public void run() {
+					Set<Integer> referenced = getReferencedActions(actions);
+					int i = 0;
+					while (i < actions.length) {
+						NewAction action = actions[i];
+						if (action instanceof Action) {
+							Action curdAction = (Action) action;
+							boolean parsed = parsePlaceholder(curdAction, summaries);
+							if (parsed) {
+								curdAction.reBuild();
+							}
+							curdAction.build();
+							List<Action> batchActions = getBatchActions(actions, i, summaries, referenced);
+							if (batchActions.size() > 1) {
+								summaries.addAll(executeBatch(batchActions));
+							} else {
+								summaries.add(curdAction.execute());
+							}
+							i += batchActions.size();
+						} else {
+							summaries.add(action.execute());
+							i++;
 						}
-						summaries.add(curdAction.execute());
-					} else {
-						summaries.add(action.execute());
 					}
-				}
 
+				}
+			});
+		} finally {
+			// 事务提交或回滚后再次清除查询结果缓存, 避免事务执行期间的查询缓存了未提交的数据
+			for (NewAction action : actions) {
+				if (action instanceof Action && !((Action) action).isQuery()) {
+					resultCache.invalidate(((Action) action).getTables());
+				}
 			}
-		});
+		}
 		return new MultiSummary(summaries);
 	}
 
 	protected abstract void trans(Atom... atoms);
 
-	private boolean parsePlaceholder(Action action, List<Summary> summaries) {
-		boolean parsed = false;
-		List<? extends ValuesItem> valuesItems = Stream
+	/**
+	 * 被其他请求的占位符($n.column)引用的请求位置, 从 0 开始
+	 * 
+	 * @param actions
+	 * @return
+	 */
+	private Set<Integer> getReferencedActions(NewAction[] actions) {
+		Set<Integer> referenced = new HashSet<>();
+		for (NewAction action : actions) {
+			if (action instanceof Action) {
+				for (ValuesItem valuesItem : getPlaceholderItems((Action) action)) {
+					int num = getPlaceholderNum(valuesItem.getValue());
+					if (num > 0) {
+						referenced.add(num - 1);
+					}
+				}
+			}
+		}
+		return referenced;
+	}
+
+	/**
+	 * 从 start 开始, 与 start 位置的请求 SQL 相同的连续的新增(单条记录), 修改, 删除请求. 这些请求可以作为一个批处理执行. 引用了这些请求结果
+	 * ($n.column) 的请求不能合并. 部分驱动批量新增时不返回生成的主键, 所以被引用的新增请求单独执行
+	 * 
+	 * @param actions
+	 * @param start
+	 *            已经构建 SQL 的请求位置
+	 * @param summaries
+	 *            start 之前的请求的执行结果
+	 * @param referenced
+	 *            被占位符引用的请求位置
+	 * @return 可以批量执行的请求, 至少包含 start 位置的请求
+	 */
+	private List<Action> getBatchActions(NewAction[] actions, int start, List<Summary> summaries,
+			Set<Integer> referenced) {
+		List<Action> batchActions = new ArrayList<>();
+		Action first = (Action) actions[start];
+		batchActions.add(first);
+		if (!isBatchable(first) || (first.isInsert() && referenced.contains(start))) {
+			return batchActions;
+		}
+		for (int i = start + 1; i < actions.length; i++) {
+			if (!(actions[i] instanceof Action)) {
+				break;
+			}
+			Action action = (Action) actions[i];
+			if (!isBatchable(action) || getMaxPlaceholder(action) > start
+					|| (action.isInsert() && referenced.contains(i))) {
+				break;
+			}
+			if (parsePlaceholder(action, summaries)) {
+				action.reBuild();
+			}
+			action.build();
+			if (!first.getSql().equals(action.getSql())) {
+				break;
+			}
+			batchActions.add(action);
+		}
+		return batchActions;
+	}
+
+	private boolean isBatchable(Action action) {
+		if (action.isFile()) {
+			return false;
+		}
+		if (action.isInsert() || action.isUpsert()) {
+			return action.getInsertValueItems().size() == 1;
+		}
+		return action.isUpdate() || action.isDelete();
+	}
+
+	/**
+	 * 批量执行 SQL 相同的请求, 返回每个请求的执行结果. 默认逐个执行, 支持批处理的数据源应重写该方法
+	 * 
+	 * @param actions
+	 * @return 每个请求的执行结果
+	 */
+	protected List<Summary> executeBatch(List<Action> actions) {
+		return actions.stream().map(this::executeCRUD).collect(Collectors.toList());
+	}
+
+	private List<? extends ValuesItem> getPlaceholderItems(Action action) {
+		return Stream
 				.of(action.getFilterItems(),
 						action.getInsertValueItems().stream().flatMap(List::stream).collect(Collectors.toList()),
 						action.getUpdateValueItem())
 				.flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	/**
+	 * 请求中的占位符($n.column)引用的最大请求序号, 从 1 开始
+	 * 
+	 * @param action
+	 * @return 最大请求序号, 不存在占位符时返回 0
+	 */
+	private int getMaxPlaceholder(Action action) {
+		int max = 0;
+		for (ValuesItem valuesItem : getPlaceholderItems(action)) {
+			max = Math.max(max, getPlaceholderNum(valuesItem.getValue()));
+		}
+		return max;
+	}
+
+	/**
+	 * 占位符($n.column)引用的请求序号, 从 1 开始
+	 * 
+	 * @param value
+	 * @return 请求序号, 不是占位符时返回 0
+	 */
+	private int getPlaceholderNum(Object value) {
+		if (value instanceof String && PLACEHOLDER_PATTERN.matcher(value.toString()).matches()) {
+			return Integer.parseInt(value.toString().substring(1, value.toString().indexOf('.')));
+		}
+		return 0;
+	}
+
+	private boolean parsePlaceholder(Action action, List<Summary> summaries) {
+		boolean parsed = false;
+		List<? extends ValuesItem> valuesItems = getPlaceholderItems(action);
 		for (ValuesItem valuesItem : valuesItems) {
 			Object value = valuesItem.getValue();
 			if (!(value instanceof String) || value.toString().equals("")) {
@@ -102,9 +279,7 @@ public abstract class AbstractDataContext implements DataContext {
 			}
 			String valueString = value.toString();
 			// $n.column
-			String patternString = "^[$]\\d+\\..+";
-			Pattern pattern = Pattern.compile(patternString);
-			Matcher matcher = pattern.matcher(valueString);
+			Matcher matcher = PLACEHOLDER_PATTERN.matcher(valueString);
 			if (matcher.matches()) {
 				parsed = true;
 				String[] numAndColumn = matcher.group().split("\\.");
@@ -135,6 +310,10 @@ public abstract class AbstractDataContext implements DataContext {
 		} else if (summary instanceof InsertSummary) {
 			InsertSummary insertSummary = (InsertSummary) summary;
 			List<Map<String, Object>> values = insertSummary.getValues();
+			if (values.isEmpty()) {
+				throw new DataException("Placeholder [%s] parse failed, the insert did not return generated keys",
+						columnName);
+			}
 			// 暂时只获取第一条
 			Map<String, Object> rowData = values.get(0);
 			if (rowData.containsKey(columnName)) {
@@ -165,8 +344,13 @@ public abstract class AbstractDataContext implements DataContext {
 			summary = query(action);
 		} else if (action.isInsert()) {
 			summary = insert(action);
+			resultCache.invalidate(action.getTables());
+		} else if (action.isUpsert()) {
+			summary = upsert(action);
+			resultCache.invalidate(action.getTables());
 		} else {
 			summary = update(action);
+			resultCache.invalidate(action.getTables());
 		}
 		return summary;
 	}
@@ -175,26 +359,239 @@ public abstract class AbstractDataContext implements DataContext {
 		if (!action.isQuery()) {
 			throw new UnsupportedOperationException();
 		}
-		QuerySummary querySummary = select(action);
+		QuerySummary querySummary = selectPage(action);
 		ByteArrayOutputStream outputStream = new FileRenderer(action).render(querySummary.toRows());
 		return new FileSummary(querySummary, outputStream);
 	}
 
 	protected QuerySummary query(Action action) {
-		QuerySummary querySummary = select(action);
+		// 游标分页不查询总数
+		Supplier<QuerySummary> loader = () -> action.isLimit() && !action.isKeyset() ? page(action)
+				: selectPage(action);
+		// 事务中的查询结果可能包含未提交的记录, 不读取也不写入缓存
+		QuerySummary querySummary = isInTransaction() ? loader.get() : resultCache.get(action, loader);
 		// Render
-		JsonArray jsonData = new JsonRenderer(action).render(querySummary.toRows());
-		// Convert json to native type
-		Type dataType = new TypeToken<List<Map<String, Object>>>() {}.getType();
-		List<Map<String, Object>> values = App.gson().fromJson(jsonData, dataType);
-		querySummary.setValues(values);
-		if (action.isLimit() && querySummary.getTotal() == -1) {
-			long total = count(action);
-			querySummary.setTotal(total);
-		}
+		querySummary.setValues(new MapRenderer(action).render(querySummary.getRows()));
 		return querySummary;
 	}
 
+	@Override
+	public void stream(Action action, JsonWriter writer) {
+		action.build();
+		logger.debug("SQL: {}", action.getSql());
+		logger.debug("Params: {}", action.getParams());
+		try {
+			// 关联查询需要将多行记录按主表记录合并, 无法逐行输出, 这里按普通查询处理
+			// 窗口函数计数的总数在查询结果中, 需要在记录之前输出, 分页记录数有限, 这里也按普通查询处理
+			if (!action.isQuery() || action.isFile() || action.isDetail() || action.isJoin() || action.isKeyset()
+					|| action.getSqlBuilder().isWindowCount()) {
+				App.gson().toJson(executeCRUD(action).getData(), Object.class, writer);
+				return;
+			}
+			if (action.isLimit()) {
+				LimitItem limitItem = action.getLimitItem();
+				QuerySummary totalSummary = new DefaultQuerySummary(action, Collections.emptyList());
+				total(action, totalSummary);
+				writer.beginObject();
+				writer.name(ResultAttributes.START).value(limitItem.getStart());
+				writer.name(ResultAttributes.END).value(limitItem.getEnd());
+				writer.name(ResultAttributes.TOTAL).value(totalSummary.getTotal());
+				writer.name(ResultAttributes.TOTAL_MODE).value(totalSummary.getTotalMode().lowerName());
+				writer.name(ResultAttributes.DATA);
+			}
+			MapRenderer renderer = new MapRenderer(action);
+			writer.beginArray();
+			select(action, row -> App.gson().toJson(renderer.render(row), Map.class, writer));
+			writer.endArray();
+			if (action.isLimit()) {
+				writer.endObject();
+			}
+		} catch (IOException | JsonIOException e) {
+			throw new DataException("Query result write failed", e);
+		}
+	}
+
+	/**
+	 * 逐行读取查询结果. 默认读取全部结果后再逐行处理, 支持游标读取的数据源应重写该方法
+	 * 
+	 * @param action
+	 * @param consumer
+	 */
+	protected void select(Action action, Consumer<Row> consumer) {
+		select(action).getRows().forEach(consumer);
+	}
+
+	private QuerySummary page(Action action) {
+		SQLBuilder sqlBuilder = action.getSqlBuilder();
+		if (sqlBuilder.isWindowCount()) {
+			QuerySummary result = select(action);
+			// 当前页没有记录时无法通过窗口函数获取总数
+			if (result.getTotal() == -1) {
+				long pageTotal = getPageTotal(action, result);
+				result.setTotal(pageTotal != -1 ? pageTotal : count(action));
+			}
+			return result;
+		}
+		// 总数查询使用另一个连接与分页查询同时执行. 事务中另一个连接读取不到未提交的记录, 总数在当前连接上查询
+		FutureTask<Long> countTask = action.getTotalMode() == TotalMode.EXACT && !isInTransaction()
+				? createCountTask(action)
+				: null;
+		QuerySummary result = selectPage(action);
+		long pageTotal = sqlBuilder.isRowCountExact() ? getPageTotal(action, result) : -1;
+		if (pageTotal != -1) {
+			if (countTask != null) {
+				countTask.cancel(false);
+			}
+			result.setTotal(pageTotal);
+			result.setTotalMode(TotalMode.EXACT);
+		} else if (countTask != null) {
+			result.setTotal(getCount(countTask));
+			result.setTotalMode(TotalMode.EXACT);
+		} else {
+			total(action, result);
+		}
+		return result;
+	}
+
+	/**
+	 * 查询当前页的记录. 两阶段关联分页先查询当前页的主键, 再通过主键查询关联后的记录, 并按主键的顺序排列
+	 * 
+	 * @param action
+	 * @return 当前页的记录
+	 * @see SQLBuilder#toJoinKeySelect()
+	 */
+	private QuerySummary selectPage(Action action) {
+		SQLBuilder sqlBuilder = action.getSqlBuilder();
+		if (!sqlBuilder.isJoinKeyLimit()) {
+			return select(action);
+		}
+		List<Object> keys = select(action).getRows().stream().map(e -> e.getValue(0)).collect(Collectors.toList());
+		if (keys.isEmpty()) {
+			return new DefaultQuerySummary(action, Collections.emptyList());
+		}
+		Action fetchAction = action.copy(null);
+		List<Object> fetchParams = new ArrayList<>(sqlBuilder.countParams());
+		fetchParams.addAll(keys);
+		fetchAction.setSqlBuilder(new PlanSQLBuilder(fetchAction, sqlBuilder.toFetchSql(keys.size()), fetchParams,
+				null, null, null));
+		// 第二阶段的查询不排序, 按第一阶段主键的顺序重新排列
+		int keyIndex = action.getColumnItems().indexOf(sqlBuilder.getKeyColumnItem());
+		Map<Object, List<Object[]>> keyRows = new LinkedHashMap<>();
+		keys.forEach(e -> keyRows.put(e, new ArrayList<>()));
+		for (Row row : select(fetchAction).getRows()) {
+			List<Object[]> rows = keyRows.get(row.getValue(keyIndex));
+			if (rows != null) {
+				rows.add(row.getValues());
+			}
+		}
+		List<Object[]> values = new ArrayList<>();
+		keyRows.values().forEach(values::addAll);
+		return new DefaultQuerySummary(action, values);
+	}
+
+	/**
+	 * 当前页记录数不足时, 总数为当前页的起始位置加上当前页的记录数
+	 * 
+	 * @param action
+	 * @param querySummary
+	 * @return 总数, 无法得出时返回 -1
+	 */
+	private long getPageTotal(Action action, QuerySummary querySummary) {
+		LimitItem limitItem = action.getLimitItem();
+		int size = querySummary.getRows().size();
+		if (size < limitItem.getLimit() && (size > 0 || limitItem.getStart() == 0)) {
+			return limitItem.getStart() + size;
+		}
+		return -1;
+	}
+
+	/**
+	 * 按请求的总数计算方式获取总数
+	 * 
+	 * @param action
+	 * @param querySummary
+	 */
+	private void total(Action action, QuerySummary querySummary) {
+		switch (action.getTotalMode()) {
+		case SKIP:
+			querySummary.setTotal(-1);
+			querySummary.setTotalMode(TotalMode.SKIP);
+			return;
+		case CACHED:
+			querySummary.setTotal(isInTransaction() ? count(action) : totalCache.get(action, () -> count(action)));
+			querySummary.setTotalMode(TotalMode.CACHED);
+			return;
+		case ESTIMATE:
+			long estimate = estimate(action);
+			if (estimate >= 0) {
+				querySummary.setTotal(estimate);
+				querySummary.setTotalMode(TotalMode.ESTIMATE);
+				return;
+			}
+			// 不支持估算时查询精确总数
+			querySummary.setTotal(count(action));
+			querySummary.setTotalMode(TotalMode.EXACT);
+			return;
+		default:
+			querySummary.setTotal(count(action));
+			querySummary.setTotalMode(TotalMode.EXACT);
+		}
+	}
+
+	/**
+	 * 创建总数查询任务并提交到执行线程池. 线程池繁忙时任务可能尚未开始, 此时由调用线程直接执行, 避免等待
+	 * 
+	 * @param action
+	 * @return 总数查询任务
+	 */
+	private FutureTask<Long> createCountTask(Action action) {
+		RequestContext requestContext = RequestContext.current();
+		FutureTask<Long> countTask = new FutureTask<>(
+				() -> requestContext == null ? count(action) : requestContext.call(() -> count(action)));
+		try {
+			getExecutor().execute(countTask);
+		} catch (RejectedExecutionException e) {
+			logger.debug("Count task rejected, run in the current thread.");
+		}
+		return countTask;
+	}
+
+	private long getCount(FutureTask<Long> countTask) {
+		// 任务已经开始或完成时不会重复执行
+		countTask.run();
+		try {
+			return countTask.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataException("Count query interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new DataException("Count query failed", cause);
+		}
+	}
+
+	/**
+	 * 估算查询总数, 支持的数据源应重写该方法
+	 * 
+	 * @param action
+	 * @return 估算的总数, 不支持估算时返回 -1
+	 */
+	protected long estimate(Action action) {
+		return -1;
+	}
+
+	/**
+	 * 当前线程是否处于事务中, 支持事务的数据源应重写该方法
+	 * 
+	 * @return 当前线程绑定了事务连接时返回 true
+	 */
+	protected boolean isInTransaction() {
+		return false;
+	}
+
 	protected long count(Action action) {
 		Action countAction = action.count();
 		QuerySummary countSummary = select(countAction);
@@ -210,8 +607,11 @@ public abstract class AbstractDataContext implements DataContext {
 		if (sql.toUpperCase().startsWith("SELECT")) {
 			return select(sql);
 		} else if (sql.toUpperCase().startsWith("INSERT")) {
+			// 无法确定原生 SQL 涉及的表, 清除全部查询结果缓存
+			resultCache.invalidateAll();
 			return insert(sql);
 		} else if (sql.toUpperCase().startsWith("UPDATE") || sql.toUpperCase().startsWith("DELETE")) {
+			resultCache.invalidateAll();
 			return update(sql);
 		}
 		throw new UnsupportedOperationException();
@@ -223,6 +623,16 @@ public abstract class AbstractDataContext implements DataContext {
 
 	protected abstract UpdateSummary update(Action action);
 
+	/**
+	 * 新增或更新, 默认不支持
+	 * 
+	 * @param action
+	 * @return 影响的记录数
+	 */
+	protected UpdateSummary upsert(Action action) {
+		throw new UnsupportedOperationException();
+	}
+
 	protected abstract QuerySummary select(String sql);
 
 	protected abstract InsertSummary insert(String sql);
@@ -237,22 +647,96 @@ public abstract class AbstractDataContext implements DataContext {
 	@Override
 	public Table getTable(String nameOrAlias) {
 		Table table = schema.getTable(nameOrAlias);
-		if (table == null) {
-			table = loadTable(nameOrAlias);
-			schema.addTable(table);
+		if (table == null && !Strings.isNullOrEmpty(nameOrAlias)) {
+			table = loadTableOnce(nameOrAlias);
 		}
 		return table;
 	}
 
+	/**
+	 * 加载不在 Schema 中的表. 同一个表同时只加载一次, 其他线程等待加载结果
+	 * 
+	 * @param name
+	 * @return Table
+	 */
+	private Table loadTableOnce(String name) {
+		String key = name.toLowerCase(Locale.ROOT);
+		FutureTask<Table> loadTask = new FutureTask<>(() -> {
+			// 等待期间其他线程可能已经加载完成
+			Table table = schema.getTable(name);
+			if (table == null) {
+				table = loadTable(name);
+				schema.addTable(table);
+			}
+			return table;
+		});
+		FutureTask<Table> existingTask = loadingTables.putIfAbsent(key, loadTask);
+		if (existingTask == null) {
+			existingTask = loadTask;
+			loadTask.run();
+		}
+		try {
+			return existingTask.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataException("Load table interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new DataException("Load table failed", cause);
+		} finally {
+			loadingTables.remove(key, existingTask);
+		}
+	}
+
 	@Override
 	public Column getColumn(String tableNameOrAlias, String columnNameOrAlias) {
-		Table table = schema.getTable(tableNameOrAlias);
+		Table table = getTable(tableNameOrAlias);
 		if (table == null) {
 			return null;
 		}
 		return table.getColumn(columnNameOrAlias);
 	}
 
+	@Override
+	public List<String> loadTableNames(long start, long end) {
+		List<String> tableNames = schema.getTableNames();
+		int fromIndex = (int) Math.min(start, tableNames.size());
+		int toIndex = end < 0 ? tableNames.size() : (int) Math.min(end, tableNames.size());
+		return fromIndex < toIndex ? tableNames.subList(fromIndex, toIndex) : Collections.emptyList();
+	}
+
+	@Override
+	public Map<String, Object> getSchemaInfo(long start, long end) {
+		if (metadataLoad == MetadataLoad.EAGER && start <= 0 && end < 0) {
+			return schema.getInfo();
+		}
+		// 分页读取表名, 已加载的表直接使用, 未加载的表只读取结构信息, 不加入 Schema
+		List<Table> tables = new ArrayList<>();
+		long pageStart = Math.max(start, 0);
+		while (end < 0 || pageStart < end) {
+			long pageEnd = end < 0 ? pageStart + SCHEMA_INFO_PAGE_SIZE
+					: Math.min(end, pageStart + SCHEMA_INFO_PAGE_SIZE);
+			List<String> tableNames = loadTableNames(pageStart, pageEnd);
+			for (String tableName : tableNames) {
+				Table table = schema.getTableByName(tableName);
+				if (table == null) {
+					table = loadTable(tableName);
+				}
+				if (table != null) {
+					tables.add(table);
+				}
+			}
+			if (tableNames.size() < pageEnd - pageStart) {
+				break;
+			}
+			pageStart = pageEnd;
+		}
+		return schema.getInfo(tables);
+	}
+
 	public Dialect getDialect() {
 		return dialect;
 	}
@@ -263,10 +747,88 @@ public abstract class AbstractDataContext implements DataContext {
 	}
 
 	@Override
-	public void destroy() {}
+	public PlanCache getPlanCache() {
+		return planCache;
+	}
+
+	@Override
+	public ResultCache getResultCache() {
+		return resultCache;
+	}
+
+	@Override
+	public TotalCache getTotalCache() {
+		return totalCache;
+	}
+
+	@Override
+	public ExecutorService getExecutor() {
+		if (executor == null) {
+			synchronized (this) {
+				if (executor == null) {
+					executor = createExecutor();
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * 指定异步请求的执行线程池, 替换默认的线程池
+	 * 
+	 * @param executor
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * 创建异步请求的执行线程池. 默认为固定线程数和有界队列的线程池, 队列已满时拒绝请求. 开启虚拟线程且运行环境支持时, 每个请求使用一个虚拟线程,
+	 * 并发数由数据源连接池限制
+	 * 
+	 * @return ExecutorService
+	 */
+	protected ExecutorService createExecutor() {
+		Configuration configuration = App.getConfiguration();
+		if (configuration != null && configuration.asyncVirtualThreads()) {
+			try {
+				Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService) method.invoke(null);
+			} catch (ReflectiveOperationException e) {
+				logger.warn("Virtual threads are not supported by the current JVM, use platform threads instead");
+			}
+		}
+		int threads = configuration == null ? Configuration.DEFAULT_ASYNC_THREADS : configuration.asyncThreads();
+		int queueSize = configuration == null ? Configuration.DEFAULT_ASYNC_QUEUE_SIZE
+				: configuration.asyncQueueSize();
+		ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(queueSize),
+				new ThreadFactoryBuilder().setNameFormat(getClass().getSimpleName() + "-async-%d").setDaemon(true)
+						.build());
+		threadPoolExecutor.allowCoreThreadTimeOut(true);
+		return threadPoolExecutor;
+	}
+
+	@Override
+	public void afterInit() {
+		// 默认没有需要在初始化完成后执行的任务
+	}
+
+	@Override
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
 
 	@Override
 	public boolean addRelationship(Column primaryColumn, Column foreignColumn, AssociationType associationType) {
+		planCache.invalidateAll();
+		if (foreignKeyRelationships.remove(getRelationshipKey(primaryColumn, foreignColumn))
+				| foreignKeyRelationships.remove(getRelationshipKey(foreignColumn, primaryColumn))) {
+			graph.deleteRelationship(primaryColumn, foreignColumn);
+			graph.deleteRelationship(foreignColumn, primaryColumn);
+		}
 		boolean result = graph.addRelationship(primaryColumn, foreignColumn, associationType);
 		boolean reverseResult = false;
 		// Reverse relationship
@@ -277,8 +839,35 @@ public abstract class AbstractDataContext implements DataContext {
 		return result || reverseResult;
 	}
 
+	/**
+	 * 添加数据库外键的关联关系, 外键列为多的一端. 已存在相同列的关联关系时不添加
+	 * 
+	 * @param foreignKeyColumn
+	 *            外键列
+	 * @param referencedColumn
+	 *            外键引用的列
+	 * @return 是否添加
+	 */
+	protected boolean addForeignKeyRelationship(Column foreignKeyColumn, Column referencedColumn) {
+		if (graph.hasRelationship(foreignKeyColumn, referencedColumn)
+				|| graph.hasRelationship(referencedColumn, foreignKeyColumn)) {
+			return false;
+		}
+		boolean result = addRelationship(foreignKeyColumn, referencedColumn, AssociationType.MANY_TO_ONE);
+		if (result) {
+			foreignKeyRelationships.add(getRelationshipKey(foreignKeyColumn, referencedColumn));
+		}
+		return result;
+	}
+
+	private String getRelationshipKey(Column primaryColumn, Column foreignColumn) {
+		return String.join(".", primaryColumn.getTable().getName(), primaryColumn.getName()) + "->"
+				+ String.join(".", foreignColumn.getTable().getName(), foreignColumn.getName());
+	}
+
 	@Override
 	public boolean deleteRelationship(Column primaryColumn, Column foreignColumn) {
+		planCache.invalidateAll();
 		boolean result = graph.deleteRelationship(primaryColumn, foreignColumn);
 		// Delete reverse relationship
 		boolean reverseResult = graph.deleteRelationship(foreignColumn, primaryColumn);
@@ -287,11 +876,13 @@ public abstract class AbstractDataContext implements DataContext {
 
 	@Override
 	public boolean deleteRelationship(Table primaryTable, Table foreignTable) {
+		planCache.invalidateAll();
 		return graph.deleteRelationship(primaryTable, foreignTable);
 	}
 
 	@Override
 	public void cleanRelationshipCache() {
+		planCache.invalidateAll();
 		graph.cleanRelationship();
 	}
 
@@ -307,12 +898,30 @@ public abstract class AbstractDataContext implements DataContext {
 
 	@Override
 	public Set<RelationshipPath> getRelationships(Table primaryTable, Table foreignTable) {
-		return graph.getRelationships(primaryTable, foreignTable);
+		return graph.getRelationships(primaryTable, foreignTable, table -> true, getJoinMaxDepth());
+	}
+
+	@Override
+	public Set<RelationshipPath> getShortestRelationships(Table primaryTable, Table foreignTable) {
+		return graph.getShortestRelationships(primaryTable, foreignTable, getJoinMaxDepth());
+	}
+
+	@Override
+	public Set<RelationshipPath> getRelationships(Table primaryTable, Table foreignTable, Predicate<Table> viaTable) {
+		return graph.getRelationships(primaryTable, foreignTable, viaTable, getJoinMaxDepth());
+	}
+
+	private int getJoinMaxDepth() {
+		Configuration configuration = App.getConfiguration();
+		return configuration == null ? Configuration.DEFAULT_JOIN_MAX_DEPTH : configuration.joinMaxDepth();
 	}
 
 	@Override
 	public AssociationType getAssociationType(Table primaryTable, Table foreignTable) {
-		Set<RelationshipPath> relationships = getRelationships(primaryTable, foreignTable);
+		Set<RelationshipPath> relationships = getShortestRelationships(primaryTable, foreignTable);
+		if (relationships.isEmpty()) {
+			return null;
+		}
 		Relationship first = Iterables.getFirst(relationships, null).getFirst();
 		AssociationType associationType = first.getAssociationType();
 		if (associationType == AssociationType.ONE_TO_MANY || associationType == AssociationType.MANY_TO_MANY) {
@@ -336,21 +945,93 @@ public abstract class AbstractDataContext implements DataContext {
 	@Override
 	public void refresh() {
 		logger.debug("Refresh schema [{}] metadata", schema.getName());
+		refreshMetadata();
+		planCache.invalidateAll();
+		resultCache.invalidateAll();
+		totalCache.invalidateAll();
+	}
+
+	/**
+	 * 刷新元数据, 默认重新加载所有表. 支持增量刷新的数据源应重写该方法, 通过 {@link #replaceTables(List, List)} 只替换变化的表
+	 */
+	protected void refreshMetadata() {
 		initMetadata();
 	}
 
+	/**
+	 * 替换 Schema 中变化的表. 被替换的表的表配置, 列配置和关联关系按名称转移到同名的新表上, 所有修改一次对读取方可见
+	 * 
+	 * @param removedTables
+	 *            删除或被替换的表
+	 * @param addedTables
+	 *            新加入或重新加载的表
+	 */
+	protected void replaceTables(List<Table> removedTables, List<Table> addedTables) {
+		Map<String, Table> addedTableMap = new HashMap<>();
+		for (Table table : addedTables) {
+			addedTableMap.put(table.getName(), table);
+		}
+		for (Table oldTable : removedTables) {
+			Table table = addedTableMap.get(oldTable.getName());
+			if (table != null) {
+				copyConfig(oldTable, table);
+			}
+		}
+		// 涉及被替换的表的关联关系, 在新的表发布之前转移到新的表上, 读取方不会看到没有关联关系的新表
+		for (Relationship relationship : graph.getTableRelationships(removedTables)) {
+			Column primaryColumn = getReplacedColumn(relationship.getPrimaryColumn(), removedTables, addedTableMap);
+			Column foreignColumn = getReplacedColumn(relationship.getForeignColumn(), removedTables, addedTableMap);
+			if (primaryColumn != null && foreignColumn != null) {
+				graph.addRelationship(primaryColumn, foreignColumn, relationship.getAssociationType());
+			}
+		}
+		schema.replaceTables(removedTables, addedTables);
+		graph.removeTables(removedTables);
+	}
+
+	private void copyConfig(Table oldTable, Table table) {
+		table.setConfig(oldTable.getConfig());
+		table.setSettings(oldTable.getSettings());
+		for (Column oldColumn : oldTable.getColumns()) {
+			Column column = table.getColumnByName(oldColumn.getName());
+			if (column != null) {
+				column.setConfig(oldColumn.getConfig());
+			}
+		}
+	}
+
+	/**
+	 * 获取替换后的列. 被替换的表的列对应同名新表的同名列, 其他表的列不变
+	 * 
+	 * @param column
+	 * @param removedTables
+	 * @param addedTableMap
+	 * @return 替换后的列, 所在的表被删除或列不存在时返回 null
+	 */
+	private Column getReplacedColumn(Column column, List<Table> removedTables, Map<String, Table> addedTableMap) {
+		Table table = column.getTable();
+		if (removedTables.stream().noneMatch(e -> e == table)) {
+			return column;
+		}
+		Table newTable = addedTableMap.get(table.getName());
+		return newTable == null ? null : newTable.getColumnByName(column.getName());
+	}
+
 	@Override
 	public void refreshTable(String name) {
 		Table table = schema.getTableByName(name);
-		if (table != null) {
-			schema.removeTable(table);
-		}
-		loadTable(name);
+		Table newTable = loadTable(name);
+		replaceTables(table == null ? Collections.emptyList() : Collections.singletonList(table),
+				newTable == null ? Collections.emptyList() : Collections.singletonList(newTable));
+		planCache.invalidateAll();
+		resultCache.invalidateAll();
+		totalCache.invalidateAll();
 	}
 
 	@Override
 	public void loadTableConfigFromDir(String sourceTableConfigDir) throws IOException {
 		ConfigHelper.parseSourceTableConfig(sourceTableConfigDir, this);
+		planCache.invalidateAll();
 	}
 
 }
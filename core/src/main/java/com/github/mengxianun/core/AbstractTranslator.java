@@ -2,16 +2,26 @@ package com.github.mengxianun.core;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -36,6 +46,7 @@ import com.github.mengxianun.core.permission.PermissionCheckResult;
 import com.github.mengxianun.core.permission.PermissionChecker;
 import com.github.mengxianun.core.permission.PermissionPolicy;
 import com.github.mengxianun.core.resutset.DefaultDataResultSet;
+import com.github.mengxianun.core.resutset.ErrorDataResultSet;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Strings;
 import com.google.common.io.Resources;
@@ -43,6 +54,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 public abstract class AbstractTranslator implements Translator {
 
@@ -52,6 +64,7 @@ public abstract class AbstractTranslator implements Translator {
 	protected void init(String configFile) {
 		readConfig(configFile);
 		readTableConfig(App.Config.getString(GlobalConfig.TABLE_CONFIG_PATH));
+		App.getDataContexts().values().forEach(DataContext::afterInit);
 	}
 
 	private void readConfig(String configFile) {
@@ -181,6 +194,48 @@ public abstract class AbstractTranslator implements Translator {
 		if (configurationJsonObject.has(GlobalConfig.JOIN_ON_MULTI_COLUMN)) {
 			builder.joinOnMultiColumn(configurationJsonObject.get(GlobalConfig.JOIN_ON_MULTI_COLUMN).getAsBoolean());
 		}
+		if (configurationJsonObject.has(GlobalConfig.PLAN_CACHE_SIZE)) {
+			builder.planCacheSize(configurationJsonObject.get(GlobalConfig.PLAN_CACHE_SIZE).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.RESULT_CACHE_SIZE)) {
+			builder.resultCacheSize(configurationJsonObject.get(GlobalConfig.RESULT_CACHE_SIZE).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.RESULT_CACHE_BYTES)) {
+			builder.resultCacheBytes(configurationJsonObject.get(GlobalConfig.RESULT_CACHE_BYTES).getAsLong());
+		}
+		if (configurationJsonObject.has(GlobalConfig.RESULT_CACHE_TTL)) {
+			builder.resultCacheTtl(configurationJsonObject.get(GlobalConfig.RESULT_CACHE_TTL).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.ASYNC_THREADS)) {
+			builder.asyncThreads(configurationJsonObject.get(GlobalConfig.ASYNC_THREADS).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.ASYNC_QUEUE_SIZE)) {
+			builder.asyncQueueSize(configurationJsonObject.get(GlobalConfig.ASYNC_QUEUE_SIZE).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.ASYNC_VIRTUAL_THREADS)) {
+			builder.asyncVirtualThreads(configurationJsonObject.get(GlobalConfig.ASYNC_VIRTUAL_THREADS).getAsBoolean());
+		}
+		if (configurationJsonObject.has(GlobalConfig.BATCH_CONCURRENCY)) {
+			builder.batchConcurrency(configurationJsonObject.get(GlobalConfig.BATCH_CONCURRENCY).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.WINDOW_COUNT)) {
+			builder.windowCount(configurationJsonObject.get(GlobalConfig.WINDOW_COUNT).getAsBoolean());
+		}
+		if (configurationJsonObject.has(GlobalConfig.TOTAL_CACHE_SIZE)) {
+			builder.totalCacheSize(configurationJsonObject.get(GlobalConfig.TOTAL_CACHE_SIZE).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.TOTAL_CACHE_TTL)) {
+			builder.totalCacheTtl(configurationJsonObject.get(GlobalConfig.TOTAL_CACHE_TTL).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.INSERT_BATCH_SIZE)) {
+			builder.insertBatchSize(configurationJsonObject.get(GlobalConfig.INSERT_BATCH_SIZE).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.COPY_THRESHOLD)) {
+			builder.copyThreshold(configurationJsonObject.get(GlobalConfig.COPY_THRESHOLD).getAsInt());
+		}
+		if (configurationJsonObject.has(GlobalConfig.JOIN_MAX_DEPTH)) {
+			builder.joinMaxDepth(configurationJsonObject.get(GlobalConfig.JOIN_MAX_DEPTH).getAsInt());
+		}
 		return builder.build();
 	}
 
@@ -248,6 +303,7 @@ public abstract class AbstractTranslator implements Translator {
 			DataContext dataContext = entry.getValue();
 			String sourceTableConfigDir = tableConfigPath + '/' + dataContextName;
 			ConfigHelper.parseSourceTableConfig(sourceTableConfigDir, dataContext);
+			dataContext.getPlanCache().invalidateAll();
 		}
 	}
 
@@ -280,6 +336,154 @@ public abstract class AbstractTranslator implements Translator {
 
 	@Override
 	public DataResultSet translate(String json) {
+		try {
+			NewAction newAction = parseAction(json);
+			return execute(newAction);
+		} finally {
+			// Cleans up the context of the current thread
+			App.cleanup();
+		}
+	}
+
+	@Override
+	public CompletableFuture<DataResultSet> translateAsync(String json) {
+		CompletableFuture<DataResultSet> future = new CompletableFuture<>();
+		try {
+			// 在调用线程中解析请求, 当前用户等信息可能只能在调用线程中获取
+			NewAction newAction = parseAction(json);
+			RequestContext requestContext = RequestContext.current();
+			requestContext.getDataContext().getExecutor().execute(() -> {
+				try {
+					future.complete(requestContext.call(() -> execute(newAction)));
+				} catch (Exception e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+		} finally {
+			// Cleans up the context of the current thread
+			App.cleanup();
+		}
+		return future;
+	}
+
+	@Override
+	public List<DataResultSet> translateAll(List<String> jsons) {
+		DataResultSet[] dataResultSets = new DataResultSet[jsons.size()];
+		// 在调用线程中解析全部请求, 按数据源分组
+		Map<DataContext, Queue<BatchItem>> batchItems = new LinkedHashMap<>();
+		for (int i = 0; i < jsons.size(); i++) {
+			try {
+				NewAction newAction = parseAction(jsons.get(i));
+				RequestContext requestContext = RequestContext.current();
+				batchItems.computeIfAbsent(requestContext.getDataContext(), k -> new ConcurrentLinkedQueue<>())
+						.add(new BatchItem(i, newAction, requestContext));
+			} catch (Exception e) {
+				dataResultSets[i] = createErrorResultSet(i, e);
+			} finally {
+				App.cleanup();
+			}
+		}
+		// 每个数据源启动不超过 batch_concurrency 个任务, 依次执行该数据源的请求
+		int concurrency = Math.max(App.getConfiguration().batchConcurrency(), 1);
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (Entry<DataContext, Queue<BatchItem>> entry : batchItems.entrySet()) {
+			Queue<BatchItem> queue = entry.getValue();
+			int tasks = Math.min(concurrency, queue.size());
+			for (int i = 0; i < tasks; i++) {
+				try {
+					futures.add(CompletableFuture.runAsync(() -> executeBatchItems(queue, dataResultSets),
+							entry.getKey().getExecutor()));
+				} catch (RejectedExecutionException e) {
+					logger.warn("Batch task rejected by the executor of {}", entry.getKey().getClass().getSimpleName());
+				}
+			}
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+		// 执行线程池已满时, 剩余的请求在调用线程中执行
+		for (Queue<BatchItem> queue : batchItems.values()) {
+			executeBatchItems(queue, dataResultSets);
+		}
+		return Arrays.asList(dataResultSets);
+	}
+
+	private void executeBatchItems(Queue<BatchItem> queue, DataResultSet[] dataResultSets) {
+		BatchItem batchItem;
+		while ((batchItem = queue.poll()) != null) {
+			NewAction newAction = batchItem.newAction;
+			try {
+				dataResultSets[batchItem.index] = batchItem.requestContext.call(() -> execute(newAction));
+			} catch (Exception e) {
+				dataResultSets[batchItem.index] = createErrorResultSet(batchItem.index, e);
+			}
+		}
+	}
+
+	private DataResultSet createErrorResultSet(int index, Exception e) {
+		logger.error(String.format("Batch request [%s] failed", index), e);
+		int code = ResultStatus.TRANSLATION_FAILED.code();
+		if (e instanceof DataException && ((DataException) e).getCode() != ResultStatus.SUCCESS.code()) {
+			code = ((DataException) e).getCode();
+		}
+		return new ErrorDataResultSet(code, e.getMessage());
+	}
+
+	private DataResultSet execute(NewAction newAction) {
+		// Stopwatch
+		Stopwatch stopwatch = Stopwatch.createStarted();
+
+		Summary summary = newAction.execute();
+		DataResultSet dataResultSet = new DefaultDataResultSet(summary);
+
+		// Done
+		Duration duration = stopwatch.stop().elapsed();
+
+		logger.debug("Operation completed in {} milliseconds", duration.toMillis());
+
+		return dataResultSet;
+	}
+
+	@Override
+	public void translate(String json, OutputStream out) {
+		try {
+			NewAction newAction = parseAction(json);
+
+			// Stopwatch
+			Stopwatch stopwatch = Stopwatch.createStarted();
+
+			JsonWriter writer = App.gson().newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			if (newAction instanceof Action && ((Action) newAction).isQuery() && !((Action) newAction).isFile()) {
+				newAction.getDataContext().stream((Action) newAction, writer);
+			} else {
+				DataResultSet dataResultSet = new DefaultDataResultSet(newAction.execute());
+				if (dataResultSet.isFile()) {
+					dataResultSet.getOutputStream().writeTo(out);
+				} else {
+					App.gson().toJson(dataResultSet.getData(), Object.class, writer);
+				}
+			}
+			writer.flush();
+
+			// Done
+			Duration duration = stopwatch.stop().elapsed();
+
+			logger.debug("Operation completed in {} milliseconds", duration.toMillis());
+		} catch (IOException e) {
+			throw new DataException("Result write failed", e);
+		} finally {
+			// Cleans up the context of the current thread
+			App.cleanup();
+		}
+	}
+
+	/**
+	 * 解析 JSON 请求, 设置当前线程的上下文并校验权限
+	 * 
+	 * @param json
+	 * @return NewAction
+	 */
+	private NewAction parseAction(String json) {
 		logger.debug("Request: \n{}", json);
 
 		// Sets the context of the current thread
@@ -299,27 +503,13 @@ public abstract class AbstractTranslator implements Translator {
 		DataContext dataContext = App.getDataContext(sourceName);
 		App.setCurrentDataContext(dataContext);
 
-		// Stopwatch
-		Stopwatch stopwatch = Stopwatch.createStarted();
-
 		// Permission valid
-		simpleInfo = checkPermission(simpleInfo);
+		SimpleInfo checkedSimpleInfo = checkPermission(simpleInfo);
 
-		ActionParser actionParser = ParserFactory.getActionParser(simpleInfo, dataContext);
-		NewAction newAction = actionParser.parse();
-
-		Summary summary = newAction.execute();
-		DataResultSet dataResultSet = new DefaultDataResultSet(summary);
-
-		// Done
-		Duration duration = stopwatch.stop().elapsed();
-
-		logger.debug("Operation completed in {} milliseconds", duration.toMillis());
-
-		// Cleans up the context of the current thread
-		App.cleanup();
-
-		return dataResultSet;
+		return dataContext.getPlanCache().parse(checkedSimpleInfo, () -> {
+			ActionParser actionParser = ParserFactory.getActionParser(checkedSimpleInfo, dataContext);
+			return actionParser.parse();
+		});
 	}
 
 	private SimpleInfo checkPermission(SimpleInfo simpleInfo) {
@@ -348,4 +538,19 @@ public abstract class AbstractTranslator implements Translator {
 		logger.info("All DataContext is already destroyed");
 	}
 
+	private static class BatchItem {
+
+		// 请求在批量请求中的位置
+		private final int index;
+		private final NewAction newAction;
+		private final RequestContext requestContext;
+
+		BatchItem(int index, NewAction newAction, RequestContext requestContext) {
+			this.index = index;
+			this.newAction = newAction;
+			this.requestContext = requestContext;
+		}
+
+	}
+
 }
@@ -10,6 +10,7 @@ import com.github.mengxianun.core.item.FilterItem;
 import com.github.mengxianun.core.item.GroupItem;
 import com.github.mengxianun.core.item.JoinItem;
 import com.github.mengxianun.core.item.JoinItem.SingleColumnJoinItem;
+import com.github.mengxianun.core.item.KeysetLimitItem;
 import com.github.mengxianun.core.item.LimitItem;
 import com.github.mengxianun.core.item.OrderItem;
 import com.github.mengxianun.core.item.TableItem;
@@ -17,6 +18,7 @@ import com.github.mengxianun.core.item.ValueItem;
 import com.github.mengxianun.core.request.FileType;
 import com.github.mengxianun.core.request.Operation;
 import com.github.mengxianun.core.request.Template;
+import com.github.mengxianun.core.request.TotalMode;
 import com.github.mengxianun.core.schema.Column;
 import com.github.mengxianun.core.schema.Table;
 import com.github.mengxianun.core.schema.relationship.Relationship;
@@ -34,8 +36,11 @@ public class Action extends AbstractAction {
 	private List<GroupItem> groupItems;
 	private List<OrderItem> orderItems;
 	private LimitItem limitItem;
+	private TotalMode totalMode = TotalMode.EXACT;
 	private List<List<ValueItem>> insertValueItems;
 	private List<ValueItem> updateValueItem;
+	// 新增或更新的冲突列
+	private List<Column> conflictColumns;
 	private String file;
 	private Template template;
 	private String nativeSQL;
@@ -70,6 +75,7 @@ public class Action extends AbstractAction {
 		this.orderItems = new ArrayList<>();
 		this.insertValueItems = new ArrayList<>();
 		this.updateValueItem = new ArrayList<>();
+		this.conflictColumns = new ArrayList<>();
 		handleJoinLimit = true;
 		this.tables = new ArrayList<>();
 		this.joinTables = new ArrayList<>();
@@ -191,6 +197,13 @@ public class Action extends AbstractAction {
 		this.insertValueItems.addAll(valueItems);
 	}
 
+	public void addAllConflictColumns(List<Column> columns) {
+		if (columns == null || columns.isEmpty()) {
+			return;
+		}
+		this.conflictColumns.addAll(columns);
+	}
+
 	public void addUpdateValueItem(ValueItem valueItem) {
 		if (valueItem == null) {
 			return;
@@ -237,12 +250,16 @@ public class Action extends AbstractAction {
 		return operation != null && operation == Operation.INSERT;
 	}
 
+	public boolean isUpsert() {
+		return operation != null && operation == Operation.UPSERT;
+	}
+
 	public boolean isDelete() {
 		return operation != null && operation == Operation.DELETE;
 	}
 
 	public boolean isCRUD() {
-		return isQuery() || isInsert() || isUpdate() || isDelete();
+		return isQuery() || isInsert() || isUpsert() || isUpdate() || isDelete();
 	}
 
 	public boolean isTransaction() {
@@ -285,6 +302,10 @@ public class Action extends AbstractAction {
 		return limitItem != null;
 	}
 
+	public boolean isKeyset() {
+		return limitItem instanceof KeysetLimitItem;
+	}
+
 	public boolean isJoinTable(Table join) {
 		return joinTables.contains(join);
 	}
@@ -297,6 +318,10 @@ public class Action extends AbstractAction {
 		return getPrimaryTableItem().getTable();
 	}
 
+	public List<Table> getTables() {
+		return tables;
+	}
+
 	public List<Table> getJoinTables() {
 		return joinTables;
 	}
@@ -369,6 +394,34 @@ public class Action extends AbstractAction {
 		return FileType.from(fileTypeString);
 	}
 
+	/**
+	 * 创建与当前请求结构相同的 Action, 共享表, 列, 关联, 条件等请求项, 用于执行计划缓存
+	 * 
+	 * @param limitItem
+	 *            新请求的分页项
+	 * @return Action
+	 */
+	public Action copy(LimitItem limitItem) {
+		Action copy = new Action(dataContext, operation);
+		copy.requestData = requestData;
+		copy.tableItems = tableItems;
+		copy.columnItems = columnItems;
+		copy.joinItems = joinItems;
+		copy.filterItems = filterItems;
+		copy.groupItems = groupItems;
+		copy.orderItems = orderItems;
+		copy.limitItem = limitItem;
+		copy.totalMode = totalMode;
+		copy.file = file;
+		copy.template = template;
+		copy.distinct = distinct;
+		copy.handleJoinLimit = handleJoinLimit;
+		copy.tables.addAll(tables);
+		copy.joinTables.addAll(joinTables);
+		copy.relationships.addAll(relationships);
+		return copy;
+	}
+
 	public Action count() {
 		Action count = new Action(dataContext, Operation.DETAIL);
 		count.build();
@@ -473,10 +526,22 @@ public class Action extends AbstractAction {
 		this.limitItem = limitItem;
 	}
 
+	public TotalMode getTotalMode() {
+		return totalMode;
+	}
+
+	public void setTotalMode(TotalMode totalMode) {
+		this.totalMode = totalMode;
+	}
+
 	public List<List<ValueItem>> getInsertValueItems() {
 		return insertValueItems;
 	}
 
+	public List<Column> getConflictColumns() {
+		return conflictColumns;
+	}
+
 	public List<ValueItem> getUpdateValueItem() {
 		return updateValueItem;
 	}
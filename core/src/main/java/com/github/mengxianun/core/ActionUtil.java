@@ -3,8 +3,6 @@ package com.github.mengxianun.core;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.text.RandomStringGenerator;
-
 import com.github.mengxianun.core.item.ColumnItem;
 import com.github.mengxianun.core.item.TableItem;
 import com.github.mengxianun.core.schema.Column;
@@ -13,18 +11,15 @@ import com.google.common.base.Strings;
 
 public class ActionUtil {
 
+	// 表别名前缀
+	public static final String TABLE_ALIAS_PREFIX = "t";
+	// 列别名前缀
+	public static final String COLUMN_ALIAS_PREFIX = "c";
+
 	private ActionUtil() {
 		throw new IllegalStateException("Utility class");
 	}
 
-	public static TableItem createTableItem(Table table) {
-		return new TableItem(table, createTableAlias(table, true), false);
-	}
-	
-	public static TableItem createTableItem(Table table, boolean isAlias) {
-		return new TableItem(table, createTableAlias(table, isAlias), false);
-	}
-
 	public static TableItem createTableItem(Table table, String alias) {
 		return new TableItem(table, alias, true);
 	}
@@ -35,8 +30,8 @@ public class ActionUtil {
 		String expression = tableItem.getExpression();
 		if (table != null) {
 			List<Column> columns = table.getColumns();
-			for (Column column : columns) {
-				columnItems.add(new ColumnItem(column, isAlias ? createRandomAlias() : null, false, tableItem));
+			for (int i = 0; i < columns.size(); i++) {
+				columnItems.add(new ColumnItem(columns.get(i), isAlias ? createColumnAlias(i) : null, false, tableItem));
 			}
 		} else if (!Strings.isNullOrEmpty(expression)) {
 			columnItems.add(new ColumnItem(SQLBuilder.COLUMN_ALL));
@@ -44,28 +39,26 @@ public class ActionUtil {
 		return columnItems;
 	}
 
-	public static String createTableAlias(Table table) {
-		return createTableAlias(table, true);
-	}
-
-	public static String createTableAlias(Table table, boolean isAlias) {
-		String alias = null;
-		if (isAlias) {
-			alias = createRandomAlias();
-			if (table != null) {
-				alias += "_" + table.getName();
-			}
-		}
-		return alias;
-	}
-
-	public static String createRandomAlias() {
-		return createRandomString(6);
+	/**
+	 * 根据表在请求中的位置生成别名, 如 t0, t1. 相同结构的请求生成相同的 SQL, 便于数据库和驱动缓存预编译语句
+	 * 
+	 * @param index
+	 *            表在请求中的位置
+	 * @return 表别名
+	 */
+	public static String createTableAlias(int index) {
+		return TABLE_ALIAS_PREFIX + index;
 	}
 
-	public static String createRandomString(int length) {
-		RandomStringGenerator generator = new RandomStringGenerator.Builder().withinRange('a', 'z').build();
-		return generator.generate(length);
+	/**
+	 * 根据列在请求中的位置生成别名, 如 c0, c1
+	 * 
+	 * @param index
+	 *            列在请求中的位置
+	 * @return 列别名
+	 */
+	public static String createColumnAlias(int index) {
+		return COLUMN_ALIAS_PREFIX + index;
 	}
 
 }
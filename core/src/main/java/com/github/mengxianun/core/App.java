@@ -47,8 +47,6 @@ public final class App {
 	private static final Gson gson = new GsonBuilder().serializeNulls().create();
 	private static Configuration configuration;
 	private static final Map<String, DataContext> dataContexts = new ConcurrentHashMap<>();
-	// DataContext for the current thread
-	private static final ThreadLocal<DataContext> currentDataContext = new ThreadLocal<>();
 	// AuthorizationInfo
 	private static AuthorizationInfo authorizationInfo;
 
@@ -110,6 +108,7 @@ public final class App {
 	public static void setDefaultDataSource(String name) {
 		if (hasDataContext(name)) {
 			Config.set(GlobalConfig.DEFAULT_DATASOURCE, name);
+			return;
 		}
 		throw new DataException("Data source [%s] does not exist", name);
 	}
@@ -133,11 +132,12 @@ public final class App {
 	}
 
 	public static void setCurrentDataContext(DataContext dataContext) {
-		currentDataContext.set(dataContext);
+		RequestContext.bind(RequestContext.create(dataContext));
 	}
 
 	public static DataContext currentDataContext() {
-		return currentDataContext.get();
+		RequestContext requestContext = RequestContext.current();
+		return requestContext == null ? null : requestContext.getDataContext();
 	}
 
 	public static String getSource(Schema schema) {
@@ -280,7 +280,7 @@ public final class App {
 	}
 
 	public static void cleanup() {
-		currentDataContext.remove();
+		RequestContext.clear();
 	}
 
 	public static class Config {
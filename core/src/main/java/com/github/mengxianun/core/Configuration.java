@@ -14,6 +14,17 @@ public abstract class Configuration {
 	private static final String DEFAULT_CONFIG_FILE = "air.json";
 	private static final String DEFAULT_TABLE_CONFIG_PATH = "tables";
 	private static final String DEFAULT_ASSOCIATION_CONNECTOR = "__";
+	public static final int DEFAULT_PLAN_CACHE_SIZE = 1000;
+	private static final long DEFAULT_RESULT_CACHE_BYTES = 64L * 1024 * 1024;
+	private static final int DEFAULT_RESULT_CACHE_TTL = 60;
+	public static final int DEFAULT_ASYNC_THREADS = 16;
+	public static final int DEFAULT_ASYNC_QUEUE_SIZE = 1000;
+	public static final int DEFAULT_BATCH_CONCURRENCY = 4;
+	public static final int DEFAULT_TOTAL_CACHE_SIZE = 1000;
+	public static final int DEFAULT_TOTAL_CACHE_TTL = 60;
+	public static final int DEFAULT_INSERT_BATCH_SIZE = 1000;
+	public static final int DEFAULT_COPY_THRESHOLD = 10000;
+	public static final int DEFAULT_JOIN_MAX_DEPTH = 6;
 
 	public abstract String configFile();
 
@@ -43,12 +54,47 @@ public abstract class Configuration {
 
 	public abstract boolean joinOnMultiColumn();
 
+	public abstract int planCacheSize();
+
+	public abstract int resultCacheSize();
+
+	public abstract long resultCacheBytes();
+
+	public abstract int resultCacheTtl();
+
+	public abstract int asyncThreads();
+
+	public abstract int asyncQueueSize();
+
+	public abstract boolean asyncVirtualThreads();
+
+	public abstract int batchConcurrency();
+
+	public abstract boolean windowCount();
+
+	public abstract int totalCacheSize();
+
+	public abstract int totalCacheTtl();
+
+	public abstract int insertBatchSize();
+
+	public abstract int copyThreshold();
+
+	public abstract int joinMaxDepth();
+
 	public static Builder builder() {
 		return new AutoValue_Configuration.Builder().configFile(DEFAULT_CONFIG_FILE).sqlEnabled(false)
 				.nativeEnabled(false)
 				.tableConfigPath(DEFAULT_TABLE_CONFIG_PATH).associationConnector(DEFAULT_ASSOCIATION_CONNECTOR)
 				.permissionPolicy(PermissionPolicy.ALLOW_ALL).columnConfigInfos(Collections.emptyMap())
-				.metadataRefreshPolicy(RefreshPolicy.NEVER).metadataRefreshInterval(-1).joinOnMultiColumn(false);
+				.metadataRefreshPolicy(RefreshPolicy.NEVER).metadataRefreshInterval(-1).joinOnMultiColumn(false)
+				.planCacheSize(DEFAULT_PLAN_CACHE_SIZE).resultCacheSize(0).resultCacheBytes(DEFAULT_RESULT_CACHE_BYTES)
+				.resultCacheTtl(DEFAULT_RESULT_CACHE_TTL).asyncThreads(DEFAULT_ASYNC_THREADS)
+				.asyncQueueSize(DEFAULT_ASYNC_QUEUE_SIZE).asyncVirtualThreads(false)
+				.batchConcurrency(DEFAULT_BATCH_CONCURRENCY).windowCount(false)
+				.totalCacheSize(DEFAULT_TOTAL_CACHE_SIZE).totalCacheTtl(DEFAULT_TOTAL_CACHE_TTL)
+				.insertBatchSize(DEFAULT_INSERT_BATCH_SIZE).copyThreshold(DEFAULT_COPY_THRESHOLD)
+				.joinMaxDepth(DEFAULT_JOIN_MAX_DEPTH);
 	}
 
 	@AutoValue.Builder
@@ -80,6 +126,34 @@ public abstract class Configuration {
 
 		public abstract Builder joinOnMultiColumn(boolean joinOnMultiColumn);
 
+		public abstract Builder planCacheSize(int planCacheSize);
+
+		public abstract Builder resultCacheSize(int resultCacheSize);
+
+		public abstract Builder resultCacheBytes(long resultCacheBytes);
+
+		public abstract Builder resultCacheTtl(int resultCacheTtl);
+
+		public abstract Builder asyncThreads(int asyncThreads);
+
+		public abstract Builder asyncQueueSize(int asyncQueueSize);
+
+		public abstract Builder asyncVirtualThreads(boolean asyncVirtualThreads);
+
+		public abstract Builder batchConcurrency(int batchConcurrency);
+
+		public abstract Builder windowCount(boolean windowCount);
+
+		public abstract Builder totalCacheSize(int totalCacheSize);
+
+		public abstract Builder totalCacheTtl(int totalCacheTtl);
+
+		public abstract Builder insertBatchSize(int insertBatchSize);
+
+		public abstract Builder copyThreshold(int copyThreshold);
+
+		public abstract Builder joinMaxDepth(int joinMaxDepth);
+
 		public abstract Configuration build();
 	}
 
@@ -1,16 +1,24 @@
 package com.github.mengxianun.core;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 
+import com.github.mengxianun.core.cache.ResultCache;
+import com.github.mengxianun.core.cache.TotalCache;
 import com.github.mengxianun.core.config.AssociationType;
 import com.github.mengxianun.core.data.Summary;
 import com.github.mengxianun.core.data.summary.MultiSummary;
+import com.github.mengxianun.core.plan.PlanCache;
 import com.github.mengxianun.core.schema.Column;
 import com.github.mengxianun.core.schema.Schema;
 import com.github.mengxianun.core.schema.Table;
 import com.github.mengxianun.core.schema.relationship.Relationship;
 import com.github.mengxianun.core.schema.relationship.RelationshipPath;
+import com.google.gson.stream.JsonWriter;
 
 public interface DataContext {
 
@@ -18,6 +26,14 @@ public interface DataContext {
 
 	public MultiSummary execute(NewAction... actions);
 
+	/**
+	 * 执行查询, 并将结果逐行写入 JsonWriter
+	 * 
+	 * @param action
+	 * @param writer
+	 */
+	public void stream(Action action, JsonWriter writer);
+
 	public Summary executeSql(String sql);
 
 	public Summary executeNative(String statement);
@@ -42,6 +58,24 @@ public interface DataContext {
 	 */
 	public Table loadTable(String name);
 
+	/**
+	 * 按数据源元数据的顺序读取 [start, end) 范围内的表名, 不加载表结构
+	 * 
+	 * @param start
+	 * @param end
+	 * @return 表名
+	 */
+	public List<String> loadTableNames(long start, long end);
+
+	/**
+	 * 获取 Schema 信息, 只包含 [start, end) 范围内的表. end 小于 0 时包含所有表
+	 * 
+	 * @param start
+	 * @param end
+	 * @return Schema 信息
+	 */
+	public Map<String, Object> getSchemaInfo(long start, long end);
+
 	/**
 	 * Get columns by table name or table alias and column name or column alias
 	 * 
@@ -55,6 +89,34 @@ public interface DataContext {
 
 	public SQLBuilder getSQLBuilder(Action action);
 
+	/**
+	 * 执行计划缓存
+	 * 
+	 * @return PlanCache
+	 */
+	public PlanCache getPlanCache();
+
+	/**
+	 * 查询结果缓存
+	 * 
+	 * @return ResultCache
+	 */
+	public ResultCache getResultCache();
+
+	/**
+	 * 分页查询总数缓存
+	 * 
+	 * @return TotalCache
+	 */
+	public TotalCache getTotalCache();
+
+	/**
+	 * 异步请求的执行线程池
+	 * 
+	 * @return ExecutorService
+	 */
+	public ExecutorService getExecutor();
+
 	public void destroy();
 
 	public boolean addRelationship(Column primaryColumn, Column foreignColumn, AssociationType associationType);
@@ -70,7 +132,7 @@ public interface DataContext {
 	public Set<RelationshipPath> getRelationships(String primaryTable, String foreignTable);
 
 	/**
-	 * 获取2个表的关联关系, 包含所有可能的路径
+	 * 获取2个表的关联关系, 包含长度不超过 join_max_depth 的所有路径
 	 * 
 	 * <pre>
 	 * <li>TableA  TableB  TableC  TableD
@@ -97,11 +159,31 @@ public interface DataContext {
 	public Set<RelationshipPath> getRelationships(Table primaryTable, Table foreignTable);
 
 	/**
-	 * 获取2个表的关联关系类型. 多层关联的情况下, 以多的一端为最终关系. 如 A 一对多 B, B 多对一 C, 则 A 一对多 C
+	 * 获取2个表之间的最短关联关系路径, 路径长度超过 join_max_depth 时返回空集合. 按层查找, 不枚举所有路径
 	 * 
 	 * @param primaryTable
 	 * @param foreignTable
-	 * @return AssociationType
+	 * @return Shortest relation paths
+	 */
+	public Set<RelationshipPath> getShortestRelationships(Table primaryTable, Table foreignTable);
+
+	/**
+	 * 获取2个表之间, 中间表都满足条件的关联关系路径, 路径长度不超过 join_max_depth
+	 * 
+	 * @param primaryTable
+	 * @param foreignTable
+	 * @param viaTable
+	 *            中间表的条件
+	 * @return Relation paths
+	 */
+	public Set<RelationshipPath> getRelationships(Table primaryTable, Table foreignTable, Predicate<Table> viaTable);
+
+	/**
+	 * 获取2个表的关联关系类型. 多层关联的情况下, 以多的一端为最终关系. 如 A 一对多 B, B 多对一 C, 则 A 一对多 C. 按最短关联关系路径计算
+	 * 
+	 * @param primaryTable
+	 * @param foreignTable
+	 * @return AssociationType, 不存在长度不超过 join_max_depth 的关联关系路径时返回 null
 	 */
 	public AssociationType getAssociationType(Table primaryTable, Table foreignTable);
 
@@ -119,4 +201,9 @@ public interface DataContext {
 
 	public void loadTableConfigFromDir(String sourceTableConfigDir) throws IOException;
 
+	/**
+	 * 初始化完成后调用, 此时表配置和关联关系都已加载. 依赖完整初始化状态的后台任务在这里开始
+	 */
+	public void afterInit();
+
 }
@@ -1,6 +1,7 @@
 package com.github.mengxianun.core;
 
 import com.github.mengxianun.core.dialect.Function;
+import com.github.mengxianun.core.dialect.UpsertSyntax;
 import com.github.mengxianun.core.request.Operator;
 import com.github.mengxianun.core.schema.ColumnType;
 import com.google.gson.JsonElement;
@@ -60,9 +61,9 @@ public interface Dialect {
 	}
 
 	/**
-	 * 在表或列未指定别名的情况下, 是否生成随机别名
+	 * 在表或列未指定别名的情况下, 是否按位置生成别名(如 t0, c0)
 	 * 
-	 * @return 是否生成随机别名
+	 * @return 是否生成别名
 	 */
 	default boolean randomAliasEnabled() {
 		return true;
@@ -96,6 +97,33 @@ public interface Dialect {
 		return 1;
 	}
 
+	/**
+	 * 是否支持 COUNT(*) OVER() 窗口函数, 支持时分页查询可以在同一条语句中返回总数
+	 * 
+	 * @return 是否支持窗口函数计数
+	 */
+	default boolean windowCountEnabled() {
+		return false;
+	}
+
+	/**
+	 * 是否支持一条 INSERT 语句新增多条记录, 如 INSERT INTO t(a) VALUES(?), (?)
+	 * 
+	 * @return 是否支持多行 VALUES
+	 */
+	default boolean multiValuesInsertEnabled() {
+		return false;
+	}
+
+	/**
+	 * 新增或更新(upsert)语句的语法
+	 * 
+	 * @return 新增或更新的语法, 不支持时返回 null
+	 */
+	default UpsertSyntax upsertSyntax() {
+		return null;
+	}
+
 	public boolean hasFunction(String func);
 
 	public Function getFunction(String func);
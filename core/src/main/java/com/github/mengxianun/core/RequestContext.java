@@ -0,0 +1,74 @@
+package com.github.mengxianun.core;
+
+import java.util.function.Supplier;
+
+import com.github.mengxianun.core.permission.AuthorizationInfo;
+
+/**
+ * 请求上下文, 保存一次请求的数据源和当前用户.
+ * <p>
+ * 上下文在解析请求的线程中创建, 异步执行时通过 {@link #call(Supplier)} 绑定到执行线程, 请求可以在线程之间切换.
+ *
+ * @author mengxiangyun
+ *
+ */
+public final class RequestContext {
+
+	private static final ThreadLocal<RequestContext> current = new ThreadLocal<>();
+
+	private final DataContext dataContext;
+	// 创建上下文时的当前用户, 执行线程中可能无法获取
+	private final Object userId;
+
+	private RequestContext(DataContext dataContext, Object userId) {
+		this.dataContext = dataContext;
+		this.userId = userId;
+	}
+
+	public static RequestContext create(DataContext dataContext) {
+		AuthorizationInfo authorizationInfo = App.getAuthorizationInfo();
+		Object userId = authorizationInfo == null ? null : authorizationInfo.getUserId();
+		return new RequestContext(dataContext, userId);
+	}
+
+	public static RequestContext current() {
+		return current.get();
+	}
+
+	public static void bind(RequestContext requestContext) {
+		current.set(requestContext);
+	}
+
+	public static void clear() {
+		current.remove();
+	}
+
+	/**
+	 * 在当前线程中以该上下文执行, 执行完成后恢复线程原来的上下文
+	 *
+	 * @param supplier
+	 * @return 执行结果
+	 */
+	public <T> T call(Supplier<T> supplier) {
+		RequestContext previous = current.get();
+		current.set(this);
+		try {
+			return supplier.get();
+		} finally {
+			if (previous == null) {
+				current.remove();
+			} else {
+				current.set(previous);
+			}
+		}
+	}
+
+	public DataContext getDataContext() {
+		return dataContext;
+	}
+
+	public Object getUserId() {
+		return userId;
+	}
+
+}
@@ -1,13 +1,15 @@
 package com.github.mengxianun.core;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import com.github.mengxianun.core.dialect.UpsertSyntax;
 import com.github.mengxianun.core.exception.DataException;
 import com.github.mengxianun.core.item.ColumnItem;
 import com.github.mengxianun.core.item.FilterItem;
@@ -22,14 +24,17 @@ import com.github.mengxianun.core.item.TableItem;
 import com.github.mengxianun.core.item.ValueItem;
 import com.github.mengxianun.core.item.extension.StatementFilterItem;
 import com.github.mengxianun.core.item.extension.StatementValueFilterItem;
+import com.github.mengxianun.core.plan.ParamSource;
 import com.github.mengxianun.core.request.Connector;
 import com.github.mengxianun.core.request.JoinType;
 import com.github.mengxianun.core.request.Operator;
 import com.github.mengxianun.core.request.Order;
+import com.github.mengxianun.core.request.TotalMode;
 import com.github.mengxianun.core.schema.Column;
 import com.github.mengxianun.core.schema.Schema;
 import com.github.mengxianun.core.schema.Table;
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 
 public class SQLBuilder {
 
@@ -53,15 +58,20 @@ public class SQLBuilder {
 	public static final String DELIM_AND = " AND ";
 	public static final String DELIM_OR = " OR ";
 	public static final String COUNT = " COUNT(*) ";
+	public static final String WINDOW_COUNT = "COUNT(*) OVER()";
+	public static final String WINDOW_COUNT_ALIAS = "window_count";
 	public static final String COLUMN_ALL = "*";
 	public static final String DISTINCT = " DISTINCT ";
 	// 字段别名关联字符串
 	public static final String ALIAS_KEY = " AS ";
 
 	public static final String PREFIX_INSERT_INTO = "INSERT INTO ";
+	public static final String PREFIX_MERGE_INTO = "MERGE INTO ";
 	public static final String PREFIX_UPDATE = "UPDATE ";
 	public static final String UPDATE_SET = " SET ";
 	public static final String PREFIX_DELETE_FROM = "DELETE FROM ";
+	// 单条新增语句的最大参数数量
+	public static final int MAX_INSERT_PARAMS = 32767;
 
 	public static final Pattern FUNCTION_PATTERN = Pattern.compile("\\$(?<func>[^$()]*)\\((?<args>[^$()]*)\\)");
 	// matcher's pattern name
@@ -79,6 +89,9 @@ public class SQLBuilder {
 	protected String sql;
 	protected List<Object> params = new ArrayList<>();
 	protected List<Object> whereParams = new ArrayList<>();
+	// 参数来源, key 为参数的位置. 用于执行计划缓存重新绑定参数, 不在其中的参数为常量
+	protected Map<Integer, ParamSource> paramSources = new HashMap<>();
+	protected Map<Integer, ParamSource> whereParamSources = new HashMap<>();
 	// 关联分页查询的情况, SQL 语句构建做特殊处理
 	protected boolean joinLimit;
 	protected List<FilterItem> joinLimitFilterItems = new ArrayList<>();
@@ -91,6 +104,8 @@ public class SQLBuilder {
 	protected String orderString = "";
 	protected String limitString = "";
 	protected String valueString = "";
+	// 两阶段关联分页第二阶段的 SQL, 不包含主键的参数占位符
+	protected String fetchString = "";
 
 	public SQLBuilder(Action action) {
 		this.action = action;
@@ -101,7 +116,7 @@ public class SQLBuilder {
 	public void toSql() {
 		if (action.isQuery()) {
 			toSelect();
-		} else if (action.isInsert()) {
+		} else if (action.isInsert() || action.isUpsert()) {
 			toInsert();
 		} else if (action.isUpdate()) {
 			toUpdate();
@@ -111,8 +126,15 @@ public class SQLBuilder {
 	}
 
 	public void toSelect() {
+		if (isJoinKeyLimit()) {
+			toJoinKeySelect();
+			return;
+		}
 		StringBuilder sqlBuilder = new StringBuilder();
 		sqlBuilder.append(toColumns());
+		if (isWindowCount()) {
+			sqlBuilder.append(DELIM_COMMA).append(WINDOW_COUNT).append(ALIAS_KEY).append(WINDOW_COUNT_ALIAS);
+		}
 		sqlBuilder.append(toSelectTables());
 		sqlBuilder.append(toJoins());
 		sqlBuilder.append(toWhere());
@@ -122,6 +144,54 @@ public class SQLBuilder {
 		sql = sqlBuilder.toString();
 	}
 
+	/**
+	 * 关联分页查询分两个阶段执行. 第一阶段只查询当前页主表记录的主键, 条件和排序与原查询相同; 第二阶段通过主键查询关联后的全部记录,
+	 * SQL 通过 {@link #toFetchSql(int)} 获取. 避免对主表全部列去重
+	 */
+	public void toJoinKeySelect() {
+		toColumns();
+		toSelectTables();
+		toJoins();
+		toWhere();
+		ColumnItem keyColumnItem = getKeyColumnItem();
+		String keyColumnString = spliceColumn(keyColumnItem);
+		// 第二阶段
+		StringBuilder fetchBuilder = new StringBuilder(columnString).append(tableString).append(joinString)
+				.append(PREFIX_WHERE);
+		if (!whereString.isEmpty()) {
+			fetchBuilder.append("(").append(whereString.substring(PREFIX_WHERE.length())).append(") AND ");
+		}
+		fetchString = fetchBuilder.append(keyColumnString).append(" IN (").toString();
+		// 第一阶段, 去重时排序列需要包含在查询列中
+		List<String> keyColumnStrings = new ArrayList<>();
+		keyColumnStrings.add(keyColumnString);
+		for (OrderItem orderItem : action.getOrderItems()) {
+			String orderColumnString = spliceColumn(orderItem.getColumnItem());
+			if (!keyColumnStrings.contains(orderColumnString)) {
+				keyColumnStrings.add(orderColumnString);
+			}
+		}
+		StringBuilder sqlBuilder = new StringBuilder(PREFIX_SELECT_DISTINCT);
+		sqlBuilder.append(String.join(", ", keyColumnStrings));
+		sqlBuilder.append(tableString);
+		sqlBuilder.append(joinString);
+		sqlBuilder.append(whereString);
+		sqlBuilder.append(toOrders());
+		sqlBuilder.append(toLimit());
+		sql = sqlBuilder.toString();
+	}
+
+	/**
+	 * 两阶段关联分页第二阶段的 SQL, 参数为 {@link #countParams()} 加上第一阶段查询到的主键
+	 * 
+	 * @param keySize
+	 *            主键数量
+	 * @return SQL
+	 */
+	public String toFetchSql(int keySize) {
+		return fetchString + "?" + Strings.repeat(",?", keySize - 1) + ")";
+	}
+
 	public void toInsert() {
 		StringBuilder sqlBuilder = new StringBuilder();
 		sqlBuilder.append(toInsertTable());
@@ -186,7 +256,8 @@ public class SQLBuilder {
 			////////////////////////////////////////////
 			// join 和 limit 同时存在时, 并且存在一对多或多对多的情况下, 分页会出问题.
 			// 这里将主表作为基础表(子查询), 进行Inner Join.
-			if (action.isJoin() && action.isLimit() && !action.isGroup() && action.isHandleJoinLimit()) {
+			if (action.isJoin() && action.isLimit() && !action.isGroup() && action.isHandleJoinLimit()
+					&& !isJoinKeyLimit()) {
 				tablesBuilder.append(toJoinLimit(tableItem));
 			}
 			comma = true;
@@ -234,7 +305,7 @@ public class SQLBuilder {
 
 		// splice join string
 		String joinTable = "(" + innerSQL + ")";
-		String joinTableAlias = ActionUtil.createTableAlias(tableItem.getTable());
+		String joinTableAlias = "limit_" + originalTableAlias;
 		String leftTableString = originalTableAlias;
 		String rightTableString = joinTableAlias;
 		Column joinColumn = (!table.getPrimaryKeys().isEmpty() ? table.getPrimaryKeys() : table.getColumns()).get(0);
@@ -349,14 +420,7 @@ public class SQLBuilder {
 		StringBuilder whereBuilder = new StringBuilder(PREFIX_WHERE);
 		boolean first = true;
 		for (FilterItem filterItem : filterItems) {
-			String filterSql = null;
-			if (filterItem instanceof StatementValueFilterItem) {
-				filterSql = toStatementValueFilter((StatementValueFilterItem) filterItem, assignTableAlias);
-			} else if (filterItem instanceof StatementFilterItem) {
-				filterSql = toStatementFilter((StatementFilterItem) filterItem);
-			} else {
-				filterSql = toFilter(filterItem, assignTableAlias);
-			}
+			String filterSql = toFilterSql(filterItem, assignTableAlias);
 			if (first) {
 				// 去掉开头的连接符
 				filterSql = deleteFirstConnector(filterSql, filterItem.getConnector());
@@ -367,6 +431,15 @@ public class SQLBuilder {
 		return whereBuilder.toString();
 	}
 
+	private String toFilterSql(FilterItem filterItem, boolean assignTableAlias) {
+		if (filterItem instanceof StatementValueFilterItem) {
+			return toStatementValueFilter((StatementValueFilterItem) filterItem, assignTableAlias);
+		} else if (filterItem instanceof StatementFilterItem) {
+			return toStatementFilter((StatementFilterItem) filterItem);
+		}
+		return toFilter(filterItem, assignTableAlias);
+	}
+
 	public String toFilter(FilterItem filterItem, boolean assignTableAlias) {
 		StringBuilder filterBuilder = new StringBuilder();
 		filterBuilder.append(" ").append(filterItem.getConnector()).append(" ");
@@ -374,7 +447,7 @@ public class SQLBuilder {
 		List<FilterItem> subFilterItems = filterItem.getSubFilterItems();
 		if (!subFilterItems.isEmpty()) {
 			StringBuilder subFilterBuilder = new StringBuilder();
-			subFilterItems.forEach(f -> subFilterBuilder.append(toFilter(f, assignTableAlias)));
+			subFilterItems.forEach(f -> subFilterBuilder.append(toFilterSql(f, assignTableAlias)));
 			// 去掉开头的连接符
 			String subFilterSql = deleteFirstConnector(subFilterBuilder.toString(),
 					subFilterItems.get(0).getConnector());
@@ -406,17 +479,16 @@ public class SQLBuilder {
 		case LIKE:
 		case NOT_LIKE:
 			filterBuilder.append(operator.sql()).append(" ?");
-			params.add(value);
-			whereParams.add(value);
+			addFilterParam(ParamSource.filter(filterItem), value);
 			break;
 		case IN:
 		case NOT_IN:
 			Object[] inValue = (Object[]) value;
 			filterBuilder.append(operator.sql()).append(" (?").append(Strings.repeat(",?", inValue.length - 1))
 					.append(")");
-			List<Object> inValueList = Arrays.asList(inValue);
-			params.addAll(inValueList);
-			whereParams.addAll(inValueList);
+			for (int i = 0; i < inValue.length; i++) {
+				addFilterParam(ParamSource.filter(filterItem, i), inValue[i]);
+			}
 			break;
 		case IN_SQL:
 		case NOT_IN_SQL:
@@ -424,9 +496,10 @@ public class SQLBuilder {
 			break;
 		case BETWEEN:
 			filterBuilder.append("between ? and ?");
-			List<Object> betweenValueList = Arrays.asList((Object[]) value);
-			params.addAll(betweenValueList);
-			whereParams.addAll(betweenValueList);
+			Object[] betweenValue = (Object[]) value;
+			for (int i = 0; i < betweenValue.length; i++) {
+				addFilterParam(ParamSource.filter(filterItem, i), betweenValue[i]);
+			}
 			break;
 		case NULL:
 		case NOT_NULL:
@@ -440,6 +513,13 @@ public class SQLBuilder {
 		return filterBuilder.toString();
 	}
 
+	private void addFilterParam(ParamSource paramSource, Object value) {
+		paramSources.put(params.size(), paramSource);
+		params.add(value);
+		whereParamSources.put(whereParams.size(), paramSource);
+		whereParams.add(value);
+	}
+
 	public String toStatementValueFilter(StatementValueFilterItem filterItem, boolean assignTableAlias) {
 		StringBuilder filterBuilder = new StringBuilder();
 		filterBuilder.append(" ").append(filterItem.getConnector()).append(" ");
@@ -548,46 +628,149 @@ public class SQLBuilder {
 		if (limitItem == null) {
 			return "";
 		}
+		paramSources.put(params.size(), ParamSource.LIMIT);
 		params.add(limitItem.getLimit());
+		paramSources.put(params.size(), ParamSource.START);
 		params.add(limitItem.getStart());
 		limitString = new StringBuilder().append(LIMIT).append("?").append(OFFSET).append("?").toString();
 		return limitString;
 	}
 
 	public String toInsertTable() {
-		StringBuilder tableBuilder = new StringBuilder(PREFIX_INSERT_INTO);
+		String prefix = PREFIX_INSERT_INTO;
+		if (action.isUpsert()) {
+			UpsertSyntax upsertSyntax = dialect.upsertSyntax();
+			if (upsertSyntax == null) {
+				throw new DataException("Upsert is not supported by [%s]", dialect.getType());
+			}
+			if (upsertSyntax == UpsertSyntax.MERGE) {
+				prefix = PREFIX_MERGE_INTO;
+			}
+		}
+		StringBuilder tableBuilder = new StringBuilder(prefix);
 		tableBuilder.append(spliceTable(action.getPrimaryTable()));
 		return tableString = tableBuilder.toString();
 
 	}
 
 	public String toInsertValues() {
+		List<ValueItem> valueItems = action.getInsertValueItems().get(0);
+		List<Column> columns = valueItems.stream().map(ValueItem::getColumn).collect(Collectors.toList());
+		params.addAll(toInsertParams(valueItems));
+		return valueString = toInsertHead(columns) + toInsertPlaceholders(columns) + toUpsertUpdate(columns);
+	}
+
+	/**
+	 * 批量新增的 SQL. 连续的列相同的记录使用同一条语句, 数据库支持多行 VALUES 时每条语句新增多条记录, 否则每条记录作为批处理的一组参数
+	 * 
+	 * @param batchSize
+	 *            每条语句最多新增的记录数
+	 * @return 批量新增的语句
+	 */
+	public List<InsertBatch> toInsertBatches(int batchSize) {
+		String insertTable = toInsertTable();
 		List<List<ValueItem>> insertValueItems = action.getInsertValueItems();
-		List<ValueItem> valueItems = insertValueItems.get(0);
-		StringBuilder valuesBuilder = new StringBuilder();
-		StringBuilder tempColumnsBuilder = new StringBuilder("(");
-		StringBuilder tempValuesBuilder = new StringBuilder(" VALUES(");
-		boolean comma = false;
-		for (ValueItem valueItem : valueItems) {
-			if (comma) {
-				tempColumnsBuilder.append(", ");
-				tempValuesBuilder.append(", ");
+		List<InsertBatch> batches = new ArrayList<>();
+		int from = 0;
+		while (from < insertValueItems.size()) {
+			List<Column> columns = insertValueItems.get(from).stream().map(ValueItem::getColumn)
+					.collect(Collectors.toList());
+			int to = from + 1;
+			while (to < insertValueItems.size() && columns.equals(insertValueItems.get(to).stream()
+					.map(ValueItem::getColumn).collect(Collectors.toList()))) {
+				to++;
 			}
-			Column column = valueItem.getColumn();
-			Object value = valueItem.getRealValue();
-			tempColumnsBuilder.append(process(column.getName()));
-			if (column.getType().isJson()) {
-				tempValuesBuilder.append(dialect.getJsonPlaceholder());
+			String prefix = insertTable + toInsertHead(columns);
+			String suffix = toUpsertUpdate(columns);
+			String placeholders = toInsertPlaceholders(columns);
+			List<List<ValueItem>> rows = insertValueItems.subList(from, to);
+			if (dialect.multiValuesInsertEnabled() && rows.size() > 1) {
+				// 单条语句的参数数量有上限
+				int rowsPerStatement = Math.max(Math.min(batchSize, MAX_INSERT_PARAMS / Math.max(columns.size(), 1)), 1);
+				for (List<List<ValueItem>> statementRows : Lists.partition(rows, rowsPerStatement)) {
+					List<Object> statementParams = new ArrayList<>();
+					statementRows.forEach(e -> statementParams.addAll(toInsertParams(e)));
+					String sql = prefix + placeholders + Strings.repeat(", " + placeholders, statementRows.size() - 1)
+							+ suffix;
+					batches.add(new InsertBatch(sql, Collections.singletonList(statementParams.toArray())));
+				}
 			} else {
-				tempValuesBuilder.append("?");
+				List<Object[]> batchParams = rows.stream().map(e -> toInsertParams(e).toArray())
+						.collect(Collectors.toList());
+				batches.add(new InsertBatch(prefix + placeholders + suffix, batchParams));
 			}
-			params.add(processColumnValue(column, value));
-			comma = true;
+			from = to;
 		}
-		tempColumnsBuilder.append(")");
-		tempValuesBuilder.append(")");
-		valuesBuilder.append(tempColumnsBuilder).append(tempValuesBuilder);
-		return valueString = valuesBuilder.toString();
+		return batches;
+	}
+
+	/**
+	 * 新增语句 VALUES 之前的部分, MERGE 语法在 VALUES 之前指定冲突列
+	 * 
+	 * @param columns
+	 *            新增列
+	 * @return (column, ...) [KEY (column, ...)] VALUES
+	 */
+	private String toInsertHead(List<Column> columns) {
+		String head = toInsertColumns(columns);
+		if (action.isUpsert() && dialect.upsertSyntax() == UpsertSyntax.MERGE) {
+			head += " KEY " + toInsertColumns(action.getConflictColumns());
+		}
+		return head + " VALUES";
+	}
+
+	/**
+	 * 新增或更新时发生冲突的记录更新除冲突列之外的新增列
+	 * 
+	 * @param columns
+	 *            新增列
+	 * @return ON CONFLICT/ON DUPLICATE KEY 子句
+	 */
+	private String toUpsertUpdate(List<Column> columns) {
+		if (!action.isUpsert()) {
+			return "";
+		}
+		List<Column> conflictColumns = action.getConflictColumns();
+		List<String> updateColumns = columns.stream()
+				.filter(e -> conflictColumns.stream().noneMatch(c -> c.getName().equalsIgnoreCase(e.getName())))
+				.map(e -> process(e.getName())).collect(Collectors.toList());
+		switch (dialect.upsertSyntax()) {
+		case ON_CONFLICT:
+			String conflict = " ON CONFLICT " + toInsertColumns(conflictColumns);
+			if (updateColumns.isEmpty()) {
+				return conflict + " DO NOTHING";
+			}
+			return conflict + " DO UPDATE SET "
+					+ updateColumns.stream().map(e -> e + " = EXCLUDED." + e).collect(Collectors.joining(DELIM_COMMA));
+		case ON_DUPLICATE_KEY:
+			// 没有需要更新的列时, 将第一列更新为原值, 忽略冲突的记录
+			if (updateColumns.isEmpty()) {
+				String column = process(columns.get(0).getName());
+				return " ON DUPLICATE KEY UPDATE " + column + " = " + column;
+			}
+			return " ON DUPLICATE KEY UPDATE "
+					+ updateColumns.stream().map(e -> e + " = VALUES(" + e + ")").collect(Collectors.joining(DELIM_COMMA));
+
+		default:
+			return "";
+		}
+	}
+
+	private String toInsertColumns(List<Column> columns) {
+		return columns.stream().map(e -> process(e.getName())).collect(Collectors.joining(", ", "(", ")"));
+	}
+
+	private String toInsertPlaceholders(List<Column> columns) {
+		return columns.stream().map(e -> e.getType().isJson() ? dialect.getJsonPlaceholder() : "?")
+				.collect(Collectors.joining(", ", "(", ")"));
+	}
+
+	private List<Object> toInsertParams(List<ValueItem> valueItems) {
+		List<Object> insertParams = new ArrayList<>(valueItems.size());
+		for (ValueItem valueItem : valueItems) {
+			insertParams.add(processColumnValue(valueItem.getColumn(), valueItem.getRealValue()));
+		}
+		return insertParams;
 	}
 
 	public String toUpdateTable() {
@@ -847,6 +1030,93 @@ public class SQLBuilder {
 		return countSql.toString();
 	}
 
+	/**
+	 * 分页查询是否在查询结果的最后一列通过 COUNT(*) OVER() 返回总数. 窗口函数在 DISTINCT 之前计算, 只有查询结果的行数与总数一致时才可以使用
+	 * 
+	 * @return 是否使用窗口函数计数
+	 */
+	public boolean isWindowCount() {
+		if (!action.isLimit() || action.isKeyset() || action.getTotalMode() != TotalMode.EXACT
+				|| !dialect.windowCountEnabled()) {
+			return false;
+		}
+		Configuration configuration = App.getConfiguration();
+		if (configuration == null || !configuration.windowCount()) {
+			return false;
+		}
+		return isRowCountExact();
+	}
+
+	/**
+	 * 查询结果的行数是否与 {@link #countSql()} 的结果一致: 非关联查询, 并且是非去重的分组查询, 或者查询了主表的全部主键
+	 * 
+	 * @return 行数是否与总数一致
+	 */
+	public boolean isRowCountExact() {
+		if (action.isJoin()) {
+			return false;
+		}
+		if (action.isGroup()) {
+			return !action.isDistinct();
+		}
+		Table primaryTable = action.getPrimaryTable();
+		if (primaryTable == null || primaryTable.getPrimaryKeys().isEmpty()) {
+			return false;
+		}
+		List<ColumnItem> columnItems = action.getColumnItems();
+		if (columnItems.isEmpty()) {
+			return true;
+		}
+		List<Column> columns = columnItems.stream().map(ColumnItem::getColumn).collect(Collectors.toList());
+		return columns.containsAll(primaryTable.getPrimaryKeys());
+	}
+
+	/**
+	 * 关联分页查询是否分两个阶段执行: 主表只有一个主键且主键包含在查询列中, 排序列都是主表的列
+	 * 
+	 * @return 是否两阶段分页
+	 * @see #toJoinKeySelect()
+	 */
+	public boolean isJoinKeyLimit() {
+		if (!action.isJoin() || !action.isLimit() || action.isGroup() || !action.isHandleJoinLimit()) {
+			return false;
+		}
+		Table primaryTable = action.getPrimaryTable();
+		if (primaryTable == null || primaryTable.getPrimaryKeys().size() != 1 || getKeyColumnItem() == null) {
+			return false;
+		}
+		TableItem primaryTableItem = action.getPrimaryTableItem();
+		for (OrderItem orderItem : action.getOrderItems()) {
+			ColumnItem columnItem = orderItem.getColumnItem();
+			if (columnItem.getColumn() == null || columnItem.getTableItem() != primaryTableItem
+					|| columnItem.isCustomAlias()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 查询列中主表主键的列
+	 * 
+	 * @return 主键列, 不存在时返回 null
+	 */
+	public ColumnItem getKeyColumnItem() {
+		Table primaryTable = action.getPrimaryTable();
+		if (primaryTable == null || primaryTable.getPrimaryKeys().isEmpty()) {
+			return null;
+		}
+		Column primaryKey = primaryTable.getPrimaryKeys().get(0);
+		TableItem primaryTableItem = action.getPrimaryTableItem();
+		for (ColumnItem columnItem : action.getColumnItems()) {
+			if (columnItem.getColumn() == primaryKey && columnItem.getTableItem() == primaryTableItem
+					&& !(columnItem instanceof JoinColumnItem)) {
+				return columnItem;
+			}
+		}
+		return null;
+	}
+
 	public List<Object> countParams() {
 		return whereParams;
 	}
@@ -855,6 +1125,8 @@ public class SQLBuilder {
 		sql = null;
 		params.clear();;
 		whereParams.clear();
+		paramSources.clear();
+		whereParamSources.clear();
 		joinLimit = false;
 		joinLimitFilterItems.clear();;
 
@@ -866,6 +1138,7 @@ public class SQLBuilder {
 		orderString = "";
 		limitString = "";
 		valueString = "";
+		fetchString = "";
 	}
 
 	public String getSql() {
@@ -884,4 +1157,39 @@ public class SQLBuilder {
 		this.params = params;
 	}
 
+	public Map<Integer, ParamSource> getParamSources() {
+		return paramSources;
+	}
+
+	public Map<Integer, ParamSource> getWhereParamSources() {
+		return whereParamSources;
+	}
+
+	public String getFetchString() {
+		return fetchString;
+	}
+
+	/**
+	 * 批量新增的一条语句及其每次执行的参数
+	 */
+	public static final class InsertBatch {
+
+		private final String sql;
+		private final List<Object[]> params;
+
+		public InsertBatch(String sql, List<Object[]> params) {
+			this.sql = sql;
+			this.params = params;
+		}
+
+		public String getSql() {
+			return sql;
+		}
+
+		public List<Object[]> getParams() {
+			return params;
+		}
+
+	}
+
 }
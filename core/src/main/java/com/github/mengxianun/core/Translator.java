@@ -1,5 +1,9 @@
 package com.github.mengxianun.core;
 
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 翻译器, 将 JSON 翻译为 DATA
  * 
@@ -17,4 +21,34 @@ public interface Translator {
 	 */
 	public DataResultSet translate(String json);
 
+	/**
+	 * 将 JSON 翻译后的结果以流的方式写入输出流. 查询结果从数据源游标中逐行读取并输出, 不在内存中缓存全部结果.
+	 * 输出流由调用方负责关闭
+	 * 
+	 * @param json
+	 *            JSON 请求字符串
+	 * @param out
+	 *            输出流, 以 UTF-8 编码写入 JSON
+	 */
+	public void translate(String json, OutputStream out);
+
+	/**
+	 * 异步翻译 JSON. 请求在调用线程中解析和校验权限, 在数据源的执行线程池中执行. 数据源执行线程池已满时返回异常结束的 Future
+	 * 
+	 * @param json
+	 *            JSON 请求字符串
+	 * @return Result
+	 */
+	public CompletableFuture<DataResultSet> translateAsync(String json);
+
+	/**
+	 * 批量翻译多个互相独立的 JSON 请求. 全部请求先在调用线程中解析, 然后在各自数据源的执行线程池中并发执行, 每个数据源同时执行的请求数量受
+	 * batch_concurrency 限制. 结果顺序与请求顺序一致, 单个请求失败不影响其他请求, 失败的请求返回对应错误码和错误信息的结果
+	 * 
+	 * @param jsons
+	 *            JSON 请求字符串
+	 * @return Result
+	 */
+	public List<DataResultSet> translateAll(List<String> jsons);
+
 }
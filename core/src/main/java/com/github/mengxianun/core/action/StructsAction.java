@@ -6,13 +6,19 @@ import com.github.mengxianun.core.data.summary.BasicSummary;
 
 public class StructsAction extends AbstractAction {
 
-	public StructsAction(DataContext dataContext) {
+	private final long start;
+	// 小于 0 时返回所有表
+	private final long end;
+
+	public StructsAction(DataContext dataContext, long start, long end) {
 		super(dataContext);
+		this.start = start;
+		this.end = end;
 	}
 
 	@Override
 	public Summary execute() {
-		return new BasicSummary(dataContext.getSchema().getInfo());
+		return new BasicSummary(dataContext.getSchemaInfo(start, end));
 	}
 
 }
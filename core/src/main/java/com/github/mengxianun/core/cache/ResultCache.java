@@ -0,0 +1,331 @@
+package com.github.mengxianun.core.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.Configuration;
+import com.github.mengxianun.core.RequestContext;
+import com.github.mengxianun.core.config.TableConfig;
+import com.github.mengxianun.core.data.Row;
+import com.github.mengxianun.core.data.summary.CachedQuerySummary;
+import com.github.mengxianun.core.data.summary.QuerySummary;
+import com.github.mengxianun.core.item.JoinItem;
+import com.github.mengxianun.core.item.JoinItem.SingleColumnJoinItem;
+import com.github.mengxianun.core.item.TableItem;
+import com.github.mengxianun.core.permission.AuthorizationInfo;
+import com.github.mengxianun.core.request.TotalMode;
+import com.github.mengxianun.core.schema.Table;
+import com.google.common.cache.CacheStats;
+import com.google.gson.JsonObject;
+
+/**
+ * 查询结果缓存.
+ * <p>
+ * 缓存的 key 为最终执行的 SQL, 参数, 当前用户以及分页查询的总数计算方式. 缓存数量和缓存结果的估算大小都有上限, 按最近最少使用淘汰. 缓存有效期默认为全局配置
+ * result_cache_ttl, 可以在表配置中通过 cache_ttl 单独指定, 多表查询取最短的有效期. 新增, 修改, 删除操作会清除涉及该表的缓存.
+ *
+ * @author mengxiangyun
+ *
+ */
+public class ResultCache {
+
+	private final int maximumSize;
+	private final long maximumBytes;
+	// 默认有效期, 秒
+	private final long ttl;
+
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+	// 缓存版本, 每次清除缓存时递增. 防止写操作之前开始的查询在清除缓存后写入旧的结果
+	private final AtomicLong version = new AtomicLong();
+
+	public ResultCache(int maximumSize, long maximumBytes, long ttl) {
+		this.maximumSize = maximumSize;
+		this.maximumBytes = maximumBytes;
+		this.ttl = ttl;
+	}
+
+	public static ResultCache create() {
+		Configuration configuration = App.getConfiguration();
+		if (configuration == null) {
+			return new ResultCache(0, 0, 0);
+		}
+		return new ResultCache(configuration.resultCacheSize(), configuration.resultCacheBytes(),
+				configuration.resultCacheTtl());
+	}
+
+	public boolean isEnabled() {
+		return maximumSize > 0 && maximumBytes > 0;
+	}
+
+	/**
+	 * 获取查询结果, 缓存中不存在时通过 loader 查询并写入缓存
+	 *
+	 * @param action
+	 * @param loader
+	 *            查询结果, 分页查询需要包含总数
+	 * @return QuerySummary
+	 */
+	public QuerySummary get(Action action, Supplier<QuerySummary> loader) {
+		if (!isEnabled()) {
+			return loader.get();
+		}
+		Set<Table> tables = getTables(action);
+		long actionTtl = tables == null ? 0 : getTtl(tables);
+		if (actionTtl <= 0) {
+			return loader.get();
+		}
+		// 两阶段关联分页的 SQL 只查询主键, 需要加上第二阶段的 SQL 区分查询列不同的请求
+		String sql = action.getSqlBuilder().isJoinKeyLimit()
+				? action.getSql() + ";" + action.getSqlBuilder().getFetchString()
+				: action.getSql();
+		Key key = new Key(sql, action.getParams().toArray(), getUserId(),
+				action.isLimit() ? action.getTotalMode() : null);
+		long now = System.nanoTime();
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				if (entry.expireAt - now > 0) {
+					hitCount.incrementAndGet();
+					return new CachedQuerySummary(action, entry.values, entry.total, entry.totalMode);
+				}
+				remove(key);
+			}
+		}
+		missCount.incrementAndGet();
+		long currentVersion = version.get();
+		QuerySummary querySummary = loader.get();
+		List<Object[]> values = new ArrayList<>();
+		for (Row row : querySummary.getRows()) {
+			values.add(row.getValues());
+		}
+		long entryBytes = estimateBytes(values);
+		if (entryBytes <= maximumBytes) {
+			Entry entry = new Entry(values, querySummary.getTotal(), querySummary.getTotalMode(), tables,
+					entryBytes, now + TimeUnit.SECONDS.toNanos(actionTtl));
+			synchronized (this) {
+				if (currentVersion == version.get()) {
+					put(key, entry);
+				}
+			}
+		}
+		return querySummary;
+	}
+
+	/**
+	 * 清除涉及指定表的缓存
+	 *
+	 * @param tables
+	 */
+	public void invalidate(Collection<Table> tables) {
+		if (!isEnabled()) {
+			return;
+		}
+		synchronized (this) {
+			version.incrementAndGet();
+			Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Entry entry = iterator.next().getValue();
+				if (!Collections.disjoint(entry.tables, tables)) {
+					bytes -= entry.bytes;
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	public synchronized void invalidateAll() {
+		version.incrementAndGet();
+		entries.clear();
+		bytes = 0;
+	}
+
+	public synchronized long size() {
+		return entries.size();
+	}
+
+	/**
+	 * 缓存结果的估算大小, 字节
+	 *
+	 * @return 估算大小
+	 */
+	public synchronized long bytes() {
+		return bytes;
+	}
+
+	/**
+	 * 缓存命中, 未命中, 淘汰等统计信息
+	 *
+	 * @return CacheStats
+	 */
+	public CacheStats stats() {
+		return new CacheStats(hitCount.get(), missCount.get(), 0, 0, 0, evictionCount.get());
+	}
+
+	private void put(Key key, Entry entry) {
+		remove(key);
+		entries.put(key, entry);
+		bytes += entry.bytes;
+		Iterator<Entry> iterator = entries.values().iterator();
+		while ((entries.size() > maximumSize || bytes > maximumBytes) && iterator.hasNext()) {
+			Entry eldest = iterator.next();
+			bytes -= eldest.bytes;
+			iterator.remove();
+			evictionCount.incrementAndGet();
+		}
+	}
+
+	private void remove(Key key) {
+		Entry entry = entries.remove(key);
+		if (entry != null) {
+			bytes -= entry.bytes;
+		}
+	}
+
+	/**
+	 * 查询涉及的所有表, 包含关联表. 存在非数据库表(如表达式)时返回 null, 不缓存
+	 *
+	 * @param action
+	 * @return 查询涉及的表
+	 */
+	private Set<Table> getTables(Action action) {
+		Set<Table> tables = new HashSet<>();
+		for (TableItem tableItem : action.getTableItems()) {
+			if (tableItem.getTable() == null) {
+				return null;
+			}
+			tables.add(tableItem.getTable());
+		}
+		for (JoinItem joinItem : action.getJoinItems()) {
+			for (SingleColumnJoinItem singleColumnJoinItem : joinItem.getJoinItems()) {
+				tables.add(singleColumnJoinItem.getLeftColumn().getTableItem().getTable());
+				tables.add(singleColumnJoinItem.getRightColumn().getTableItem().getTable());
+			}
+		}
+		tables.remove(null);
+		return tables.isEmpty() ? null : tables;
+	}
+
+	private long getTtl(Set<Table> tables) {
+		long minTtl = ttl;
+		for (Table table : tables) {
+			JsonObject config = table.getConfig();
+			if (config != null && config.has(TableConfig.CACHE_TTL)) {
+				minTtl = Math.min(minTtl, config.get(TableConfig.CACHE_TTL).getAsLong());
+			}
+		}
+		return minTtl;
+	}
+
+	private Object getUserId() {
+		RequestContext requestContext = RequestContext.current();
+		if (requestContext != null) {
+			return requestContext.getUserId();
+		}
+		AuthorizationInfo authorizationInfo = App.getAuthorizationInfo();
+		return authorizationInfo == null ? null : authorizationInfo.getUserId();
+	}
+
+	private long estimateBytes(List<Object[]> values) {
+		long size = 0;
+		for (Object[] rowValues : values) {
+			// 行数组及值引用
+			size += 16 + 8L * rowValues.length;
+			for (Object value : rowValues) {
+				size += estimateBytes(value);
+			}
+		}
+		return size;
+	}
+
+	private long estimateBytes(Object value) {
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof CharSequence) {
+			return 40 + 2L * ((CharSequence) value).length();
+		}
+		if (value instanceof byte[]) {
+			return 16 + ((byte[]) value).length;
+		}
+		return 16;
+	}
+
+	private static class Key {
+
+		private final String sql;
+		private final Object[] params;
+		private final Object userId;
+		// 分页查询的总数计算方式, 不同方式的总数不同
+		private final TotalMode totalMode;
+		private final int hash;
+
+		Key(String sql, Object[] params, Object userId, TotalMode totalMode) {
+			this.sql = sql;
+			this.params = params;
+			this.userId = userId;
+			this.totalMode = totalMode;
+			this.hash = 31 * (31 * (31 * sql.hashCode() + Arrays.deepHashCode(params))
+					+ (userId == null ? 0 : userId.hashCode())) + (totalMode == null ? 0 : totalMode.hashCode());
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return sql.equals(other.sql) && Arrays.deepEquals(params, other.params)
+					&& (userId == null ? other.userId == null : userId.equals(other.userId))
+					&& totalMode == other.totalMode;
+		}
+
+	}
+
+	private static class Entry {
+
+		private final List<Object[]> values;
+		private final long total;
+		private final TotalMode totalMode;
+		private final Set<Table> tables;
+		private final long bytes;
+		private final long expireAt;
+
+		Entry(List<Object[]> values, long total, TotalMode totalMode, Set<Table> tables, long bytes,
+				long expireAt) {
+			this.values = values;
+			this.total = total;
+			this.totalMode = totalMode;
+			this.tables = tables;
+			this.bytes = bytes;
+			this.expireAt = expireAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.github.mengxianun.core.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.Configuration;
+import com.github.mengxianun.core.SQLBuilder;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * 分页查询总数缓存.
+ * <p>
+ * 缓存的 key 为总数查询的 SQL 和参数, 不包含分页值, 同一查询条件的所有分页共享总数. 缓存在有效期(total_cache_ttl)内不随数据变更而清除.
+ *
+ * @author mengxiangyun
+ *
+ */
+public class TotalCache {
+
+	private final Cache<List<Object>, Long> cache;
+
+	public TotalCache(int maximumSize, long ttl) {
+		this.cache = CacheBuilder.newBuilder().maximumSize(Math.max(maximumSize, 0))
+				.expireAfterWrite(Math.max(ttl, 0), TimeUnit.SECONDS).recordStats().build();
+	}
+
+	public static TotalCache create() {
+		Configuration configuration = App.getConfiguration();
+		if (configuration == null) {
+			return new TotalCache(Configuration.DEFAULT_TOTAL_CACHE_SIZE, Configuration.DEFAULT_TOTAL_CACHE_TTL);
+		}
+		return new TotalCache(configuration.totalCacheSize(), configuration.totalCacheTtl());
+	}
+
+	/**
+	 * 获取查询总数, 缓存中不存在时通过 loader 查询并写入缓存
+	 *
+	 * @param action
+	 *            分页查询
+	 * @param loader
+	 * @return 查询总数
+	 */
+	public long get(Action action, LongSupplier loader) {
+		SQLBuilder sqlBuilder = action.getSqlBuilder();
+		List<Object> key = new ArrayList<>();
+		key.add(sqlBuilder.countSql());
+		key.addAll(sqlBuilder.countParams());
+		Long total = cache.getIfPresent(key);
+		if (total == null) {
+			total = loader.getAsLong();
+			cache.put(key, total);
+		}
+		return total;
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+}
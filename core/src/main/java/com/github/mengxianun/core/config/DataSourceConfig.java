@@ -10,5 +10,13 @@ public final class DataSourceConfig {
 	public static final String URL = "url";
 	// 类型
 	public static final String TYPE = "type";
+	// 每个连接缓存的预编译语句数量, 默认不缓存
+	public static final String STATEMENT_CACHE_SIZE = "statement_cache_size";
+	// 元数据加载方式, eager(默认) 或 lazy
+	public static final String METADATA_LOAD = "metadata_load";
+	// 元数据快照文件路径, 配置后启动时优先从快照加载元数据
+	public static final String METADATA_SNAPSHOT = "metadata_snapshot";
+	// 是否根据数据库外键自动添加关联关系, 默认 true
+	public static final String FOREIGN_KEYS = "foreign_keys";
 
 }
@@ -34,4 +34,32 @@ public final class GlobalConfig {
 	public static final String METADATA_REFRESH_INTERVAL = "metadata_refresh_interval";
 	// 关联join查询时, 如果2个表有多个字段关联, 在join的时候使用on-and进行多字段关联
 	public static final String JOIN_ON_MULTI_COLUMN = "join_on_multi_column";
+	// 执行计划缓存的最大数量, 0 表示不缓存
+	public static final String PLAN_CACHE_SIZE = "plan_cache_size";
+	// 查询结果缓存的最大数量, 默认 0, 不缓存
+	public static final String RESULT_CACHE_SIZE = "result_cache_size";
+	// 查询结果缓存的最大字节数(估算), 默认 64M
+	public static final String RESULT_CACHE_BYTES = "result_cache_bytes";
+	// 查询结果缓存的默认有效期, 秒, 默认 60
+	public static final String RESULT_CACHE_TTL = "result_cache_ttl";
+	// 异步请求每个数据源的执行线程数, 默认 16
+	public static final String ASYNC_THREADS = "async_threads";
+	// 异步请求每个数据源的等待队列长度, 队列已满时拒绝请求, 默认 1000
+	public static final String ASYNC_QUEUE_SIZE = "async_queue_size";
+	// 异步请求是否使用虚拟线程执行, 需要 Java 21 及以上版本, 默认 false
+	public static final String ASYNC_VIRTUAL_THREADS = "async_virtual_threads";
+	// 批量请求中每个数据源同时执行的请求数量, 默认 4
+	public static final String BATCH_CONCURRENCY = "batch_concurrency";
+	// 分页查询是否通过 COUNT(*) OVER() 在同一条语句中返回总数, 需要数据库支持窗口函数, 默认 false
+	public static final String WINDOW_COUNT = "window_count";
+	// 分页查询总数缓存(total_mode 为 cached)的最大数量, 默认 1000
+	public static final String TOTAL_CACHE_SIZE = "total_cache_size";
+	// 分页查询总数缓存的有效期, 秒, 默认 60
+	public static final String TOTAL_CACHE_TTL = "total_cache_ttl";
+	// 批量新增时每批次的记录数, 默认 1000
+	public static final String INSERT_BATCH_SIZE = "insert_batch_size";
+	// 批量新增的记录数达到该值时通过 COPY 导入, 需要数据库支持(PostgreSQL), 0 表示不使用 COPY, 默认 10000
+	public static final String COPY_THRESHOLD = "copy_threshold";
+	// 查找关联关系路径的最大深度, 超过该深度的关联表不能自动 join, 默认 6
+	public static final String JOIN_MAX_DEPTH = "join_max_depth";
 }
@@ -13,5 +13,10 @@ public final class ResultAttributes {
 	public static final String START = "start";
 	public static final String END = "end";
 	public static final String TOTAL = "total";
+	// 总数的计算方式
+	public static final String TOTAL_MODE = "total_mode";
+	// 游标分页
+	public static final String SIZE = "size";
+	public static final String NEXT = "next";
 
 }
@@ -23,5 +23,9 @@ public final class TableConfig {
 	public static final String ASSOCIATION_TYPE = "type";
 	// 列忽略, 返回数据不包含该列
 	public static final String COLUMN_IGNORE = "ignore";
+	// 查询结果缓存有效期, 秒, 0 表示不缓存该表的查询结果
+	public static final String CACHE_TTL = "cache_ttl";
+	// 分页查询总数的计算方式: exact, skip, cached, estimate, 默认 exact
+	public static final String TOTAL_MODE = "total_mode";
 
 }
@@ -0,0 +1,39 @@
+package com.github.mengxianun.core.data.summary;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.data.DefaultRow;
+import com.github.mengxianun.core.data.Row;
+import com.github.mengxianun.core.request.TotalMode;
+
+/**
+ * 从查询结果缓存中读取的查询结果
+ *
+ * @author mengxiangyun
+ *
+ */
+public class CachedQuerySummary extends QuerySummary {
+
+	private final List<Object[]> cachedValues;
+
+	public CachedQuerySummary(Action action, List<Object[]> cachedValues, long total, TotalMode totalMode) {
+		super(action, null, total);
+		this.cachedValues = cachedValues;
+		this.totalMode = totalMode;
+	}
+
+	@Override
+	public List<Row> toRows() {
+		return cachedValues.stream().map(e -> new DefaultRow(header, e)).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Map<String, Object>> toValues() {
+		return Collections.emptyList();
+	}
+
+}
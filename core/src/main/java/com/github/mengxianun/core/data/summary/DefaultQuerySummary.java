@@ -0,0 +1,37 @@
+package com.github.mengxianun.core.data.summary;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.data.DefaultRow;
+import com.github.mengxianun.core.data.Row;
+
+/**
+ * 由多次查询的结果组合而成的查询结果
+ *
+ * @author mengxiangyun
+ *
+ */
+public class DefaultQuerySummary extends QuerySummary {
+
+	private final List<Object[]> rowValues;
+
+	public DefaultQuerySummary(Action action, List<Object[]> rowValues) {
+		super(action, null);
+		this.rowValues = rowValues;
+	}
+
+	@Override
+	public List<Row> toRows() {
+		return rowValues.stream().map(e -> new DefaultRow(header, e)).collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Map<String, Object>> toValues() {
+		return Collections.emptyList();
+	}
+
+}
@@ -5,25 +5,40 @@ import java.util.List;
 import java.util.Map;
 
 import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.config.ResultAttributes;
 import com.github.mengxianun.core.data.AbstractSummary;
+import com.google.common.collect.ImmutableMap;
 
 public class InsertSummary extends AbstractSummary {
 
 	private final List<Map<String, Object>> values;
+	// 新增的记录数, 批量导入时不返回主键, 只返回记录数
+	private final long insertCount;
 
 	public InsertSummary(Action action, List<Map<String, Object>> values) {
 		super(action, values);
 		this.values = values;
+		this.insertCount = values.size();
+	}
+
+	public InsertSummary(Action action, long insertCount) {
+		super(action, insertCount);
+		this.values = Collections.emptyList();
+		this.insertCount = insertCount;
 	}
 
 	public List<Map<String, Object>> getValues() {
 		return values;
 	}
 
+	public long getInsertCount() {
+		return insertCount;
+	}
+
 	@Override
 	public Object getData() {
 		if (values.isEmpty()) {
-			return Collections.emptyList();
+			return insertCount > 0 ? ImmutableMap.of(ResultAttributes.COUNT, insertCount) : Collections.emptyList();
 		}
 		if (values.size() == 1) {
 			return values.get(0);
@@ -11,7 +11,9 @@ import com.github.mengxianun.core.data.AbstractSummary;
 import com.github.mengxianun.core.data.DefaultHeader;
 import com.github.mengxianun.core.data.Header;
 import com.github.mengxianun.core.data.Row;
+import com.github.mengxianun.core.item.KeysetLimitItem;
 import com.github.mengxianun.core.item.LimitItem;
+import com.github.mengxianun.core.request.TotalMode;
 
 public abstract class QuerySummary extends AbstractSummary {
 
@@ -20,6 +22,7 @@ public abstract class QuerySummary extends AbstractSummary {
 	private int index;
 
 	protected long total;
+	protected TotalMode totalMode = TotalMode.EXACT;
 	protected List<Map<String, Object>> values;
 
 	public QuerySummary(Action action, List<Map<String, Object>> values) {
@@ -56,6 +59,14 @@ public abstract class QuerySummary extends AbstractSummary {
 		this.total = total;
 	}
 
+	public TotalMode getTotalMode() {
+		return totalMode;
+	}
+
+	public void setTotalMode(TotalMode totalMode) {
+		this.totalMode = totalMode;
+	}
+
 	public List<Map<String, Object>> getValues() {
 		if (values == null) {
 			values = toValues();
@@ -78,7 +89,18 @@ public abstract class QuerySummary extends AbstractSummary {
 		if (action.isDetail()) {
 			data = values.isEmpty() ? Collections.emptyMap() : values.get(0);
 		}
-		if (action.isLimit()) {
+		if (action.isKeyset()) {
+			KeysetLimitItem limitItem = (KeysetLimitItem) action.getLimitItem();
+			List<Row> pageRows = getRows();
+			// 当前页记录数不足时没有下一页
+			String next = pageRows.size() < limitItem.getLimit() ? null
+					: limitItem.createCursor(pageRows.get(pageRows.size() - 1), action.getColumnItems());
+			Map<String, Object> pageResult = new LinkedHashMap<>();
+			pageResult.put(ResultAttributes.SIZE, limitItem.getLimit());
+			pageResult.put(ResultAttributes.NEXT, next);
+			pageResult.put(ResultAttributes.DATA, values);
+			data = pageResult;
+		} else if (action.isLimit()) {
 			LimitItem limitItem = action.getLimitItem();
 			long start = limitItem.getStart();
 			long end = limitItem.getEnd();
@@ -86,6 +108,7 @@ public abstract class QuerySummary extends AbstractSummary {
 			pageResult.put(ResultAttributes.START, start);
 			pageResult.put(ResultAttributes.END, end);
 			pageResult.put(ResultAttributes.TOTAL, total);
+			pageResult.put(ResultAttributes.TOTAL_MODE, totalMode.lowerName());
 			pageResult.put(ResultAttributes.DATA, values);
 			data = pageResult;
 		}
@@ -0,0 +1,24 @@
+package com.github.mengxianun.core.dialect;
+
+/**
+ * 新增或更新(upsert)语句的语法
+ * 
+ * @author mengxiangyun
+ *
+ */
+public enum UpsertSyntax {
+
+	/**
+	 * INSERT INTO ... VALUES ... ON CONFLICT (key) DO UPDATE SET column = EXCLUDED.column, 如 PostgreSQL
+	 */
+	ON_CONFLICT,
+	/**
+	 * INSERT INTO ... VALUES ... ON DUPLICATE KEY UPDATE column = VALUES(column), 如 MySQL. 冲突列由表的唯一索引决定
+	 */
+	ON_DUPLICATE_KEY,
+	/**
+	 * MERGE INTO ... KEY (key) VALUES ..., 如 H2
+	 */
+	MERGE;
+
+}
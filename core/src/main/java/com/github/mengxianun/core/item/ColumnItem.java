@@ -16,6 +16,8 @@ public class ColumnItem extends Item {
 	protected TableItem tableItem;
 	// 自定义别名
 	protected boolean customAlias;
+	// 内部列, 只用于查询, 不输出到结果中. 如游标分页追加的排序列
+	protected boolean internal;
 
 	public ColumnItem(Column column) {
 		this.column = column;
@@ -77,4 +79,12 @@ public class ColumnItem extends Item {
 		return customAlias;
 	}
 
+	public boolean isInternal() {
+		return internal;
+	}
+
+	public void setInternal(boolean internal) {
+		this.internal = internal;
+	}
+
 }
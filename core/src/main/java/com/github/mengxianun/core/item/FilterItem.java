@@ -56,6 +56,16 @@ public class FilterItem extends ValuesItem {
 	}
 
 	public Object getRealValue() {
+		return getRealValue(value);
+	}
+
+	/**
+	 * 按当前条件的列和运算符转换给定的值
+	 * 
+	 * @param value
+	 * @return Real value
+	 */
+	public Object getRealValue(Object value) {
 		// Like must be string
 		if (operator == Operator.LIKE) {
 			return value;
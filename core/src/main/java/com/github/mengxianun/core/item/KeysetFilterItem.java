@@ -0,0 +1,25 @@
+package com.github.mengxianun.core.item;
+
+import com.github.mengxianun.core.request.Connector;
+import com.github.mengxianun.core.request.Operator;
+
+/**
+ * 游标分页生成的条件, 条件值来自游标, 已经是列的实际类型, 不再转换
+ * 
+ * @author mengxiangyun
+ *
+ */
+public class KeysetFilterItem extends FilterItem {
+
+	private static final long serialVersionUID = 1L;
+
+	public KeysetFilterItem(Connector connector, ColumnItem columnItem, Operator operator, Object value) {
+		super(connector, columnItem, operator, value);
+	}
+
+	@Override
+	public Object getRealValue(Object value) {
+		return value;
+	}
+
+}
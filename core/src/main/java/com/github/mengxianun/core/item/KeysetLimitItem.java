@@ -0,0 +1,162 @@
+package com.github.mengxianun.core.item;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.mengxianun.core.data.Row;
+import com.github.mengxianun.core.exception.DataException;
+import com.github.mengxianun.core.exception.JsonDataException;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * 游标分页. 按排序列和主键生成查询条件, 从上一页的最后一条记录之后开始查询, 不需要 OFFSET.
+ * <p>
+ * 游标为上一页最后一条记录中排序列的值, 值保留原始类型, 编码为 Base64 字符串. 排序列的值不能为 null, 否则无法生成下一页的游标.
+ * 
+ * @author mengxiangyun
+ *
+ */
+public class KeysetLimitItem extends LimitItem {
+
+	private static final long serialVersionUID = 1L;
+
+	// 游标值类型
+	private static final char TYPE_LONG = 'l';
+	private static final char TYPE_INTEGER = 'i';
+	private static final char TYPE_DECIMAL = 'n';
+	private static final char TYPE_DOUBLE = 'f';
+	private static final char TYPE_BOOLEAN = 'b';
+	private static final char TYPE_TIMESTAMP = 't';
+	private static final char TYPE_DATE = 'd';
+	private static final char TYPE_TIME = 'h';
+	private static final char TYPE_STRING = 's';
+
+	// 上一页返回的游标
+	private final String after;
+	// 游标对应的排序, 包含请求中的排序和主键
+	private List<OrderItem> seekOrderItems = Collections.emptyList();
+
+	public KeysetLimitItem(long size, String after) {
+		super(0, size);
+		this.after = after;
+	}
+
+	public String getAfter() {
+		return after;
+	}
+
+	public List<OrderItem> getSeekOrderItems() {
+		return seekOrderItems;
+	}
+
+	public void setSeekOrderItems(List<OrderItem> seekOrderItems) {
+		this.seekOrderItems = seekOrderItems;
+	}
+
+	/**
+	 * 解析游标中的值
+	 * 
+	 * @return 排序列的值, 与 seekOrderItems 一一对应
+	 */
+	public List<Object> getAfterValues() {
+		List<Object> values = new ArrayList<>();
+		try {
+			String json = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+			for (JsonElement element : new JsonParser().parse(json).getAsJsonArray()) {
+				values.add(decode(element.getAsString()));
+			}
+		} catch (RuntimeException e) {
+			throw new JsonDataException("Invalid limit cursor", e);
+		}
+		if (values.size() != seekOrderItems.size()) {
+			throw new JsonDataException("Invalid limit cursor");
+		}
+		return values;
+	}
+
+	/**
+	 * 根据当前页的最后一条记录生成下一页的游标
+	 * 
+	 * @param row
+	 *            当前页的最后一条记录
+	 * @param columnItems
+	 *            查询列
+	 * @return 游标
+	 */
+	public String createCursor(Row row, List<ColumnItem> columnItems) {
+		JsonArray values = new JsonArray();
+		for (OrderItem orderItem : seekOrderItems) {
+			ColumnItem columnItem = orderItem.getColumnItem();
+			Object value = row.getValue(columnItems.indexOf(columnItem));
+			// null 无法参与比较, 继续查询会跳过或重复记录
+			if (value == null) {
+				throw new DataException(String.format(
+						"Keyset limit cannot create a cursor from a null value of column [%s]",
+						columnItem.getColumn().getName()));
+			}
+			values.add(encode(value));
+		}
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(values.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String encode(Object value) {
+		if (value instanceof Long || value instanceof BigInteger) {
+			return TYPE_LONG + value.toString();
+		} else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return TYPE_INTEGER + value.toString();
+		} else if (value instanceof BigDecimal) {
+			return TYPE_DECIMAL + ((BigDecimal) value).toPlainString();
+		} else if (value instanceof Number) {
+			return TYPE_DOUBLE + value.toString();
+		} else if (value instanceof Boolean) {
+			return TYPE_BOOLEAN + value.toString();
+		} else if (value instanceof Timestamp) {
+			return TYPE_TIMESTAMP + value.toString();
+		} else if (value instanceof Date) {
+			return TYPE_DATE + value.toString();
+		} else if (value instanceof Time) {
+			return TYPE_TIME + value.toString();
+		} else if (value instanceof java.util.Date) {
+			return TYPE_TIMESTAMP + new Timestamp(((java.util.Date) value).getTime()).toString();
+		}
+		return TYPE_STRING + value.toString();
+	}
+
+	private Object decode(String value) {
+		String content = value.substring(1);
+		switch (value.charAt(0)) {
+		case TYPE_LONG:
+			return Long.valueOf(content);
+		case TYPE_INTEGER:
+			return Integer.valueOf(content);
+		case TYPE_DECIMAL:
+			return new BigDecimal(content);
+		case TYPE_DOUBLE:
+			return Double.valueOf(content);
+		case TYPE_BOOLEAN:
+			return Boolean.valueOf(content);
+		case TYPE_TIMESTAMP:
+			return Timestamp.valueOf(content);
+		case TYPE_DATE:
+			return Date.valueOf(content);
+		case TYPE_TIME:
+			return Time.valueOf(content);
+		case TYPE_STRING:
+			return content;
+		default:
+			throw new IllegalArgumentException(value);
+		}
+	}
+
+}
@@ -1,14 +1,27 @@
 package com.github.mengxianun.core.parser;
 
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
 import com.github.mengxianun.core.ActionUtil;
 import com.github.mengxianun.core.DataContext;
+import com.github.mengxianun.core.parser.info.ColumnInfo;
+import com.github.mengxianun.core.parser.info.JoinInfo;
 import com.github.mengxianun.core.parser.info.SimpleInfo;
+import com.github.mengxianun.core.parser.info.TableInfo;
 import com.github.mengxianun.core.schema.Name;
+import com.github.mengxianun.core.schema.Table;
 
 public abstract class AbstractActionParser implements ActionParser {
 
 	protected final SimpleInfo simpleInfo;
 	protected final DataContext dataContext;
+	// 别名按照在请求中出现的顺序生成, 保证相同结构的请求生成相同的 SQL
+	private int tableAliasIndex;
+	private int columnAliasIndex;
+	// 请求中的自定义别名, 生成的别名跳过这些名称
+	private Set<String> customAliases;
 
 	public AbstractActionParser(SimpleInfo simpleInfo, DataContext dataContext) {
 		this.simpleInfo = simpleInfo;
@@ -17,10 +30,47 @@ public abstract class AbstractActionParser implements ActionParser {
 
 	protected <T extends Name> String getAlias(T element) {
 		if (dataContext.getDialect().randomAliasEnabled()) {
-			String prefix = element == null ? "" : element.getName() + "_";
-			return prefix + ActionUtil.createRandomAlias();
+			String alias;
+			do {
+				alias = element instanceof Table ? ActionUtil.createTableAlias(tableAliasIndex++)
+						: ActionUtil.createColumnAlias(columnAliasIndex++);
+			} while (getCustomAliases().contains(alias));
+			return alias;
 		}
 		return null;
 	}
 
+	/**
+	 * 请求中的表和列的自定义别名, 转换为小写
+	 * 
+	 * @return
+	 */
+	private Set<String> getCustomAliases() {
+		if (customAliases == null) {
+			customAliases = new HashSet<>();
+			if (simpleInfo != null) {
+				addCustomAlias(simpleInfo.table());
+				for (JoinInfo joinInfo : simpleInfo.joins()) {
+					addCustomAlias(joinInfo.tableInfo());
+				}
+				for (ColumnInfo columnInfo : simpleInfo.columns()) {
+					addCustomAlias(columnInfo.alias());
+				}
+			}
+		}
+		return customAliases;
+	}
+
+	private void addCustomAlias(TableInfo tableInfo) {
+		if (tableInfo != null) {
+			addCustomAlias(tableInfo.alias());
+		}
+	}
+
+	private void addCustomAlias(String alias) {
+		if (alias != null) {
+			customAliases.add(alias.trim().toLowerCase(Locale.ROOT));
+		}
+	}
+
 }
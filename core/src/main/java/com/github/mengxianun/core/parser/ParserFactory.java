@@ -32,6 +32,7 @@ public class ParserFactory {
 		case SELECT:
 		case SELECT_DISTINCT:
 		case INSERT:
+		case UPSERT:
 		case UPDATE:
 		case DELETE:
 			return new CRUDActionParser(simpleInfo, dataContext);
@@ -6,9 +6,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.github.mengxianun.core.exception.DataException;
 import com.github.mengxianun.core.exception.JsonDataException;
@@ -35,6 +32,7 @@ import com.github.mengxianun.core.request.Operation;
 import com.github.mengxianun.core.request.Operator;
 import com.github.mengxianun.core.request.Order;
 import com.github.mengxianun.core.request.RequestKeyword;
+import com.github.mengxianun.core.request.TotalMode;
 import com.google.common.base.Strings;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
@@ -43,12 +41,13 @@ import com.google.gson.JsonObject;
 
 public class SimpleParser {
 
-	private static final Pattern SOURCE_TABLE_COLUMN = Pattern
-			.compile("((?<source>[\\w-]*)(\\.)+)*(?<table>[\\w-]+)\\.(?<column>([\\w-]+|\\*))");
 	public static final String MATCHER_GROUP_SOURCE = "source";
 	public static final String MATCHER_GROUP_TABLE = "table";
 	public static final String MATCHER_GROUP_COLUMN = "column";
 	private static final Gson GSON = new Gson();
+	// 游标分页属性
+	private static final String LIMIT_SIZE = "size";
+	private static final String LIMIT_AFTER = "after";
 	private final JsonObject jsonData;
 	private Operation operation;
 	private String operationAttribute;
@@ -82,6 +81,9 @@ public class SimpleParser {
 		case INSERT:
 			parseInsert();
 			break;
+		case UPSERT:
+			parseUpsert();
+			break;
 		case UPDATE:
 			parseUpdate();
 			break;
@@ -105,17 +107,13 @@ public class SimpleParser {
 	}
 
 	private void parseOperation() {
-		Operation[] operations = Operation.values();
-		Set<String> keys = jsonData.keySet();
 		int operationCount = 0;
-		for (String key : keys) {
-			for (Operation op : operations) {
-				if (op.value().equalsIgnoreCase(key)) {
-					operation = op;
-					operationAttribute = key;
-					operationCount++;
-					break;
-				}
+		for (String key : jsonData.keySet()) {
+			Operation op = Operation.from(key);
+			if (op != null) {
+				operation = op;
+				operationAttribute = key;
+				operationCount++;
 			}
 		}
 		if (operationCount > 1) {
@@ -132,19 +130,22 @@ public class SimpleParser {
 	 * @param sourceTableString
 	 * @return
 	 */
-	private TableInfo parseSourceTable(String tableString) {
+	static TableInfo parseSourceTable(String tableString) {
 		String source = null;
 		String table = null;
 		String alias = null;
-		if (tableString.contains(AdditionalKeywords.ALIAS_KEY.value())) {
-			String[] tablePart = tableString.split(AdditionalKeywords.ALIAS_KEY.value());
-			tableString = tablePart[0];
-			alias = tablePart[1];
-		}
-		if (tableString.contains(".")) {
-			String[] tableSource = tableString.split("\\.", 2);
-			source = tableSource[0];
-			table = tableSource[1];
+		String aliasKey = AdditionalKeywords.ALIAS_KEY.value();
+		int aliasIndex = tableString.indexOf(aliasKey);
+		if (aliasIndex >= 0) {
+			int aliasStart = aliasIndex + aliasKey.length();
+			int aliasEnd = tableString.indexOf(aliasKey, aliasStart);
+			alias = aliasEnd < 0 ? tableString.substring(aliasStart) : tableString.substring(aliasStart, aliasEnd);
+			tableString = tableString.substring(0, aliasIndex);
+		}
+		int dotIndex = tableString.indexOf('.');
+		if (dotIndex >= 0) {
+			source = tableString.substring(0, dotIndex);
+			table = tableString.substring(dotIndex + 1);
 		} else {
 			table = tableString;
 		}
@@ -159,6 +160,7 @@ public class SimpleParser {
 		String source = jsonData.get(operationAttribute).getAsString();
 		SourceInfo sourceInfo = SourceInfo.create(source);
 		builder.source(sourceInfo);
+		parseLimit();
 	}
 
 	private void parseSelect() {
@@ -170,6 +172,7 @@ public class SimpleParser {
 		parseGroup();
 		parseOrder();
 		parseLimit();
+		parseTotal();
 		parseFile();
 	}
 
@@ -211,7 +214,7 @@ public class SimpleParser {
 		}
 	}
 
-	private JoinInfo createJoin(JoinType joinType, String joinSourceTableString) {
+	static JoinInfo createJoin(JoinType joinType, String joinSourceTableString) {
 		if (Strings.isNullOrEmpty(joinSourceTableString)) {
 			return null;
 		}
@@ -249,7 +252,7 @@ public class SimpleParser {
 		return null;
 	}
 
-	private RelationInfo parseRelation(String relationString) {
+	static RelationInfo parseRelation(String relationString) {
 		String[] tables = relationString.split("=", 2);
 
 		String[] primaryTableColumn = tables[0].split("\\.", 2);
@@ -276,7 +279,7 @@ public class SimpleParser {
 		builder.columns(columnInfos);
 	}
 
-	private ColumnInfo parseColumn(String fieldString) {
+	static ColumnInfo parseColumn(String fieldString) {
 		if (Strings.isNullOrEmpty(fieldString)) {
 			return null;
 		}
@@ -285,23 +288,72 @@ public class SimpleParser {
 		String column = null;
 		String alias = null;
 		fieldString = fieldString.trim();
-		if (fieldString.contains(AdditionalKeywords.ALIAS_KEY.value())) {
-			String[] parts = fieldString.split(AdditionalKeywords.ALIAS_KEY.value(), 2);
-			fieldString = parts[0];
-			alias = parts[1];
-		}
-
-		Matcher matcher = SOURCE_TABLE_COLUMN.matcher(fieldString);
-		if (matcher.matches()) {
-			source = matcher.group(MATCHER_GROUP_SOURCE);
-			table = matcher.group(MATCHER_GROUP_TABLE);
-			column = matcher.group(MATCHER_GROUP_COLUMN);
+		String aliasKey = AdditionalKeywords.ALIAS_KEY.value();
+		int aliasIndex = fieldString.indexOf(aliasKey);
+		if (aliasIndex >= 0) {
+			alias = fieldString.substring(aliasIndex + aliasKey.length());
+			fieldString = fieldString.substring(0, aliasIndex);
+		}
+
+		// [source.]table.column, 名称由字母, 数字, 下划线或中划线组成, source 与 table 之间可以有多个点
+		int columnDot = fieldString.lastIndexOf('.');
+		int tableDot = columnDot > 0 ? fieldString.lastIndexOf('.', columnDot - 1) : -1;
+		String columnPart = fieldString.substring(columnDot + 1);
+		if (columnDot > 0 && isName(fieldString, tableDot + 1, columnDot)
+				&& (columnPart.equals("*") || isName(columnPart, 0, columnPart.length()))) {
+			if (tableDot >= 0) {
+				// source 与 table 之间可以有多个点
+				int sourceEnd = tableDot;
+				while (sourceEnd > 0 && fieldString.charAt(sourceEnd - 1) == '.') {
+					sourceEnd--;
+				}
+				int sourceStart = fieldString.lastIndexOf('.', sourceEnd - 1) + 1;
+				if (isNameOrDot(fieldString, 0, sourceEnd)) {
+					source = fieldString.substring(sourceStart, sourceEnd);
+					table = fieldString.substring(tableDot + 1, columnDot);
+					column = columnPart;
+				} else {
+					column = fieldString;
+				}
+			} else {
+				table = fieldString.substring(0, columnDot);
+				column = columnPart;
+			}
 		} else {
 			column = fieldString;
 		}
 		return ColumnInfo.create(source, table, column, alias, fieldString);
 	}
 
+	/**
+	 * 是否由字母, 数字, 下划线或中划线组成, 并且不为空
+	 */
+	private static boolean isName(String value, int start, int end) {
+		if (start >= end) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (!isNameChar(value.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isNameOrDot(String value, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (c != '.' && !isNameChar(c)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isNameChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+	}
+
 	private void parseWhere() {
 		if (!validAttribute(RequestKeyword.WHERE.lowerName())) {
 			return;
@@ -336,27 +388,31 @@ public class SimpleParser {
 				return FilterInfo.create(connector, null, subFilterInfos);
 			} else if (objectInnerFilterInfo.isJsonPrimitive()) {
 				String filterString = objectInnerFilterInfo.getAsString().trim();
-				ConditionInfo conditionInfo = parseCondition(filterString);
+				ConditionInfo conditionInfo = createCondition(filterString);
 				return FilterInfo.create(connector, conditionInfo, Collections.emptyList());
 			} else {
 				throw new JsonDataException("where node format error");
 			}
 		} else {
 			String filterString = filterElement.getAsString().trim();
-			ConditionInfo conditionInfo = parseCondition(filterString);
+			ConditionInfo conditionInfo = createCondition(filterString);
 			return FilterInfo.create(Connector.AND, conditionInfo, Collections.emptyList());
 		}
 	}
 
 	public ConditionInfo parseCondition(String filterString) {
+		return createCondition(filterString);
+	}
+
+	static ConditionInfo createCondition(String filterString) {
 		Operator operator = parseOperator(filterString);
 		if (operator == null) {
 			return null;
 		}
 
-		String[] kv = filterString.split(operator.op(), 2);
-		String column = kv[0];
-		Object value = kv[1];
+		int opIndex = filterString.indexOf(operator.op());
+		String column = filterString.substring(0, opIndex);
+		Object value = filterString.substring(opIndex + operator.op().length());
 		String stringValue = value.toString().trim();
 
 		switch (operator) {
@@ -406,7 +462,7 @@ public class SimpleParser {
 		return ConditionInfo.create(columnInfo, operator, value);
 	}
 
-	private Operator parseOperator(String filterString) {
+	private static Operator parseOperator(String filterString) {
 		Operator operator = null;
 		int pos = 0;
 		int length = filterString.length();
@@ -531,7 +587,7 @@ public class SimpleParser {
 		builder.groups(groups);
 	}
 
-	private GroupInfo parseGroup(String groupString) {
+	static GroupInfo parseGroup(String groupString) {
 		ColumnInfo columnInfo = parseColumn(groupString);
 		if (columnInfo == null) {
 			return null;
@@ -555,17 +611,24 @@ public class SimpleParser {
 		builder.orders(orders);
 	}
 
-	private OrderInfo parseOrder(String orderString) {
+	static OrderInfo parseOrder(String orderString) {
 		if (Strings.isNullOrEmpty(orderString)) {
 			return null;
 		}
 		orderString = orderString.trim();
 		String columnString = null;
 		Order order = null;
-		String[] columnOrder = orderString.split("\\s+");
-		String orderTypeString = columnOrder[columnOrder.length - 1];
+		int columnEnd = 0;
+		while (columnEnd < orderString.length() && !Character.isWhitespace(orderString.charAt(columnEnd))) {
+			columnEnd++;
+		}
+		int orderTypeStart = orderString.length();
+		while (orderTypeStart > 0 && !Character.isWhitespace(orderString.charAt(orderTypeStart - 1))) {
+			orderTypeStart--;
+		}
+		String orderTypeString = orderString.substring(orderTypeStart);
 		if (orderTypeString.equalsIgnoreCase("asc") || orderTypeString.equalsIgnoreCase("desc")) {
-			columnString = columnOrder[0];
+			columnString = orderString.substring(0, columnEnd);
 			order = orderTypeString.equalsIgnoreCase("asc") ? Order.ASC : Order.DESC;
 		} else if (orderString.startsWith("+") || orderString.startsWith("-")) {
 			String symbol = orderString.substring(0, 1);
@@ -587,8 +650,12 @@ public class SimpleParser {
 			return;
 		}
 		JsonElement limitElement = jsonData.get(RequestKeyword.LIMIT.lowerName());
+		if (limitElement.isJsonObject()) {
+			parseKeysetLimit(limitElement.getAsJsonObject());
+			return;
+		}
 		if (!limitElement.isJsonArray()) {
-			throw new JsonDataException("limit node must be an array");
+			throw new JsonDataException("limit node must be an array or an object");
 		}
 		JsonArray limitArray = (JsonArray) limitElement;
 		long start = limitArray.get(0).getAsLong();
@@ -597,6 +664,36 @@ public class SimpleParser {
 		builder.limit(limit);
 	}
 
+	/**
+	 * 游标分页, 例: {"size": 50, "after": "上一页返回的游标"}
+	 * 
+	 * @param limitObject
+	 */
+	private void parseKeysetLimit(JsonObject limitObject) {
+		if (!limitObject.has(LIMIT_SIZE)) {
+			throw new JsonDataException("limit node must contain size");
+		}
+		long size = limitObject.get(LIMIT_SIZE).getAsLong();
+		if (size <= 0) {
+			throw new JsonDataException("limit size must be greater than 0");
+		}
+		JsonElement afterElement = limitObject.get(LIMIT_AFTER);
+		String after = afterElement == null || afterElement.isJsonNull() ? null : afterElement.getAsString();
+		builder.limit(LimitInfo.createKeyset(size, after));
+	}
+
+	private void parseTotal() {
+		if (!validAttribute(RequestKeyword.TOTAL.lowerName())) {
+			return;
+		}
+		String totalString = jsonData.get(RequestKeyword.TOTAL.lowerName()).getAsString();
+		TotalMode totalMode = TotalMode.from(totalString);
+		if (totalMode == null) {
+			throw new JsonDataException("total node must be one of exact, skip, cached, estimate");
+		}
+		builder.total(totalMode);
+	}
+
 	private void parseFile() {
 		if (!validAttribute(RequestKeyword.FILE.lowerName())) {
 			return;
@@ -636,7 +733,12 @@ public class SimpleParser {
 		List<ValuesInfo> insertValues = new ArrayList<>();
 		JsonElement valuesElement = jsonData.get(RequestKeyword.VALUES.lowerName());
 		if (valuesElement.isJsonArray()) {
-			throw new UnsupportedOperationException("Unrealized.");
+			for (JsonElement element : (JsonArray) valuesElement) {
+				if (!element.isJsonObject()) {
+					throw new JsonDataException("values node must be an object or an array of objects");
+				}
+				insertValues.add(parseValues((JsonObject) element));
+			}
 		} else if (valuesElement.isJsonObject()) {
 			ValuesInfo valuesInfo = parseValues((JsonObject) valuesElement);
 			insertValues.add(valuesInfo);
@@ -644,6 +746,32 @@ public class SimpleParser {
 		builder.insertValues(insertValues);
 	}
 
+	private void parseUpsert() {
+		parsePrimaryTable();
+		parseInsertValues();
+		parseConflict();
+	}
+
+	/**
+	 * 新增或更新的冲突列, 可以是数组或逗号分隔的字符串. 未指定时使用主键
+	 */
+	private void parseConflict() {
+		if (!validAttribute(RequestKeyword.CONFLICT.lowerName())) {
+			return;
+		}
+		List<String> conflicts = new ArrayList<>();
+		JsonElement conflictElement = jsonData.get(RequestKeyword.CONFLICT.lowerName());
+		if (conflictElement.isJsonArray()) {
+			((JsonArray) conflictElement).forEach(e -> conflicts.add(e.getAsString().trim()));
+		} else {
+			for (String conflict : conflictElement.getAsString().split(",")) {
+				conflicts.add(conflict.trim());
+			}
+		}
+		conflicts.removeIf(String::isEmpty);
+		builder.conflicts(conflicts);
+	}
+
 	private void parseUpdate() {
 		parsePrimaryTable();
 		parseUpdateValues();
@@ -704,14 +832,20 @@ public class SimpleParser {
 		return false;
 	}
 
-	private <T> void addNotNull(List<T> list, T value) {
+	static <T> void addNotNull(List<T> list, T value) {
 		if (value != null) {
 			list.add(value);
 		}
 	}
 
+	/**
+	 * 解析 Json 字符串的请求. 使用 {@link StreamingParser} 逐个读取属性, 不构建 Json 树
+	 * 
+	 * @param json
+	 * @return
+	 */
 	public static SimpleInfo parse(String json) {
-		return new SimpleParser(json).parse();
+		return StreamingParser.parse(json);
 	}
 
 	public static SimpleInfo parse(JsonObject jsonData) {
@@ -0,0 +1,577 @@
+package com.github.mengxianun.core.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.github.mengxianun.core.exception.DataException;
+import com.github.mengxianun.core.exception.JsonDataException;
+import com.github.mengxianun.core.parser.info.ColumnInfo;
+import com.github.mengxianun.core.parser.info.ConditionInfo;
+import com.github.mengxianun.core.parser.info.FileInfo;
+import com.github.mengxianun.core.parser.info.FilterInfo;
+import com.github.mengxianun.core.parser.info.GroupInfo;
+import com.github.mengxianun.core.parser.info.JoinInfo;
+import com.github.mengxianun.core.parser.info.LimitInfo;
+import com.github.mengxianun.core.parser.info.NativeInfo;
+import com.github.mengxianun.core.parser.info.OrderInfo;
+import com.github.mengxianun.core.parser.info.RelationInfo;
+import com.github.mengxianun.core.parser.info.SimpleInfo;
+import com.github.mengxianun.core.parser.info.SourceInfo;
+import com.github.mengxianun.core.parser.info.SqlInfo;
+import com.github.mengxianun.core.parser.info.TableInfo;
+import com.github.mengxianun.core.parser.info.ValuesInfo;
+import com.github.mengxianun.core.parser.info.WhereInfo;
+import com.github.mengxianun.core.request.Connector;
+import com.github.mengxianun.core.request.JoinType;
+import com.github.mengxianun.core.request.Operation;
+import com.github.mengxianun.core.request.RequestKeyword;
+import com.github.mengxianun.core.request.TotalMode;
+import com.google.gson.Gson;
+import com.google.gson.internal.bind.TypeAdapters;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * 基于 {@link JsonReader} 的请求解析器, 一次读取 Json 字符串并直接生成 {@link SimpleInfo}, 不构建 Json 树. 结果与
+ * {@link SimpleParser} 解析相同的 Json 对象一致.
+ * <p>
+ * 属性的含义取决于操作, 而操作可能出现在其他属性之后, 所以属性先解析为各自的结果, 读取完成后再按操作写入 SimpleInfo. 表, 列,
+ * 条件和排序的拆分使用 {@link SimpleParser} 中的方法.
+ *
+ * @author mengxiangyun
+ *
+ */
+final class StreamingParser {
+
+	private static final Gson GSON = new Gson();
+	// 游标分页属性
+	private static final String LIMIT_SIZE = "size";
+	private static final String LIMIT_AFTER = "after";
+	private static final Map<String, RequestKeyword> KEYWORDS = new HashMap<>();
+
+	static {
+		for (RequestKeyword keyword : RequestKeyword.values()) {
+			KEYWORDS.put(keyword.lowerName(), keyword);
+		}
+	}
+
+	private final JsonReader reader;
+	private Operation operation;
+	private String operationAttribute;
+	// 操作属性的值
+	private String operationValue;
+	private NativeInfo nativeInfo;
+	private List<SimpleInfo> simples;
+
+	private List<JoinInfo> joins;
+	private List<RelationInfo> relations;
+	private List<ColumnInfo> columns;
+	private WhereInfo where;
+	private List<GroupInfo> groups;
+	private List<OrderInfo> orders;
+	private LimitInfo limit;
+	private TotalMode total;
+	private FileInfo file;
+	private List<ValuesInfo> values;
+	private boolean valuesArray;
+	private List<String> conflicts;
+
+	private StreamingParser(JsonReader reader) {
+		this.reader = reader;
+	}
+
+	static SimpleInfo parse(String json) {
+		JsonReader reader = new JsonReader(new StringReader(json));
+		reader.setLenient(true);
+		try {
+			SimpleInfo simpleInfo = new StreamingParser(reader).parseObject();
+			if (reader.peek() != JsonToken.END_DOCUMENT) {
+				throw new JsonDataException("Json document was not fully consumed.");
+			}
+			return simpleInfo;
+		} catch (IOException e) {
+			throw new JsonDataException("Json format error", e);
+		}
+	}
+
+	private SimpleInfo parseObject() throws IOException {
+		if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+			throw new JsonDataException("Json must be an object");
+		}
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			Operation op = Operation.from(name);
+			if (op != null) {
+				if (operation != null && !name.equals(operationAttribute)) {
+					throw new JsonDataException("Multiple operations were found in the Json data.");
+				}
+				operation = op;
+				operationAttribute = name;
+				readOperation();
+			} else {
+				readAttribute(name);
+			}
+		}
+		reader.endObject();
+		if (operation == null) {
+			throw new JsonDataException("No operations were found in the Json data.");
+		}
+		return build();
+	}
+
+	private void readOperation() throws IOException {
+		switch (operation) {
+		case NATIVE:
+			nativeInfo = NativeInfo.create(TypeAdapters.JSON_ELEMENT.read(reader).toString());
+			break;
+		case TRANSACTION:
+			if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+				throw new JsonDataException("Transaction node must be an array");
+			}
+			simples = new ArrayList<>();
+			reader.beginArray();
+			while (reader.hasNext()) {
+				simples.add(new StreamingParser(reader).parseObject());
+			}
+			reader.endArray();
+			break;
+
+		default:
+			operationValue = nextString();
+			break;
+		}
+	}
+
+	private void readAttribute(String name) throws IOException {
+		RequestKeyword keyword = KEYWORDS.get(name);
+		if (keyword == null) {
+			reader.skipValue();
+			return;
+		}
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return;
+		}
+		switch (keyword) {
+		case JOIN:
+			readJoins();
+			break;
+		case RELATIONS:
+			readRelations();
+			break;
+		case FIELDS:
+			columns = new ArrayList<>();
+			readStrings(e -> SimpleParser.addNotNull(columns, SimpleParser.parseColumn(e)));
+			break;
+		case WHERE:
+			readWhere();
+			break;
+		case GROUP:
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				throw new JsonDataException("Group node cannot be an object");
+			}
+			groups = new ArrayList<>();
+			readStrings(e -> SimpleParser.addNotNull(groups, SimpleParser.parseGroup(e)));
+			break;
+		case ORDER:
+			if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+				throw new JsonDataException("order node cannot be an object");
+			}
+			orders = new ArrayList<>();
+			readStrings(e -> SimpleParser.addNotNull(orders, SimpleParser.parseOrder(e)));
+			break;
+		case LIMIT:
+			readLimit();
+			break;
+		case TOTAL:
+			String totalString = nextString();
+			total = TotalMode.from(totalString);
+			if (total == null) {
+				throw new JsonDataException("total node must be one of exact, skip, cached, estimate");
+			}
+			break;
+		case FILE:
+			file = FileInfo.create(nextString());
+			break;
+		case VALUES:
+			readValues();
+			break;
+		case CONFLICT:
+			readConflicts();
+			break;
+
+		default:
+			reader.skipValue();
+			break;
+		}
+	}
+
+	private SimpleInfo build() {
+		SimpleInfo.Builder builder = SimpleInfo.builder().operation(operation);
+		switch (operation) {
+		case STRUCT:
+			builder.table(createTable());
+			break;
+		case STRUCTS:
+			builder.source(SourceInfo.create(operationValue));
+			setLimit(builder);
+			break;
+		case QUERY:
+		case SELECT:
+		case SELECT_DISTINCT:
+		case DETAIL:
+			builder.table(createTable());
+			if (joins != null) {
+				builder.joins(joins);
+			}
+			if (relations != null) {
+				builder.relations(relations);
+			}
+			if (columns != null) {
+				builder.columns(columns);
+			}
+			setWhere(builder);
+			if (groups != null) {
+				builder.groups(groups);
+			}
+			if (orders != null) {
+				builder.orders(orders);
+			}
+			setLimit(builder);
+			if (total != null) {
+				builder.total(total);
+			}
+			if (file != null) {
+				builder.file(file);
+			}
+			break;
+		case INSERT:
+			builder.table(createTable());
+			setInsertValues(builder);
+			break;
+		case UPSERT:
+			builder.table(createTable());
+			setInsertValues(builder);
+			if (conflicts != null) {
+				builder.conflicts(conflicts);
+			}
+			break;
+		case UPDATE:
+			builder.table(createTable());
+			if (valuesArray) {
+				throw new UnsupportedOperationException("Unrealized.");
+			} else if (values != null && !values.isEmpty()) {
+				builder.updateValues(values.get(0));
+			}
+			setWhere(builder);
+			break;
+		case DELETE:
+			builder.table(createTable());
+			setWhere(builder);
+			break;
+		case SQL:
+			builder.sql(SqlInfo.create(operationValue));
+			break;
+		case NATIVE:
+			builder.nativeInfo(nativeInfo);
+			break;
+		case TRANSACTION:
+			builder.simples(simples);
+			break;
+
+		default:
+			break;
+		}
+		return builder.build();
+	}
+
+	private TableInfo createTable() {
+		return SimpleParser.parseSourceTable(operationValue.trim());
+	}
+
+	private void setWhere(SimpleInfo.Builder builder) {
+		if (where != null) {
+			builder.where(where);
+		}
+	}
+
+	private void setLimit(SimpleInfo.Builder builder) {
+		if (limit != null) {
+			builder.limit(limit);
+		}
+	}
+
+	private void setInsertValues(SimpleInfo.Builder builder) {
+		if (values != null) {
+			builder.insertValues(values);
+		}
+	}
+
+	private void readJoins() throws IOException {
+		joins = new ArrayList<>();
+		if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				SimpleParser.addNotNull(joins, readJoin());
+			}
+			reader.endArray();
+		} else {
+			SimpleParser.addNotNull(joins, readJoin());
+		}
+	}
+
+	private JoinInfo readJoin() throws IOException {
+		JsonToken token = reader.peek();
+		if (token == JsonToken.BEGIN_ARRAY) {
+			throw new JsonDataException("Join child node cannot be an array");
+		} else if (token == JsonToken.BEGIN_OBJECT) {
+			reader.beginObject();
+			String joinTypeString = reader.nextName();
+			JoinType joinType = JoinType.from(joinTypeString);
+			if (joinType == null) {
+				throw new DataException("Unsupported join type[%s]", joinTypeString);
+			}
+			String joinSourceTableString = nextString();
+			skipRemaining();
+			return SimpleParser.createJoin(joinType, joinSourceTableString);
+		} else {
+			return SimpleParser.createJoin(JoinType.LEFT, nextString());
+		}
+	}
+
+	private void readRelations() throws IOException {
+		relations = new ArrayList<>();
+		JsonToken token = reader.peek();
+		if (token == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				if (isPrimitive(reader.peek())) {
+					relations.add(SimpleParser.parseRelation(nextString()));
+				} else {
+					reader.skipValue();
+				}
+			}
+			reader.endArray();
+		} else if (isPrimitive(token)) {
+			relations.add(SimpleParser.parseRelation(nextString()));
+		} else {
+			reader.skipValue();
+		}
+	}
+
+	private void readWhere() throws IOException {
+		List<FilterInfo> filters = new ArrayList<>();
+		if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				filters.add(readFilter());
+			}
+			reader.endArray();
+		} else {
+			filters.add(readFilter());
+		}
+		where = WhereInfo.create(filters);
+	}
+
+	private FilterInfo readFilter() throws IOException {
+		JsonToken token = reader.peek();
+		if (token == JsonToken.BEGIN_ARRAY) {
+			return FilterInfo.create(Connector.AND, null, readSubFilters());
+		} else if (token == JsonToken.BEGIN_OBJECT) {
+			reader.beginObject();
+			if (!reader.hasNext()) {
+				throw new JsonDataException("where node format error");
+			}
+			Connector connector = Connector.from(reader.nextName());
+			FilterInfo filterInfo;
+			JsonToken innerToken = reader.peek();
+			if (innerToken == JsonToken.BEGIN_ARRAY) {
+				filterInfo = FilterInfo.create(connector, null, readSubFilters());
+			} else if (isPrimitive(innerToken)) {
+				ConditionInfo conditionInfo = SimpleParser.createCondition(nextString().trim());
+				filterInfo = FilterInfo.create(connector, conditionInfo, Collections.emptyList());
+			} else {
+				throw new JsonDataException("where node format error");
+			}
+			skipRemaining();
+			return filterInfo;
+		} else {
+			ConditionInfo conditionInfo = SimpleParser.createCondition(nextString().trim());
+			return FilterInfo.create(Connector.AND, conditionInfo, Collections.emptyList());
+		}
+	}
+
+	private List<FilterInfo> readSubFilters() throws IOException {
+		List<FilterInfo> subFilterInfos = new ArrayList<>();
+		reader.beginArray();
+		while (reader.hasNext()) {
+			subFilterInfos.add(readFilter());
+		}
+		reader.endArray();
+		return subFilterInfos;
+	}
+
+	private void readLimit() throws IOException {
+		JsonToken token = reader.peek();
+		if (token == JsonToken.BEGIN_OBJECT) {
+			readKeysetLimit();
+			return;
+		}
+		if (token != JsonToken.BEGIN_ARRAY) {
+			throw new JsonDataException("limit node must be an array or an object");
+		}
+		reader.beginArray();
+		long start = reader.nextLong();
+		long end = reader.nextLong();
+		while (reader.hasNext()) {
+			reader.skipValue();
+		}
+		reader.endArray();
+		limit = LimitInfo.create(start, end);
+	}
+
+	/**
+	 * 游标分页, 例: {"size": 50, "after": "上一页返回的游标"}
+	 */
+	private void readKeysetLimit() throws IOException {
+		Long size = null;
+		String after = null;
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			if (LIMIT_SIZE.equals(name)) {
+				size = reader.nextLong();
+			} else if (LIMIT_AFTER.equals(name) && reader.peek() != JsonToken.NULL) {
+				after = nextString();
+			} else {
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		if (size == null) {
+			throw new JsonDataException("limit node must contain size");
+		}
+		if (size <= 0) {
+			throw new JsonDataException("limit size must be greater than 0");
+		}
+		limit = LimitInfo.createKeyset(size, after);
+	}
+
+	private void readValues() throws IOException {
+		values = new ArrayList<>();
+		JsonToken token = reader.peek();
+		if (token == JsonToken.BEGIN_ARRAY) {
+			valuesArray = true;
+			reader.beginArray();
+			while (reader.hasNext()) {
+				if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+					throw new JsonDataException("values node must be an object or an array of objects");
+				}
+				values.add(readValuesObject());
+			}
+			reader.endArray();
+		} else if (token == JsonToken.BEGIN_OBJECT) {
+			values.add(readValuesObject());
+		} else {
+			reader.skipValue();
+		}
+	}
+
+	private ValuesInfo readValuesObject() throws IOException {
+		Map<String, Object> valuesMap = new LinkedHashMap<>();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String column = reader.nextName();
+			Object value = null;
+			switch (reader.peek()) {
+			case NULL:
+				reader.nextNull();
+				break;
+			case BEGIN_ARRAY:
+				value = GSON.fromJson(reader, Object[].class);
+				break;
+			case BEGIN_OBJECT:
+				value = TypeAdapters.JSON_ELEMENT.read(reader).toString();
+				break;
+
+			default:
+				value = nextString();
+				break;
+			}
+			valuesMap.put(column, value);
+		}
+		reader.endObject();
+		return ValuesInfo.create(valuesMap);
+	}
+
+	/**
+	 * 新增或更新的冲突列, 可以是数组或逗号分隔的字符串
+	 */
+	private void readConflicts() throws IOException {
+		conflicts = new ArrayList<>();
+		if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				conflicts.add(nextString().trim());
+			}
+			reader.endArray();
+		} else {
+			for (String conflict : nextString().split(",")) {
+				conflicts.add(conflict.trim());
+			}
+		}
+		conflicts.removeIf(String::isEmpty);
+	}
+
+	/**
+	 * 读取字符串或字符串数组
+	 */
+	private void readStrings(Consumer<String> consumer) throws IOException {
+		if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				consumer.accept(nextString());
+			}
+			reader.endArray();
+		} else {
+			consumer.accept(nextString());
+		}
+	}
+
+	/**
+	 * 读取字符串, 数字和布尔值按字符串返回
+	 */
+	private String nextString() throws IOException {
+		JsonToken token = reader.peek();
+		if (token == JsonToken.BOOLEAN) {
+			return String.valueOf(reader.nextBoolean());
+		} else if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+			return reader.nextString();
+		}
+		throw new JsonDataException(String.format("Expected a string but was [%s] at [%s]", token, reader.getPath()));
+	}
+
+	/**
+	 * 跳过对象中剩余的属性并结束对象
+	 */
+	private void skipRemaining() throws IOException {
+		while (reader.hasNext()) {
+			reader.nextName();
+			reader.skipValue();
+		}
+		reader.endObject();
+	}
+
+	private boolean isPrimitive(JsonToken token) {
+		return token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN;
+	}
+
+}
@@ -1,17 +1,13 @@
 package com.github.mengxianun.core.parser.action;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -23,8 +19,9 @@ import com.github.mengxianun.core.App;
 import com.github.mengxianun.core.DataContext;
 import com.github.mengxianun.core.NewAction;
 import com.github.mengxianun.core.ResultStatus;
-import com.github.mengxianun.core.config.GlobalConfig;
+import com.github.mengxianun.core.config.TableConfig;
 import com.github.mengxianun.core.exception.DataException;
+import com.github.mengxianun.core.exception.PermissionException;
 import com.github.mengxianun.core.item.ColumnItem;
 import com.github.mengxianun.core.item.FilterItem;
 import com.github.mengxianun.core.item.GroupItem;
@@ -32,6 +29,8 @@ import com.github.mengxianun.core.item.JoinColumnItem;
 import com.github.mengxianun.core.item.JoinItem;
 import com.github.mengxianun.core.item.JoinItem.SingleColumnJoinItem;
 import com.github.mengxianun.core.item.JoinTableItem;
+import com.github.mengxianun.core.item.KeysetFilterItem;
+import com.github.mengxianun.core.item.KeysetLimitItem;
 import com.github.mengxianun.core.item.LimitItem;
 import com.github.mengxianun.core.item.OrderItem;
 import com.github.mengxianun.core.item.RelationshipItem;
@@ -60,6 +59,7 @@ import com.github.mengxianun.core.request.JoinType;
 import com.github.mengxianun.core.request.Operation;
 import com.github.mengxianun.core.request.Operator;
 import com.github.mengxianun.core.request.Order;
+import com.github.mengxianun.core.request.TotalMode;
 import com.github.mengxianun.core.schema.Column;
 import com.github.mengxianun.core.schema.ColumnType;
 import com.github.mengxianun.core.schema.Table;
@@ -70,6 +70,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Table.Cell;
+import com.google.gson.JsonObject;
 
 public class CRUDActionParser extends AbstractActionParser {
 
@@ -116,6 +117,9 @@ public class CRUDActionParser extends AbstractActionParser {
 		case INSERT:
 			parseInsert();
 			break;
+		case UPSERT:
+			parseUpsert();
+			break;
 		case UPDATE:
 			parseUpdate();
 			break;
@@ -147,6 +151,11 @@ public class CRUDActionParser extends AbstractActionParser {
 		parseInsertValues();
 	}
 
+	public void parseUpsert() {
+		parseInsertValues();
+		parseConflicts();
+	}
+
 	public void parseUpdate() {
 		parseUpdateValues();
 		parseWhere();
@@ -268,30 +277,15 @@ public class CRUDActionParser extends AbstractActionParser {
 		Set<RelationshipPath> relationshipPaths = new LinkedHashSet<>();
 		for (JoinElement joinElement : joinElements) {
 			Table joinTable = joinElement.getJoinTableItem().getTable();
-			Set<RelationshipPath> tempRelationshipPaths = dataContext.getRelationships(table, joinTable);
-			if (tempRelationshipPaths.isEmpty()) {
-				///////////////
-				// optimize
-				///////////////
-				// reload config
-				String tableConfigPath = App.Config.getString(GlobalConfig.TABLE_CONFIG_PATH);
-				String source = simpleInfo.table().source();
-				if (Strings.isNullOrEmpty(source)) {
-					source = App.getDefaultDataSource();
-				}
-				String sourceTableConfigDir = tableConfigPath + File.separator + source;
-				try {
-					dataContext.loadTableConfigFromDir(sourceTableConfigDir);
-				} catch (IOException e) {
-					throw new DataException("DataContext config load failed", e);
-				}
-				tempRelationshipPaths = dataContext.getRelationships(table, joinTable);
-				if (tempRelationshipPaths.isEmpty()) {
-					throw new DataException(String.format("Association relation not found for the table [%s] and [%s]",
-							table.getName(), joinTable.getName()));
-				}
-
+			// 请求表之外的最短路径. 没有关联关系的结果同样缓存在关联关系路径索引中, 关联关系变化前不再重复查找
+			Set<RelationshipPath> shortestRelationshipPaths = dataContext.getShortestRelationships(table, joinTable);
+			if (shortestRelationshipPaths.isEmpty()) {
+				throw new DataException(String.format("Association relation not found for the table [%s] and [%s]",
+						table.getName(), joinTable.getName()));
 			}
+			// 中间表都是请求表的路径
+			Set<RelationshipPath> tempRelationshipPaths = dataContext.getRelationships(table, joinTable,
+					action::isJoinTable);
 			// 关联关系获取逻辑
 			// 1. 顺序一致, 如请求的join表为[B, C], 则关联关系只能是B-C, 不能是C-B, 否则会造成多层join
 			// 2. 在多个关联关系路径中, 优先请求表的关系路径, 其次非请求表关系的最短路径
@@ -338,14 +332,8 @@ public class CRUDActionParser extends AbstractActionParser {
 			}
 			Set<RelationshipPath> parsedRelationshipPaths = requestRelationshipPaths;
 			if (parsedRelationshipPaths.isEmpty()) {
-				// Shortest relation path length
-				Optional<Integer> minLenOptional = tempRelationshipPaths.parallelStream().map(RelationshipPath::size)
-						.min(Comparator.comparing(Integer::valueOf));
-				if (minLenOptional.isPresent()) {
-					Integer minLen = minLenOptional.get();
-					parsedRelationshipPaths = tempRelationshipPaths.stream().filter(e -> e.size() == minLen)
-							.collect(Collectors.toSet());
-				}
+				// Shortest relation paths
+				parsedRelationshipPaths = shortestRelationshipPaths.stream().collect(Collectors.toSet());
 			}
 			relationshipPaths.addAll(parsedRelationshipPaths);
 		}
@@ -540,22 +528,27 @@ public class CRUDActionParser extends AbstractActionParser {
 	}
 
 	private void removeExcludeColumns(List<ColumnItem> columnItems) {
-		List<ColumnInfo> excludeColumns = simpleInfo.excludeColumns();
-		List<ColumnItem> removeColumnItems = new ArrayList<>();
-		for (ColumnInfo columnInfo : excludeColumns) {
-			for (ColumnItem columnItem : columnItems) {
-				Column column = columnItem.getColumn();
-				if (column != null) {
-					String columnName = column.getName();
-					String tableName = column.getTable().getName();
-					if (columnName.equalsIgnoreCase(columnInfo.column())
-							&& tableName.equalsIgnoreCase(columnInfo.table())) {
-						removeColumnItems.add(columnItem);
-					}
-				}
+		columnItems.removeIf(e -> isExcludeColumn(e.getColumn()));
+	}
+
+	/**
+	 * 是否为没有查询权限的列
+	 * 
+	 * @param column
+	 * @return
+	 */
+	private boolean isExcludeColumn(Column column) {
+		if (column == null) {
+			return false;
+		}
+		String columnName = column.getName();
+		String tableName = column.getTable().getName();
+		for (ColumnInfo columnInfo : simpleInfo.excludeColumns()) {
+			if (columnName.equalsIgnoreCase(columnInfo.column()) && tableName.equalsIgnoreCase(columnInfo.table())) {
+				return true;
 			}
 		}
-		columnItems.removeAll(removeColumnItems);
+		return false;
 	}
 
 	/**
@@ -742,8 +735,112 @@ public class CRUDActionParser extends AbstractActionParser {
 	public void parseLimit() {
 		LimitInfo limitInfo = simpleInfo.limit();
 		if (limitInfo != null) {
+			if (limitInfo.keyset()) {
+				parseKeysetLimit(limitInfo);
+				return;
+			}
 			action.addLimitItem(new LimitItem(limitInfo.start(), limitInfo.end()));
+			action.setTotalMode(parseTotalMode());
+		}
+	}
+
+	/**
+	 * 游标分页. 在请求的排序后追加主键排序, 保证排序唯一, 并根据游标生成查询条件:
+	 * (c1 > v1) OR (c1 = v1 AND c2 > v2) OR ...
+	 * 
+	 * @param limitInfo
+	 */
+	private void parseKeysetLimit(LimitInfo limitInfo) {
+		if (action.isGroup()) {
+			throw new DataException("Keyset limit does not support group");
+		}
+		TableItem primaryTableItem = action.getPrimaryTableItem();
+		Table primaryTable = primaryTableItem.getTable();
+		if (primaryTable == null || primaryTable.getPrimaryKeys().isEmpty()) {
+			throw new DataException("Keyset limit requires the primary table to have a primary key");
+		}
+		List<OrderItem> seekOrderItems = new ArrayList<>(action.getOrderItems());
+		Set<Column> orderColumns = seekOrderItems.stream().map(e -> e.getColumnItem().getColumn())
+				.collect(Collectors.toSet());
+		for (Column primaryKey : primaryTable.getPrimaryKeys()) {
+			if (orderColumns.contains(primaryKey)) {
+				continue;
+			}
+			ColumnItem columnItem = tempColumnItems.get(primaryKey);
+			if (columnItem == null) {
+				columnItem = new ColumnItem(primaryKey, getAlias(primaryKey), false, primaryTableItem);
+			}
+			OrderItem orderItem = new OrderItem(columnItem, Order.ASC);
+			action.addOrderItem(orderItem);
+			seekOrderItems.add(orderItem);
+		}
+		// 游标取自查询结果, 排序列需要包含在查询列中. 追加的列作为内部列, 不输出到结果中
+		for (OrderItem orderItem : seekOrderItems) {
+			ColumnItem columnItem = orderItem.getColumnItem();
+			Column column = columnItem.getColumn();
+			if (column == null) {
+				throw new DataException("Keyset limit only supports ordering by columns");
+			}
+			// 游标中包含排序列的值, 不能使用没有查询权限的列
+			if (isExcludeColumn(column)) {
+				throw new PermissionException(String.format("Keyset limit cannot order by column [%s.%s]",
+						column.getTable().getName(), column.getName()));
+			}
+			if (!action.getColumnItems().contains(columnItem)) {
+				columnItem.setInternal(true);
+				action.getColumnItems().add(columnItem);
+			}
+		}
+		KeysetLimitItem limitItem = new KeysetLimitItem(limitInfo.end(), limitInfo.after());
+		limitItem.setSeekOrderItems(seekOrderItems);
+		action.addLimitItem(limitItem);
+		action.setTotalMode(TotalMode.SKIP);
+		if (limitInfo.after() == null) {
+			return;
+		}
+		List<Object> afterValues = limitItem.getAfterValues();
+		List<FilterItem> seekFilterItems = new ArrayList<>();
+		for (int i = 0; i < seekOrderItems.size(); i++) {
+			List<FilterItem> subFilterItems = new ArrayList<>();
+			for (int j = 0; j < i; j++) {
+				subFilterItems.add(new KeysetFilterItem(Connector.AND, seekOrderItems.get(j).getColumnItem(),
+						Operator.EQUAL, afterValues.get(j)));
+			}
+			OrderItem orderItem = seekOrderItems.get(i);
+			Operator operator = orderItem.getOrder() == Order.DESC ? Operator.LT : Operator.GT;
+			subFilterItems.add(
+					new KeysetFilterItem(Connector.AND, orderItem.getColumnItem(), operator, afterValues.get(i)));
+			seekFilterItems.add(new FilterItem(Connector.OR, subFilterItems));
+		}
+		// 原有条件可能包含 OR, 作为一个整体与游标条件组合
+		List<FilterItem> filterItems = new ArrayList<>();
+		if (!action.getFilterItems().isEmpty()) {
+			filterItems.add(new FilterItem(Connector.AND, new ArrayList<>(action.getFilterItems())));
+		}
+		filterItems.add(new FilterItem(Connector.AND, seekFilterItems));
+		action.setFilterItems(filterItems);
+	}
+
+	/**
+	 * 总数计算方式, 优先使用请求中指定的方式, 其次是主表配置
+	 * 
+	 * @return 总数计算方式
+	 */
+	private TotalMode parseTotalMode() {
+		if (simpleInfo.total() != null) {
+			return simpleInfo.total();
+		}
+		Table primaryTable = action.getPrimaryTable();
+		if (primaryTable != null) {
+			JsonObject tableConfig = primaryTable.getConfig();
+			if (tableConfig != null && tableConfig.has(TableConfig.TOTAL_MODE)) {
+				TotalMode totalMode = TotalMode.from(tableConfig.get(TableConfig.TOTAL_MODE).getAsString());
+				if (totalMode != null) {
+					return totalMode;
+				}
+			}
 		}
+		return TotalMode.EXACT;
 	}
 
 	public void parseInsertValues() {
@@ -753,6 +850,31 @@ public class CRUDActionParser extends AbstractActionParser {
 		action.addAllInsertValueItems(insertValueItems);
 	}
 
+	/**
+	 * 新增或更新的冲突列, 未指定时使用主表的主键
+	 */
+	public void parseConflicts() {
+		Table table = action.getPrimaryTable();
+		List<String> conflicts = simpleInfo.conflicts();
+		List<Column> conflictColumns = new ArrayList<>();
+		if (conflicts.isEmpty()) {
+			conflictColumns.addAll(table.getPrimaryKeys());
+		} else {
+			for (String conflict : conflicts) {
+				Column column = dataContext.getColumn(simpleInfo.table().table(), conflict);
+				if (column == null) {
+					throw new DataException(ResultStatus.DATASOURCE_COLUMN_NOT_EXIST, conflict);
+				}
+				conflictColumns.add(column);
+			}
+		}
+		if (conflictColumns.isEmpty()) {
+			throw new DataException("Upsert conflict columns not specified and table [%s] has no primary key",
+					table.getName());
+		}
+		action.addAllConflictColumns(conflictColumns);
+	}
+
 	public void parseUpdateValues() {
 		ValuesInfo updateValues = simpleInfo.updateValues();
 		// Don not update primary key
@@ -829,16 +951,13 @@ public class CRUDActionParser extends AbstractActionParser {
 				RelationshipPath relationshipPath = new RelationshipPath();
 				String preTable = simpleInfo.table().table();
 				for (String relationTable : relationTablesPath) {
-					Set<RelationshipPath> relationshipPaths = dataContext.getRelationships(preTable, relationTable);
+					Set<RelationshipPath> relationshipPaths = dataContext.getShortestRelationships(
+							dataContext.getTable(preTable), dataContext.getTable(relationTable));
 					if (relationshipPaths.isEmpty()) {
 						throw new DataException(String.format(
 								"Association relation not found for the table [%s] and [%s]", preTable, relationTable));
 					}
-					Optional<RelationshipPath> relationshipPathOptional = relationshipPaths.stream()
-							.min(Comparator.comparing(RelationshipPath::size));
-					if (relationshipPathOptional.isPresent()) {
-						relationshipPath.addAll(relationshipPathOptional.get());
-					}
+					relationshipPath.addAll(relationshipPaths.iterator().next());
 					preTable = relationTable;
 				}
 				createRelationship(relationshipPath);
@@ -3,7 +3,9 @@ package com.github.mengxianun.core.parser.action;
 import com.github.mengxianun.core.DataContext;
 import com.github.mengxianun.core.NewAction;
 import com.github.mengxianun.core.action.StructsAction;
+import com.github.mengxianun.core.exception.DataException;
 import com.github.mengxianun.core.parser.AbstractActionParser;
+import com.github.mengxianun.core.parser.info.LimitInfo;
 import com.github.mengxianun.core.parser.info.SimpleInfo;
 
 public class StructsActionParser extends AbstractActionParser {
@@ -14,7 +16,14 @@ public class StructsActionParser extends AbstractActionParser {
 
 	@Override
 	public NewAction parse() {
-		return new StructsAction(dataContext);
+		LimitInfo limitInfo = simpleInfo.limit();
+		if (limitInfo == null) {
+			return new StructsAction(dataContext, 0, -1);
+		}
+		if (limitInfo.keyset()) {
+			throw new DataException("structs does not support keyset limit");
+		}
+		return new StructsAction(dataContext, limitInfo.start(), limitInfo.end());
 	}
 
 }
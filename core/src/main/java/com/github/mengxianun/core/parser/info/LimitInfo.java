@@ -1,16 +1,36 @@
 package com.github.mengxianun.core.parser.info;
 
+import javax.annotation.Nullable;
+
 import com.google.auto.value.AutoValue;
 
 @AutoValue
 public abstract class LimitInfo {
 
 	public static LimitInfo create(long start, long end) {
-		return new AutoValue_LimitInfo(start, end);
+		return new AutoValue_LimitInfo(start, end, false, null);
+	}
+
+	/**
+	 * 游标分页
+	 * 
+	 * @param size
+	 *            每页大小
+	 * @param after
+	 *            上一页返回的游标, 第一页为 null
+	 * @return LimitInfo
+	 */
+	public static LimitInfo createKeyset(long size, String after) {
+		return new AutoValue_LimitInfo(0, size, true, after);
 	}
 
 	public abstract long start();
 
 	public abstract long end();
 
+	public abstract boolean keyset();
+
+	@Nullable
+	public abstract String after();
+
 }
@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 import com.github.mengxianun.core.parser.info.extension.StatementConditionInfo;
 import com.github.mengxianun.core.parser.info.extension.StatementValueConditionInfo;
 import com.github.mengxianun.core.request.Operation;
+import com.github.mengxianun.core.request.TotalMode;
 import com.google.auto.value.AutoValue;
 
 @AutoValue
@@ -39,8 +40,13 @@ public abstract class SimpleInfo {
 	@Nullable
 	public abstract LimitInfo limit();
 
+	@Nullable
+	public abstract TotalMode total();
+
 	public abstract List<ValuesInfo> insertValues();
 
+	public abstract List<String> conflicts();
+
 	@Nullable
 	public abstract ValuesInfo updateValues();
 
@@ -65,7 +71,7 @@ public abstract class SimpleInfo {
 				.relations(Collections.emptyList())
 				.where(WhereInfo.create(Collections.emptyList()))
 				.groups(Collections.emptyList()).orders(Collections.emptyList())
-				.insertValues(Collections.emptyList()).statementConditions(Collections.emptyList())
+				.insertValues(Collections.emptyList()).conflicts(Collections.emptyList()).statementConditions(Collections.emptyList())
 				.statementValueConditions(Collections.emptyList())
 				.simples(Collections.emptyList());
 	}
@@ -92,6 +98,10 @@ public abstract class SimpleInfo {
 		return toBuilder().statementValueConditions(statementValueConditions).build();
 	}
 
+	public SimpleInfo withLimit(LimitInfo limit) {
+		return toBuilder().limit(limit).build();
+	}
+
 	public SimpleInfo withRelations(List<RelationInfo> relations) {
 		return toBuilder().relations(relations).build();
 	}
@@ -121,8 +131,12 @@ public abstract class SimpleInfo {
 
 		public abstract Builder limit(LimitInfo limit);
 
+		public abstract Builder total(TotalMode total);
+
 		public abstract Builder insertValues(List<ValuesInfo> values);
 
+		public abstract Builder conflicts(List<String> conflicts);
+
 		public abstract Builder updateValues(ValuesInfo value);
 
 		public abstract Builder sql(SqlInfo sql);
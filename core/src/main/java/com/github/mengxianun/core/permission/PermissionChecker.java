@@ -1,6 +1,5 @@
 package com.github.mengxianun.core.permission;
 
-import java.lang.reflect.Type;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,6 +14,7 @@ import com.github.mengxianun.core.App;
 import com.github.mengxianun.core.DataContext;
 import com.github.mengxianun.core.SQLParser;
 import com.github.mengxianun.core.data.Summary;
+import com.github.mengxianun.core.data.summary.QuerySummary;
 import com.github.mengxianun.core.exception.DataException;
 import com.github.mengxianun.core.exception.PermissionException;
 import com.github.mengxianun.core.item.SQLValue;
@@ -37,7 +37,6 @@ import com.github.mengxianun.core.request.RequestKeyword;
 import com.github.mengxianun.core.schema.Table;
 import com.google.common.base.Strings;
 import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 
 public final class PermissionChecker {
 
@@ -59,16 +58,20 @@ public final class PermissionChecker {
 		if (policy == PermissionPolicy.DENY_ALL) {
 			return PermissionCheckResult.create(false, simpleInfo);
 		}
-		PermissionCheckResult tableCheckResult = checkTableWithResult(simpleInfo);
+		PermissionCheckResult tableCheckResult = checkTableWithResult(simpleInfo,
+				getAction(simpleInfo.operation()));
+		// 新增或更新需要同时具有新增和修改权限
+		if (simpleInfo.operation() == Operation.UPSERT && tableCheckResult.pass()) {
+			tableCheckResult = checkTableWithResult(tableCheckResult.simpleInfo(), Action.UPDATE);
+		}
 		PermissionCheckResult columnCheckResult = checkColumnWithResult(tableCheckResult.simpleInfo());
 		return PermissionCheckResult.create(tableCheckResult.pass() && columnCheckResult.pass(),
 				columnCheckResult.simpleInfo());
 	}
 
-	private static PermissionCheckResult checkTableWithResult(SimpleInfo simpleInfo) {
+	private static PermissionCheckResult checkTableWithResult(SimpleInfo simpleInfo, Action action) {
 		PermissionPolicy policy = App.getPermissionPolicy();
 		List<TablePermission> applyTablePermissions = new ArrayList<>();
-		Action action = getAction(simpleInfo.operation());
 		TableInfo primaryTableInfo = simpleInfo.table();
 		List<TableInfo> joinTableInfos = simpleInfo.joins().stream().map(JoinInfo::tableInfo)
 				.collect(Collectors.toList());
@@ -284,7 +287,13 @@ public final class PermissionChecker {
 		if (simpleInfo.operation().isQuery()) {
 			return checkSelectColumnWithResult(simpleInfo);
 		} else if (simpleInfo.operation() == Operation.INSERT || simpleInfo.operation() == Operation.UPDATE) {
-			return checkUpdateColumnWithResult(simpleInfo);
+			return checkUpdateColumnWithResult(simpleInfo, getAction(simpleInfo.operation()));
+		} else if (simpleInfo.operation() == Operation.UPSERT) {
+			PermissionCheckResult insertCheckResult = checkUpdateColumnWithResult(simpleInfo, Action.INSERT);
+			if (!insertCheckResult.pass()) {
+				return insertCheckResult;
+			}
+			return checkUpdateColumnWithResult(insertCheckResult.simpleInfo(), Action.UPDATE);
 		}
 		return PermissionCheckResult.create(true, simpleInfo);
 	}
@@ -346,12 +355,11 @@ public final class PermissionChecker {
 		return PermissionCheckResult.create(true, simpleInfo);
 	}
 
-	private static PermissionCheckResult checkUpdateColumnWithResult(SimpleInfo simpleInfo) {
-		Action action = getAction(simpleInfo.operation());
+	private static PermissionCheckResult checkUpdateColumnWithResult(SimpleInfo simpleInfo, Action action) {
 		String source = simpleInfo.table().source();
 		String table = simpleInfo.table().table();
 		List<ColumnInfo> columns = new ArrayList<>();
-		if (simpleInfo.operation() == Operation.INSERT) {
+		if (simpleInfo.operation() == Operation.INSERT || simpleInfo.operation() == Operation.UPSERT) {
 			ValuesInfo valuesInfo = simpleInfo.insertValues().get(0);
 			for (Entry<String, Object> entry : valuesInfo.values().entrySet()) {
 				String column = entry.getKey();
@@ -451,9 +459,8 @@ public final class PermissionChecker {
 				dataContext).parse();
 		Summary summary = action.execute();
 
-		Type dataType = new TypeToken<List<Map<String, Object>>>() {}.getType();
-		List<Map<String, Object>> data = App.gson().fromJson(App.gson().toJson(summary.getData()), dataType);
-		return data.parallelStream().map(e -> e.get(column)).collect(Collectors.toList());
+		List<Map<String, Object>> data = ((QuerySummary) summary).getValues();
+		return data.stream().map(e -> e.get(column)).collect(Collectors.toList());
 	}
 
 	private static Action getAction(Operation operation) {
@@ -464,6 +471,7 @@ public final class PermissionChecker {
 		case QUERY:
 			return Action.SELECT;
 		case INSERT:
+		case UPSERT:
 			return Action.INSERT;
 		case UPDATE:
 			return Action.UPDATE;
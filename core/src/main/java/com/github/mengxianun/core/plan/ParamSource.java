@@ -0,0 +1,52 @@
+package com.github.mengxianun.core.plan;
+
+import com.github.mengxianun.core.item.FilterItem;
+
+/**
+ * SQL 参数的来源, 执行计划缓存命中后根据参数来源重新绑定参数值
+ *
+ * @author mengxiangyun
+ *
+ */
+public final class ParamSource {
+
+	public static final ParamSource LIMIT = new ParamSource(Type.LIMIT, null, -1);
+	public static final ParamSource START = new ParamSource(Type.START, null, -1);
+
+	enum Type {
+		FILTER, LIMIT, START
+	}
+
+	private final Type type;
+	// 条件项
+	private final FilterItem filterItem;
+	// 多值条件(in, between)中值的位置, 单值条件为 -1
+	private final int index;
+
+	private ParamSource(Type type, FilterItem filterItem, int index) {
+		this.type = type;
+		this.filterItem = filterItem;
+		this.index = index;
+	}
+
+	public static ParamSource filter(FilterItem filterItem) {
+		return filter(filterItem, -1);
+	}
+
+	public static ParamSource filter(FilterItem filterItem, int index) {
+		return new ParamSource(Type.FILTER, filterItem, index);
+	}
+
+	Type getType() {
+		return type;
+	}
+
+	FilterItem getFilterItem() {
+		return filterItem;
+	}
+
+	int getIndex() {
+		return index;
+	}
+
+}
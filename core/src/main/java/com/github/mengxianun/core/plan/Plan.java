@@ -0,0 +1,137 @@
+package com.github.mengxianun.core.plan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.SQLBuilder;
+import com.github.mengxianun.core.item.FilterItem;
+import com.github.mengxianun.core.item.LimitItem;
+import com.github.mengxianun.core.parser.info.LimitInfo;
+
+/**
+ * 已编译的执行计划. 保存请求解析后的结构和 SQL 模板, 命中缓存时只需要重新绑定参数
+ *
+ * @author mengxiangyun
+ *
+ */
+public final class Plan {
+
+	// 首次解析的请求, 新请求共享其表, 列, 关联等请求项
+	private final Action template;
+	private final String sql;
+	private final List<Object> params;
+	private final Map<Integer, ParamSource> paramSources;
+	private final String countSql;
+	private final List<Object> countParams;
+	private final Map<Integer, ParamSource> countParamSources;
+	private final String fetchString;
+	// 条件项对应的请求字面值位置
+	private final Map<FilterItem, Integer> slots;
+
+	private Plan(Action template, Map<FilterItem, Integer> slots) {
+		SQLBuilder sqlBuilder = template.getSqlBuilder();
+		this.template = template;
+		this.sql = sqlBuilder.getSql();
+		this.params = new ArrayList<>(sqlBuilder.getParams());
+		this.paramSources = new HashMap<>(sqlBuilder.getParamSources());
+		if (template.isLimit()) {
+			this.countSql = sqlBuilder.countSql();
+			this.countParams = new ArrayList<>(sqlBuilder.countParams());
+			this.countParamSources = new HashMap<>(sqlBuilder.getWhereParamSources());
+		} else {
+			this.countSql = null;
+			this.countParams = null;
+			this.countParamSources = null;
+		}
+		this.fetchString = sqlBuilder.getFetchString();
+		this.slots = slots;
+	}
+
+	/**
+	 * 编译已经构建 SQL 的 Action
+	 *
+	 * @param action
+	 * @param literals
+	 *            请求中的字面值, 按请求中出现的顺序
+	 * @return Plan
+	 */
+	static Plan compile(Action action, List<Object> literals) {
+		Map<Object, Integer> literalSlots = new IdentityHashMap<>();
+		for (int i = 0; i < literals.size(); i++) {
+			literalSlots.put(literals.get(i), i);
+		}
+		Map<FilterItem, Integer> slots = new IdentityHashMap<>();
+		collectSlots(action.getFilterItems(), literalSlots, slots);
+		return new Plan(action, slots);
+	}
+
+	private static void collectSlots(List<FilterItem> filterItems, Map<Object, Integer> literalSlots,
+			Map<FilterItem, Integer> slots) {
+		for (FilterItem filterItem : filterItems) {
+			Object value = filterItem.getValue();
+			if (value != null && literalSlots.containsKey(value)) {
+				slots.put(filterItem, literalSlots.get(value));
+			}
+			collectSlots(filterItem.getSubFilterItems(), literalSlots, slots);
+		}
+	}
+
+	/**
+	 * 将新请求的字面值绑定到执行计划, 生成新的 Action
+	 *
+	 * @param literals
+	 *            新请求中的字面值
+	 * @param limitInfo
+	 *            新请求的分页信息
+	 * @return Action
+	 */
+	Action bind(List<Object> literals, LimitInfo limitInfo) {
+		LimitItem limitItem = limitInfo == null ? null : new LimitItem(limitInfo.start(), limitInfo.end());
+		Action action = template.copy(limitItem);
+		Map<FilterItem, Object> realValues = new IdentityHashMap<>();
+		List<Object> boundParams = bind(params, paramSources, literals, limitItem, realValues);
+		List<Object> boundCountParams = countSql == null ? null
+				: bind(countParams, countParamSources, literals, limitItem, realValues);
+		action.setSqlBuilder(new PlanSQLBuilder(action, sql, boundParams, countSql, boundCountParams,
+				fetchString));
+		return action;
+	}
+
+	private List<Object> bind(List<Object> templateParams, Map<Integer, ParamSource> sources, List<Object> literals,
+			LimitItem limitItem, Map<FilterItem, Object> realValues) {
+		List<Object> boundParams = new ArrayList<>(templateParams.size());
+		for (int i = 0; i < templateParams.size(); i++) {
+			ParamSource source = sources.get(i);
+			if (source == null) { // 常量参数
+				boundParams.add(templateParams.get(i));
+				continue;
+			}
+			switch (source.getType()) {
+			case LIMIT:
+				boundParams.add(limitItem.getLimit());
+				break;
+			case START:
+				boundParams.add(limitItem.getStart());
+				break;
+			default:
+				FilterItem filterItem = source.getFilterItem();
+				if (!realValues.containsKey(filterItem)) {
+					Integer slot = slots.get(filterItem);
+					// 不在字面值中的条件值(如关键字 $now) 每次重新计算
+					Object realValue = slot == null ? filterItem.getRealValue()
+							: filterItem.getRealValue(literals.get(slot));
+					realValues.put(filterItem, realValue);
+				}
+				Object realValue = realValues.get(filterItem);
+				boundParams.add(source.getIndex() < 0 ? realValue : ((Object[]) realValue)[source.getIndex()]);
+				break;
+			}
+		}
+		return boundParams;
+	}
+
+}
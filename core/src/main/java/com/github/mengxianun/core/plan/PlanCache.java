@@ -0,0 +1,197 @@
+package com.github.mengxianun.core.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.NewAction;
+import com.github.mengxianun.core.parser.info.ConditionInfo;
+import com.github.mengxianun.core.parser.info.FilterInfo;
+import com.github.mengxianun.core.parser.info.LimitInfo;
+import com.github.mengxianun.core.parser.info.SimpleInfo;
+import com.github.mengxianun.core.parser.info.WhereInfo;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * 执行计划缓存.
+ * <p>
+ * 缓存的 key 为去掉条件字面值和分页值之后的请求, 相同结构的请求共享解析结果和 SQL 模板, 命中缓存后只重新绑定参数.
+ * 仅缓存查询请求. 元数据刷新, 表配置重新加载以及关联关系变更时需要清空缓存.
+ *
+ * @author mengxiangyun
+ *
+ */
+public class PlanCache {
+
+	// 替换请求中字面值的占位符
+	private static final String LITERAL = "?";
+	// 替换请求中分页值的占位符
+	private static final LimitInfo LIMIT = LimitInfo.create(0, 0);
+
+	private final int maximumSize;
+	private final Cache<SimpleInfo, Plan> cache;
+	// 缓存版本, 每次清空缓存时递增. 防止清空缓存前开始解析的请求在清空后写入缓存
+	private final AtomicLong version = new AtomicLong();
+
+	public PlanCache(int maximumSize) {
+		this.maximumSize = maximumSize;
+		this.cache = CacheBuilder.newBuilder().maximumSize(Math.max(maximumSize, 0)).recordStats().build();
+	}
+
+	/**
+	 * 解析请求. 命中缓存时直接绑定参数, 否则通过 parser 解析并编译执行计划
+	 *
+	 * @param simpleInfo
+	 *            权限校验后的请求
+	 * @param parser
+	 * @return NewAction
+	 */
+	public NewAction parse(SimpleInfo simpleInfo, Supplier<NewAction> parser) {
+		if (maximumSize <= 0 || !isQuery(simpleInfo)) {
+			return parser.get();
+		}
+		List<Object> literals = new ArrayList<>();
+		SimpleInfo key = normalize(simpleInfo, literals);
+		if (key == null) {
+			return parser.get();
+		}
+		Plan plan = cache.getIfPresent(key);
+		if (plan != null) {
+			return plan.bind(literals, simpleInfo.limit());
+		}
+		long currentVersion = version.get();
+		NewAction newAction = parser.get();
+		if (newAction instanceof Action) {
+			Action action = (Action) newAction;
+			action.build();
+			Plan compiled = Plan.compile(action, literals);
+			if (currentVersion == version.get()) {
+				cache.put(key, compiled);
+			}
+		}
+		return newAction;
+	}
+
+	private boolean isQuery(SimpleInfo simpleInfo) {
+		switch (simpleInfo.operation()) {
+		case DETAIL:
+		case SELECT:
+		case SELECT_DISTINCT:
+			return simpleInfo.simples().isEmpty();
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * 将请求中的字面值替换为占位符
+	 *
+	 * @param simpleInfo
+	 * @param literals
+	 *            被替换的字面值
+	 * @return 替换后的请求, 请求无法缓存时返回 null
+	 */
+	private SimpleInfo normalize(SimpleInfo simpleInfo, List<Object> literals) {
+		SimpleInfo key = simpleInfo;
+		WhereInfo where = simpleInfo.where();
+		if (where != null) {
+			Set<Object> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+			List<FilterInfo> filters = new ArrayList<>();
+			for (FilterInfo filterInfo : where.filters()) {
+				FilterInfo filter = normalize(filterInfo, literals, identities);
+				if (filter == null) {
+					return null;
+				}
+				filters.add(filter);
+			}
+			key = key.withWhere(WhereInfo.create(filters));
+		}
+		if (simpleInfo.limit() != null) {
+			// 游标分页的条件由游标生成, 不缓存
+			if (simpleInfo.limit().keyset()) {
+				return null;
+			}
+			key = key.withLimit(LIMIT);
+		}
+		return key;
+	}
+
+	private FilterInfo normalize(FilterInfo filterInfo, List<Object> literals, Set<Object> identities) {
+		ConditionInfo conditionInfo = filterInfo.conditionInfo();
+		if (conditionInfo != null) {
+			Object value = conditionInfo.value();
+			Object normalizedValue;
+			if (value instanceof Object[]) {
+				Object[] values = (Object[]) value;
+				for (Object element : values) {
+					if (!isLiteral(element)) {
+						return null;
+					}
+				}
+				normalizedValue = LITERAL + "[" + values.length + "]";
+			} else if (isLiteral(value)) {
+				normalizedValue = LITERAL;
+			} else if (value == null || value instanceof String || value instanceof Boolean) {
+				// 空字符串, 关键字, null 等值会影响请求的解析结果, 作为请求结构的一部分
+				normalizedValue = value;
+			} else {
+				return null;
+			}
+			if (normalizedValue != value) {
+				// 字面值通过对象标识与条件项对应, 同一个对象出现多次时无法区分
+				if (!identities.add(value)) {
+					return null;
+				}
+				literals.add(value);
+			}
+			conditionInfo = ConditionInfo.create(conditionInfo.columnInfo(), conditionInfo.operator(),
+					normalizedValue, conditionInfo.relationTablesPath());
+		}
+		List<FilterInfo> subfilters = new ArrayList<>();
+		for (FilterInfo subfilter : filterInfo.subfilters()) {
+			FilterInfo normalizedSubfilter = normalize(subfilter, literals, identities);
+			if (normalizedSubfilter == null) {
+				return null;
+			}
+			subfilters.add(normalizedSubfilter);
+		}
+		return FilterInfo.create(filterInfo.connector(), conditionInfo, subfilters);
+	}
+
+	private boolean isLiteral(Object value) {
+		if (value instanceof Number) {
+			return true;
+		}
+		if (value instanceof String) {
+			String stringValue = (String) value;
+			return !stringValue.isEmpty() && !stringValue.startsWith("$") && !"null".equalsIgnoreCase(stringValue);
+		}
+		return false;
+	}
+
+	public void invalidateAll() {
+		version.incrementAndGet();
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * 缓存命中, 未命中, 淘汰等统计信息
+	 *
+	 * @return CacheStats
+	 */
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.github.mengxianun.core.plan;
+
+import java.util.List;
+
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.SQLBuilder;
+
+/**
+ * 执行计划缓存命中时使用的 SQLBuilder, SQL 语句已经编译, 只持有本次请求绑定的参数
+ *
+ * @author mengxiangyun
+ *
+ */
+public class PlanSQLBuilder extends SQLBuilder {
+
+	private final String countSql;
+	private final List<Object> countParams;
+
+	public PlanSQLBuilder(Action action, String sql, List<Object> params, String countSql,
+			List<Object> countParams, String fetchString) {
+		super(action);
+		this.sql = sql;
+		this.params = params;
+		this.countSql = countSql;
+		this.countParams = countParams;
+		this.fetchString = fetchString;
+	}
+
+	@Override
+	public void toSql() {
+		// SQL 已经编译
+	}
+
+	@Override
+	public String countSql() {
+		return countSql;
+	}
+
+	@Override
+	public List<Object> countParams() {
+		return countParams;
+	}
+
+}
@@ -3,6 +3,7 @@ package com.github.mengxianun.core.render;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -59,7 +60,16 @@ public class FileRenderer extends AbstractRenderer<OutputStream> {
 	}
 
 	private ByteArrayOutputStream renderExcel(List<Row> rows, Workbook workbook) {
-		List<ColumnItem> columnItems = action.getColumnItems();
+		List<ColumnItem> allColumnItems = action.getColumnItems();
+		// 不输出内部列, 记录输出列在查询结果中的位置
+		List<ColumnItem> columnItems = new ArrayList<>();
+		List<Integer> columnIndexes = new ArrayList<>();
+		for (int i = 0; i < allColumnItems.size(); i++) {
+			if (!allColumnItems.get(i).isInternal()) {
+				columnItems.add(allColumnItems.get(i));
+				columnIndexes.add(i);
+			}
+		}
 		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 
 		try (Workbook wb = workbook) {
@@ -82,7 +92,7 @@ public class FileRenderer extends AbstractRenderer<OutputStream> {
 				for (int j = 0; j < columnItems.size(); j++) {
 					Cell cell = row.createCell(j);
 
-					Object value = dataRow.getValue(j);
+					Object value = dataRow.getValue(columnIndexes.get(j));
 					if (value == null) {
 						cell.setCellValue((String) null);
 						continue;
@@ -1,11 +1,11 @@
 package com.github.mengxianun.core.render;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.UUID;
 
 import com.github.mengxianun.core.Action;
 import com.github.mengxianun.core.App;
@@ -24,48 +24,62 @@ import com.github.mengxianun.core.schema.ColumnType;
 import com.github.mengxianun.core.schema.Table;
 import com.github.mengxianun.core.schema.relationship.Relationship;
 import com.google.common.base.Strings;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 
-public class JsonRenderer extends AbstractRenderer<JsonElement> {
+/**
+ * 将查询结果直接渲染为 Map/List 结构, 不经过 Json 对象的中间转换. 数值类型统一为 Long 或 Double, 与 Json 反序列化为 Object
+ * 时的类型一致, 见 {@link com.google.gson.internal.bind.ObjectTypeAdapter}
+ *
+ * @author mengxiangyun
+ *
+ */
+public class MapRenderer extends AbstractRenderer<List<Map<String, Object>>> {
 
-	public JsonRenderer(Action action) {
+	public MapRenderer(Action action) {
 		super(action);
 	}
 
 	@Override
-	public JsonArray render(List<Row> rows) {
+	public List<Map<String, Object>> render(List<Row> rows) {
+		// 单表查询的情况, 每条记录为一条唯一的记录, 不合并相同的记录
+		if (!action.isJoin()) {
+			List<Map<String, Object>> renderData = new ArrayList<>(rows.size());
+			for (Row row : rows) {
+				renderData.add(render(row));
+			}
+			return renderData;
+		}
 		// 主表唯一记录对象, key 为主表所有列的的值拼接的字符串, value 为主表唯一记录的对象
-		JsonObject uniqueRecords = new JsonObject();
+		Map<String, Map<String, Object>> uniqueRecords = new LinkedHashMap<>();
 		for (Row row : rows) {
-			// 主表的唯一记录对象
-			JsonObject uniqueRecord;
 			// 主表的唯一记录标识
 			String uniqueRecordKey = createMainTableUniqueRecordKey(row);
-			if (uniqueRecords.has(uniqueRecordKey)) {
-				uniqueRecord = uniqueRecords.getAsJsonObject(uniqueRecordKey);
-			} else {
-				uniqueRecord = new JsonObject();
-				uniqueRecords.add(uniqueRecordKey, uniqueRecord);
-			}
+			// 主表的唯一记录对象
+			Map<String, Object> uniqueRecord = uniqueRecords.computeIfAbsent(uniqueRecordKey,
+					k -> new LinkedHashMap<>());
 			// 处理单条记录
 			render(uniqueRecord, row);
 		}
-		JsonArray renderData = new JsonArray();
-		for (String uniqueKey : uniqueRecords.keySet()) {
-			renderData.add(uniqueRecords.getAsJsonObject(uniqueKey));
-		}
-		return renderData;
+		return new ArrayList<>(uniqueRecords.values());
+	}
+
+	/**
+	 * 渲染单条记录, 用于查询结果的流式输出. 关联查询需要合并多条记录, 应使用 {@link #render(List)}
+	 *
+	 * @param row
+	 * @return
+	 */
+	public Map<String, Object> render(Row row) {
+		return render(new LinkedHashMap<>(), row);
 	}
 
-	private JsonObject render(JsonObject uniqueRecord, Row row) {
-		Map<TableItem, JsonObject> tableItemValues = parseTableItemValues(row);
+	private Map<String, Object> render(Map<String, Object> uniqueRecord, Row row) {
+		Map<TableItem, Map<String, Object>> tableItemValues = parseTableItemValues(row);
 		// 循环所有表, 构建数据结构
-		for (Entry<TableItem, JsonObject> entry : tableItemValues.entrySet()) {
+		for (Entry<TableItem, Map<String, Object>> entry : tableItemValues.entrySet()) {
 			TableItem tableItem = entry.getKey();
-			JsonObject tableObject = entry.getValue();
+			Map<String, Object> tableObject = entry.getValue();
 			if (tableItem instanceof JoinTableItem) {
 				if (isNull(tableObject)) {
 					continue;
@@ -79,43 +93,37 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 	}
 
 	/**
-	 * 解析每个 TableItem 的值, 转换为 Json 对象
-	 * 
+	 * 解析每个 TableItem 的值
+	 *
 	 * @param row
 	 * @return
 	 */
-	private Map<TableItem, JsonObject> parseTableItemValues(Row row) {
+	private Map<TableItem, Map<String, Object>> parseTableItemValues(Row row) {
 		List<ColumnItem> columnItems = row.getHeader().getColumnItems();
-		Map<TableItem, JsonObject> tableItemValues = new LinkedHashMap<>();
+		Map<TableItem, Map<String, Object>> tableItemValues = new LinkedHashMap<>();
 		// 获取每个表的数据
 		for (int x = 0; x < columnItems.size(); x++) {
 			ColumnItem columnItem = columnItems.get(x);
-			TableItem tableItem = columnItem.getTableItem();
-			JsonObject tableObject;
-			if (tableItemValues.containsKey(tableItem)) {
-				tableObject = tableItemValues.get(tableItem);
-			} else {
-				tableObject = new JsonObject();
-				tableItemValues.put(tableItem, tableObject);
-			}
+			Map<String, Object> tableObject = tableItemValues.computeIfAbsent(columnItem.getTableItem(),
+					k -> new LinkedHashMap<>());
 			Object value = row.getValue(x);
 			addColumnValue(tableObject, columnItem, value);
 		}
 		return tableItemValues;
 	}
 
-	private void buildMainTableValues(JsonObject uniqueRecord, JsonObject tableObject) {
-		for (Entry<String, JsonElement> tableEntry : tableObject.entrySet()) {
+	private void buildMainTableValues(Map<String, Object> uniqueRecord, Map<String, Object> tableObject) {
+		for (Entry<String, Object> tableEntry : tableObject.entrySet()) {
 			String columnName = tableEntry.getKey();
-			JsonElement columnValue = tableEntry.getValue();
-			if (!uniqueRecord.has(columnName)) {
-				uniqueRecord.add(columnName, columnValue);
+			if (!uniqueRecord.containsKey(columnName)) {
+				uniqueRecord.put(columnName, tableEntry.getValue());
 			}
 		}
 	}
 
-	private void buildJoinTableValues(JsonObject currentTableObject, Map<TableItem, JsonObject> tableItemValues,
-			JoinTableItem joinTableItem) {
+	@SuppressWarnings("unchecked")
+	private void buildJoinTableValues(Map<String, Object> currentTableObject,
+			Map<TableItem, Map<String, Object>> tableItemValues, JoinTableItem joinTableItem) {
 		// 关联节点连接符
 		String associationConnector = App.Config.getString(GlobalConfig.ASSOCIATION_CONNECTOR);
 		// 父级关联表字段, 在请求非直接关联表的查询的时候用到
@@ -131,7 +139,7 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 			AssociationType associationType = relationship.getAssociationType();
 			Table foreignTable = foreignColumn.getTable();
 
-			JsonObject tableObject = tableItemValues.get(rightTableItem);
+			Map<String, Object> tableObject = tableItemValues.get(rightTableItem);
 
 			String primaryColumnAlias = primaryColumn.getAliasOrName();
 			// 如果该关联表不是请求中指定的关联表, 不构建关系结构
@@ -139,29 +147,23 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 			if (action.isJoinTable(foreignTable)) {
 				// 关联表节点名称, 主表字段__关联表字段(或别名, 以别名为主)
 				String foreignTableKey = primaryColumnAlias + associationConnector + foreignTable.getAliasOrName();
-				if (currentTableObject.has(foreignTableKey)) { // 已经构建了关联表结构
-					JsonElement parentElement = currentTableObject.get(foreignTableKey);
-					if (parentElement.isJsonArray()) {
-						JsonArray parentArray = parentElement.getAsJsonArray();
+				if (currentTableObject.containsKey(foreignTableKey)) { // 已经构建了关联表结构
+					Object parentElement = currentTableObject.get(foreignTableKey);
+					if (parentElement instanceof List) {
+						List<Object> parentArray = (List<Object>) parentElement;
 						// 去重
-						if (!hasJsonObject(parentArray, tableObject)) {
+						if (!hasMap(parentArray, tableObject)) {
 							parentArray.add(tableObject);
 						}
-						currentTableObject = parentArray.get(parentArray.size() - 1).getAsJsonObject();
+						currentTableObject = (Map<String, Object>) parentArray.get(parentArray.size() - 1);
 					} else {
-						currentTableObject = parentElement.getAsJsonObject();
+						currentTableObject = (Map<String, Object>) parentElement;
 					}
 				} else { // 还未构建关联表的结构
 					// 主表中包含关联表的列
-					if (currentTableObject.has(primaryColumnAlias)) {
+					if (currentTableObject.containsKey(primaryColumnAlias)) {
 						// 如果主表关联字段值为null, 说明主表该列的值没有关联的外表数据
-						if (currentTableObject.get(primaryColumnAlias).isJsonNull()) {
-							if (associationType == AssociationType.ONE_TO_ONE
-									|| associationType == AssociationType.MANY_TO_ONE) {
-								// to do
-							} else {
-								// to do
-							}
+						if (currentTableObject.get(primaryColumnAlias) == null) {
 							break;
 						} else { // 构建关联表的结构
 							buildJoinTableObject(currentTableObject, associationType, foreignTableKey, tableObject);
@@ -175,8 +177,10 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 						primaryColumnAlias = topColumn.getAliasOrName();
 						foreignTableKey = primaryColumnAlias + associationConnector + foreignTable.getAliasOrName();
 						AssociationType indirectAssociationType = action.getDataContext()
-								.getAssociationType(topColumn.getTable(),
-								foreignTable);
+								.getAssociationType(topColumn.getTable(), foreignTable);
+						if (indirectAssociationType == null) { // 超过最大关联深度时按直接关联关系处理
+							indirectAssociationType = associationType;
+						}
 						buildJoinTableObject(currentTableObject, indirectAssociationType, foreignTableKey, tableObject);
 						currentTableObject = tableObject;
 					}
@@ -188,40 +192,39 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 		}
 	}
 
-	private void buildJoinTableObject(JsonObject currentTableObject, AssociationType associationType,
-			String foreignTableKey, JsonObject tableObject) {
+	@SuppressWarnings("unchecked")
+	private void buildJoinTableObject(Map<String, Object> currentTableObject, AssociationType associationType,
+			String foreignTableKey, Map<String, Object> tableObject) {
 		if (associationType == AssociationType.ONE_TO_ONE || associationType == AssociationType.MANY_TO_ONE) {
-			currentTableObject.add(foreignTableKey, tableObject);
+			currentTableObject.put(foreignTableKey, tableObject);
 		} else {
-			if (currentTableObject.has(foreignTableKey)) {
-				JsonArray joinTableArray = currentTableObject.getAsJsonArray(foreignTableKey);
+			if (currentTableObject.containsKey(foreignTableKey)) {
+				List<Object> joinTableArray = (List<Object>) currentTableObject.get(foreignTableKey);
 				// 去重
-				if (!hasJsonObject(joinTableArray, tableObject)) {
+				if (!hasMap(joinTableArray, tableObject)) {
 					joinTableArray.add(tableObject);
 				}
 			} else {
-				JsonArray joinTableArray = new JsonArray();
+				List<Object> joinTableArray = new ArrayList<>();
 				joinTableArray.add(tableObject);
-				currentTableObject.add(foreignTableKey, joinTableArray);
+				currentTableObject.put(foreignTableKey, joinTableArray);
 			}
 		}
 	}
 
-	private boolean isNull(JsonElement e) {
-		if (e == null || e.isJsonNull()) {
+	private boolean isNull(Object value) {
+		if (value == null) {
 			return true;
-		} else if (e.isJsonArray()) {
-			JsonArray jsonArray = e.getAsJsonArray();
-			for (int i = 0; i < jsonArray.size(); i++) {
-				if (!isNull(jsonArray.get(i))) {
+		} else if (value instanceof List) {
+			for (Object element : (List<?>) value) {
+				if (!isNull(element)) {
 					return false;
 				}
 			}
 			return true;
-		} else if (e.isJsonObject()) {
-			JsonObject jsonObject = e.getAsJsonObject();
-			for (Entry<String, JsonElement> entry : jsonObject.entrySet()) {
-				if (!isNull(entry.getValue())) {
+		} else if (value instanceof Map) {
+			for (Object element : ((Map<?, ?>) value).values()) {
+				if (!isNull(element)) {
 					return false;
 				}
 			}
@@ -230,17 +233,16 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 		return false;
 	}
 
-	private boolean hasJsonObject(JsonArray jsonArray, JsonObject jsonObject) {
-		for (JsonElement jsonElement : jsonArray) {
-			if (!jsonElement.isJsonObject()) {
+	private boolean hasMap(List<Object> list, Map<String, Object> map) {
+		for (Object element : list) {
+			if (!(element instanceof Map)) {
 				continue;
 			}
-			JsonObject element = jsonElement.getAsJsonObject();
+			Map<?, ?> elementMap = (Map<?, ?>) element;
 			boolean has = true;
-			for (Entry<String, JsonElement> entry : jsonObject.entrySet()) {
+			for (Entry<String, Object> entry : map.entrySet()) {
 				String key = entry.getKey();
-				JsonElement value = entry.getValue();
-				if (!element.has(key) || !Objects.equals(value, element.get(key))) {
+				if (!elementMap.containsKey(key) || !Objects.equals(entry.getValue(), elementMap.get(key))) {
 					has = false;
 				}
 			}
@@ -253,16 +255,11 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 
 	/**
 	 * 生成主表每条记录的唯一标识
-	 * 
-	 * @param record
-	 * @param action
+	 *
+	 * @param row
 	 * @return
 	 */
 	private String createMainTableUniqueRecordKey(Row row) {
-		// 单表查询的情况, 每条记录为一条唯一的记录, 所以这里生成了一个唯一ID用于标识每条记录, 以保证唯一
-		if (!action.isJoin()) {
-			return UUID.randomUUID().toString();
-		}
 		StringBuilder uniqueKey = new StringBuilder();
 		List<ColumnItem> columnItems = row.getHeader().getColumnItems();
 		for (int i = 0; i < columnItems.size(); i++) {
@@ -273,43 +270,43 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 					uniqueKey.append(value.toString());
 				}
 			}
-
 		}
 		return uniqueKey.toString();
 	}
 
-	private void addColumnValue(JsonObject record, ColumnItem columnItem, Object value) {
+	private void addColumnValue(Map<String, Object> record, ColumnItem columnItem, Object value) {
+		if (columnItem.isInternal()) {
+			return;
+		}
 		String columnKey = getColumnKey(columnItem);
 		addColumnValue(record, columnItem.getColumn(), columnKey, value);
 	}
 
-	private void addColumnValue(JsonObject record, Column column, String key, Object value) {
+	private void addColumnValue(Map<String, Object> record, Column column, String key, Object value) {
 		if (column != null) {
-			JsonObject config = column.getConfig();
-			if (config.has(TableConfig.COLUMN_IGNORE) && config.get(TableConfig.COLUMN_IGNORE).getAsBoolean()) { // 列忽略
+			if (column.getConfig().has(TableConfig.COLUMN_IGNORE)
+					&& column.getConfig().get(TableConfig.COLUMN_IGNORE).getAsBoolean()) { // 列忽略
 				return;
 			}
 		}
 		if (value == null) {
-			record.addProperty(key, (String) null);
+			record.put(key, null);
 			return;
 		}
 
 		if (column == null) {
 			if (value instanceof Number) {
-				record.addProperty(key, (Number) value);
+				record.put(key, toNumber((Number) value));
 			} else if (value instanceof Boolean) {
-				record.addProperty(key, (Boolean) value);
+				record.put(key, value);
 			} else {
-				record.addProperty(key, value.toString());
+				record.put(key, value.toString());
 			}
 		} else {
 			if (App.hasColumnConfig(column.getName())) {
 				ColumnConfigInfo columnConfigInfo = App.getColumnConfig(column.getName());
 				if (!Strings.isNullOrEmpty(columnConfigInfo.timeFormat())) {
-					String timeFormat = columnConfigInfo.timeFormat();
-					String timeValue = parseTimeValue(value, timeFormat);
-					record.addProperty(key, timeValue);
+					record.put(key, parseTimeValue(value, columnConfigInfo.timeFormat()));
 					return;
 				}
 			}
@@ -321,40 +318,37 @@ public class JsonRenderer extends AbstractRenderer<JsonElement> {
 				} else {
 					number = (Number) value;
 				}
-				record.addProperty(key, render(column, number));
+				record.put(key, toNumber(number));
 			} else if (columnType.isBoolean()) {
-				record.addProperty(key, render(column, Boolean.parseBoolean(value.toString())));
-			} else if (columnType.isLiteral()) {
-				record.addProperty(key, render(column, value.toString()));
+				record.put(key, Boolean.parseBoolean(value.toString()));
 			} else if (columnType.isJson() || columnType.isArray()) {
 				JsonElement jsonValue = action.getDataContext().getDialect().getJsonValue(value);
-				record.add(key, jsonValue);
+				record.put(key, App.gson().fromJson(jsonValue, Object.class));
 			} else {
-				record.addProperty(key, render(column, value.toString()));
+				record.put(key, value.toString());
 			}
 		}
-
 	}
 
-	private Number render(Column column, Number value) {
-		if (column == null) {
-			return value;
+	/**
+	 * 数值统一转换为 Long 或 Double. 按数值的字符串形式转换, 与 Json 序列化后再反序列化的结果相同
+	 *
+	 * @param number
+	 * @return
+	 */
+	private Number toNumber(Number number) {
+		if (number instanceof Long || number instanceof Double) {
+			return number;
 		}
-		return value;
-	}
-
-	private Boolean render(Column column, Boolean value) {
-		if (column == null) {
-			return value;
+		if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+			return number.longValue();
 		}
-		return value;
-	}
-
-	private String render(Column column, String value) {
-		if (column == null) {
-			return value;
+		String numberString = number.toString();
+		try {
+			return Long.valueOf(numberString);
+		} catch (NumberFormatException e) {
+			return Double.valueOf(numberString);
 		}
-		return value;
 	}
 
 }
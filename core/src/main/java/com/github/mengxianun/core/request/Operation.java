@@ -1,5 +1,9 @@
 package com.github.mengxianun.core.request;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * 操作
  * 
@@ -13,6 +17,7 @@ public enum Operation {
 	SELECT("select"), 
 	SELECT_DISTINCT("select.distinct"), 
 	INSERT("insert"), 
+	UPSERT("upsert"), 
 	UPDATE("update"), 
 	DELETE("delete"), 
 	TRANSACTION("transaction"), 
@@ -21,6 +26,15 @@ public enum Operation {
 	SQL("sql"), 
 	NATIVE("native");
 
+	// 按请求属性名查找操作
+	private static final Map<String, Operation> OPERATIONS = new HashMap<>();
+
+	static {
+		for (Operation operation : values()) {
+			OPERATIONS.put(operation.value, operation);
+		}
+	}
+
 	private String value;
 
 	private Operation(String value) {
@@ -31,6 +45,20 @@ public enum Operation {
 		return value;
 	}
 
+	/**
+	 * 根据请求属性名获取操作, 不区分大小写
+	 * 
+	 * @param value
+	 * @return 操作, 不是操作属性时返回 null
+	 */
+	public static Operation from(String value) {
+		Operation operation = OPERATIONS.get(value);
+		if (operation == null) {
+			operation = OPERATIONS.get(value.toLowerCase(Locale.ROOT));
+		}
+		return operation;
+	}
+
 	public boolean isQuery() {
 		return this == QUERY || this == SELECT || this == SELECT_DISTINCT || this == DETAIL;
 	}
@@ -10,6 +10,6 @@ import com.github.mengxianun.core.EnumLowerName;
  */
 public enum RequestKeyword implements EnumLowerName {
 
-	TYPE, FIELDS, JOIN, VALUES, WHERE, GROUP, ORDER, LIMIT, SQL, NATIVE, SOURCE, FILE, TEMPLATE, RELATIONS;
+	TYPE, FIELDS, JOIN, VALUES, WHERE, GROUP, ORDER, LIMIT, TOTAL, SQL, NATIVE, SOURCE, FILE, TEMPLATE, RELATIONS, CONFLICT;
 
 }
@@ -0,0 +1,39 @@
+package com.github.mengxianun.core.request;
+
+import com.github.mengxianun.core.EnumLowerName;
+
+/**
+ * 分页查询总数的计算方式
+ * 
+ * @author mengxiangyun
+ *
+ */
+public enum TotalMode implements EnumLowerName {
+
+	/**
+	 * 精确总数, 执行总数查询
+	 */
+	EXACT,
+	/**
+	 * 不查询总数. 当前页记录数不足时总数可以直接得出, 否则返回 -1
+	 */
+	SKIP,
+	/**
+	 * 按查询条件缓存总数, 在有效期内不重复查询
+	 */
+	CACHED,
+	/**
+	 * 使用数据库的统计信息或执行计划估算总数, 不支持估算时执行总数查询
+	 */
+	ESTIMATE;
+
+	public static TotalMode from(String mode) {
+		for (TotalMode totalMode : values()) {
+			if (totalMode.toString().equalsIgnoreCase(mode)) {
+				return totalMode;
+			}
+		}
+		return null;
+	}
+
+}
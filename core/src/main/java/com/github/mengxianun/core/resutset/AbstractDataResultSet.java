@@ -1,9 +1,6 @@
 package com.github.mengxianun.core.resutset;
 
 import java.io.ByteArrayOutputStream;
-import java.lang.reflect.Type;
-import java.util.List;
-import java.util.Map;
 
 import com.github.mengxianun.core.App;
 import com.github.mengxianun.core.DataResultSet;
@@ -11,13 +8,15 @@ import com.github.mengxianun.core.ResultStatus;
 import com.github.mengxianun.core.data.Summary;
 import com.github.mengxianun.core.data.summary.FileSummary;
 import com.google.gson.JsonElement;
-import com.google.gson.reflect.TypeToken;
 
 public abstract class AbstractDataResultSet implements DataResultSet {
 
 	private final int code;
 	private final String message;
 	protected final Summary summary;
+	// 结果数据, 按需在 Java 原生类型和 Json 之间转换
+	private Object data;
+	private JsonElement jsonData;
 
 	public AbstractDataResultSet(Summary summary) {
 		this(ResultStatus.SUCCESS, summary);
@@ -43,32 +42,36 @@ public abstract class AbstractDataResultSet implements DataResultSet {
 		return message;
 	}
 
+	/**
+	 * 返回 Java 原生类型的结果. 只有数据源直接返回 Json 结果时才进行转换, 转换结果会被缓存
+	 */
 	@Override
 	public Object getData() {
 		if (summary == null) {
 			return null;
 		}
-		Object data = summary.getData();
-		if (data instanceof JsonElement) {
-			JsonElement jsonData = (JsonElement) data;
-			if (jsonData.isJsonArray()) {
-				Type dataType = new TypeToken<List<Map<String, Object>>>() {}.getType();
-				return App.gson().fromJson(jsonData, dataType);
-			} else if (jsonData.isJsonObject()) {
-				Type dataType = new TypeToken<Map<String, Object>>() {}.getType();
-				return App.gson().fromJson(jsonData, dataType);
-			} else {
-				Type dataType = new TypeToken<Object>() {}.getType();
-				return App.gson().fromJson(jsonData, dataType);
+		if (data == null) {
+			data = summary.getData();
+			if (data instanceof JsonElement) {
+				jsonData = (JsonElement) data;
+				data = App.gson().fromJson(jsonData, Object.class);
 			}
-		} else {
-			return data;
 		}
+		return data;
 	}
 
+	/**
+	 * 返回 Json 结果. 数据源直接返回 Json 结果时不再进行转换
+	 */
 	@Override
 	public JsonElement getJsonData() {
-		return App.gson().toJsonTree(getData());
+		if (jsonData == null) {
+			Object nativeData = getData();
+			if (jsonData == null) {
+				jsonData = App.gson().toJsonTree(nativeData);
+			}
+		}
+		return jsonData;
 	}
 
 	@Override
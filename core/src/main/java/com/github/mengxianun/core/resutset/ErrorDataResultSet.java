@@ -0,0 +1,15 @@
+package com.github.mengxianun.core.resutset;
+
+/**
+ * 执行失败的请求结果, 不包含数据
+ * 
+ * @author mengxiangyun
+ *
+ */
+public class ErrorDataResultSet extends AbstractDataResultSet {
+
+	public ErrorDataResultSet(int code, String message) {
+		super(code, message, null);
+	}
+
+}
@@ -66,6 +66,9 @@ public abstract class AbstractColumn implements Column {
 	@Override
 	public void setConfig(JsonObject config) {
 		this.config = config;
+		if (table instanceof AbstractTable) {
+			((AbstractTable) table).invalidateColumnAliasIndex();
+		}
 	}
 
 }
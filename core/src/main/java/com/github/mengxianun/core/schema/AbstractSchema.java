@@ -1,9 +1,14 @@
 package com.github.mengxianun.core.schema;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import com.github.mengxianun.core.App.Config;
@@ -14,11 +19,12 @@ import com.google.common.base.Strings;
 public abstract class AbstractSchema implements Schema {
 
 	protected final String name;
-	protected final List<Table> tables;
+	// 当前的表集合. 修改时创建新的集合并通过 CAS 整体替换, 读取时不加锁, 也不会读到修改了一半的集合
+	private final AtomicReference<SchemaTables> tables = new AtomicReference<>(
+			new SchemaTables(Collections.emptyList()));
 
 	public AbstractSchema(String name) {
 		this.name = name;
-		this.tables = new ArrayList<>();
 	}
 
 	@Override
@@ -28,17 +34,17 @@ public abstract class AbstractSchema implements Schema {
 
 	@Override
 	public int getTableCount() {
-		return tables.size();
+		return tables.get().tables.size();
 	}
 
 	@Override
 	public List<Table> getTables() {
-		return tables;
+		return tables.get().tables;
 	}
 
 	@Override
 	public List<String> getTableNames() {
-		return tables.stream().map(Table::getName).collect(Collectors.toList());
+		return tables.get().tables.stream().map(Table::getName).collect(Collectors.toList());
 	}
 
 	@Override
@@ -47,70 +53,104 @@ public abstract class AbstractSchema implements Schema {
 			return null;
 		}
 
+		SchemaTables current = tables.get();
 		// 1 根据别名查询
-		for (Table table : tables) {
-			if (table.getConfig().has(TableConfig.ALIAS)) { // 表配置文件配置的表别名
-				String alias = table.getConfig().get(TableConfig.ALIAS).getAsString();
-				if (alias.equals(nameOrAlias)) {
-					return table;
-				}
-			} else if (Config.has(GlobalConfig.TABLE_ALIAS_EXPRESSION)) { // 全局配置的表别名
-				if (nameOrAlias.equalsIgnoreCase(table.getAliasOrName())) {
-					return table;
-				}
-			}
+		Table table = current.getAliasIndex().index.get(nameOrAlias);
+		if (table != null) {
+			return table;
 		}
 
 		// 2 根据实名查询
-		return getTableByName(nameOrAlias);
+		return current.nameIndex.get(nameOrAlias);
 	}
 
 	@Override
 	public Table getTableByName(String tableName) {
-		if (tableName == null) {
-			return null;
+		return tables.get().nameIndex.get(tableName);
+	}
+
+	@Override
+	public void addTable(Table table) {
+		if (table == null) {
+			return;
 		}
+		replaceTables(Collections.emptyList(), Collections.singletonList(table));
+	}
+
+	@Override
+	public void addTables(Collection<Table> addedTables) {
+		replaceTables(Collections.emptyList(), addedTables);
+	}
 
-		List<Table> foundTables = new ArrayList<>();
-		for (Table table : tables) {
-			if (table.getName().equalsIgnoreCase(tableName)) {
-				foundTables.add(table);
+	@Override
+	public void removeTable(Table table) {
+		replaceTables(Collections.singletonList(table), Collections.emptyList());
+	}
+
+	@Override
+	public void replaceTables(Collection<Table> removedTables, Collection<Table> addedTables) {
+		SchemaTables current;
+		SchemaTables next;
+		// 其他线程同时修改时基于最新的集合重试
+		do {
+			current = tables.get();
+			next = replaceTables(current, removedTables, addedTables);
+		} while (next != current && !tables.compareAndSet(current, next));
+	}
+
+	private SchemaTables replaceTables(SchemaTables current, Collection<Table> removedTables,
+			Collection<Table> addedTables) {
+		List<Table> newTables = new ArrayList<>(current.tables.size() + addedTables.size());
+		for (Table table : current.tables) {
+			if (!containsInstance(removedTables, table)) {
+				newTables.add(table);
 			}
 		}
-
-		if (foundTables.isEmpty()) {
-			return null;
-		} else if (foundTables.size() == 1) {
-			return foundTables.get(0);
+		NameIndex<Table> nameIndex = new NameIndex<>(Table::getName);
+		newTables.forEach(nameIndex::add);
+		for (Table table : addedTables) {
+			if (table != null && !nameIndex.containsExact(table.getName())) {
+				newTables.add(table);
+				nameIndex.add(table);
+			}
+		}
+		if (newTables.size() == current.tables.size() && removedTables.isEmpty()) {
+			return current;
 		}
+		return new SchemaTables(newTables, nameIndex);
+	}
 
-		for (Table table : foundTables) {
-			if (table.getName().equals(tableName)) {
-				return table;
+	private boolean containsInstance(Collection<Table> tables, Table table) {
+		for (Table e : tables) {
+			if (e == table) {
+				return true;
 			}
 		}
+		return false;
+	}
 
-		return foundTables.get(0);
+	/**
+	 * 表配置变化后重建表别名索引
+	 */
+	void invalidateAliasIndex() {
+		SchemaTables current = tables.get();
+		current.aliasVersion.incrementAndGet();
+		current.aliasIndex = null;
 	}
 
-	@Override
-	public void addTable(Table table) {
-		if (table == null) {
-			return;
-		}
-		boolean match = tables.parallelStream().anyMatch(e -> e.getName().equals(table.getName()));
-		if (!match) {
-			tables.add(table);
-		}
+	static String getAliasExpression() {
+		return Config.has(GlobalConfig.TABLE_ALIAS_EXPRESSION)
+				? Config.getString(GlobalConfig.TABLE_ALIAS_EXPRESSION)
+				: null;
 	}
 
 	@Override
-	public void removeTable(Table table) {
-		tables.remove(table);
+	public Map<String, Object> getInfo() {
+		return getInfo(tables.get().tables);
 	}
 
 	@Override
-	public Map<String, Object> getInfo() {
+	public Map<String, Object> getInfo(List<Table> tables) {
 		Map<String, Object> info = new HashMap<>();
 		info.put("schema", name);
 
@@ -120,4 +160,59 @@ public abstract class AbstractSchema implements Schema {
 		return info;
 	}
 
+	private static class SchemaTables {
+
+		private final List<Table> tables;
+		// 表名索引
+		private final NameIndex<Table> nameIndex;
+		// 表别名索引, 表配置或全局别名表达式变化后重建
+		private volatile TableAliasIndex aliasIndex;
+		// 表别名索引的版本, 表配置变化后递增. 构建期间版本变化的索引不再使用, 避免覆盖失效
+		private final AtomicInteger aliasVersion = new AtomicInteger();
+
+		SchemaTables(List<Table> tables) {
+			this(tables, new NameIndex<>(Table::getName));
+			tables.forEach(nameIndex::add);
+		}
+
+		SchemaTables(List<Table> tables, NameIndex<Table> nameIndex) {
+			this.tables = Collections.unmodifiableList(tables);
+			this.nameIndex = nameIndex;
+		}
+
+		TableAliasIndex getAliasIndex() {
+			String expression = getAliasExpression();
+			int version = aliasVersion.get();
+			TableAliasIndex index = aliasIndex;
+			if (index != null && index.version == version && Objects.equals(index.expression, expression)) {
+				return index;
+			}
+			index = new TableAliasIndex(expression, version);
+			for (Table table : tables) {
+				// 表配置文件配置的表别名, 或全局配置的表别名
+				if (table.getConfig().has(TableConfig.ALIAS) || expression != null) {
+					index.index.add(table);
+				}
+			}
+			aliasIndex = index;
+			return index;
+		}
+
+	}
+
+	private static class TableAliasIndex {
+
+		// 创建索引时的全局别名表达式
+		private final String expression;
+		// 创建索引前读取的版本
+		private final int version;
+		private final NameIndex<Table> index = new NameIndex<>(Table::getAliasOrName);
+
+		TableAliasIndex(String expression, int version) {
+			this.expression = expression;
+			this.version = version;
+		}
+
+	}
+
 }
@@ -1,9 +1,14 @@
 package com.github.mengxianun.core.schema;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.apache.commons.jexl3.JexlBuilder;
@@ -12,32 +17,32 @@ import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlExpression;
 import org.apache.commons.jexl3.MapContext;
 
-import com.github.mengxianun.core.App;
-import com.github.mengxianun.core.App.Config;
 import com.github.mengxianun.core.config.ColumnConfig;
-import com.github.mengxianun.core.config.GlobalConfig;
 import com.github.mengxianun.core.config.TableConfig;
 import com.google.common.base.Strings;
 import com.google.gson.JsonObject;
 
 public abstract class AbstractTable implements Table {
 
+	// 全局别名表达式只编译一次
+	private static final JexlEngine JEXL = new JexlBuilder().cache(16).create();
+
 	protected final String name;
 	protected final TableType type;
 	protected final Schema schema;
 	protected TableSettings settings = TableSettings.defaultSettings();
-	protected final List<Column> columns;
-	protected final List<Column> primaryKeys;
+	// 当前的列和主键. 修改时创建新的版本并通过 CAS 替换, 读取时不加锁
+	private final AtomicReference<TableColumns> columns = new AtomicReference<>(TableColumns.EMPTY);
 
 	// custom config
 	protected JsonObject config = new JsonObject();
+	// 表别名, 表配置或全局别名表达式变化后重新计算
+	private volatile Alias alias;
 
 	public AbstractTable(String name, TableType type, Schema schema) {
 		this.name = name;
 		this.type = type;
 		this.schema = schema;
-		this.columns = new ArrayList<>();
-		this.primaryKeys = new ArrayList<>();
 	}
 
 	@Override
@@ -57,17 +62,17 @@ public abstract class AbstractTable implements Table {
 
 	@Override
 	public int getColumnCount() {
-		return columns.size();
+		return columns.get().columns.size();
 	}
 
 	@Override
 	public List<Column> getColumns() {
-		return columns;
+		return columns.get().columns;
 	}
 
 	@Override
 	public List<String> getColumnNames() {
-		return columns.stream().map(Column::getName).collect(Collectors.toList());
+		return columns.get().columns.stream().map(Column::getName).collect(Collectors.toList());
 	}
 
 	@Override
@@ -75,50 +80,33 @@ public abstract class AbstractTable implements Table {
 		if (Strings.isNullOrEmpty(nameOrAlias)) {
 			return null;
 		}
+		TableColumns current = columns.get();
 		// 1 根据别名查询
-		for (Column column : columns) {
-			if (column.getConfig().has(ColumnConfig.ALIAS)) {
-				String alias = column.getConfig().get(ColumnConfig.ALIAS).getAsString();
-				if (alias.equals(nameOrAlias)) {
-					return column;
-				}
-			}
+		Column column = current.getAliasIndex().get(nameOrAlias);
+		if (column != null) {
+			return column;
 		}
 		// 2 根据实名查询
-		return getColumnByName(nameOrAlias);
+		return current.columnIndex.get(nameOrAlias);
 	}
 
 	@Override
 	public Column getColumnByName(String columnName) {
-		if (columnName == null) {
-			return null;
-		}
-
-		List<Column> foundColumns = new ArrayList<>();
-		for (Column column : columns) {
-			if (column.getName().equalsIgnoreCase(columnName)) {
-				foundColumns.add(column);
-			}
-		}
-
-		if (foundColumns.isEmpty()) {
-			return null;
-		} else if (foundColumns.size() == 1) {
-			return foundColumns.get(0);
-		}
-
-		for (Column column : foundColumns) {
-			if (column.getName().equals(columnName)) {
-				return column;
-			}
-		}
+		return columns.get().columnIndex.get(columnName);
+	}
 
-		return foundColumns.get(0);
+	/**
+	 * 列配置变化后重建列别名索引
+	 */
+	void invalidateColumnAliasIndex() {
+		TableColumns current = columns.get();
+		current.aliasVersion.incrementAndGet();
+		current.aliasIndex = null;
 	}
 
 	@Override
 	public List<Column> getPrimaryKeys() {
-		return primaryKeys;
+		return columns.get().primaryKeys;
 	}
 
 	@Override
@@ -136,26 +124,34 @@ public abstract class AbstractTable implements Table {
 		info.put("type", type.name());
 
 		List<Map<String, Object>> columnsInfo = new ArrayList<>();
-		columns.forEach(e -> columnsInfo.add(e.getInfo()));
+		columns.get().columns.forEach(e -> columnsInfo.add(e.getInfo()));
 		info.put("columns", columnsInfo);
 		return info;
 	}
 
 	@Override
 	public String getAliasOrName() {
+		String expression = AbstractSchema.getAliasExpression();
+		Alias current = alias;
+		if (current == null || !Objects.equals(current.expression, expression)) {
+			current = new Alias(expression, loadAliasOrName(expression));
+			alias = current;
+		}
+		return current.value;
+	}
+
+	private String loadAliasOrName(String expression) {
 		if (config.has(TableConfig.ALIAS)) { // 表配置文件配置的表别名
 			return config.get(TableConfig.ALIAS).getAsString();
-		} else if (Config.has(GlobalConfig.TABLE_ALIAS_EXPRESSION)) { // 全局配置的表别名
-			return getAliasKey(name);
+		} else if (expression != null) { // 全局配置的表别名
+			return getAliasKey(expression, name);
 		} else {
 			return name;
 		}
 	}
 
-	private String getAliasKey(String element) {
-		JexlEngine jexl = new JexlBuilder().create();
-		String jexlExp = App.Config.getString(GlobalConfig.TABLE_ALIAS_EXPRESSION);
-		JexlExpression e = jexl.createExpression(jexlExp);
+	private String getAliasKey(String jexlExp, String element) {
+		JexlExpression e = JEXL.createExpression(jexlExp);
 		JexlContext jc = new MapContext();
 		jc.set("$", element);
 		return e.evaluate(jc).toString();
@@ -169,6 +165,10 @@ public abstract class AbstractTable implements Table {
 	@Override
 	public void setConfig(JsonObject config) {
 		this.config = config;
+		alias = null;
+		if (schema instanceof AbstractSchema) {
+			((AbstractSchema) schema).invalidateAliasIndex();
+		}
 	}
 
 	@Override
@@ -182,28 +182,142 @@ public abstract class AbstractTable implements Table {
 	}
 
 	public void addColumn(Column column) {
-		boolean match = columns.parallelStream().anyMatch(e -> e.getName().equals(column.getName()));
-		if (!match) {
-			columns.add(column);
-		}
+		addColumns(Collections.singletonList(column));
 	}
 
-	public void addColumns(List<Column> columns) {
-		columns.forEach(this::addColumn);
+	public void addColumns(List<Column> addedColumns) {
+		update(current -> current.addColumns(addedColumns));
 	}
 
 	public void removeColumn(Column column) {
-		columns.remove(column);
+		update(current -> current.removeColumn(column));
 	}
 
 	public void addPrimaryKey(Column column) {
-		if (!primaryKeys.contains(column)) {
-			primaryKeys.add(column);
-		}
+		update(current -> current.addPrimaryKey(column));
 	}
 
 	public void addPrimaryKey(String columnName) {
 		addPrimaryKey(getColumnByName(columnName));
 	}
 
+	/**
+	 * 基于当前版本创建新版本并通过 CAS 发布, 其他线程同时修改时基于最新版本重试
+	 *
+	 * @param function
+	 *            返回新版本, 没有变化时返回原版本
+	 */
+	private void update(UnaryOperator<TableColumns> function) {
+		TableColumns current;
+		TableColumns next;
+		do {
+			current = columns.get();
+			next = function.apply(current);
+		} while (next != current && !columns.compareAndSet(current, next));
+	}
+
+	/**
+	 * 表的列和主键的不可变版本
+	 */
+	private static class TableColumns {
+
+		private static final TableColumns EMPTY = new TableColumns(Collections.emptyList(), Collections.emptyList());
+
+		private final List<Column> columns;
+		private final List<Column> primaryKeys;
+		// 列名索引
+		private final NameIndex<Column> columnIndex = new NameIndex<>(Column::getName);
+		// 列别名索引, 列配置变化后重建
+		private volatile ColumnAliasIndex aliasIndex;
+		// 列别名索引的版本, 列配置变化后递增. 构建期间版本变化的索引不再使用, 避免覆盖失效
+		private final AtomicInteger aliasVersion = new AtomicInteger();
+
+		TableColumns(List<Column> columns, List<Column> primaryKeys) {
+			this.columns = columns;
+			this.primaryKeys = primaryKeys;
+			columns.forEach(columnIndex::add);
+		}
+
+		TableColumns addColumns(List<Column> addedColumns) {
+			List<Column> newColumns = null;
+			NameIndex<Column> addedIndex = new NameIndex<>(Column::getName);
+			for (Column column : addedColumns) {
+				if (columnIndex.containsExact(column.getName()) || addedIndex.containsExact(column.getName())) {
+					continue;
+				}
+				if (newColumns == null) {
+					newColumns = new ArrayList<>(columns.size() + addedColumns.size());
+					newColumns.addAll(columns);
+				}
+				newColumns.add(column);
+				addedIndex.add(column);
+			}
+			return newColumns == null ? this : new TableColumns(Collections.unmodifiableList(newColumns), primaryKeys);
+		}
+
+		TableColumns removeColumn(Column column) {
+			if (!columns.contains(column)) {
+				return this;
+			}
+			List<Column> newColumns = new ArrayList<>(columns);
+			newColumns.remove(column);
+			List<Column> newPrimaryKeys = new ArrayList<>(primaryKeys);
+			newPrimaryKeys.remove(column);
+			return new TableColumns(Collections.unmodifiableList(newColumns),
+					Collections.unmodifiableList(newPrimaryKeys));
+		}
+
+		TableColumns addPrimaryKey(Column column) {
+			if (primaryKeys.contains(column)) {
+				return this;
+			}
+			List<Column> newPrimaryKeys = new ArrayList<>(primaryKeys.size() + 1);
+			newPrimaryKeys.addAll(primaryKeys);
+			newPrimaryKeys.add(column);
+			return new TableColumns(columns, Collections.unmodifiableList(newPrimaryKeys));
+		}
+
+		NameIndex<Column> getAliasIndex() {
+			int version = aliasVersion.get();
+			ColumnAliasIndex index = aliasIndex;
+			if (index != null && index.version == version) {
+				return index.index;
+			}
+			index = new ColumnAliasIndex(version);
+			for (Column column : columns) {
+				if (column.getConfig().has(ColumnConfig.ALIAS)) {
+					index.index.add(column);
+				}
+			}
+			aliasIndex = index;
+			return index.index;
+		}
+
+	}
+
+	private static class ColumnAliasIndex {
+
+		// 创建索引前读取的版本
+		private final int version;
+		private final NameIndex<Column> index = new NameIndex<>(Column::getAliasOrName);
+
+		ColumnAliasIndex(int version) {
+			this.version = version;
+		}
+
+	}
+
+	private static class Alias {
+
+		// 计算别名时的全局别名表达式
+		private final String expression;
+		private final String value;
+
+		Alias(String expression, String value) {
+			this.expression = expression;
+			this.value = value;
+		}
+
+	}
+
 }
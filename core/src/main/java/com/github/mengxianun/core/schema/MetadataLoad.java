@@ -0,0 +1,31 @@
+package com.github.mengxianun.core.schema;
+
+import com.github.mengxianun.core.EnumLowerName;
+
+/**
+ * 数据源元数据的加载方式
+ * 
+ * @author mengxiangyun
+ *
+ */
+public enum MetadataLoad implements EnumLowerName {
+
+	/**
+	 * 创建数据源时加载所有表的元数据
+	 */
+	EAGER,
+	/**
+	 * 首次访问表时加载该表的元数据, 适用于表数量很多的数据源
+	 */
+	LAZY;
+
+	public static MetadataLoad from(String load) {
+		for (MetadataLoad metadataLoad : values()) {
+			if (metadataLoad.toString().equalsIgnoreCase(load)) {
+				return metadataLoad;
+			}
+		}
+		return null;
+	}
+
+}
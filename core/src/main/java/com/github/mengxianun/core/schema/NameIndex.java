@@ -0,0 +1,95 @@
+package com.github.mengxianun.core.schema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 名称索引, 按名称查找时忽略大小写.
+ * <p>
+ * 多个元素的名称只有大小写不同时, 优先返回名称完全相同的元素, 否则返回第一个添加的元素. 查找不加锁, 修改时替换索引中的列表.
+ *
+ * @author mengxiangyun
+ *
+ * @param <T>
+ */
+class NameIndex<T> {
+
+	private final Map<String, List<T>> index = new ConcurrentHashMap<>();
+	// 获取元素索引的名称
+	private final Function<T, String> keyFunction;
+
+	NameIndex(Function<T, String> keyFunction) {
+		this.keyFunction = keyFunction;
+	}
+
+	void add(T element) {
+		String key = keyFunction.apply(element);
+		if (key == null) {
+			return;
+		}
+		index.compute(toKey(key), (k, v) -> {
+			if (v == null) {
+				return Collections.singletonList(element);
+			}
+			List<T> elements = new ArrayList<>(v.size() + 1);
+			elements.addAll(v);
+			elements.add(element);
+			return Collections.unmodifiableList(elements);
+		});
+	}
+
+	void remove(T element) {
+		String key = keyFunction.apply(element);
+		if (key == null) {
+			return;
+		}
+		index.computeIfPresent(toKey(key), (k, v) -> {
+			List<T> elements = new ArrayList<>(v);
+			elements.remove(element);
+			return elements.isEmpty() ? null : Collections.unmodifiableList(elements);
+		});
+	}
+
+	T get(String name) {
+		if (name == null) {
+			return null;
+		}
+		List<T> elements = index.get(toKey(name));
+		if (elements == null) {
+			return null;
+		}
+		if (elements.size() > 1) {
+			for (T element : elements) {
+				if (name.equals(keyFunction.apply(element))) {
+					return element;
+				}
+			}
+		}
+		return elements.get(0);
+	}
+
+	/**
+	 * 是否存在名称完全相同的元素
+	 *
+	 * @param name
+	 * @return 存在返回 true
+	 */
+	boolean containsExact(String name) {
+		T element = get(name);
+		return element != null && name.equals(keyFunction.apply(element));
+	}
+
+	void clear() {
+		index.clear();
+	}
+
+	private String toKey(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.github.mengxianun.core.schema;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -17,8 +18,26 @@ public interface Schema extends Name {
 
 	public void addTable(Table table);
 
+	public void addTables(Collection<Table> tables);
+
 	public void removeTable(Table table);
 
+	/**
+	 * 删除和加入多个表, 读取方只会看到修改前或修改后的全部表. 加入的表与已有的表同名时不加入, 需要同时删除原来的表
+	 * 
+	 * @param removedTables
+	 * @param addedTables
+	 */
+	public void replaceTables(Collection<Table> removedTables, Collection<Table> addedTables);
+
 	public Map<String, Object> getInfo();
 
+	/**
+	 * Schema 信息, 只包含指定的表
+	 * 
+	 * @param tables
+	 * @return Schema 信息
+	 */
+	public Map<String, Object> getInfo(List<Table> tables);
+
 }
@@ -1,11 +1,20 @@
 package com.github.mengxianun.core.schema.relationship;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -14,9 +23,6 @@ import org.slf4j.LoggerFactory;
 import com.github.mengxianun.core.config.AssociationType;
 import com.github.mengxianun.core.schema.Column;
 import com.github.mengxianun.core.schema.Table;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.HashBasedTable;
 
 public final class RelationshipGraph {
@@ -27,18 +33,12 @@ public final class RelationshipGraph {
 	private final com.google.common.collect.Table<Table, Table, Set<Relationship>> relationships = HashBasedTable
 			.create();
 
-	private final LoadingCache<RelationshipKey, Set<RelationshipPath>> relationshipsCache = CacheBuilder.newBuilder()
-			.maximumSize(10000).expireAfterAccess(24, TimeUnit.HOURS)
-			.build(new CacheLoader<RelationshipKey, Set<RelationshipPath>>() {
+	// 关联关系路径索引, 关联关系变化时置空, 查询时重新创建
+	private volatile PathIndex pathIndex;
+	// 路径索引版本
+	private long version;
 
-				public Set<RelationshipPath> load(RelationshipKey key) throws Exception {
-					Set<RelationshipPath> paths = new LinkedHashSet<>();
-					findAllPaths(new RelationshipPath(), paths, key.getPrimaryTable(), key.getForeignTable(), true);
-					return paths;
-				}
-			});
-
-	public Set<Relationship> getAllRelationships() {
+	public synchronized Set<Relationship> getAllRelationships() {
 		return relationships.cellSet().stream().flatMap(e -> e.getValue().stream()).collect(Collectors.toSet());
 	}
 
@@ -49,7 +49,7 @@ public final class RelationshipGraph {
 	 * @param foreignColumn
 	 * @param associationType
 	 */
-	public boolean addRelationship(Column primaryColumn, Column foreignColumn, AssociationType associationType) {
+	public synchronized boolean addRelationship(Column primaryColumn, Column foreignColumn, AssociationType associationType) {
 		Table primaryTable = primaryColumn.getTable();
 		Table foreignTable = foreignColumn.getTable();
 
@@ -65,13 +65,14 @@ public final class RelationshipGraph {
 		}
 		ships.add(relationship);
 		relationships.put(primaryTable, foreignTable, ships);
+		pathIndex = null;
 
 		logger.info("Add relationship [{}.{}] <-> [{}.{}]", primaryColumn.getTable().getName(), primaryColumn.getName(),
 				foreignColumn.getTable().getName(), foreignColumn.getName());
 		return true;
 	}
 
-	public boolean hasRelationship(Column primaryColumn, Column foreignColumn, AssociationType associationType) {
+	public synchronized boolean hasRelationship(Column primaryColumn, Column foreignColumn, AssociationType associationType) {
 		Table primaryTable = primaryColumn.getTable();
 		Table foreignTable = foreignColumn.getTable();
 		if (relationships.contains(primaryTable, foreignTable)) {
@@ -84,7 +85,19 @@ public final class RelationshipGraph {
 		return false;
 	}
 
-	public boolean deleteRelationship(Column primaryColumn, Column foreignColumn) {
+	/**
+	 * 是否存在相同列的关联关系, 不比较关联类型
+	 * 
+	 * @param primaryColumn
+	 * @param foreignColumn
+	 * @return 存在返回 true
+	 */
+	public synchronized boolean hasRelationship(Column primaryColumn, Column foreignColumn) {
+		Set<Relationship> ships = relationships.get(primaryColumn.getTable(), foreignColumn.getTable());
+		return ships != null && ships.contains(new Relationship(primaryColumn, foreignColumn));
+	}
+
+	public synchronized boolean deleteRelationship(Column primaryColumn, Column foreignColumn) {
 		boolean result = false;
 		Relationship relationship = new Relationship(primaryColumn, foreignColumn);
 		Table primaryTable = primaryColumn.getTable();
@@ -96,6 +109,7 @@ public final class RelationshipGraph {
 				Relationship ship = iterator.next();
 				if (ship.equals(relationship)) {
 					ships.remove(ship);
+					pathIndex = null;
 					result = true;
 					break;
 				}
@@ -106,60 +120,284 @@ public final class RelationshipGraph {
 		return result;
 	}
 
-	public boolean deleteRelationship(Table primaryTable, Table foreignTable) {
+	public synchronized boolean deleteRelationship(Table primaryTable, Table foreignTable) {
 		boolean result = relationships.remove(primaryTable, foreignTable) != null
 				|| relationships.remove(foreignTable, primaryTable) != null;
+		pathIndex = null;
 		logger.info("Delete relationship [{}] <-> [{}] {}", primaryTable.getName(), primaryTable.getName(), result);
 		return result;
 	}
 
-	public Set<RelationshipPath> getRelationships(Table primaryTable, Table foreignTable) {
-		/**
-		 * temporarily
-		 */
-		Set<RelationshipPath> paths = new LinkedHashSet<>();
-		findAllPaths(new RelationshipPath(), paths, primaryTable, foreignTable, true);
+	/**
+	 * 获取涉及指定表的所有关联关系
+	 * 
+	 * @param tables
+	 * @return 涉及指定表的关联关系
+	 */
+	public synchronized Set<Relationship> getTableRelationships(Collection<Table> tables) {
+		Set<Relationship> result = new LinkedHashSet<>();
+		for (Table table : tables) {
+			relationships.row(table).values().forEach(result::addAll);
+			relationships.column(table).values().forEach(result::addAll);
+		}
+		return result;
+	}
+
+	/**
+	 * 删除涉及指定表的所有关联关系
+	 * 
+	 * @param tables
+	 * @return 删除的关联关系
+	 */
+	public synchronized Set<Relationship> removeTables(Collection<Table> tables) {
+		Set<Relationship> removed = new LinkedHashSet<>();
+		for (Table table : tables) {
+			relationships.row(table).values().forEach(removed::addAll);
+			relationships.column(table).values().forEach(removed::addAll);
+			relationships.row(table).clear();
+			relationships.column(table).clear();
+		}
+		pathIndex = null;
+		return removed;
+	}
+
+	/**
+	 * 获取2个表之间的最短路径. 按层查找, 到达外表所在的层后不再继续查找
+	 * 
+	 * @param primaryTable
+	 * @param foreignTable
+	 * @param maxDepth
+	 *            路径的最大长度
+	 * @return 最短路径, 长度超过 maxDepth 时返回空集合
+	 */
+	public Set<RelationshipPath> getShortestRelationships(Table primaryTable, Table foreignTable, int maxDepth) {
+		Set<RelationshipPath> paths = getPathIndex().getShortestPaths(primaryTable, foreignTable);
+		if (paths.isEmpty() || paths.iterator().next().size() > maxDepth) {
+			return Collections.emptySet();
+		}
 		return paths;
-		//		RelationshipKey relationshipKey = new RelationshipKey(primaryTable, foreignTable);
-		//		try {
-		//			return relationshipsCache.get(relationshipKey);
-		//		} catch (ExecutionException e) {
-		//			String message = String.format("Get association relation error for the table [%s] and [%s]",
-		//					primaryTable.getName(), foreignTable.getName());
-		//			logger.error(message, e);
-		//			//			relationshipsCache.invalidate(relationshipKey);
-		//			Set<RelationshipPath> paths = new LinkedHashSet<>();
-		//			findAllPaths(new RelationshipPath(), paths, primaryTable, foreignTable, true);
-		//			return paths;
-		//		}
 	}
 
-	private void findAllPaths(RelationshipPath visited, Set<RelationshipPath> paths, Table currentTable,
-			Table targetTable, boolean begin) {
-		// 'begin' is to avoid self-associated tables
-		if (currentTable == targetTable && !begin) {
-			paths.add(visited);
-			return;
-		}
-		begin = false;
-		Map<Table, Set<Relationship>> row = relationships.row(currentTable);
-		for (Entry<Table, Set<Relationship>> entry : row.entrySet()) {
-			Table node = entry.getKey();
-			for (Relationship relationship : entry.getValue()) {
-				if (visited.has(relationship.getForeignColumn().getTable())) {
+	/**
+	 * 获取2个表之间, 中间表都满足条件的路径
+	 * 
+	 * @param primaryTable
+	 * @param foreignTable
+	 * @param viaTable
+	 *            中间表的条件
+	 * @param maxDepth
+	 *            路径的最大长度
+	 * @return 满足条件的路径
+	 */
+	public Set<RelationshipPath> getRelationships(Table primaryTable, Table foreignTable, Predicate<Table> viaTable,
+			int maxDepth) {
+		return getPathIndex().getPaths(primaryTable, foreignTable, viaTable, maxDepth);
+	}
+
+	private PathIndex getPathIndex() {
+		PathIndex index = pathIndex;
+		if (index != null) {
+			return index;
+		}
+		synchronized (this) {
+			if (pathIndex == null) {
+				pathIndex = new PathIndex(++version, relationships);
+				logger.debug("Build relationship path index, version [{}]", version);
+			}
+			return pathIndex;
+		}
+	}
+
+	public synchronized void cleanRelationship() {
+		// 清空缓存
+		pathIndex = null;
+	}
+
+	/**
+	 * 关联关系路径索引. 创建时为关联关系中的表分配整数 id 并生成邻接表, 两个表之间的最短路径在第一次查询时计算并缓存.
+	 * <p>
+	 * 索引创建后不再修改, 关联关系变化时整体废弃, 下次查询时创建新版本的索引.
+	 */
+	private static class PathIndex {
+
+		private static final Edge[] NO_EDGES = new Edge[0];
+
+		private final long version;
+		private final Map<Table, Integer> tableIds = new IdentityHashMap<>();
+		// 下标为表 id
+		private final Table[] tables;
+		// 每个表出发的直接关联关系, 下标为表 id
+		private final Edge[][] edges;
+		// 到达每个表的直接关联关系的来源表 id, 下标为表 id
+		private final int[][] sources;
+		// key 为主表 id 和外表 id 组合
+		private final Map<Long, Set<RelationshipPath>> shortestPaths = new ConcurrentHashMap<>();
+
+		PathIndex(long version, com.google.common.collect.Table<Table, Table, Set<Relationship>> relationships) {
+			this.version = version;
+			for (Table table : relationships.rowKeySet()) {
+				getOrCreateId(table);
+			}
+			for (Table table : relationships.columnKeySet()) {
+				getOrCreateId(table);
+			}
+			this.tables = new Table[tableIds.size()];
+			this.edges = new Edge[tableIds.size()][];
+			List<List<Integer>> tableSources = new ArrayList<>();
+			for (int i = 0; i < tables.length; i++) {
+				tableSources.add(new ArrayList<>());
+			}
+			for (Entry<Table, Integer> entry : tableIds.entrySet()) {
+				tables[entry.getValue()] = entry.getKey();
+				List<Edge> tableEdges = new ArrayList<>();
+				for (Entry<Table, Set<Relationship>> rowEntry : relationships.row(entry.getKey()).entrySet()) {
+					// 删除关联关系后可能留下空集合
+					if (rowEntry.getValue().isEmpty()) {
+						continue;
+					}
+					int target = tableIds.get(rowEntry.getKey());
+					for (Relationship relationship : rowEntry.getValue()) {
+						tableEdges.add(new Edge(relationship, target));
+					}
+					tableSources.get(target).add(entry.getValue());
+				}
+				edges[entry.getValue()] = tableEdges.toArray(NO_EDGES);
+			}
+			this.sources = new int[tables.length][];
+			for (int i = 0; i < tables.length; i++) {
+				sources[i] = tableSources.get(i).stream().mapToInt(Integer::intValue).toArray();
+			}
+		}
+
+		private int getOrCreateId(Table table) {
+			return tableIds.computeIfAbsent(table, k -> tableIds.size());
+		}
+
+		Set<RelationshipPath> getShortestPaths(Table primaryTable, Table foreignTable) {
+			Integer primaryId = tableIds.get(primaryTable);
+			Integer foreignId = tableIds.get(foreignTable);
+			if (primaryId == null || foreignId == null) {
+				return Collections.emptySet();
+			}
+			long key = ((long) primaryId << 32) | foreignId;
+			return shortestPaths.computeIfAbsent(key, k -> findShortestPaths(primaryId, foreignId));
+		}
+
+		Set<RelationshipPath> getPaths(Table primaryTable, Table foreignTable, Predicate<Table> viaTable,
+				int maxDepth) {
+			Integer primaryId = tableIds.get(primaryTable);
+			Integer foreignId = tableIds.get(foreignTable);
+			if (primaryId == null || foreignId == null) {
+				return Collections.emptySet();
+			}
+			boolean[] via = new boolean[tables.length];
+			for (int i = 0; i < tables.length; i++) {
+				via[i] = viaTable.test(tables[i]);
+			}
+			Set<RelationshipPath> result = new LinkedHashSet<>();
+			findPaths(new ArrayDeque<>(), new boolean[tables.length], via, maxDepth, result, primaryId, primaryId,
+					foreignId);
+			return Collections.unmodifiableSet(result);
+		}
+
+		/**
+		 * 查找两个表之间的最短路径. 先从外表反向按层计算每个表到外表的距离, 到达主表所在的层后停止, 然后从主表出发只沿着距离递减的关联关系枚举路径
+		 */
+		private Set<RelationshipPath> findShortestPaths(int primaryId, int foreignId) {
+			Set<RelationshipPath> result = new LinkedHashSet<>();
+			if (primaryId == foreignId) {
+				// 自关联
+				for (Edge edge : edges[primaryId]) {
+					if (edge.target == primaryId) {
+						result.add(new RelationshipPath(Collections.singleton(edge.relationship)));
+					}
+				}
+				return Collections.unmodifiableSet(result);
+			}
+			int[] distances = new int[tables.length];
+			Arrays.fill(distances, -1);
+			distances[foreignId] = 0;
+			int[] queue = new int[tables.length];
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = foreignId;
+			while (head < tail && distances[primaryId] < 0) {
+				int current = queue[head++];
+				for (int source : sources[current]) {
+					if (distances[source] < 0) {
+						distances[source] = distances[current] + 1;
+						queue[tail++] = source;
+					}
+				}
+			}
+			if (distances[primaryId] > 0) {
+				findShortestPaths(new ArrayDeque<>(), distances, result, primaryId, foreignId);
+			}
+			logger.debug("Find [{}] shortest relationship paths, version [{}]", result.size(), version);
+			return Collections.unmodifiableSet(result);
+		}
+
+		private void findShortestPaths(Deque<Relationship> visited, int[] distances, Set<RelationshipPath> result,
+				int current, int target) {
+			if (current == target) {
+				result.add(new RelationshipPath(Collections.unmodifiableSet(new LinkedHashSet<>(visited))));
+				return;
+			}
+			for (Edge edge : edges[current]) {
+				// 只沿着距离外表更近一层的关联关系查找, 路径上的表不会重复
+				if (distances[edge.target] != distances[current] - 1) {
+					continue;
+				}
+				visited.addLast(edge.relationship);
+				findShortestPaths(visited, distances, result, edge.target, target);
+				visited.removeLast();
+			}
+		}
+
+		/**
+		 * 查找两个表之间中间表都满足条件, 并且长度不超过最大深度的简单路径
+		 */
+		private void findPaths(Deque<Relationship> visited, boolean[] visitedTables, boolean[] via, int maxDepth,
+				Set<RelationshipPath> result, int primaryId, int current, int target) {
+			if (current == target && !visited.isEmpty()) {
+				result.add(new RelationshipPath(Collections.unmodifiableSet(new LinkedHashSet<>(visited))));
+				return;
+			}
+			if (visited.size() >= maxDepth || (!visited.isEmpty() && !via[current])) {
+				return;
+			}
+			for (Edge edge : edges[current]) {
+				if (visitedTables[edge.target]) {
 					continue;
 				}
-				RelationshipPath temp = new RelationshipPath();
-				temp.addAll(visited);
-				temp.add(relationship);
-				findAllPaths(temp, paths, node, targetTable, begin);
+				boolean begin = visited.isEmpty();
+				if (begin) {
+					visitedTables[primaryId] = true;
+				}
+				visited.addLast(edge.relationship);
+				visitedTables[edge.target] = true;
+				findPaths(visited, visitedTables, via, maxDepth, result, primaryId, edge.target, target);
+				visitedTables[edge.target] = false;
+				visited.removeLast();
+				if (begin) {
+					visitedTables[primaryId] = false;
+				}
 			}
 		}
+
 	}
 
-	public void cleanRelationship() {
-		// 清空缓存
-		relationshipsCache.invalidateAll();
+	private static class Edge {
+
+		private final Relationship relationship;
+		// 外表 id
+		private final int target;
+
+		Edge(Relationship relationship, int target) {
+			this.relationship = relationship;
+			this.target = target;
+		}
+
 	}
 
 }
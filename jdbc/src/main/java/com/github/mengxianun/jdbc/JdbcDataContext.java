@@ -1,14 +1,37 @@
 package com.github.mengxianun.jdbc;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -23,19 +46,36 @@ import com.alibaba.druid.pool.DruidDataSource;
 import com.alibaba.druid.util.JdbcUtils;
 import com.github.mengxianun.core.AbstractDataContext;
 import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.App;
 import com.github.mengxianun.core.Atom;
+import com.github.mengxianun.core.Configuration;
 import com.github.mengxianun.core.Dialect;
 import com.github.mengxianun.core.ResultStatus;
 import com.github.mengxianun.core.SQLBuilder;
+import com.github.mengxianun.core.SQLBuilder.InsertBatch;
+import com.github.mengxianun.core.data.DefaultHeader;
+import com.github.mengxianun.core.data.DefaultRow;
+import com.github.mengxianun.core.data.Header;
+import com.github.mengxianun.core.data.Row;
 import com.github.mengxianun.core.data.Summary;
 import com.github.mengxianun.core.data.summary.InsertSummary;
 import com.github.mengxianun.core.data.summary.QuerySummary;
 import com.github.mengxianun.core.data.summary.UpdateSummary;
+import com.github.mengxianun.core.exception.PermissionException;
+import com.github.mengxianun.core.item.ValueItem;
+import com.github.mengxianun.core.parser.SimpleParser;
+import com.github.mengxianun.core.permission.PermissionChecker;
+import com.github.mengxianun.core.plan.PlanCache;
+import com.github.mengxianun.core.request.Operation;
+import com.github.mengxianun.core.request.RequestKeyword;
 import com.github.mengxianun.core.schema.Column;
 import com.github.mengxianun.core.schema.ColumnType;
+import com.github.mengxianun.core.schema.MetadataLoad;
 import com.github.mengxianun.core.schema.Schema;
 import com.github.mengxianun.core.schema.Table;
 import com.github.mengxianun.core.schema.TableType;
+import com.github.mengxianun.jdbc.copy.CopyFormat;
+import com.github.mengxianun.jdbc.copy.CopyReader;
 import com.github.mengxianun.jdbc.data.JdbcMapQuerySummary;
 import com.github.mengxianun.jdbc.data.JdbcQuerySummary;
 import com.github.mengxianun.jdbc.dbutils.processor.JdbcRowProcessor;
@@ -47,7 +87,14 @@ import com.github.mengxianun.jdbc.schema.JdbcColumn;
 import com.github.mengxianun.jdbc.schema.JdbcColumnType;
 import com.github.mengxianun.jdbc.schema.JdbcSchema;
 import com.github.mengxianun.jdbc.schema.JdbcTable;
+import com.github.mengxianun.jdbc.schema.MetadataSnapshot;
 import com.google.common.base.Strings;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 
 public class JdbcDataContext extends AbstractDataContext {
 
@@ -66,6 +113,9 @@ public class JdbcDataContext extends AbstractDataContext {
 	public static final String INFORMATION_SCHEMA = "INFORMATION_SCHEMA";
 
 	private static final Logger logger = LoggerFactory.getLogger(JdbcDataContext.class);
+
+	// 流式查询每次从数据库游标读取的记录数
+	private static final int STREAM_FETCH_SIZE = 1000;
 	// 当前线程操作的数据库连接
 	private static final ThreadLocal<Connection> threadLocalConnection = new ThreadLocal<>();
 	// 当前线程操作是否自动关闭连接
@@ -78,9 +128,16 @@ public class JdbcDataContext extends AbstractDataContext {
 
 	private final String databaseProductName;
 	private final String databaseProductVersion;
+	private final int databaseMajorVersion;
 
 	private final String identifierQuoteString;
 	private final boolean usesCatalogsAsSchemas;
+	// 元数据快照文件, 为空时不使用快照
+	private final Path metadataSnapshot;
+	// 从快照加载元数据时快照的指纹, 初始化完成后在后台校验
+	private final AtomicReference<String> snapshotFingerprint = new AtomicReference<>();
+	// 是否根据数据库外键添加关联关系
+	private final boolean foreignKeys;
 	//
 	private final QueryRunner runner;
 
@@ -93,8 +150,25 @@ public class JdbcDataContext extends AbstractDataContext {
 	}
 
 	public JdbcDataContext(DataSource dataSource, TableType[] tableTypes) {
+		this(dataSource, tableTypes, MetadataLoad.EAGER);
+	}
+
+	public JdbcDataContext(DataSource dataSource, TableType[] tableTypes, MetadataLoad metadataLoad) {
+		this(dataSource, tableTypes, metadataLoad, null);
+	}
+
+	public JdbcDataContext(DataSource dataSource, TableType[] tableTypes, MetadataLoad metadataLoad,
+			Path metadataSnapshot) {
+		this(dataSource, tableTypes, metadataLoad, metadataSnapshot, true);
+	}
+
+	public JdbcDataContext(DataSource dataSource, TableType[] tableTypes, MetadataLoad metadataLoad,
+			Path metadataSnapshot, boolean foreignKeys) {
 		this.dataSource = Objects.requireNonNull(dataSource);
 		this.tableTypes = tableTypes;
+		this.metadataLoad = metadataLoad;
+		this.metadataSnapshot = metadataLoad == MetadataLoad.EAGER ? metadataSnapshot : null;
+		this.foreignKeys = foreignKeys;
 		this.runner = new QueryRunner(dataSource);
 		closeConnection.set(true);
 
@@ -102,6 +176,7 @@ public class JdbcDataContext extends AbstractDataContext {
 		String defaultSchemaTemp = null;
 		String databaseProductNameTemp = null;
 		String databaseProductVersionTemp = null;
+		int databaseMajorVersionTemp = 0;
 		boolean usesCatalogsAsSchemasTemp = false;
 		String identifierQuoteStringTemp = null;
 
@@ -121,6 +196,7 @@ public class JdbcDataContext extends AbstractDataContext {
 
 			databaseProductNameTemp = databaseMetaData.getDatabaseProductName();
 			databaseProductVersionTemp = databaseMetaData.getDatabaseProductVersion();
+			databaseMajorVersionTemp = databaseMetaData.getDatabaseMajorVersion();
 
 			identifierQuoteStringTemp = databaseMetaData.getIdentifierQuoteString();
 			if (identifierQuoteStringTemp != null) {
@@ -135,19 +211,355 @@ public class JdbcDataContext extends AbstractDataContext {
 		defaultSchema = usesCatalogsAsSchemas ? catalog : defaultSchemaTemp;
 		databaseProductName = databaseProductNameTemp;
 		databaseProductVersion = databaseProductVersionTemp;
+		databaseMajorVersion = databaseMajorVersionTemp;
 		identifierQuoteString = identifierQuoteStringTemp;
 
 		logger.info("Database product name: {}", databaseProductName);
 		logger.info("Database product version: {}", databaseProductVersion);
 		dialect = createDialect(databaseProductName);
+		Configuration configuration = App.getConfiguration();
+		planCache = new PlanCache(
+				configuration != null ? configuration.planCacheSize() : Configuration.DEFAULT_PLAN_CACHE_SIZE);
 
-		initMetadata();
+		if (!loadMetadataSnapshot()) {
+			initMetadata();
+		}
+		loadForeignKeys();
 	}
 
 	@Override
 	public void initMetadata() {
+		if (metadataLoad == MetadataLoad.LAZY) {
+			// 首次访问表时加载
+			schema = new JdbcSchema(defaultSchema, catalog);
+			return;
+		}
 		// Init all tables metadata
-		schema = loadSchema(defaultSchema, "%");
+		// 指纹在加载元数据之前查询, 加载期间元数据发生变化时下次启动会重新加载
+		String fingerprint = metadataSnapshot == null ? null : loadMetadataFingerprint();
+		JdbcSchema jdbcSchema = loadSchema(defaultSchema, "%");
+		schema = jdbcSchema;
+		writeMetadataSnapshot(fingerprint, jdbcSchema);
+	}
+
+	/**
+	 * 增量刷新元数据. 一次读取 Schema 中所有列的元数据与已加载的表比较, 只重新加载新增和结构变化的表, 刷新期间请求继续使用原来的表
+	 */
+	@Override
+	protected void refreshMetadata() {
+		String fingerprint = metadataSnapshot == null ? null : loadMetadataFingerprint();
+		String[] types = Arrays.stream(tableTypes).map(TableType::name).toArray(String[]::new);
+		List<Table> removedTables = new ArrayList<>();
+		List<Table> addedTables = new ArrayList<>();
+		try (final Connection connection = getConnection()) {
+			DatabaseMetaData databaseMetaData = connection.getMetaData();
+			Set<String> tableNames = new LinkedHashSet<>();
+			try (ResultSet tablesResultSet = databaseMetaData.getTables(catalog, defaultSchema, "%", types)) {
+				while (tablesResultSet.next()) {
+					tableNames.add(tablesResultSet.getString(3));
+				}
+			}
+			Map<String, String> signatures = loadColumnSignatures(databaseMetaData);
+			for (Table table : schema.getTables()) {
+				// 物化视图不在表类型中, 不刷新
+				if (table.getType() == TableType.MATERIALIZED_VIEW) {
+					continue;
+				}
+				if (!tableNames.contains(table.getName())) {
+					removedTables.add(table);
+				} else if (!getColumnSignature(table).equals(signatures.get(table.getName()))) {
+					removedTables.add(table);
+					Table newTable = loadTable(databaseMetaData, catalog, schema.getName(), table.getName(), types);
+					if (newTable != null) {
+						addedTables.add(newTable);
+					}
+				}
+			}
+			// 延迟加载时新增的表在首次访问时加载
+			if (metadataLoad == MetadataLoad.EAGER) {
+				for (String tableName : tableNames) {
+					Table table = schema.getTableByName(tableName);
+					if (table == null || !table.getName().equals(tableName)) {
+						Table newTable = loadTable(databaseMetaData, catalog, schema.getName(), tableName, types);
+						if (newTable != null) {
+							addedTables.add(newTable);
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			throw new JdbcDataException(ResultStatus.DATASOURCE_EXCEPTION, e.getMessage());
+		}
+		if (removedTables.isEmpty() && addedTables.isEmpty()) {
+			return;
+		}
+		logger.info("Refresh schema [{}], {} tables removed or changed, {} tables loaded", schema.getName(),
+				removedTables.size(), addedTables.size());
+		replaceTables(removedTables, addedTables);
+		// 新增的表的外键
+		loadForeignKeys();
+		writeMetadataSnapshot(fingerprint, (JdbcSchema) schema);
+	}
+
+	/**
+	 * 读取 Schema 中所有列和主键的元数据, 按表生成列的结构签名
+	 * 
+	 * @param databaseMetaData
+	 * @return 表名和列结构签名
+	 * @throws SQLException
+	 */
+	private Map<String, String> loadColumnSignatures(DatabaseMetaData databaseMetaData) throws SQLException {
+		Map<String, StringBuilder> signatures = new HashMap<>();
+		try (ResultSet columnsResultSet = databaseMetaData.getColumns(catalog, defaultSchema, "%", null)) {
+			while (columnsResultSet.next()) {
+				String columnTable = columnsResultSet.getString(3);
+				StringBuilder signature = signatures.computeIfAbsent(columnTable, k -> new StringBuilder());
+				appendColumnSignature(signature, columnsResultSet.getString(4),
+						Integer.parseInt(columnsResultSet.getString(5)), columnsResultSet.getString(6),
+						columnsResultSet.getInt(7), columnsResultSet.getBoolean(11), columnsResultSet.getString(12));
+			}
+		}
+		Map<String, List<String>> primaryKeys = queryPrimaryKeys(databaseMetaData.getConnection(), defaultSchema);
+		for (Entry<String, StringBuilder> entry : signatures.entrySet()) {
+			String tableName = entry.getKey();
+			List<String> tablePrimaryKeys;
+			if (primaryKeys != null) {
+				tablePrimaryKeys = primaryKeys.getOrDefault(tableName, Collections.emptyList());
+			} else if (schema.getTableByName(tableName) != null) {
+				// 不支持一次查询全部主键时, 只逐表查询已加载的表的主键
+				tablePrimaryKeys = new ArrayList<>();
+				try (ResultSet primaryKeysResultSet = databaseMetaData.getPrimaryKeys(catalog, defaultSchema,
+						tableName)) {
+					while (primaryKeysResultSet.next()) {
+						tablePrimaryKeys.add(primaryKeysResultSet.getString(4));
+					}
+				}
+			} else {
+				continue;
+			}
+			appendPrimaryKeySignature(entry.getValue(), tablePrimaryKeys);
+		}
+		return signatures.entrySet().stream().collect(Collectors.toMap(Entry::getKey, e -> e.getValue().toString()));
+	}
+
+	private String getColumnSignature(Table table) {
+		StringBuilder signature = new StringBuilder();
+		for (Column column : table.getColumns()) {
+			JdbcColumn jdbcColumn = (JdbcColumn) column;
+			JdbcColumnType columnType = (JdbcColumnType) jdbcColumn.getType();
+			appendColumnSignature(signature, jdbcColumn.getName(), columnType.getType(), columnType.getName(),
+					jdbcColumn.getColumnSize(), jdbcColumn.isNullable(), jdbcColumn.getRemarks());
+		}
+		appendPrimaryKeySignature(signature,
+				table.getPrimaryKeys().stream().map(Column::getName).collect(Collectors.toList()));
+		return signature.toString();
+	}
+
+	private void appendColumnSignature(StringBuilder signature, String name, int dataType, String typeName, int size,
+			boolean nullable, String remarks) {
+		signature.append(name).append('\u0001').append(dataType).append('\u0001').append(typeName).append('\u0001')
+				.append(size).append('\u0001').append(nullable).append('\u0001').append(remarks).append('\u0002');
+	}
+
+	/**
+	 * 主键按列名排序后加入签名. 批量查询按主键中的位置排序, DatabaseMetaData 按列名排序, 排序后两种方式加载的主键签名一致
+	 */
+	private void appendPrimaryKeySignature(StringBuilder signature, List<String> primaryKeys) {
+		signature.append('\u0003');
+		primaryKeys.stream().distinct().sorted().forEach(e -> signature.append(e).append('\u0001'));
+	}
+
+	/**
+	 * 从快照加载元数据. 初始化完成后在后台校验快照的指纹, 指纹不同时重新加载元数据
+	 * 
+	 * @see #afterInit()
+	 * @return 是否从快照加载
+	 */
+	private boolean loadMetadataSnapshot() {
+		if (metadataSnapshot == null || !Files.exists(metadataSnapshot)) {
+			return false;
+		}
+		MetadataSnapshot snapshot;
+		try {
+			snapshot = MetadataSnapshot.read(metadataSnapshot);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Read metadata snapshot [{}] failed", metadataSnapshot, e);
+			return false;
+		}
+		if (!getMetadataSnapshotKey().equals(snapshot.getKey())) {
+			logger.info("Metadata snapshot [{}] belongs to another data source, ignore it", metadataSnapshot);
+			return false;
+		}
+		schema = snapshot.getSchema();
+		logger.info("Load [{}] tables from metadata snapshot [{}]", schema.getTableCount(), metadataSnapshot);
+		snapshotFingerprint.set(snapshot.getFingerprint());
+		return true;
+	}
+
+	/**
+	 * 校验元数据快照. 在表配置和外键关联关系加载之后开始, 避免重新加载的表丢失这些配置
+	 */
+	@Override
+	public void afterInit() {
+		String fingerprint = snapshotFingerprint.getAndSet(null);
+		if (fingerprint != null) {
+			getExecutor().execute(() -> validateMetadataSnapshot(fingerprint));
+		}
+	}
+
+	private void validateMetadataSnapshot(String snapshotFingerprint) {
+		try {
+			String fingerprint = loadMetadataFingerprint();
+			if (fingerprint != null && fingerprint.equals(snapshotFingerprint)) {
+				return;
+			}
+			logger.info("Metadata snapshot [{}] is out of date, refresh metadata", metadataSnapshot);
+			refresh();
+		} catch (Exception e) {
+			logger.error("Validate metadata snapshot failed", e);
+		}
+	}
+
+	private void writeMetadataSnapshot(String fingerprint, JdbcSchema jdbcSchema) {
+		if (metadataSnapshot == null || fingerprint == null) {
+			return;
+		}
+		try {
+			new MetadataSnapshot(getMetadataSnapshotKey(), fingerprint, jdbcSchema).write(metadataSnapshot);
+		} catch (IOException e) {
+			logger.warn("Write metadata snapshot [{}] failed", metadataSnapshot, e);
+		}
+	}
+
+	private String getMetadataSnapshotKey() {
+		return String.join("|", databaseProductName, String.valueOf(catalog), String.valueOf(defaultSchema),
+				Arrays.toString(tableTypes));
+	}
+
+	/**
+	 * 数据库元数据指纹, 由表数量, 列数量, 所有列的表名, 列名和类型的哈希值及数据库提供的表结构变更标记组成. 不支持的数据库返回 null, 不使用快照
+	 * 
+	 * @return 元数据指纹
+	 */
+	private String loadMetadataFingerprint() {
+		String sql = null;
+		if (DATABASE_PRODUCT_POSTGRESQL.equals(databaseProductName)) {
+			// 表结构变更会更新 pg_class 中的记录, xmin 随之变化
+			sql = "SELECT count(*), sum(c.xmin::text::bigint),"
+					+ " (SELECT count(*) || ':' || sum(hashtext(concat_ws('.', table_name, column_name, data_type,"
+					+ " character_maximum_length, numeric_precision, numeric_scale)))"
+					+ " FROM information_schema.columns WHERE table_schema = ?)"
+					+ " FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace"
+					+ " WHERE n.nspname = ? AND c.relkind IN ('r', 'v', 'm', 'p', 'f')";
+		} else if (DATABASE_PRODUCT_MYSQL.equals(databaseProductName)) {
+			sql = "SELECT COUNT(*), MAX(CREATE_TIME),"
+					+ " (SELECT CONCAT(COUNT(*), ':', SUM(CRC32(CONCAT_WS('.', TABLE_NAME, COLUMN_NAME, COLUMN_TYPE))))"
+					+ " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ?)"
+					+ " FROM information_schema.TABLES WHERE TABLE_SCHEMA = ?";
+		} else if (DATABASE_PRODUCT_H2.equals(databaseProductName)) {
+			sql = "SELECT COUNT(*), (SELECT COUNT(*) || ':' || SUM(ORA_HASH(TABLE_NAME || '.' || COLUMN_NAME || ':'"
+					+ " || COLUMN_TYPE)) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = ?)"
+					+ " FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ?";
+		}
+		if (sql == null) {
+			return null;
+		}
+		try {
+			return runner.query(sql, rs -> {
+				if (!rs.next()) {
+					return null;
+				}
+				StringBuilder fingerprint = new StringBuilder();
+				for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+					fingerprint.append(i > 1 ? ":" : "").append(rs.getString(i));
+				}
+				return fingerprint.toString();
+			}, defaultSchema, defaultSchema);
+		} catch (SQLException e) {
+			logger.warn("Load metadata fingerprint failed", e);
+			return null;
+		}
+	}
+
+	/**
+	 * 根据数据库外键添加关联关系. 一次查询 Schema 下所有外键, 不支持的数据库通过 DatabaseMetaData 逐表查询. 懒加载模式下不加载
+	 */
+	private void loadForeignKeys() {
+		if (!foreignKeys || metadataLoad == MetadataLoad.LAZY) {
+			return;
+		}
+		// 外键表, 外键列, 引用表, 引用列
+		List<String[]> keys = new ArrayList<>();
+		try (final Connection connection = getConnection()) {
+			if (!loadForeignKeys(connection, keys)) {
+				DatabaseMetaData databaseMetaData = connection.getMetaData();
+				for (Table table : schema.getTables()) {
+					try (ResultSet resultSet = databaseMetaData.getImportedKeys(catalog, defaultSchema,
+							table.getName())) {
+						while (resultSet.next()) {
+							keys.add(new String[] { resultSet.getString(7), resultSet.getString(8),
+									resultSet.getString(3), resultSet.getString(4) });
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			logger.warn("Load [{}] foreign keys failed", databaseProductName, e);
+			return;
+		}
+		int count = 0;
+		for (String[] key : keys) {
+			Table table = schema.getTableByName(key[0]);
+			Table referencedTable = schema.getTableByName(key[2]);
+			if (table == null || referencedTable == null) {
+				continue;
+			}
+			Column column = table.getColumnByName(key[1]);
+			Column referencedColumn = referencedTable.getColumnByName(key[3]);
+			if (column != null && referencedColumn != null && addForeignKeyRelationship(column, referencedColumn)) {
+				count++;
+			}
+		}
+		logger.info("Add [{}] relationships from foreign keys", count);
+	}
+
+	private boolean loadForeignKeys(Connection connection, List<String[]> keys) {
+		String sql = null;
+		if (DATABASE_PRODUCT_POSTGRESQL.equals(databaseProductName)) {
+			sql = "SELECT kcu.table_name, kcu.column_name, rcu.table_name, rcu.column_name"
+					+ " FROM information_schema.referential_constraints rc"
+					+ " JOIN information_schema.key_column_usage kcu ON kcu.constraint_schema = rc.constraint_schema"
+					+ " AND kcu.constraint_name = rc.constraint_name"
+					+ " JOIN information_schema.key_column_usage rcu ON rcu.constraint_schema = rc.unique_constraint_schema"
+					+ " AND rcu.constraint_name = rc.unique_constraint_name"
+					+ " AND rcu.ordinal_position = kcu.position_in_unique_constraint"
+					+ " WHERE rc.constraint_schema = ? AND rc.unique_constraint_schema = ?";
+		} else if (DATABASE_PRODUCT_MYSQL.equals(databaseProductName)) {
+			sql = "SELECT TABLE_NAME, COLUMN_NAME, REFERENCED_TABLE_NAME, REFERENCED_COLUMN_NAME"
+					+ " FROM information_schema.KEY_COLUMN_USAGE"
+					+ " WHERE TABLE_SCHEMA = ? AND REFERENCED_TABLE_SCHEMA = ? AND REFERENCED_TABLE_NAME IS NOT NULL";
+		} else if (DATABASE_PRODUCT_H2.equals(databaseProductName)) {
+			sql = "SELECT FKTABLE_NAME, FKCOLUMN_NAME, PKTABLE_NAME, PKCOLUMN_NAME"
+					+ " FROM INFORMATION_SCHEMA.CROSS_REFERENCES WHERE FKTABLE_SCHEMA = ? AND PKTABLE_SCHEMA = ?";
+		}
+		if (sql == null || defaultSchema == null) {
+			return false;
+		}
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			statement.setString(1, defaultSchema);
+			statement.setString(2, defaultSchema);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					keys.add(new String[] { resultSet.getString(1), resultSet.getString(2), resultSet.getString(3),
+							resultSet.getString(4) });
+				}
+			}
+			return true;
+		} catch (SQLException e) {
+			logger.warn("Load [{}] foreign keys failed, fall back to DatabaseMetaData", databaseProductName, e);
+			keys.clear();
+			return false;
+		}
 	}
 
 	private JdbcSchema loadSchema(String schemaPattern, String tableNamePattern) {
@@ -165,22 +577,26 @@ public class JdbcDataContext extends AbstractDataContext {
 			String tableNamePattern, String[] types, String columnNamePattern) throws SQLException {
 		JdbcSchema jdbcSchema = new JdbcSchema(defaultSchema, catalog);
 		// table metadata
+		List<Table> tables = new ArrayList<>();
 		ResultSet tablesResultSet = databaseMetaData.getTables(catalog, schemaPattern, tableNamePattern, types);
 		while (tablesResultSet.next()) {
 			String tableName = tablesResultSet.getString(3);
 			String tableTypeName = tablesResultSet.getString(4);
 			TableType tableType = TableType.getTableType(tableTypeName);
 			String remarks = tablesResultSet.getString(5);
-			jdbcSchema.addTable(new JdbcTable(tableName, tableType, jdbcSchema, remarks));
+			tables.add(new JdbcTable(tableName, tableType, jdbcSchema, remarks));
 
 			logger.info("Find [{}] table [{}]", databaseProductName, tableName);
 		}
+		jdbcSchema.addTables(tables);
 
 		if (DATABASE_PRODUCT_POSTGRESQL.equals(databaseProductName)) {
 			loadPostgresMaterializedView(jdbcSchema);
 		}
 
 		// column metadata
+		// 每个表的列收集完成后一次添加, 避免每添加一列创建一个新版本
+		Map<JdbcTable, List<Column>> tableColumns = new LinkedHashMap<>();
 		ResultSet columnsResultSet = databaseMetaData.getColumns(catalog, schemaPattern, tableNamePattern,
 				columnNamePattern);
 		while (columnsResultSet.next()) {
@@ -197,39 +613,113 @@ public class JdbcDataContext extends AbstractDataContext {
 				continue;
 			}
 			ColumnType columnType = new JdbcColumnType(Integer.parseInt(columnDataType), columnTypeName);
-			table.addColumn(new JdbcColumn(columnName, columnType, table, columnNullable, columnRemarks, columnSize));
+			tableColumns.computeIfAbsent(table, k -> new ArrayList<>())
+					.add(new JdbcColumn(columnName, columnType, table, columnNullable, columnRemarks, columnSize));
 		}
+		tableColumns.forEach(JdbcTable::addColumns);
 
 		// primary key
-		for (Table table : jdbcSchema.getTables()) {
-			ResultSet primaryKeysResultSet = databaseMetaData.getPrimaryKeys(catalog, schemaPattern, table.getName());
-			while (primaryKeysResultSet.next()) {
-				String columnName = primaryKeysResultSet.getString(4);
-				((JdbcTable) table).addPrimaryKey(columnName);
+		if (!loadPrimaryKeys(databaseMetaData.getConnection(), jdbcSchema, schemaPattern)) {
+			for (Table table : jdbcSchema.getTables()) {
+				ResultSet primaryKeysResultSet = databaseMetaData.getPrimaryKeys(catalog, schemaPattern,
+						table.getName());
+				while (primaryKeysResultSet.next()) {
+					String columnName = primaryKeysResultSet.getString(4);
+					((JdbcTable) table).addPrimaryKey(columnName);
+				}
 			}
 		}
 		return jdbcSchema;
 	}
 
-	private Table loadTable(DatabaseMetaData databaseMetaData, String catalog, String schemaName, String tableName,
-			String[] types) throws SQLException {
-		JdbcTable table = null;
-		ResultSet tablesResultSet = databaseMetaData.getTables(catalog, schemaName, tableName, types);
-		while (tablesResultSet.next()) {
-			tableName = tablesResultSet.getString(3);
-			String tableTypeName = tablesResultSet.getString(4);
-			TableType tableType = TableType.getTableType(tableTypeName);
-			String remarks = tablesResultSet.getString(5);
-			table = new JdbcTable(tableName, tableType, schema, remarks);
+	/**
+	 * 一次查询加载 Schema 下所有表的主键, 避免每个表查询一次. 不支持的数据库返回 false, 由 DatabaseMetaData 逐表加载
+	 * 
+	 * @param connection
+	 * @param jdbcSchema
+	 * @param schemaName
+	 * @return 是否加载成功
+	 */
+	private boolean loadPrimaryKeys(Connection connection, JdbcSchema jdbcSchema, String schemaName) {
+		Map<String, List<String>> primaryKeys = queryPrimaryKeys(connection, schemaName);
+		if (primaryKeys == null) {
+			return false;
+		}
+		primaryKeys.forEach((tableName, columnNames) -> {
+			JdbcTable table = (JdbcTable) jdbcSchema.getTableByName(tableName);
+			if (table == null) {
+				return;
+			}
+			for (String columnName : columnNames) {
+				Column column = table.getColumnByName(columnName);
+				if (column != null) {
+					table.addPrimaryKey(column);
+				}
+			}
+		});
+		return true;
+	}
 
-			logger.info("Find [{}] table [{}]", databaseProductName, tableName);
+	/**
+	 * 一次查询 Schema 下所有表的主键列名, 按主键中的位置排序
+	 * 
+	 * @param connection
+	 * @param schemaName
+	 * @return 表名和主键列名, 不支持的数据库或查询失败时返回 null
+	 */
+	private Map<String, List<String>> queryPrimaryKeys(Connection connection, String schemaName) {
+		String sql = null;
+		if (DATABASE_PRODUCT_POSTGRESQL.equals(databaseProductName)) {
+			sql = "SELECT kcu.table_name, kcu.column_name FROM information_schema.table_constraints tc"
+					+ " JOIN information_schema.key_column_usage kcu ON kcu.constraint_schema = tc.constraint_schema"
+					+ " AND kcu.constraint_name = tc.constraint_name AND kcu.table_name = tc.table_name"
+					+ " WHERE tc.constraint_type = 'PRIMARY KEY' AND tc.table_schema = ?"
+					+ " ORDER BY kcu.table_name, kcu.ordinal_position";
+		} else if (DATABASE_PRODUCT_MYSQL.equals(databaseProductName)) {
+			sql = "SELECT TABLE_NAME, COLUMN_NAME FROM information_schema.KEY_COLUMN_USAGE"
+					+ " WHERE TABLE_SCHEMA = ? AND CONSTRAINT_NAME = 'PRIMARY' ORDER BY TABLE_NAME, ORDINAL_POSITION";
+		} else if (DATABASE_PRODUCT_H2.equals(databaseProductName)) {
+			sql = "SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEXES"
+					+ " WHERE TABLE_SCHEMA = ? AND PRIMARY_KEY = TRUE ORDER BY TABLE_NAME, ORDINAL_POSITION";
+		}
+		if (sql == null || schemaName == null) {
+			return null;
 		}
+		// 查询全部成功后再返回, 查询中途失败时由 DatabaseMetaData 重新加载, 不会重复添加
+		Map<String, List<String>> primaryKeys = new LinkedHashMap<>();
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			statement.setString(1, schemaName);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					primaryKeys.computeIfAbsent(resultSet.getString(1), k -> new ArrayList<>())
+							.add(resultSet.getString(2));
+				}
+			}
+		} catch (SQLException e) {
+			logger.warn("Load [{}] primary keys failed, fall back to DatabaseMetaData", databaseProductName, e);
+			return null;
+		}
+		return primaryKeys;
+	}
 
+	private Table loadTable(DatabaseMetaData databaseMetaData, String catalog, String schemaName, String tableName,
+			String[] types) throws SQLException {
+		JdbcTable table = findTable(databaseMetaData, catalog, schemaName, tableName, types);
+		if (table == null) {
+			// 未加引号的标识符在数据库中可能以大写或小写存储
+			if (databaseMetaData.storesUpperCaseIdentifiers()) {
+				table = findTable(databaseMetaData, catalog, schemaName, tableName.toUpperCase(Locale.ROOT), types);
+			} else if (databaseMetaData.storesLowerCaseIdentifiers()) {
+				table = findTable(databaseMetaData, catalog, schemaName, tableName.toLowerCase(Locale.ROOT), types);
+			}
+		}
 		if (table == null) {
 			return null;
 		}
+		tableName = escapeSearchString(databaseMetaData, table.getName());
 
 		// column metadata
+		List<Column> columns = new ArrayList<>();
 		ResultSet columnsResultSet = databaseMetaData.getColumns(catalog, schemaName, tableName, null);
 		while (columnsResultSet.next()) {
 			String columnName = columnsResultSet.getString(4);
@@ -240,8 +730,9 @@ public class JdbcDataContext extends AbstractDataContext {
 			String columnRemarks = columnsResultSet.getString(12);
 
 			ColumnType columnType = new JdbcColumnType(Integer.parseInt(columnDataType), columnTypeName);
-			table.addColumn(new JdbcColumn(columnName, columnType, table, columnNullable, columnRemarks, columnSize));
+			columns.add(new JdbcColumn(columnName, columnType, table, columnNullable, columnRemarks, columnSize));
 		}
+		table.addColumns(columns);
 
 		// primary key
 		ResultSet primaryKeysResultSet = databaseMetaData.getPrimaryKeys(catalog, schemaName, table.getName());
@@ -252,6 +743,37 @@ public class JdbcDataContext extends AbstractDataContext {
 		return table;
 	}
 
+	/**
+	 * 按表名查找表, 表名中的 _ 和 % 不作为通配符
+	 */
+	private JdbcTable findTable(DatabaseMetaData databaseMetaData, String catalog, String schemaName,
+			String tableName, String[] types) throws SQLException {
+		JdbcTable table = null;
+		ResultSet tablesResultSet = databaseMetaData.getTables(catalog, schemaName,
+				escapeSearchString(databaseMetaData, tableName), types);
+		while (tablesResultSet.next()) {
+			String name = tablesResultSet.getString(3);
+			if (!name.equals(tableName) && (table != null || !name.equalsIgnoreCase(tableName))) {
+				continue;
+			}
+			String tableTypeName = tablesResultSet.getString(4);
+			TableType tableType = TableType.getTableType(tableTypeName);
+			String remarks = tablesResultSet.getString(5);
+			table = new JdbcTable(name, tableType, schema, remarks);
+
+			logger.info("Find [{}] table [{}]", databaseProductName, name);
+		}
+		return table;
+	}
+
+	private String escapeSearchString(DatabaseMetaData databaseMetaData, String name) throws SQLException {
+		String escape = databaseMetaData.getSearchStringEscape();
+		if (Strings.isNullOrEmpty(escape)) {
+			return name;
+		}
+		return name.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+	}
+
 	/**
 	 * Load PostgreSQL materialized view
 	 */
@@ -277,6 +799,27 @@ public class JdbcDataContext extends AbstractDataContext {
 		return loadSchema(defaultSchema, "%");
 	}
 
+	@Override
+	public List<String> loadTableNames(long start, long end) {
+		List<String> tableNames = new ArrayList<>();
+		try (final Connection connection = getConnection()) {
+			DatabaseMetaData databaseMetaData = connection.getMetaData();
+
+			String[] types = Arrays.stream(tableTypes).map(TableType::name).toArray(String[]::new);
+			try (ResultSet tablesResultSet = databaseMetaData.getTables(catalog, defaultSchema, "%", types)) {
+				long index = 0;
+				while ((end < 0 || index < end) && tablesResultSet.next()) {
+					if (index++ >= start) {
+						tableNames.add(tablesResultSet.getString(3));
+					}
+				}
+			}
+		} catch (SQLException e) {
+			throw new JdbcDataException(ResultStatus.DATASOURCE_EXCEPTION, e.getMessage());
+		}
+		return tableNames;
+	}
+
 	@Override
 	public Table loadTable(String tableName) {
 		if (tableName.contains("%")) {
@@ -407,6 +950,11 @@ public class JdbcDataContext extends AbstractDataContext {
 		return close;
 	}
 
+	@Override
+	protected boolean isInTransaction() {
+		return !isCloseConnection();
+	}
+
 	/**
 	 * 指定一组事务操作
 	 * 
@@ -447,12 +995,90 @@ public class JdbcDataContext extends AbstractDataContext {
 
 	@Override
 	protected QuerySummary select(Action action) {
-		return new JdbcQuerySummary(action, select(action.getSql(), action.getParams().toArray()));
+		List<Object[]> values = select(action.getSql(), action.getParams().toArray());
+		if (!action.getSqlBuilder().isWindowCount()) {
+			return new JdbcQuerySummary(action, values);
+		}
+		// 最后一列为 COUNT(*) OVER() 返回的总数
+		long total = -1;
+		List<Object[]> pageValues = new ArrayList<>(values.size());
+		for (Object[] rowValues : values) {
+			total = ((Number) rowValues[rowValues.length - 1]).longValue();
+			pageValues.add(Arrays.copyOf(rowValues, rowValues.length - 1));
+		}
+		JdbcQuerySummary querySummary = new JdbcQuerySummary(action, pageValues);
+		querySummary.setTotal(total);
+		return querySummary;
+	}
+
+	/**
+	 * 通过数据库游标逐行读取查询结果, 不缓存全部结果
+	 */
+	@Override
+	protected void select(Action action, Consumer<Row> consumer) {
+		Header header = new DefaultHeader(action.getColumnItems());
+		JdbcRowProcessor rowProcessor = new JdbcRowProcessor();
+		try (Connection conn = getConnection()) {
+			// PostgreSQL 只有在非自动提交模式下才会按 fetchSize 分批读取
+			boolean autoCommit = conn.getAutoCommit();
+			if (DATABASE_PRODUCT_POSTGRESQL.equals(databaseProductName)) {
+				conn.setAutoCommit(false);
+			}
+			try (PreparedStatement stmt = conn.prepareStatement(action.getSql(), ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY)) {
+				stmt.setFetchSize(getStreamFetchSize());
+				runner.fillStatement(stmt, action.getParams().toArray());
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						consumer.accept(new DefaultRow(header, rowProcessor.toArray(rs)));
+					}
+				}
+			} finally {
+				if (conn.getAutoCommit() != autoCommit) {
+					conn.setAutoCommit(autoCommit);
+				}
+			}
+		} catch (SQLException e) {
+			Throwable realReasion = e;
+			SQLException nextException = e.getNextException();
+			if (nextException != null && nextException.getCause() != null) {
+				realReasion = nextException.getCause();
+			}
+			logger.error(ResultStatus.DATASOURCE_SQL_FAILED.message(), realReasion);
+			throw new JdbcDataException(ResultStatus.DATASOURCE_SQL_FAILED, realReasion.getMessage());
+		}
+	}
+
+	/**
+	 * MySQL 驱动只有在 fetchSize 为 Integer.MIN_VALUE 时才会逐行读取结果
+	 * 
+	 * @return fetchSize
+	 */
+	private int getStreamFetchSize() {
+		if (DATABASE_PRODUCT_MYSQL.equals(databaseProductName)) {
+			return Integer.MIN_VALUE;
+		}
+		return STREAM_FETCH_SIZE;
 	}
 
 	@Override
 	protected InsertSummary insert(Action action) {
-		List<Map<String, Object>> insertData = insert(action.getSql(), action.getParams().toArray());
+		if (isCopy(action)) {
+			return copy(action);
+		}
+		List<Map<String, Object>> insertData = action.getInsertValueItems().size() > 1 ? insertBatch(action)
+				: insert(action.getSql(), action.getParams().toArray());
+		renameGeneratedKey(action, insertData);
+		return new InsertSummary(action, insertData);
+	}
+
+	/**
+	 * MySQL 返回的自增主键列名为 GENERATED_KEY, 替换为主键列名
+	 * 
+	 * @param action
+	 * @param insertData
+	 */
+	private void renameGeneratedKey(Action action, List<Map<String, Object>> insertData) {
 		if (DATABASE_PRODUCT_MYSQL.equals(databaseProductName)) {
 			List<Column> primaryKeys = action.getPrimaryTable().getPrimaryKeys();
 			if (!primaryKeys.isEmpty()) {
@@ -464,7 +1090,65 @@ public class JdbcDataContext extends AbstractDataContext {
 				}
 			}
 		}
-		return new InsertSummary(action, insertData);
+	}
+
+	/**
+	 * 事务中 SQL 相同的连续请求通过 JDBC 批处理执行, 每个批次的大小为 insert_batch_size
+	 */
+	@Override
+	protected List<Summary> executeBatch(List<Action> actions) {
+		Configuration configuration = App.getConfiguration();
+		int batchSize = Math.max(configuration == null ? Configuration.DEFAULT_INSERT_BATCH_SIZE
+				: configuration.insertBatchSize(), 1);
+		Action first = actions.get(0);
+		String sql = first.getSql();
+		logger.debug("Batch SQL: {}, statements: {}", sql, actions.size());
+		List<Summary> summaries = new ArrayList<>(actions.size());
+		try {
+			Connection conn = getThreadConnection();
+			for (List<Action> partition : Lists.partition(actions, batchSize)) {
+				Object[][] params = partition.stream().map(e -> e.getParams().toArray()).toArray(Object[][]::new);
+				if (first.isInsert()) {
+					List<Map<String, Object>> keys = runner.insertBatch(conn, sql,
+							new MapListHandler(new JdbcRowProcessor()), params);
+					// 部分驱动批处理时不返回或只返回部分生成的主键, 此时无法与请求对应, 只返回新增的记录数
+					boolean matched = keys.size() == partition.size();
+					for (int i = 0; i < partition.size(); i++) {
+						Action action = partition.get(i);
+						if (matched) {
+							List<Map<String, Object>> insertData = Lists.newArrayList(keys.get(i));
+							renameGeneratedKey(action, insertData);
+							summaries.add(new InsertSummary(action, insertData));
+						} else {
+							summaries.add(new InsertSummary(action, 1));
+						}
+					}
+				} else {
+					int[] counts = runner.batch(conn, sql, params);
+					for (int i = 0; i < partition.size(); i++) {
+						summaries.add(new UpdateSummary(partition.get(i), counts[i]));
+					}
+				}
+			}
+		} catch (SQLException e) {
+			Throwable realReasion = e;
+			SQLException nextException = e.getNextException();
+			if (nextException != null && nextException.getCause() != null) {
+				realReasion = nextException.getCause();
+			}
+			logger.error(ResultStatus.DATASOURCE_SQL_FAILED.message(), realReasion);
+			throw new JdbcDataException(ResultStatus.DATASOURCE_SQL_FAILED, realReasion.getMessage());
+		} finally {
+			if (isCloseConnection()) {
+				try {
+					close();
+				} catch (SQLException e) {
+					logger.error("Connection close failed.", e);
+				}
+			}
+			resultCache.invalidate(first.getTables());
+		}
+		return summaries;
 	}
 
 	@Override
@@ -472,6 +1156,85 @@ public class JdbcDataContext extends AbstractDataContext {
 		return new UpdateSummary(action, update(action.getSql(), action.getParams().toArray()));
 	}
 
+	/**
+	 * 新增或更新. 多条记录与批量新增相同, 按批次执行
+	 */
+	@Override
+	protected UpdateSummary upsert(Action action) {
+		if (action.getInsertValueItems().size() > 1) {
+			return new UpdateSummary(action, executeBatches(action, null));
+		}
+		return new UpdateSummary(action, update(action.getSql(), action.getParams().toArray()));
+	}
+
+	/**
+	 * 估算查询总数. 没有条件的单表查询使用数据库的表统计信息, 其他查询使用总数查询执行计划中的估算行数
+	 */
+	@Override
+	protected long estimate(Action action) {
+		try {
+			if (action.getFilterItems().isEmpty() && action.getSqlBuilder().isRowCountExact() && !action.isGroup()) {
+				long tableRows = estimateTableRows(action.getPrimaryTable());
+				if (tableRows >= 0) {
+					return tableRows;
+				}
+			}
+			return estimatePlanRows(action);
+		} catch (SQLException e) {
+			logger.debug("Estimate count failed.", e);
+			return -1;
+		}
+	}
+
+	private long estimateTableRows(Table table) throws SQLException {
+		String sql = null;
+		Object[] params = new Object[] { table.getSchema().getName(), table.getName() };
+		if (DATABASE_PRODUCT_POSTGRESQL.equals(databaseProductName)) {
+			sql = "SELECT reltuples FROM pg_class WHERE oid = ?::regclass";
+			params = new Object[] {
+					dialect.processKeyword(table.getSchema().getName()) + "." + dialect.processKeyword(table.getName()) };
+		} else if (DATABASE_PRODUCT_MYSQL.equals(databaseProductName)) {
+			sql = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?";
+		} else if (DATABASE_PRODUCT_H2.equals(databaseProductName)) {
+			sql = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?";
+		}
+		if (sql == null) {
+			return -1;
+		}
+		return runner.query(sql, rs -> {
+			// PostgreSQL 未分析过的表 reltuples 为 -1
+			return rs.next() && rs.getObject(1) != null ? Math.max(rs.getLong(1), -1) : -1;
+		}, params);
+	}
+
+	private long estimatePlanRows(Action action) throws SQLException {
+		SQLBuilder sqlBuilder = action.getSqlBuilder();
+		Object[] params = sqlBuilder.countParams().toArray();
+		if (DATABASE_PRODUCT_POSTGRESQL.equals(databaseProductName)) {
+			String plan = runner.query("EXPLAIN (FORMAT JSON) " + sqlBuilder.countSql(),
+					rs -> rs.next() ? rs.getString(1) : null, params);
+			if (plan == null) {
+				return -1;
+			}
+			// 总数查询的外层为聚合, 取子查询的估算行数
+			JsonObject planNode = new JsonParser().parse(plan).getAsJsonArray().get(0).getAsJsonObject()
+					.getAsJsonObject("Plan");
+			if (planNode.has("Plans")) {
+				planNode = planNode.getAsJsonArray("Plans").get(0).getAsJsonObject();
+			}
+			return planNode.get("Plan Rows").getAsLong();
+		} else if (DATABASE_PRODUCT_MYSQL.equals(databaseProductName)) {
+			return runner.query("EXPLAIN " + sqlBuilder.countSql(), rs -> {
+				long rows = -1;
+				while (rs.next()) {
+					rows = Math.max(rows, rs.getLong("rows"));
+				}
+				return rows;
+			}, params);
+		}
+		return -1;
+	}
+
 	@Override
 	protected QuerySummary select(String sql) {
 		return new JdbcMapQuerySummary(null, select(sql, new MapListHandler(new JdbcRowProcessor()), new Object[0]));
@@ -493,6 +1256,10 @@ public class JdbcDataContext extends AbstractDataContext {
 
 	protected <T> T select(String sql, ResultSetHandler<T> rsh, Object... params) {
 		try {
+			// 事务中的查询使用事务连接, 读取同一事务中尚未提交的记录
+			if (!isCloseConnection()) {
+				return runner.query(getThreadConnection(), sql, rsh, params);
+			}
 			return runner.query(sql, rsh, params);
 		} catch (SQLException e) {
 			Throwable realReasion = e;
@@ -527,6 +1294,271 @@ public class JdbcDataContext extends AbstractDataContext {
 		}
 	}
 
+	/**
+	 * 批量新增. 每条语句按批次大小分批执行, 不在事务中时全部记录在同一个事务中新增
+	 * 
+	 * @param action
+	 * @return 每条记录生成的主键
+	 */
+	protected List<Map<String, Object>> insertBatch(Action action) {
+		List<Map<String, Object>> insertData = new ArrayList<>();
+		executeBatches(action, insertData);
+		return insertData;
+	}
+
+	/**
+	 * 分批执行批量新增或批量新增或更新的语句
+	 * 
+	 * @param action
+	 * @param insertData
+	 *            新增记录生成的主键, 为 null 时执行新增或更新
+	 * @return 新增或更新影响的记录数
+	 */
+	private int executeBatches(Action action, List<Map<String, Object>> insertData) {
+		Configuration configuration = App.getConfiguration();
+		int batchSize = Math.max(configuration == null ? Configuration.DEFAULT_INSERT_BATCH_SIZE
+				: configuration.insertBatchSize(), 1);
+		List<InsertBatch> batches = action.getSqlBuilder().toInsertBatches(batchSize);
+		boolean transaction = !isCloseConnection();
+		int count = 0;
+		try {
+			Connection conn = getThreadConnection();
+			if (!transaction) {
+				conn.setAutoCommit(false);
+			}
+			try {
+				for (InsertBatch batch : batches) {
+					logger.debug("Batch SQL: {}, rows: {}", batch.getSql(), batch.getParams().size());
+					for (List<Object[]> params : Lists.partition(batch.getParams(), batchSize)) {
+						if (insertData == null) {
+							count += params.size() == 1 ? runner.update(conn, batch.getSql(), params.get(0))
+									: Arrays.stream(runner.batch(conn, batch.getSql(), params.toArray(new Object[0][])))
+											.sum();
+						} else {
+							insertData.addAll(params.size() == 1
+									? runner.insert(conn, batch.getSql(), new MapListHandler(new JdbcRowProcessor()),
+											params.get(0))
+									: runner.insertBatch(conn, batch.getSql(),
+											new MapListHandler(new JdbcRowProcessor()), params.toArray(new Object[0][])));
+						}
+					}
+				}
+				if (!transaction) {
+					conn.commit();
+				}
+			} catch (SQLException e) {
+				if (!transaction) {
+					conn.rollback();
+				}
+				throw e;
+			} finally {
+				if (!transaction) {
+					conn.setAutoCommit(true);
+				}
+			}
+		} catch (SQLException e) {
+			Throwable realReasion = e;
+			SQLException nextException = e.getNextException();
+			if (nextException != null && nextException.getCause() != null) {
+				realReasion = nextException.getCause();
+			}
+			logger.error(ResultStatus.DATASOURCE_SQL_FAILED.message(), realReasion);
+			throw new JdbcDataException(ResultStatus.DATASOURCE_SQL_FAILED, realReasion.getMessage());
+		} finally {
+			if (!transaction) {
+				try {
+					close();
+				} catch (SQLException e) {
+					logger.error("Connection close failed.", e);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 批量新增的记录数达到 copy_threshold, 并且所有记录的列相同时, 通过 COPY 导入
+	 * 
+	 * @param action
+	 * @return 是否通过 COPY 导入
+	 */
+	private boolean isCopy(Action action) {
+		Configuration configuration = App.getConfiguration();
+		int copyThreshold = configuration == null ? Configuration.DEFAULT_COPY_THRESHOLD
+				: configuration.copyThreshold();
+		List<List<ValueItem>> insertValueItems = action.getInsertValueItems();
+		if (!(dialect instanceof JdbcDialect) || !((JdbcDialect) dialect).copyEnabled() || copyThreshold <= 0
+				|| insertValueItems.size() < copyThreshold) {
+			return false;
+		}
+		List<Column> columns = getColumns(insertValueItems.get(0));
+		return insertValueItems.stream().allMatch(e -> getColumns(e).equals(columns));
+	}
+
+	private InsertSummary copy(Action action) {
+		List<List<ValueItem>> insertValueItems = action.getInsertValueItems();
+		List<Column> columns = getColumns(insertValueItems.get(0));
+		Iterator<Object[]> rows = insertValueItems.stream()
+				.map(e -> e.stream().map(ValueItem::getRealValue).toArray()).iterator();
+		return new InsertSummary(action, copyIn(action.getPrimaryTable(), columns, new CopyReader(rows)));
+	}
+
+	/**
+	 * 通过 COPY 将 CSV 或 Json Lines 格式的数据导入表中, 需要数据库支持 COPY. CSV 的第一行为列名, 值由数据库转换; Json Lines
+	 * 以第一行的属性作为导入的列, 值按列的类型转换. 在事务中执行时使用事务的连接
+	 * 
+	 * @param tableName
+	 * @param input
+	 *            UTF-8 编码的数据
+	 * @param format
+	 * @return 导入的记录数
+	 */
+	public InsertSummary copy(String tableName, InputStream input, CopyFormat format) {
+		Table table = getTable(tableName);
+		if (table == null) {
+			throw new JdbcDataException(ResultStatus.DATASOURCE_TABLE_NOT_EXIST, tableName);
+		}
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		long count;
+		try {
+			String firstLine = reader.readLine();
+			if (firstLine == null) {
+				return new InsertSummary(null, 0);
+			}
+			if (format == CopyFormat.CSV) {
+				List<Column> columns = new ArrayList<>();
+				for (String columnName : CopyReader.parseLine(firstLine)) {
+					columns.add(getCopyColumn(tableName, columnName.trim()));
+				}
+				checkCopyPermission(tableName, columns);
+				count = copyIn(table, columns, reader);
+			} else {
+				JsonObject firstObject = new JsonParser().parse(firstLine).getAsJsonObject();
+				Map<String, Column> columns = new LinkedHashMap<>();
+				for (String columnName : firstObject.keySet()) {
+					columns.put(columnName, getCopyColumn(tableName, columnName));
+				}
+				checkCopyPermission(tableName, columns.values());
+				count = copyIn(table, new ArrayList<>(columns.values()),
+						new CopyReader(new JsonLinesIterator(reader, firstLine, columns)));
+			}
+		} catch (IOException e) {
+			throw new JdbcDataException("COPY input read failed", e);
+		}
+		resultCache.invalidate(Collections.singleton(table));
+		return new InsertSummary(null, count);
+	}
+
+	/**
+	 * 按新增请求校验导入的表和列的权限
+	 * 
+	 * @param tableName
+	 * @param columns
+	 */
+	private void checkCopyPermission(String tableName, Collection<Column> columns) {
+		String source = App.getSource(getSchema());
+		JsonObject values = new JsonObject();
+		columns.forEach(e -> values.add(e.getName(), JsonNull.INSTANCE));
+		JsonObject jsonObject = new JsonObject();
+		jsonObject.addProperty(Operation.INSERT.name().toLowerCase(),
+				Strings.isNullOrEmpty(source) ? tableName : source + "." + tableName);
+		jsonObject.add(RequestKeyword.VALUES.lowerName(), values);
+		if (!PermissionChecker.check(SimpleParser.parse(jsonObject))) {
+			String message = String.format("Table [%s.%s] has no [%s] permission", source, tableName,
+					Operation.INSERT);
+			throw new PermissionException(message);
+		}
+	}
+
+	private Column getCopyColumn(String tableName, String columnName) {
+		Column column = getColumn(tableName, columnName);
+		if (column == null) {
+			throw new JdbcDataException(ResultStatus.DATASOURCE_COLUMN_NOT_EXIST, columnName);
+		}
+		return column;
+	}
+
+	private List<Column> getColumns(List<ValueItem> valueItems) {
+		return valueItems.stream().map(ValueItem::getColumn).collect(Collectors.toList());
+	}
+
+	private long copyIn(Table table, List<Column> columns, Reader reader) {
+		String columnsString = columns.stream().map(e -> dialect.processKeyword(e.getName()))
+				.collect(Collectors.joining(", ", " (", ")"));
+		String sql = "COPY " + dialect.processKeyword(table.getSchema().getName()) + "."
+				+ dialect.processKeyword(table.getName()) + columnsString + " FROM STDIN WITH (FORMAT csv)";
+		logger.debug("COPY SQL: {}", sql);
+		try {
+			return ((JdbcDialect) dialect).copyIn(getThreadConnection(), sql, reader);
+		} catch (SQLException e) {
+			Throwable realReasion = e;
+			SQLException nextException = e.getNextException();
+			if (nextException != null && nextException.getCause() != null) {
+				realReasion = nextException.getCause();
+			}
+			logger.error(ResultStatus.DATASOURCE_SQL_FAILED.message(), realReasion);
+			throw new JdbcDataException(ResultStatus.DATASOURCE_SQL_FAILED, realReasion.getMessage());
+		} finally {
+			if (isCloseConnection()) {
+				try {
+					close();
+				} catch (SQLException e) {
+					logger.error("Connection close failed.", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 逐行读取 Json Lines, 将每行的值按列的类型转换为导入的记录
+	 */
+	private static class JsonLinesIterator extends AbstractIterator<Object[]> {
+
+		private final BufferedReader reader;
+		private final Map<String, Column> columns;
+		private String line;
+
+		JsonLinesIterator(BufferedReader reader, String firstLine, Map<String, Column> columns) {
+			this.reader = reader;
+			this.line = firstLine;
+			this.columns = columns;
+		}
+
+		@Override
+		protected Object[] computeNext() {
+			try {
+				while (line != null && line.trim().isEmpty()) {
+					line = reader.readLine();
+				}
+				if (line == null) {
+					return endOfData();
+				}
+				JsonObject jsonObject = new JsonParser().parse(line).getAsJsonObject();
+				line = reader.readLine();
+				Object[] values = new Object[columns.size()];
+				int i = 0;
+				for (Entry<String, Column> entry : columns.entrySet()) {
+					JsonElement element = jsonObject.get(entry.getKey());
+					Object value = null;
+					if (element == null || element.isJsonNull()) {
+						//
+					} else if (element.isJsonPrimitive()) {
+						value = element.getAsString();
+					} else if (element.isJsonArray()) {
+						value = App.gson().fromJson(element, Object[].class);
+					} else {
+						value = element.toString();
+					}
+					values[i++] = new ValueItem(entry.getValue(), value).getRealValue();
+				}
+				return values;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+	}
+
 	protected int update(String sql, Object... params) {
 		try {
 			return runner.update(getThreadConnection(), sql, params);
@@ -574,6 +1606,10 @@ public class JdbcDataContext extends AbstractDataContext {
 		return databaseProductVersion;
 	}
 
+	public int getDatabaseMajorVersion() {
+		return databaseMajorVersion;
+	}
+
 	public String getIdentifierQuoteString() {
 		return identifierQuoteString;
 	}
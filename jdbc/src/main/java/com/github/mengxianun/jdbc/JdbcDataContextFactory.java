@@ -1,6 +1,7 @@
 package com.github.mengxianun.jdbc;
 
 import java.lang.reflect.Type;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -9,6 +10,9 @@ import javax.sql.DataSource;
 import com.alibaba.druid.pool.DruidDataSourceFactory;
 import com.github.mengxianun.core.App;
 import com.github.mengxianun.core.DataContextFactory;
+import com.github.mengxianun.core.config.DataSourceConfig;
+import com.github.mengxianun.core.schema.MetadataLoad;
+import com.github.mengxianun.core.schema.TableType;
 import com.google.auto.service.AutoService;
 import com.google.common.base.Strings;
 import com.google.gson.JsonObject;
@@ -27,8 +31,21 @@ public final class JdbcDataContextFactory implements DataContextFactory {
 		Type type = new TypeToken<Map<String, String>>() {
 		}.getType();
 		Map<String, Object> dataSourceMap = App.gson().fromJson(dataSourceJsonObject, type);
+		MetadataLoad metadataLoad = MetadataLoad.EAGER;
+		Object metadataLoadValue = dataSourceMap.remove(DataSourceConfig.METADATA_LOAD);
+		if (metadataLoadValue != null) {
+			metadataLoad = MetadataLoad.from(metadataLoadValue.toString());
+			if (metadataLoad == null) {
+				throw new JdbcDataException(String.format("Unsupported %s [%s]", DataSourceConfig.METADATA_LOAD,
+						metadataLoadValue));
+			}
+		}
+		Object metadataSnapshot = dataSourceMap.remove(DataSourceConfig.METADATA_SNAPSHOT);
+		Object foreignKeys = dataSourceMap.remove(DataSourceConfig.FOREIGN_KEYS);
 		DataSource dataSource = createDataSource(dataSourceMap);
-		return new JdbcDataContext(dataSource);
+		return new JdbcDataContext(dataSource, TableType.DEFAULT_TABLE_TYPES, metadataLoad,
+				metadataSnapshot == null ? null : Paths.get(metadataSnapshot.toString()),
+				foreignKeys == null || Boolean.parseBoolean(foreignKeys.toString()));
 	}
 
 	public DataSource createDataSource(String url, String username, String password) {
@@ -53,6 +70,12 @@ public final class JdbcDataContextFactory implements DataContextFactory {
 		} else {
 			dataSourceMap.put(DruidDataSourceFactory.PROP_FILTERS, wall);
 		}
+		// 预编译语句缓存. 生成的 SQL 对于相同结构的请求是一致的, 缓存后可以复用连接上的 PreparedStatement
+		Object statementCacheSize = dataSourceMap.remove(DataSourceConfig.STATEMENT_CACHE_SIZE);
+		if (statementCacheSize != null && Integer.parseInt(statementCacheSize.toString()) > 0) {
+			dataSourceMap.put(DruidDataSourceFactory.PROP_POOLPREPAREDSTATEMENTS, "true");
+			dataSourceMap.put(DruidDataSourceFactory.PROP_MAXOPENPREPAREDSTATEMENTS, statementCacheSize.toString());
+		}
 		try {
 			return DruidDataSourceFactory.createDataSource(dataSourceMap);
 		} catch (Exception e) {
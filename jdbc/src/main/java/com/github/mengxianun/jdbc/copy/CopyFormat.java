@@ -0,0 +1,20 @@
+package com.github.mengxianun.jdbc.copy;
+
+/**
+ * COPY 批量导入的数据格式
+ * 
+ * @author mengxiangyun
+ *
+ */
+public enum CopyFormat {
+
+	/**
+	 * CSV, 第一行为列名
+	 */
+	CSV,
+	/**
+	 * Json Lines, 每行为一个 Json 对象
+	 */
+	JSON_LINES;
+
+}
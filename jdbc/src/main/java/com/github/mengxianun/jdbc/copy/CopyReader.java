@@ -0,0 +1,141 @@
+package com.github.mengxianun.jdbc.copy;
+
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import com.github.mengxianun.jdbc.JdbcDataException;
+
+/**
+ * 将记录逐行转换为 COPY ... FROM STDIN WITH (FORMAT csv) 的输入, 不缓存全部记录.
+ * <p>
+ * null 输出为不带引号的空值, 其他值都带引号, 以区分 null 和空字符串. 数组转换为 PostgreSQL 数组字面值, 二进制转换为十六进制格式.
+ * 
+ * @author mengxiangyun
+ *
+ */
+public class CopyReader extends Reader {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private final Iterator<Object[]> rows;
+	// 当前行及读取位置
+	private String line = "";
+	private int position;
+
+	public CopyReader(Iterator<Object[]> rows) {
+		this.rows = rows;
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) {
+		if (len == 0) {
+			return 0;
+		}
+		while (position >= line.length()) {
+			if (!rows.hasNext()) {
+				return -1;
+			}
+			line = toLine(rows.next());
+			position = 0;
+		}
+		int size = Math.min(len, line.length() - position);
+		line.getChars(position, position + size, cbuf, off);
+		position += size;
+		return size;
+	}
+
+	@Override
+	public void close() {
+		// 没有需要释放的资源
+	}
+
+	public static String toLine(Object[] values) {
+		StringBuilder lineBuilder = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				lineBuilder.append(',');
+			}
+			Object value = values[i];
+			if (value != null) {
+				lineBuilder.append('"').append(toText(value).replace("\"", "\"\"")).append('"');
+			}
+		}
+		return lineBuilder.append('\n').toString();
+	}
+
+	/**
+	 * 解析 CSV 的一行, 规则与 {@link #toLine(Object[])} 相同: 值以逗号分隔, 带引号的值中可以包含逗号, 两个连续的双引号表示一个双引号
+	 * 
+	 * @param line
+	 *            不包含换行符的一行
+	 * @return 每列的值
+	 */
+	public static List<String> parseLine(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder valueBuilder = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"') {
+					valueBuilder.append(c);
+				} else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					valueBuilder.append('"');
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(valueBuilder.toString());
+				valueBuilder.setLength(0);
+			} else {
+				valueBuilder.append(c);
+			}
+		}
+		if (quoted) {
+			throw new JdbcDataException(String.format("Unterminated quoted value in CSV line [%s]", line));
+		}
+		values.add(valueBuilder.toString());
+		return values;
+	}
+
+	private static String toText(Object value) {
+		if (value instanceof byte[]) {
+			byte[] bytes = (byte[]) value;
+			StringBuilder hexBuilder = new StringBuilder("\\x");
+			for (byte b : bytes) {
+				hexBuilder.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+			}
+			return hexBuilder.toString();
+		}
+		if (value instanceof Object[]) {
+			StringBuilder arrayBuilder = new StringBuilder("{");
+			Object[] elements = (Object[]) value;
+			for (int i = 0; i < elements.length; i++) {
+				if (i > 0) {
+					arrayBuilder.append(',');
+				}
+				Object element = elements[i];
+				if (element == null) {
+					arrayBuilder.append("NULL");
+				} else {
+					arrayBuilder.append('"')
+							.append(toText(element).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+				}
+			}
+			return arrayBuilder.append('}').toString();
+		}
+		// java.util.Date 的默认格式数据库无法识别
+		if (value.getClass() == Date.class) {
+			return new Timestamp(((Date) value).getTime()).toString();
+		}
+		return value.toString();
+	}
+
+}
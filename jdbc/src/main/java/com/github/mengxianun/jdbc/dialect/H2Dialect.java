@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 
 import com.github.mengxianun.core.Dialect;
 import com.github.mengxianun.core.dialect.Function;
+import com.github.mengxianun.core.dialect.UpsertSyntax;
 import com.github.mengxianun.jdbc.JdbcDataContext;
 import com.github.mengxianun.jdbc.dialect.function.H2Function;
 import com.google.auto.service.AutoService;
@@ -27,6 +28,21 @@ public class H2Dialect extends JdbcDialect {
 		return 0;
 	}
 
+	@Override
+	public boolean windowCountEnabled() {
+		return true;
+	}
+
+	@Override
+	public boolean multiValuesInsertEnabled() {
+		return true;
+	}
+
+	@Override
+	public UpsertSyntax upsertSyntax() {
+		return UpsertSyntax.MERGE;
+	}
+
 	static Map<String, Function> functions() {
 		return Arrays.stream(H2Function.values()).collect(Collectors.toMap(H2Function::name, e -> e));
 	}
@@ -1,5 +1,8 @@
 package com.github.mengxianun.jdbc.dialect;
 
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Map;
 
 import com.github.mengxianun.core.dialect.AbstractDialect;
@@ -34,6 +37,29 @@ public class JdbcDialect extends AbstractDialect {
 		String identifierQuoteString = jdbcDataContext.getIdentifierQuoteString();
 		return identifierQuoteString + keyword + identifierQuoteString;
 	}
+
+	/**
+	 * 是否支持通过 COPY ... FROM STDIN 批量导入
+	 * 
+	 * @return 是否支持 COPY
+	 */
+	public boolean copyEnabled() {
+		return false;
+	}
+
+	/**
+	 * 执行 COPY ... FROM STDIN, 从 reader 读取导入的数据
+	 * 
+	 * @param connection
+	 * @param sql
+	 *            COPY 语句
+	 * @param reader
+	 * @return 导入的记录数
+	 * @throws SQLException
+	 */
+	public long copyIn(Connection connection, String sql, Reader reader) throws SQLException {
+		throw new UnsupportedOperationException("COPY is not supported by " + getType());
+	}
 	
 
 }
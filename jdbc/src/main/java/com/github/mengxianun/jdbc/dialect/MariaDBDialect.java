@@ -1,6 +1,7 @@
 package com.github.mengxianun.jdbc.dialect;
 
 import com.github.mengxianun.core.Dialect;
+import com.github.mengxianun.core.dialect.UpsertSyntax;
 import com.github.mengxianun.jdbc.JdbcDataContext;
 import com.google.auto.service.AutoService;
 
@@ -16,4 +17,14 @@ public class MariaDBDialect extends JdbcDialect {
 		return "mariadb";
 	}
 
+	@Override
+	public boolean multiValuesInsertEnabled() {
+		return true;
+	}
+
+	@Override
+	public UpsertSyntax upsertSyntax() {
+		return UpsertSyntax.ON_DUPLICATE_KEY;
+	}
+
 }
@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 
 import com.github.mengxianun.core.Dialect;
 import com.github.mengxianun.core.dialect.Function;
+import com.github.mengxianun.core.dialect.UpsertSyntax;
 import com.github.mengxianun.jdbc.JdbcDataContext;
 import com.github.mengxianun.jdbc.dialect.function.MySQLFunction;
 import com.google.auto.service.AutoService;
@@ -23,6 +24,24 @@ public class MySQLDialect extends JdbcDialect {
 		return "mysql";
 	}
 
+	/**
+	 * MySQL 8.0 开始支持窗口函数
+	 */
+	@Override
+	public boolean windowCountEnabled() {
+		return jdbcDataContext.getDatabaseMajorVersion() >= 8;
+	}
+
+	@Override
+	public boolean multiValuesInsertEnabled() {
+		return true;
+	}
+
+	@Override
+	public UpsertSyntax upsertSyntax() {
+		return UpsertSyntax.ON_DUPLICATE_KEY;
+	}
+
 	static Map<String, Function> functions() {
 		return Arrays.stream(MySQLFunction.values()).collect(Collectors.toMap(MySQLFunction::name, e -> e));
 	}
@@ -1,7 +1,15 @@
 package com.github.mengxianun.jdbc.dialect;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
 import com.github.mengxianun.core.Dialect;
+import com.github.mengxianun.core.dialect.UpsertSyntax;
 import com.github.mengxianun.jdbc.JdbcDataContext;
+import com.github.mengxianun.jdbc.JdbcDataException;
 import com.google.auto.service.AutoService;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
@@ -9,6 +17,8 @@ import com.google.gson.JsonParser;
 @AutoService(Dialect.class)
 public class PostgreSQLDialect extends JdbcDialect {
 
+	private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
 	public PostgreSQLDialect(JdbcDataContext jdbcDataContext) {
 		super(jdbcDataContext);
 	}
@@ -18,6 +28,16 @@ public class PostgreSQLDialect extends JdbcDialect {
 		return "postgresql";
 	}
 
+	@Override
+	public boolean windowCountEnabled() {
+		return true;
+	}
+
+	@Override
+	public UpsertSyntax upsertSyntax() {
+		return UpsertSyntax.ON_CONFLICT;
+	}
+
 	@Override
 	public String getJsonPlaceholder() {
 		return "?::json";
@@ -38,4 +58,34 @@ public class PostgreSQLDialect extends JdbcDialect {
 		return column + "::text";
 	}
 
+	@Override
+	public boolean copyEnabled() {
+		return true;
+	}
+
+	/**
+	 * 通过驱动的 CopyManager 执行, 驱动由使用方提供, 这里通过反射调用
+	 */
+	@Override
+	public long copyIn(Connection connection, String sql, Reader reader) throws SQLException {
+		try {
+			Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS);
+			Object copyManager = pgConnectionClass.getMethod("getCopyAPI")
+					.invoke(connection.unwrap(pgConnectionClass));
+			return (long) copyManager.getClass().getMethod("copyIn", String.class, Reader.class).invoke(copyManager,
+					sql, reader);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof SQLException) {
+				throw (SQLException) cause;
+			}
+			if (cause instanceof IOException) {
+				throw new JdbcDataException("COPY input read failed", cause);
+			}
+			throw new JdbcDataException("COPY failed", cause);
+		} catch (ReflectiveOperationException e) {
+			throw new JdbcDataException("PostgreSQL driver does not support COPY", e);
+		}
+	}
+
 }
@@ -1,8 +1,10 @@
 package com.github.mengxianun.jdbc.schema;
 
+import java.util.List;
 import java.util.Map;
 
 import com.github.mengxianun.core.schema.AbstractSchema;
+import com.github.mengxianun.core.schema.Table;
 
 public class JdbcSchema extends AbstractSchema {
 
@@ -14,8 +16,8 @@ public class JdbcSchema extends AbstractSchema {
 	}
 
 	@Override
-	public Map<String, Object> getInfo() {
-		Map<String, Object> info = super.getInfo();
+	public Map<String, Object> getInfo(List<Table> tables) {
+		Map<String, Object> info = super.getInfo(tables);
 		info.put("catalog", catalog);
 		return info;
 	}
@@ -0,0 +1,177 @@
+package com.github.mengxianun.jdbc.schema;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.github.mengxianun.core.schema.Column;
+import com.github.mengxianun.core.schema.Table;
+import com.github.mengxianun.core.schema.TableType;
+
+/**
+ * 元数据快照. 以二进制格式保存 Schema 中所有表, 列和主键, 重启时读取快照代替查询数据库元数据.
+ * <p>
+ * 快照包含生成时的数据库元数据指纹和数据源标识, 数据源标识不同的快照不可用, 指纹不同时需要重新加载元数据.
+ *
+ * @author mengxiangyun
+ *
+ */
+public final class MetadataSnapshot {
+
+	private static final int MAGIC = 0x41495253;
+	private static final int VERSION = 1;
+
+	// 数据源标识, 数据库, catalog, schema 和表类型
+	private final String key;
+	// 数据库元数据指纹
+	private final String fingerprint;
+	private final JdbcSchema schema;
+
+	public MetadataSnapshot(String key, String fingerprint, JdbcSchema schema) {
+		this.key = key;
+		this.fingerprint = fingerprint;
+		this.schema = schema;
+	}
+
+	public static MetadataSnapshot read(Path path) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Unsupported metadata snapshot " + path);
+			}
+			String key = readString(in);
+			String fingerprint = readString(in);
+			JdbcSchema schema = new JdbcSchema(readString(in), readString(in));
+			int tableCount = in.readInt();
+			List<Table> tables = new ArrayList<>(tableCount);
+			for (int i = 0; i < tableCount; i++) {
+				String tableName = readString(in);
+				TableType tableType = TableType.valueOf(readString(in));
+				JdbcTable table = new JdbcTable(tableName, tableType, schema, readString(in));
+				int columnCount = in.readInt();
+				List<Column> columns = new ArrayList<>(columnCount);
+				for (int j = 0; j < columnCount; j++) {
+					String columnName = readString(in);
+					JdbcColumnType columnType = new JdbcColumnType(in.readInt(), readString(in));
+					boolean nullable = in.readBoolean();
+					String remarks = readString(in);
+					int columnSize = in.readInt();
+					columns.add(new JdbcColumn(columnName, columnType, table, nullable, remarks, columnSize));
+				}
+				table.addColumns(columns);
+				int primaryKeyCount = in.readInt();
+				for (int j = 0; j < primaryKeyCount; j++) {
+					Column primaryKey = table.getColumnByName(readString(in));
+					if (primaryKey != null) {
+						table.addPrimaryKey(primaryKey);
+					}
+				}
+				tables.add(table);
+			}
+			schema.addTables(tables);
+			return new MetadataSnapshot(key, fingerprint, schema);
+		}
+	}
+
+	/**
+	 * 写入快照. 先写入临时文件再替换, 写入失败不影响原来的快照
+	 *
+	 * @param path
+	 * @throws IOException
+	 */
+	public void write(Path path) throws IOException {
+		Path parent = path.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path tempFile = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeString(out, key);
+				writeString(out, fingerprint);
+				writeString(out, schema.getName());
+				writeString(out, schema.getCatalog());
+				List<Table> tables = schema.getTables();
+				out.writeInt(tables.size());
+				for (Table table : tables) {
+					writeTable(out, (JdbcTable) table);
+				}
+			}
+			try {
+				Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	private void writeTable(DataOutputStream out, JdbcTable table) throws IOException {
+		writeString(out, table.getName());
+		writeString(out, table.getType().name());
+		writeString(out, table.getRemarks());
+		List<Column> columns = table.getColumns();
+		out.writeInt(columns.size());
+		for (Column column : columns) {
+			JdbcColumn jdbcColumn = (JdbcColumn) column;
+			JdbcColumnType columnType = (JdbcColumnType) jdbcColumn.getType();
+			writeString(out, jdbcColumn.getName());
+			out.writeInt(columnType.getType());
+			writeString(out, columnType.getName());
+			out.writeBoolean(jdbcColumn.isNullable());
+			writeString(out, jdbcColumn.getRemarks());
+			out.writeInt(jdbcColumn.getColumnSize());
+		}
+		List<Column> primaryKeys = table.getPrimaryKeys().stream().filter(Objects::nonNull)
+				.collect(Collectors.toList());
+		out.writeInt(primaryKeys.size());
+		for (Column primaryKey : primaryKeys) {
+			writeString(out, primaryKey.getName());
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public JdbcSchema getSchema() {
+		return schema;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.DataResultSet;
+import com.github.mengxianun.core.exception.DataException;
+
+@DisplayName("Jdbc async test")
+public class AsyncTest extends TestSupport {
+
+	@Test
+	void testAsync() throws InterruptedException, ExecutionException {
+		String json = readJson("json/select/select_limit.json");
+		DataResultSet dataResultSet = translator.translateAsync(json).get();
+		assertEquals(runJson(json).getJsonData(), dataResultSet.getJsonData());
+	}
+
+	@Test
+	void testAsyncConcurrent() throws InterruptedException, ExecutionException {
+		String json = readJson("json/join/join.json");
+		DataResultSet expected = runJson(json);
+		List<CompletableFuture<DataResultSet>> futures = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			futures.add(translator.translateAsync(json));
+		}
+		for (CompletableFuture<DataResultSet> future : futures) {
+			assertEquals(expected.getJsonData(), future.get().getJsonData());
+		}
+	}
+
+	@Test
+	void testAsyncError() {
+		CompletableFuture<DataResultSet> future = translator.translateAsync("{\"select\":\"not_exist_table\"}");
+		ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+		assertTrue(exception.getCause() instanceof DataException);
+	}
+
+}
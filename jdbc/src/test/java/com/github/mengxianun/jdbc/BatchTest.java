@@ -0,0 +1,56 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.DataResultSet;
+import com.github.mengxianun.core.ResultStatus;
+
+@DisplayName("Jdbc batch test")
+public class BatchTest extends TestSupport {
+
+	@Test
+	void testBatch() {
+		String select = readJson("json/select/select_table.json");
+		String limit = readJson("json/select/select_limit.json");
+		String join = readJson("json/join/join.json");
+		List<DataResultSet> dataResultSets = translator.translateAll(Arrays.asList(select, limit, join));
+		assertEquals(3, dataResultSets.size());
+		assertEquals(runJson(select).getJsonData(), dataResultSets.get(0).getJsonData());
+		assertEquals(runJson(limit).getJsonData(), dataResultSets.get(1).getJsonData());
+		assertEquals(runJson(join).getJsonData(), dataResultSets.get(2).getJsonData());
+	}
+
+	@Test
+	void testBatchOrder() {
+		List<String> jsons = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			jsons.add("{\"select\":\"select_table\",\"where\":\"id=" + i + "\"}");
+		}
+		List<DataResultSet> dataResultSets = translator.translateAll(jsons);
+		for (int i = 0; i < jsons.size(); i++) {
+			assertEquals(runJson(jsons.get(i)).getJsonData(), dataResultSets.get(i).getJsonData());
+		}
+	}
+
+	@Test
+	void testBatchError() {
+		String select = readJson("json/select/select_table.json");
+		List<DataResultSet> dataResultSets = translator
+				.translateAll(Arrays.asList(select, "{\"select\":\"not_exist_table\"}", select));
+		assertTrue(dataResultSets.get(0).succeed());
+		assertFalse(dataResultSets.get(1).succeed());
+		assertEquals(ResultStatus.DATASOURCE_TABLE_NOT_EXIST.code(), dataResultSets.get(1).getCode());
+		assertTrue(dataResultSets.get(2).succeed());
+		assertEquals(dataResultSets.get(0).getJsonData(), dataResultSets.get(2).getJsonData());
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.Dialect;
+import com.github.mengxianun.core.exception.PermissionException;
+import com.github.mengxianun.jdbc.copy.CopyFormat;
+import com.github.mengxianun.jdbc.copy.CopyReader;
+import com.github.mengxianun.jdbc.dialect.H2Dialect;
+import com.google.common.io.CharStreams;
+
+@DisplayName("Jdbc copy test")
+public class CopyTest extends TestSupport {
+
+	@AfterEach
+	void destroy() throws SQLException {
+		execute("DROP TABLE IF EXISTS COPY_TABLE");
+	}
+
+	@Test
+	void testLine() {
+		assertEquals("\"1\",,\"\",\"a\"\"b\"\n", CopyReader.toLine(new Object[] { 1, null, "", "a\"b" }));
+		assertEquals("\"{\"\"a\"\",NULL,\"\"b\\\"\"c\"\"}\"\n",
+				CopyReader.toLine(new Object[] { new Object[] { "a", null, "b\"c" } }));
+		assertEquals("\"\\x00ff10\"\n", CopyReader.toLine(new Object[] { new byte[] { 0, -1, 16 } }));
+		assertEquals("\"2020-01-02 03:04:05.0\",\"true\"\n",
+				CopyReader.toLine(new Object[] { Timestamp.valueOf("2020-01-02 03:04:05"), true }));
+	}
+
+	@Test
+	void testParseLine() {
+		assertEquals(Arrays.asList("FULL,NAME", "a\"b", "", "AGE"),
+				CopyReader.parseLine("\"FULL,NAME\",\"a\"\"b\",,AGE"));
+		assertThrows(JdbcDataException.class, () -> CopyReader.parseLine("\"FULL,NAME"));
+	}
+
+	@Test
+	void testRead() throws IOException {
+		Reader reader = new CopyReader(
+				Arrays.asList(new Object[] { 1, "a" }, new Object[] { 2, null }, new Object[] { 3, "c" }).iterator());
+		StringBuilder builder = new StringBuilder();
+		char[] buffer = new char[3];
+		int size;
+		while ((size = reader.read(buffer, 0, buffer.length)) != -1) {
+			builder.append(buffer, 0, size);
+		}
+		assertEquals("\"1\",\"a\"\n\"2\",\n\"3\",\"c\"\n", builder.toString());
+	}
+
+	@Test
+	void testCopyUnsupported() {
+		JdbcDataContext dataContext = (JdbcDataContext) App.getDefaultDataContext();
+		assertThrows(UnsupportedOperationException.class, () -> dataContext.copy("insert_batch_table",
+				new ByteArrayInputStream("NAME,AGE\na,1\n".getBytes(StandardCharsets.UTF_8)), CopyFormat.CSV));
+	}
+
+	@Test
+	void testCopyPermission() {
+		JdbcDataContext dataContext = (JdbcDataContext) App.getDefaultDataContext();
+		assertThrows(PermissionException.class, () -> dataContext.copy("permission_query_table",
+				new ByteArrayInputStream("ID,NAME\n3,a\n".getBytes(StandardCharsets.UTF_8)), CopyFormat.CSV));
+	}
+
+	@Test
+	void testCopyCsv() throws SQLException {
+		JdbcDataContext dataContext = createCopyDataContext();
+		CopyDialect dialect = (CopyDialect) dataContext.getDialect();
+		assertEquals(1L, dataContext.copy("COPY_TABLE",
+				new ByteArrayInputStream("\"FULL,NAME\", AGE\n\"a\",1\n".getBytes(StandardCharsets.UTF_8)),
+				CopyFormat.CSV).getInsertCount());
+		assertEquals("COPY \"PUBLIC\".\"COPY_TABLE\" (\"FULL,NAME\", \"AGE\") FROM STDIN WITH (FORMAT csv)",
+				dialect.sql);
+		assertEquals("\"a\",1\n", dialect.data);
+	}
+
+	@Test
+	void testCopyJsonLines() throws SQLException {
+		JdbcDataContext dataContext = createCopyDataContext();
+		CopyDialect dialect = (CopyDialect) dataContext.getDialect();
+		String input = "{\"AGE\":\"2\",\"FULL,NAME\":\"b\"}\n{\"AGE\":3,\"FULL,NAME\":null}\n";
+		assertEquals(2L, dataContext.copy("COPY_TABLE", new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+				CopyFormat.JSON_LINES).getInsertCount());
+		assertEquals("COPY \"PUBLIC\".\"COPY_TABLE\" (\"AGE\", \"FULL,NAME\") FROM STDIN WITH (FORMAT csv)",
+				dialect.sql);
+		assertEquals("\"2\",\"b\"\n\"3\",\n", dialect.data);
+	}
+
+	private JdbcDataContext createCopyDataContext() throws SQLException {
+		execute("CREATE TABLE COPY_TABLE (ID INT, \"FULL,NAME\" VARCHAR(20), AGE INT)");
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL(DB_URL);
+		dataSource.setUser(DB_USERNAME);
+		dataSource.setPassword(DB_PASSWORD);
+		return new JdbcDataContext(dataSource) {
+
+			@Override
+			public Dialect createDialect(String databaseProductName) {
+				return new CopyDialect(this);
+			}
+
+		};
+	}
+
+	private void execute(String... sqls) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+				Statement statement = connection.createStatement()) {
+			for (String sql : sqls) {
+				statement.execute(sql);
+			}
+		}
+	}
+
+	/**
+	 * 记录 COPY 语句和导入的数据, 不实际执行
+	 */
+	private static class CopyDialect extends H2Dialect {
+
+		private String sql;
+		private String data;
+
+		CopyDialect(JdbcDataContext jdbcDataContext) {
+			super(jdbcDataContext);
+		}
+
+		@Override
+		public boolean copyEnabled() {
+			return true;
+		}
+
+		@Override
+		public long copyIn(Connection connection, String sql, Reader reader) throws SQLException {
+			this.sql = sql;
+			try {
+				this.data = CharStreams.toString(reader);
+			} catch (IOException e) {
+				throw new SQLException(e);
+			}
+			return data.split("\n").length;
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.DataContext;
+import com.github.mengxianun.core.SQLBuilder;
+import com.github.mengxianun.core.config.ResultAttributes;
+import com.github.mengxianun.core.parser.ParserFactory;
+import com.github.mengxianun.core.parser.SimpleParser;
+import com.github.mengxianun.core.parser.info.SimpleInfo;
+import com.google.gson.JsonObject;
+
+@DisplayName("Jdbc count test")
+public class CountTest extends TestSupport {
+
+	@Test
+	void testWindowCount() {
+		String json = "{\"select\":\"select_table\",\"where\":\"age>20\",\"limit\":[0,2]}";
+		assertTrue(buildAction(json).getSql().contains(SQLBuilder.WINDOW_COUNT));
+		JsonObject result = (JsonObject) runJson(json).getJsonData();
+		assertEquals(5, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(2, result.getAsJsonArray(ResultAttributes.DATA).size());
+		assertEquals(3, result.getAsJsonArray(ResultAttributes.DATA).get(0).getAsJsonObject().size());
+	}
+
+	@Test
+	void testWindowCountEmptyPage() {
+		JsonObject result = (JsonObject) runJson("{\"select\":\"select_table\",\"limit\":[10,12]}").getJsonData();
+		assertEquals(6, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(0, result.getAsJsonArray(ResultAttributes.DATA).size());
+	}
+
+	@Test
+	void testWindowCountGroup() {
+		String json = readJson("json/select/select_group_limit.json");
+		assertTrue(buildAction(json).getSql().contains(SQLBuilder.WINDOW_COUNT));
+		JsonObject result = (JsonObject) runJson(json).getJsonData();
+		assertEquals(5, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(1, result.getAsJsonArray(ResultAttributes.DATA).size());
+	}
+
+	@Test
+	void testConcurrentCount() {
+		// 未查询主键, 使用单独的总数查询
+		String json = "{\"select\":\"select_table\",\"fields\":\"name\",\"where\":\"age>20\",\"limit\":[0,2]}";
+		assertFalse(buildAction(json).getSql().contains(SQLBuilder.WINDOW_COUNT));
+		JsonObject result = (JsonObject) runJson(json).getJsonData();
+		assertEquals(5, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(2, result.getAsJsonArray(ResultAttributes.DATA).size());
+	}
+
+	@Test
+	void testJoinCount() {
+		String json = readJson("json/join/join_limit.json");
+		assertFalse(buildAction(json).getSql().contains(SQLBuilder.WINDOW_COUNT));
+		JsonObject result = (JsonObject) runJson(json).getJsonData();
+		assertEquals(2, result.getAsJsonArray(ResultAttributes.DATA).size());
+	}
+
+	Action buildAction(String json) {
+		SimpleInfo simpleInfo = SimpleParser.parse(json);
+		DataContext dataContext = App.getDefaultDataContext();
+		Action action = (Action) ParserFactory.getActionParser(simpleInfo, dataContext).parse();
+		action.build();
+		return action;
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.DataContext;
+import com.github.mengxianun.core.config.AssociationType;
+import com.github.mengxianun.core.exception.DataException;
+import com.github.mengxianun.core.schema.MetadataLoad;
+import com.github.mengxianun.core.schema.Table;
+import com.github.mengxianun.core.schema.TableType;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+@DisplayName("Jdbc foreign key relationship test")
+public class ForeignKeyTest extends TestSupport {
+
+	private static final String SOURCE = "fk_ds";
+
+	@BeforeEach
+	void init() throws SQLException {
+		execute("CREATE TABLE FK_CUSTOMER (ID INT PRIMARY KEY, NAME VARCHAR(20))",
+				"CREATE TABLE FK_ORDER (ID INT PRIMARY KEY, CUSTOMER_ID INT REFERENCES FK_CUSTOMER(ID))",
+				"INSERT INTO FK_CUSTOMER VALUES (1, 'Ada')", "INSERT INTO FK_ORDER VALUES (1, 1)",
+				"INSERT INTO FK_ORDER VALUES (2, 1)");
+	}
+
+	@AfterEach
+	void destroy() throws SQLException {
+		if (App.hasDataContext(SOURCE)) {
+			App.deleteDataContext(SOURCE);
+		}
+		execute("DROP TABLE IF EXISTS FK_ORDER", "DROP TABLE IF EXISTS FK_CUSTOMER");
+	}
+
+	@Test
+	void testForeignKeyRelationship() {
+		DataContext dataContext = createDataContext(true);
+		Table order = dataContext.getTable("FK_ORDER");
+		Table customer = dataContext.getTable("FK_CUSTOMER");
+		assertEquals(AssociationType.MANY_TO_ONE, dataContext.getAssociationType(order, customer));
+		assertEquals(AssociationType.ONE_TO_MANY, dataContext.getAssociationType(customer, order));
+
+		JsonArray result = (JsonArray) runJson(
+				"{\"select\":\"" + SOURCE + ".fk_order\",\"join\":[\"fk_customer\"],\"sort\":\"id\"}")
+						.getJsonData();
+		assertEquals(2, result.size());
+		JsonObject first = result.get(0).getAsJsonObject();
+		assertEquals("Ada", first.getAsJsonObject("CUSTOMER_ID__FK_CUSTOMER").get("NAME").getAsString());
+	}
+
+	@Test
+	void testConfigOverride() {
+		DataContext dataContext = createDataContext(true);
+		Table order = dataContext.getTable("FK_ORDER");
+		Table customer = dataContext.getTable("FK_CUSTOMER");
+		// 表配置中的关联关系覆盖外键的关联关系
+		assertTrue(dataContext.addRelationship(order.getColumnByName("CUSTOMER_ID"), customer.getColumnByName("ID"),
+				AssociationType.ONE_TO_ONE));
+		assertEquals(AssociationType.ONE_TO_ONE, dataContext.getAssociationType(order, customer));
+		assertEquals(AssociationType.ONE_TO_ONE, dataContext.getAssociationType(customer, order));
+	}
+
+	@Test
+	void testDisabled() {
+		DataContext dataContext = createDataContext(false);
+		Table order = dataContext.getTable("FK_ORDER");
+		Table customer = dataContext.getTable("FK_CUSTOMER");
+		assertTrue(dataContext.getRelationships(order, customer).isEmpty());
+		assertThrows(DataException.class,
+				() -> runJson("{\"select\":\"" + SOURCE + ".fk_order\",\"join\":[\"fk_customer\"]}"));
+		assertTrue(dataContext.getShortestRelationships(order, customer).isEmpty());
+		assertNull(dataContext.getAssociationType(order, customer));
+	}
+
+	private DataContext createDataContext(boolean foreignKeys) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL(DB_URL);
+		dataSource.setUser(DB_USERNAME);
+		dataSource.setPassword(DB_PASSWORD);
+		App.addDataContext(SOURCE, new JdbcDataContext(dataSource, TableType.DEFAULT_TABLE_TYPES,
+				MetadataLoad.EAGER, null, foreignKeys));
+		return App.getDataContext(SOURCE);
+	}
+
+	private void execute(String... sqls) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+				Statement statement = connection.createStatement()) {
+			for (String sql : sqls) {
+				statement.execute(sql);
+			}
+		}
+	}
+
+}
@@ -1,12 +1,15 @@
 package com.github.mengxianun.jdbc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.github.mengxianun.core.DataResultSet;
+import com.github.mengxianun.core.exception.DataException;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 @DisplayName("Jdbc insert test")
@@ -32,4 +35,29 @@ public class InsertTest extends TestSupport {
 		assertTrue(primaryKey > 0);
 	}
 
+	@Test
+	void testInsertBatch() {
+		DataResultSet dataResultSet = runJson(
+				"{\"insert\":\"insert_batch_table\",\"values\":[{\"name\":\"a\",\"age\":1},{\"name\":\"b\",\"age\":2},{\"name\":\"c\",\"age\":3},{\"name\":\"d\"},{\"name\":\"e\"},{\"name\":\"f\",\"age\":6}]}");
+		JsonArray result = (JsonArray) dataResultSet.getJsonData();
+		assertEquals(6, result.size());
+		JsonArray rows = (JsonArray) runJson("{\"select\":\"insert_batch_table\",\"order\":[\"id\"]}").getJsonData();
+		assertEquals(6, rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			JsonObject row = rows.get(i).getAsJsonObject();
+			assertEquals(result.get(i).getAsJsonObject().get("ID").getAsInt(), row.get("ID").getAsInt());
+			assertEquals(String.valueOf((char) ('a' + i)), row.get("NAME").getAsString());
+		}
+		assertTrue(rows.get(3).getAsJsonObject().get("AGE").isJsonNull());
+		assertEquals(6, rows.get(5).getAsJsonObject().get("AGE").getAsInt());
+	}
+
+	@Test
+	void testInsertBatchRollback() {
+		long count = ((JsonArray) runJson("{\"select\":\"insert_batch_table\"}").getJsonData()).size();
+		assertThrows(DataException.class, () -> runJson(
+				"{\"insert\":\"insert_batch_table\",\"values\":[{\"name\":\"x\",\"age\":1},{\"name\":\"y\",\"age\":2},{\"name\":\"z\",\"age\":\"invalid\"}]}"));
+		assertEquals(count, ((JsonArray) runJson("{\"select\":\"insert_batch_table\"}").getJsonData()).size());
+	}
+
 }
@@ -10,8 +10,14 @@ import org.skyscreamer.jsonassert.JSONCompare;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.skyscreamer.jsonassert.JSONCompareResult;
 
+import com.github.mengxianun.core.Action;
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.DataContext;
 import com.github.mengxianun.core.DataResultSet;
 import com.github.mengxianun.core.config.ResultAttributes;
+import com.github.mengxianun.core.parser.ParserFactory;
+import com.github.mengxianun.core.parser.SimpleParser;
+import com.github.mengxianun.core.parser.info.SimpleInfo;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
@@ -127,4 +133,73 @@ public class JoinTest extends TestSupport {
 		assertTrue(!compareJSON.failed());
 	}
 
+	@Test
+	void testJoinSqlStable() {
+		String json = readJson(JSON_PARENT_PATH + "join_user_and_role_limit.json");
+		Action action = buildAction(json);
+		assertEquals(action.getSql(), buildAction(json).getSql());
+		assertEquals(action.getSqlBuilder().countSql(), buildAction(json).getSqlBuilder().countSql());
+	}
+
+	@Test
+	void testJoinCustomAliasNotReused() {
+		String json = "{\"select\":\"join_table_1 as t0\",\"join\":[\"join_table_2\"],\"fields\":[\"name as c0\",\"table_2_id\"]}";
+		String sql = buildAction(json).getSql();
+		assertTrue(!sql.contains("JOIN_TABLE_2 t0") && !sql.contains("join_table_2 t0"), sql);
+		assertEquals(sql.indexOf(" c0"), sql.lastIndexOf(" c0"), sql);
+		JsonArray data = runJson(json).getJsonData().getAsJsonArray();
+		assertEquals(3, data.size());
+		JsonObject first = data.get(0).getAsJsonObject();
+		assertTrue(first.has("c0"));
+		assertTrue(first.has("table_2_id") || first.has("TABLE_2_ID"));
+	}
+
+	@Test
+	void testJoinKeyLimit() {
+		String json = "{\"select\":\"join_table_1\",\"join\":[\"join_table_2\",\"join_table_3\"],\"order\":[\"-id\"],\"limit\":[0,2]}";
+		Action action = buildAction(json);
+		assertTrue(action.getSqlBuilder().isJoinKeyLimit());
+		assertTrue(action.getSql().startsWith("SELECT DISTINCT"));
+		JsonObject result = runJson(json).getJsonData().getAsJsonObject();
+		assertEquals(3, result.get(ResultAttributes.TOTAL).getAsLong());
+		JsonArray data = result.get(ResultAttributes.DATA).getAsJsonArray();
+		JsonArray all = runJson(
+				"{\"select\":\"join_table_1\",\"join\":[\"join_table_2\",\"join_table_3\"],\"order\":[\"-id\"]}")
+						.getJsonData().getAsJsonArray();
+		assertEquals(2, data.size());
+		assertEquals(all.get(0), data.get(0));
+		assertEquals(all.get(1), data.get(1));
+		result = runJson(json.replace("[0,2]", "[2,4]")).getJsonData().getAsJsonObject();
+		data = result.get(ResultAttributes.DATA).getAsJsonArray();
+		assertEquals(1, data.size());
+		assertEquals(all.get(2), data.get(0));
+	}
+
+	@Test
+	void testJoinKeyLimitWhere() {
+		String json = "{\"select\":\"join_table_1\",\"join\":[\"join_table_3\"],\"where\":[\"id>1\",\"join_table_3.name%=table3%\"]}";
+		JsonArray all = runJson(json).getJsonData().getAsJsonArray();
+		JsonObject result = runJson(json.replace("]}", "],\"limit\":[0,1]}")).getJsonData().getAsJsonObject();
+		assertEquals(all.size(), result.get(ResultAttributes.TOTAL).getAsLong());
+		JsonArray data = result.get(ResultAttributes.DATA).getAsJsonArray();
+		assertEquals(1, data.size());
+		assertEquals(all.get(0), data.get(0));
+	}
+
+	@Test
+	void testJoinKeyLimitWithoutKey() {
+		String json = "{\"select\":\"join_table_1\",\"fields\":[\"name\"],\"join\":[\"join_table_2\"],\"limit\":[0,2]}";
+		assertTrue(!buildAction(json).getSqlBuilder().isJoinKeyLimit());
+		JsonObject result = runJson(json).getJsonData().getAsJsonObject();
+		assertEquals(2, result.get(ResultAttributes.DATA).getAsJsonArray().size());
+	}
+
+	Action buildAction(String json) {
+		SimpleInfo simpleInfo = SimpleParser.parse(json);
+		DataContext dataContext = App.getDefaultDataContext();
+		Action action = (Action) ParserFactory.getActionParser(simpleInfo, dataContext).parse();
+		action.build();
+		return action;
+	}
+
 }
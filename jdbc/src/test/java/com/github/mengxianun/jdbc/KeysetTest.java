@@ -0,0 +1,140 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.config.ResultAttributes;
+import com.github.mengxianun.core.exception.DataException;
+import com.github.mengxianun.core.exception.PermissionException;
+import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+@DisplayName("Jdbc keyset limit test")
+public class KeysetTest extends TestSupport {
+
+	@Test
+	void testKeyset() {
+		List<List<Integer>> pages = readPages("{\"select\":\"select_table\",\"limit\":{\"size\":2%s}}");
+		assertEquals(Lists.newArrayList(Lists.newArrayList(1, 2), Lists.newArrayList(3, 4), Lists.newArrayList(5, 6),
+				Lists.newArrayList()), pages);
+	}
+
+	@Test
+	void testKeysetOrder() {
+		// 排序值相同时按主键排序
+		List<List<Integer>> pages = readPages(
+				"{\"select\":\"select_table\",\"order\":\"-age\",\"limit\":{\"size\":4%s}}");
+		assertEquals(Lists.newArrayList(Lists.newArrayList(2, 5, 6, 4), Lists.newArrayList(3, 1)), pages);
+	}
+
+	@Test
+	void testKeysetWhere() {
+		List<List<Integer>> pages = readPages(
+				"{\"select\":\"select_table\",\"where\":\"age>20\",\"limit\":{\"size\":3%s}}");
+		assertEquals(Lists.newArrayList(Lists.newArrayList(2, 3, 4), Lists.newArrayList(5, 6)), pages);
+	}
+
+	@Test
+	void testKeysetFields() {
+		// 未查询主键时, 主键作为内部列查询, 不输出到结果中
+		List<List<String>> pages = readPages(
+				"{\"select\":\"select_table\",\"fields\":\"name\",\"order\":\"name\",\"limit\":{\"size\":4%s}}",
+				"NAME", JsonElement::getAsString);
+		assertEquals(Lists.newArrayList(Lists.newArrayList("Ada", "Anne", "Brenda", "Kate"),
+				Lists.newArrayList("Nick", "Perry")), pages);
+	}
+
+	@Test
+	void testKeysetJoin() {
+		List<List<Integer>> pages = readPages(
+				"{\"select\":\"join_table_1\",\"join\":[\"join_table_2\"],\"limit\":{\"size\":2%s}}");
+		List<Integer> ids = new ArrayList<>();
+		pages.forEach(ids::addAll);
+		JsonArray all = (JsonArray) runJson("{\"select\":\"join_table_1\",\"join\":[\"join_table_2\"]}")
+				.getJsonData();
+		assertEquals(all.size(), ids.size());
+	}
+
+	@Test
+	void testInvalidCursor() {
+		assertThrows(DataException.class,
+				() -> runJson("{\"select\":\"select_table\",\"limit\":{\"size\":2,\"after\":\"invalid\"}}"));
+	}
+
+	@Test
+	void testKeysetColumnPermission() {
+		// 没有查询权限的列不能作为游标的排序列
+		assertThrows(PermissionException.class, () -> runJson(
+				"{\"select\":\"permission_column_table\",\"order\":\"-update_column\",\"limit\":{\"size\":1}}"));
+		// 追加的排序列和主键不输出到结果中
+		JsonObject result = (JsonObject) runJson(
+				"{\"select\":\"permission_column_table\",\"fields\":\"select_column\",\"order\":\"all_column\",\"limit\":{\"size\":1}}")
+						.getJsonData();
+		JsonObject record = result.getAsJsonArray(ResultAttributes.DATA).get(0).getAsJsonObject();
+		assertEquals(1, record.size());
+		assertEquals(3, record.get("SELECT_COLUMN").getAsInt());
+		assertFalse(record.has("ID"));
+		assertNotNull(result.get(ResultAttributes.NEXT).getAsString());
+	}
+
+	@Test
+	void testKeysetNullValue() {
+		// H2 升序时 null 排在最前
+		assertThrows(DataException.class, () -> runJson(
+				"{\"select\":\"keyset_null_table\",\"order\":\"score\",\"limit\":{\"size\":1}}").getJsonData());
+		List<List<Integer>> pages = readPages(
+				"{\"select\":\"keyset_null_table\",\"where\":\"score!=null\",\"order\":\"score\",\"limit\":{\"size\":1%s}}");
+		assertEquals(Lists.newArrayList(Lists.newArrayList(1), Lists.newArrayList(3), Lists.newArrayList()), pages);
+	}
+
+	/**
+	 * 按游标依次读取所有分页
+	 * 
+	 * @param jsonFormat
+	 * @return 每页记录的 ID
+	 */
+	private List<List<Integer>> readPages(String jsonFormat) {
+		return readPages(jsonFormat, "ID", JsonElement::getAsInt);
+	}
+
+	/**
+	 * 按游标依次读取所有分页
+	 * 
+	 * @param jsonFormat
+	 * @param key
+	 *            读取的列
+	 * @param reader
+	 * @return 每页记录中该列的值
+	 */
+	private <T> List<List<T>> readPages(String jsonFormat, String key, Function<JsonElement, T> reader) {
+		List<List<T>> pages = new ArrayList<>();
+		String after = "";
+		while (after != null) {
+			JsonObject result = (JsonObject) runJson(String.format(jsonFormat, after)).getJsonData();
+			assertTrue(result.has(ResultAttributes.SIZE));
+			List<T> values = new ArrayList<>();
+			for (JsonElement element : result.getAsJsonArray(ResultAttributes.DATA)) {
+				JsonObject record = element.getAsJsonObject();
+				assertTrue(record.has(key));
+				values.add(reader.apply(record.get(key)));
+			}
+			pages.add(values);
+			JsonElement next = result.get(ResultAttributes.NEXT);
+			after = next == null || next.isJsonNull() ? null : ",\"after\":\"" + next.getAsString() + "\"";
+		}
+		return pages;
+	}
+
+}
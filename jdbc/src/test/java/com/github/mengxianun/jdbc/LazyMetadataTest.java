@@ -0,0 +1,139 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.DataContext;
+import com.github.mengxianun.core.DataResultSet;
+import com.github.mengxianun.core.schema.Column;
+import com.github.mengxianun.core.schema.MetadataLoad;
+import com.github.mengxianun.core.schema.Table;
+import com.github.mengxianun.core.schema.TableType;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+@DisplayName("Jdbc lazy metadata test")
+public class LazyMetadataTest extends TestSupport {
+
+	private static final String SOURCE = "lazy_ds";
+
+	@BeforeEach
+	void init() {
+		DataSource dataSource = new JdbcDataContextFactory().createDataSource(DB_URL, DB_USERNAME, DB_PASSWORD);
+		App.addDataContext(SOURCE,
+				new JdbcDataContext(dataSource, TableType.DEFAULT_TABLE_TYPES, MetadataLoad.LAZY));
+	}
+
+	@AfterEach
+	void destroy() {
+		App.deleteDataContext(SOURCE);
+	}
+
+	@Test
+	void testLoadOnAccess() {
+		DataContext dataContext = App.getDataContext(SOURCE);
+		assertEquals(0, dataContext.getSchema().getTableCount());
+		JsonArray result = (JsonArray) runJson("{\"select\":\"" + SOURCE + ".select_table\",\"where\":\"id=1\"}")
+				.getJsonData();
+		assertEquals("Ada", result.get(0).getAsJsonObject().get("NAME").getAsString());
+		assertEquals(1, dataContext.getSchema().getTableCount());
+		Table table = dataContext.getTable("SELECT_TABLE");
+		assertEquals(1, table.getPrimaryKeys().size());
+		assertNull(dataContext.getTable("not_exist_table"));
+	}
+
+	@Test
+	void testConcurrentLoad() throws Exception {
+		DataContext dataContext = App.getDataContext(SOURCE);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Table>> tasks = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				tasks.add(() -> dataContext.getTable("insert_table"));
+			}
+			List<Future<Table>> futures = executor.invokeAll(tasks);
+			Table table = futures.get(0).get();
+			for (Future<Table> future : futures) {
+				assertSame(table, future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, dataContext.getSchema().getTableCount());
+	}
+
+	@Test
+	void testConcurrentTranslate() throws Exception {
+		DataContext dataContext = App.getDataContext(SOURCE);
+		List<String> tableNames = Arrays.asList("select_table", "select_distinct_table", "update_table",
+				"delete_table", "join_table_1", "join_table_2", "join_table_3", "join_table_4", "user", "role",
+				"detail", "alias_table_a", "alias_table_b", "alias_table_c", "datetime_table", "upsert_table");
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			// 查询的同时懒加载表, 并遍历 Schema 中已加载的表和列
+			List<Callable<Object>> tasks = new ArrayList<>();
+			for (int i = 0; i < 2000; i++) {
+				String tableName = tableNames.get(i % tableNames.size());
+				if (i % 10 == 0) {
+					tasks.add(() -> {
+						for (Table table : dataContext.getSchema().getTables()) {
+							for (Column column : table.getColumns()) {
+								assertSame(column, table.getColumnByName(column.getName()));
+							}
+						}
+						return null;
+					});
+				} else {
+					tasks.add(() -> {
+						DataResultSet result = translator
+								.translate("{\"select\":\"" + SOURCE + "." + tableName + "\",\"limit\":[0,1]}");
+						assertNotNull(result.getData());
+						return null;
+					});
+				}
+			}
+			for (Future<Object> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(tableNames.size(), dataContext.getSchema().getTableCount());
+		for (String tableName : tableNames) {
+			Table table = dataContext.getTable(tableName);
+			assertSame(table, dataContext.getSchema().getTableByName(table.getName()));
+			assertEquals(table.getColumnCount(), table.getColumnNames().size());
+		}
+	}
+
+	@Test
+	void testStructsPage() {
+		DataContext dataContext = App.getDataContext(SOURCE);
+		JsonObject result = (JsonObject) runJson("{\"structs\":\"" + SOURCE + "\",\"limit\":[1,3]}").getJsonData();
+		JsonArray tables = result.getAsJsonArray("tables");
+		assertEquals(2, tables.size());
+		assertEquals(dataContext.loadTableNames(1, 2).get(0),
+				tables.get(0).getAsJsonObject().get("name").getAsString());
+		// 分页读取的表不加入 Schema
+		assertEquals(0, dataContext.getSchema().getTableCount());
+	}
+
+}
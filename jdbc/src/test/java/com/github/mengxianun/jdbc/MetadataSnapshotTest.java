@@ -0,0 +1,150 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.schema.MetadataLoad;
+import com.github.mengxianun.core.schema.Table;
+import com.github.mengxianun.core.schema.TableType;
+import com.github.mengxianun.jdbc.schema.JdbcSchema;
+import com.github.mengxianun.jdbc.schema.MetadataSnapshot;
+
+@DisplayName("Jdbc metadata snapshot test")
+public class MetadataSnapshotTest extends TestSupport {
+
+	private JdbcDataSource dataSource;
+	private Path snapshotDir;
+	private Path snapshotPath;
+
+	@BeforeEach
+	void init() throws IOException {
+		dataSource = new JdbcDataSource();
+		dataSource.setURL(DB_URL);
+		dataSource.setUser(DB_USERNAME);
+		dataSource.setPassword(DB_PASSWORD);
+		snapshotDir = Files.createTempDirectory("metadata");
+		snapshotPath = snapshotDir.resolve("test.snapshot");
+	}
+
+	@AfterEach
+	void destroy() throws IOException {
+		Files.deleteIfExists(snapshotPath);
+		Files.deleteIfExists(snapshotDir);
+	}
+
+	@Test
+	void testWriteAndRead() throws IOException {
+		JdbcDataContext dataContext = createDataContext();
+		assertTrue(Files.exists(snapshotPath));
+		MetadataSnapshot snapshot = MetadataSnapshot.read(snapshotPath);
+		assertEquals(dataContext.getSchema().getTableCount(), snapshot.getSchema().getTableCount());
+		Table table = snapshot.getSchema().getTableByName("SELECT_TABLE");
+		Table expected = dataContext.getTable("SELECT_TABLE");
+		assertEquals(expected.getColumnNames(), table.getColumnNames());
+		assertEquals("ID", table.getPrimaryKeys().get(0).getName());
+		assertEquals(expected.getInfo(), table.getInfo());
+		dataContext.destroy();
+	}
+
+	@Test
+	void testLoadFromSnapshot() throws Exception {
+		createDataContext().destroy();
+		MetadataSnapshot snapshot = MetadataSnapshot.read(snapshotPath);
+		writeSnapshot(snapshot, snapshot.getFingerprint());
+
+		// 指纹相同, 使用快照中的元数据
+		JdbcDataContext dataContext = createDataContext();
+		awaitValidation(dataContext);
+		assertEquals(1, dataContext.getSchema().getTableCount());
+	}
+
+	@Test
+	void testReloadOutOfDate() throws Exception {
+		createDataContext().destroy();
+		MetadataSnapshot snapshot = MetadataSnapshot.read(snapshotPath);
+		writeSnapshot(snapshot, "out_of_date");
+
+		// 指纹不同, 后台重新加载元数据并更新快照
+		JdbcDataContext dataContext = createDataContext();
+		awaitValidation(dataContext);
+		assertEquals(snapshot.getSchema().getTableCount(), dataContext.getSchema().getTableCount());
+		MetadataSnapshot newSnapshot = MetadataSnapshot.read(snapshotPath);
+		assertNotEquals("out_of_date", newSnapshot.getFingerprint());
+		assertEquals(snapshot.getFingerprint(), newSnapshot.getFingerprint());
+	}
+
+	@Test
+	void testValidateAfterInit() throws Exception {
+		createDataContext().destroy();
+		MetadataSnapshot snapshot = MetadataSnapshot.read(snapshotPath);
+		writeSnapshot(snapshot, "out_of_date");
+
+		// 初始化完成之前不校验快照
+		JdbcDataContext dataContext = createDataContext();
+		dataContext.getExecutor().shutdown();
+		assertTrue(dataContext.getExecutor().awaitTermination(30, TimeUnit.SECONDS));
+		assertEquals(1, dataContext.getSchema().getTableCount());
+	}
+
+	@Test
+	void testFingerprintColumnType() throws Exception {
+		execute("CREATE TABLE SNAPSHOT_TYPE_TABLE (ID INT PRIMARY KEY, NAME VARCHAR(20))");
+		try {
+			createDataContext().destroy();
+			String fingerprint = MetadataSnapshot.read(snapshotPath).getFingerprint();
+			Files.delete(snapshotPath);
+
+			// 列数量不变, 列类型变化时指纹不同
+			execute("ALTER TABLE SNAPSHOT_TYPE_TABLE ALTER COLUMN NAME VARCHAR(40)");
+			createDataContext().destroy();
+			assertNotEquals(fingerprint, MetadataSnapshot.read(snapshotPath).getFingerprint());
+		} finally {
+			execute("DROP TABLE IF EXISTS SNAPSHOT_TYPE_TABLE");
+		}
+	}
+
+	private JdbcDataContext createDataContext() {
+		return new JdbcDataContext(dataSource, TableType.DEFAULT_TABLE_TYPES, MetadataLoad.EAGER, snapshotPath);
+	}
+
+	/**
+	 * 只保留 SELECT_TABLE 的快照
+	 */
+	private void writeSnapshot(MetadataSnapshot snapshot, String fingerprint) throws IOException {
+		JdbcSchema schema = new JdbcSchema(snapshot.getSchema().getName(), snapshot.getSchema().getCatalog());
+		schema.addTable(snapshot.getSchema().getTableByName("SELECT_TABLE"));
+		new MetadataSnapshot(snapshot.getKey(), fingerprint, schema).write(snapshotPath);
+	}
+
+	private void awaitValidation(JdbcDataContext dataContext) throws InterruptedException {
+		dataContext.afterInit();
+		dataContext.getExecutor().shutdown();
+		assertTrue(dataContext.getExecutor().awaitTermination(30, TimeUnit.SECONDS));
+	}
+
+	private void execute(String... sqls) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+				Statement statement = connection.createStatement()) {
+			for (String sql : sqls) {
+				statement.execute(sql);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.exception.JsonDataException;
+import com.github.mengxianun.core.parser.SimpleParser;
+import com.github.mengxianun.core.parser.info.ColumnInfo;
+import com.github.mengxianun.core.parser.info.ConditionInfo;
+import com.github.mengxianun.core.parser.info.OrderInfo;
+import com.github.mengxianun.core.parser.info.SimpleInfo;
+import com.github.mengxianun.core.parser.info.TableInfo;
+import com.github.mengxianun.core.request.Operation;
+import com.github.mengxianun.core.request.Operator;
+import com.github.mengxianun.core.request.Order;
+import com.google.gson.JsonParser;
+
+@DisplayName("Request parser test")
+public class ParserTest extends TestSupport {
+
+	@Test
+	void testOperation() {
+		assertEquals(Operation.SELECT_DISTINCT, SimpleParser.parse("{\"SELECT.DISTINCT\":\"t\"}").operation());
+		assertEquals(Operation.UPSERT, SimpleParser.parse("{\"values\":{\"a\":1},\"Upsert\":\"t\"}").operation());
+	}
+
+	@Test
+	void testTable() {
+		TableInfo tableInfo = SimpleParser.parse("{\"select\":\"ds.table_a as a\"}").table();
+		assertEquals("ds", tableInfo.source());
+		assertEquals("table_a", tableInfo.table());
+		assertEquals("a", tableInfo.alias());
+		tableInfo = SimpleParser.parse("{\"select\":\"table_a\"}").table();
+		assertNull(tableInfo.source());
+		assertNull(tableInfo.alias());
+	}
+
+	@Test
+	void testColumn() {
+		List<ColumnInfo> columns = SimpleParser.parse(
+				"{\"select\":\"t\",\"fields\":[\"id\",\"t.name as n\",\"ds.t.*\",\"ds..t.age\",\"count(t.id) as c\",\"a.b..c\"]}")
+				.columns();
+		assertColumn(columns.get(0), null, null, "id", null);
+		assertColumn(columns.get(1), null, "t", "name", "n");
+		assertColumn(columns.get(2), "ds", "t", "*", null);
+		assertColumn(columns.get(3), "ds", "t", "age", null);
+		assertColumn(columns.get(4), null, null, "count(t.id)", "c");
+		assertColumn(columns.get(5), null, null, "a.b..c", null);
+	}
+
+	@Test
+	void testCondition() {
+		SimpleParser parser = new SimpleParser("{}");
+		assertCondition(parser.parseCondition("t.id>=5"), "id", Operator.GTE, "5");
+		assertCondition(parser.parseCondition("name%=a%"), "name", Operator.LIKE, "a%");
+		assertCondition(parser.parseCondition("name!%=a%"), "name", Operator.NOT_LIKE, "a%");
+		assertCondition(parser.parseCondition("name==1,2"), "name", Operator.EQUAL, "1,2");
+		assertCondition(parser.parseCondition("id!=null"), "id", Operator.NOT_NULL, "null");
+		ConditionInfo conditionInfo = parser.parseCondition("id=1,2,3");
+		assertEquals(Operator.IN, conditionInfo.operator());
+		assertArrayEquals(new String[] { "1", "2", "3" }, (Object[]) conditionInfo.value());
+		conditionInfo = parser.parseCondition("age!~=10~20");
+		assertEquals(Operator.NOT_BETWEEN, conditionInfo.operator());
+		assertArrayEquals(new String[] { "10", "20" }, (Object[]) conditionInfo.value());
+	}
+
+	@Test
+	void testOrder() {
+		List<OrderInfo> orders = SimpleParser
+				.parse("{\"select\":\"t\",\"order\":[\"id\",\"name  desc\",\"-age\",\"t.birth\tASC\"]}").orders();
+		assertOrder(orders.get(0), "id", Order.ASC);
+		assertOrder(orders.get(1), "name", Order.DESC);
+		assertOrder(orders.get(2), "age", Order.DESC);
+		assertOrder(orders.get(3), "birth", Order.ASC);
+		assertEquals("t", orders.get(3).columnInfo().table());
+	}
+
+	@Test
+	void testStreaming() {
+		// 字符串请求按流解析, 结果与解析 Json 对象相同
+		assertSameParse("{\"select\":\"ds.t as a\",\"fields\":[\"id\",\"a.name as n\"],\"join\":[\"b\",{\"inner\":\"c as cc\"}],"
+				+ "\"where\":[\"id>1\",{\"or\":\"name%=a%\"},[\"age<=3\",{\"or\":[\"age>9\"]}]],\"group\":\"name\","
+				+ "\"order\":[\"-id\",\"name desc\"],\"limit\":[0,10],\"total\":\"skip\",\"unknown\":{\"a\":[1]}}");
+		assertSameParse("{\"limit\":{\"after\":\"abc\",\"size\":5},\"where\":null,\"query\":\"t\"}");
+		assertSameParse("{\"values\":[{\"a\":1,\"b\":null,\"c\":true,\"d\":{\"e\":\"f\"}}],\"upsert\":\"t\",\"conflict\":\"a, b\"}");
+		assertSameParse("{\"update\":\"t\",\"values\":{\"a\":\"x\"},\"where\":\"id=1\"}");
+		assertSameParse("{\"native\":{\"query\":{\"match_all\":{}}}}");
+		assertSameParse("{\"transaction\":[{\"insert\":\"t\",\"values\":{\"a\":1}},{\"delete\":\"t\",\"where\":\"a=1\"}]}");
+		assertSameParse("{\"structs\":\"ds\",\"limit\":[1,2]}");
+
+		SimpleInfo simpleInfo = SimpleParser.parse("{\"insert\":\"t\",\"values\":{\"a\":[1,\"b\"]}}");
+		assertArrayEquals(new Object[] { 1L, "b" }, (Object[]) simpleInfo.insertValues().get(0).values().get("a"));
+		assertThrows(JsonDataException.class, () -> SimpleParser.parse("{\"select\":\"t\",\"delete\":\"t\"}"));
+		assertThrows(JsonDataException.class, () -> SimpleParser.parse("{\"fields\":\"a\"}"));
+		assertThrows(JsonDataException.class, () -> SimpleParser.parse("{\"select\":\"t\"} {}"));
+	}
+
+	void assertSameParse(String json) {
+		assertEquals(SimpleParser.parse(new JsonParser().parse(json).getAsJsonObject()), SimpleParser.parse(json));
+	}
+
+	void assertColumn(ColumnInfo columnInfo, String source, String table, String column, String alias) {
+		assertEquals(source, columnInfo.source());
+		assertEquals(table, columnInfo.table());
+		assertEquals(column, columnInfo.column());
+		assertEquals(alias, columnInfo.alias());
+	}
+
+	void assertCondition(ConditionInfo conditionInfo, String column, Operator operator, Object value) {
+		assertEquals(column, conditionInfo.columnInfo().column());
+		assertEquals(operator, conditionInfo.operator());
+		assertEquals(value, conditionInfo.value());
+	}
+
+	void assertOrder(OrderInfo orderInfo, String column, Order order) {
+		assertEquals(column, orderInfo.columnInfo().column());
+		assertEquals(order, orderInfo.order());
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.DataResultSet;
+import com.github.mengxianun.core.config.ResultAttributes;
+import com.github.mengxianun.core.plan.PlanCache;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+@DisplayName("Jdbc plan cache test")
+public class PlanCacheTest extends TestSupport {
+
+	private PlanCache planCache;
+
+	@BeforeEach
+	void init() {
+		planCache = App.getDefaultDataContext().getPlanCache();
+		planCache.invalidateAll();
+	}
+
+	@Test
+	void testWhereEqual() {
+		long hitCount = planCache.stats().hitCount();
+		JsonArray result = (JsonArray) runJson("{\"select\":\"select_table\",\"where\":\"id=1\"}").getJsonData();
+		assertEquals(1, result.size());
+		assertEquals("Ada", result.get(0).getAsJsonObject().get("NAME").getAsString());
+		result = (JsonArray) runJson("{\"select\":\"select_table\",\"where\":\"id=2\"}").getJsonData();
+		assertEquals(1, result.size());
+		assertEquals("Kate", result.get(0).getAsJsonObject().get("NAME").getAsString());
+		assertEquals(hitCount + 1, planCache.stats().hitCount());
+		assertEquals(1, planCache.size());
+	}
+
+	@Test
+	void testWhereIn() {
+		long hitCount = planCache.stats().hitCount();
+		JsonArray result = (JsonArray) runJson("{\"select\":\"select_table\",\"where\":\"id=2,4,5\"}").getJsonData();
+		assertEquals(3, result.size());
+		result = (JsonArray) runJson("{\"select\":\"select_table\",\"where\":\"id=1,3\"}").getJsonData();
+		assertEquals(2, result.size());
+		result = (JsonArray) runJson("{\"select\":\"select_table\",\"where\":\"id=1,3,6\"}").getJsonData();
+		assertEquals(3, result.size());
+		assertEquals("Perry", result.get(2).getAsJsonObject().get("NAME").getAsString());
+		assertEquals(hitCount + 1, planCache.stats().hitCount());
+	}
+
+	@Test
+	void testWhereLike() {
+		JsonArray result = (JsonArray) runJson("{\"select\":\"select_table\",\"where\":\"name%=A%\"}").getJsonData();
+		assertEquals(2, result.size());
+		result = (JsonArray) runJson("{\"select\":\"select_table\",\"where\":\"name%=K%\"}").getJsonData();
+		assertEquals(1, result.size());
+	}
+
+	@Test
+	void testLimit() {
+		long hitCount = planCache.stats().hitCount();
+		DataResultSet dataResultSet = runJson("{\"select\":\"select_table\",\"where\":\"age>20\",\"limit\":[0,2]}");
+		JsonObject result = (JsonObject) dataResultSet.getJsonData();
+		assertEquals(5, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(2, result.getAsJsonArray(ResultAttributes.DATA).size());
+		dataResultSet = runJson("{\"select\":\"select_table\",\"where\":\"age>50\",\"limit\":[1,3]}");
+		result = (JsonObject) dataResultSet.getJsonData();
+		assertEquals(1, result.get(ResultAttributes.START).getAsLong());
+		assertEquals(3, result.get(ResultAttributes.END).getAsLong());
+		assertEquals(3, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(2, result.getAsJsonArray(ResultAttributes.DATA).size());
+		assertEquals(hitCount + 1, planCache.stats().hitCount());
+	}
+
+	@Test
+	void testInvalidate() {
+		runJson("{\"select\":\"select_table\",\"where\":\"id=1\"}");
+		assertEquals(1, planCache.size());
+		App.getDefaultDataContext().cleanRelationshipCache();
+		assertEquals(0, planCache.size());
+	}
+
+}
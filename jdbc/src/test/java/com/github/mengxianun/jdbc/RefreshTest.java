@@ -0,0 +1,129 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.config.AssociationType;
+import com.github.mengxianun.core.config.ColumnConfig;
+import com.github.mengxianun.core.config.TableConfig;
+import com.github.mengxianun.core.schema.Column;
+import com.github.mengxianun.core.schema.Schema;
+import com.github.mengxianun.core.schema.Table;
+import com.github.mengxianun.core.schema.relationship.Relationship;
+import com.google.gson.JsonObject;
+
+@DisplayName("Jdbc metadata refresh test")
+public class RefreshTest extends TestSupport {
+
+	private JdbcDataContext dataContext;
+
+	@BeforeEach
+	void init() throws SQLException {
+		execute("CREATE TABLE REFRESH_TABLE (ID INT PRIMARY KEY, NAME VARCHAR(20))",
+				"CREATE TABLE REFRESH_DROP_TABLE (ID INT PRIMARY KEY)");
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL(DB_URL);
+		dataSource.setUser(DB_USERNAME);
+		dataSource.setPassword(DB_PASSWORD);
+		dataContext = new JdbcDataContext(dataSource);
+	}
+
+	@AfterEach
+	void destroy() throws SQLException {
+		dataContext.destroy();
+		execute("DROP TABLE IF EXISTS REFRESH_TABLE", "DROP TABLE IF EXISTS REFRESH_DROP_TABLE",
+				"DROP TABLE IF EXISTS REFRESH_NEW_TABLE");
+	}
+
+	@Test
+	void testRefreshUnchanged() {
+		Schema schema = dataContext.getSchema();
+		Table table = schema.getTableByName("REFRESH_TABLE");
+		dataContext.refresh();
+		assertSame(schema, dataContext.getSchema());
+		assertSame(table, schema.getTableByName("REFRESH_TABLE"));
+	}
+
+	@Test
+	void testRefreshChanged() throws SQLException {
+		Schema schema = dataContext.getSchema();
+		Table unchangedTable = schema.getTableByName("SELECT_TABLE");
+		Table table = schema.getTableByName("REFRESH_TABLE");
+		JsonObject tableConfig = new JsonObject();
+		tableConfig.addProperty(TableConfig.ALIAS, "refresh_alias");
+		table.setConfig(tableConfig);
+		JsonObject columnConfig = new JsonObject();
+		columnConfig.addProperty(ColumnConfig.ALIAS, "refresh_name");
+		table.getColumnByName("NAME").setConfig(columnConfig);
+		dataContext.addRelationship(table.getColumnByName("ID"), unchangedTable.getColumnByName("ID"),
+				AssociationType.ONE_TO_ONE);
+
+		execute("ALTER TABLE REFRESH_TABLE ADD COLUMN AGE INT", "DROP TABLE REFRESH_DROP_TABLE",
+				"CREATE TABLE REFRESH_NEW_TABLE (ID INT PRIMARY KEY)");
+		dataContext.refresh();
+
+		assertSame(unchangedTable, schema.getTableByName("SELECT_TABLE"));
+		assertNull(schema.getTableByName("REFRESH_DROP_TABLE"));
+		assertNotNull(schema.getTableByName("REFRESH_NEW_TABLE"));
+		Table newTable = schema.getTableByName("REFRESH_TABLE");
+		assertNotSame(table, newTable);
+		assertEquals(3, newTable.getColumnCount());
+		// 表配置, 列配置和关联关系转移到新的表上
+		assertSame(newTable, schema.getTable("refresh_alias"));
+		assertEquals("NAME", newTable.getColumn("refresh_name").getName());
+		boolean found = false;
+		for (Relationship relationship : dataContext.getAllRelationships()) {
+			Column primaryColumn = relationship.getPrimaryColumn();
+			Column foreignColumn = relationship.getForeignColumn();
+			assertNotSame(table, primaryColumn.getTable());
+			assertNotSame(table, foreignColumn.getTable());
+			if (primaryColumn.getTable() == newTable && foreignColumn.getTable() == unchangedTable) {
+				found = true;
+			}
+		}
+		assertTrue(found);
+	}
+
+	@Test
+	void testRefreshPrimaryKeyChanged() throws SQLException {
+		Schema schema = dataContext.getSchema();
+		Table table = schema.getTableByName("REFRESH_TABLE");
+		assertEquals(1, table.getPrimaryKeys().size());
+
+		execute("ALTER TABLE REFRESH_TABLE DROP PRIMARY KEY");
+		dataContext.refresh();
+		Table newTable = schema.getTableByName("REFRESH_TABLE");
+		assertNotSame(table, newTable);
+		assertTrue(newTable.getPrimaryKeys().isEmpty());
+
+		execute("ALTER TABLE REFRESH_TABLE ADD PRIMARY KEY (ID)");
+		dataContext.refresh();
+		assertNotSame(newTable, schema.getTableByName("REFRESH_TABLE"));
+		assertEquals("ID", schema.getTableByName("REFRESH_TABLE").getPrimaryKeys().get(0).getName());
+	}
+
+	private void execute(String... sqls) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+				Statement statement = connection.createStatement()) {
+			for (String sql : sqls) {
+				statement.execute(sql);
+			}
+		}
+	}
+
+}
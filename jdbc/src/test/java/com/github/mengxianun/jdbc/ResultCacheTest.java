@@ -0,0 +1,66 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.cache.ResultCache;
+import com.google.gson.JsonArray;
+
+@DisplayName("Jdbc result cache test")
+public class ResultCacheTest extends TestSupport {
+
+	private ResultCache resultCache;
+
+	@BeforeEach
+	void init() {
+		resultCache = App.getDefaultDataContext().getResultCache();
+		resultCache.invalidateAll();
+	}
+
+	@Test
+	void testHit() {
+		long hitCount = resultCache.stats().hitCount();
+		JsonArray result = (JsonArray) runJson("{\"select\":\"result_cache_table\"}").getJsonData();
+		JsonArray cachedResult = (JsonArray) runJson("{\"select\":\"result_cache_table\"}").getJsonData();
+		assertEquals(result, cachedResult);
+		assertEquals(hitCount + 1, resultCache.stats().hitCount());
+		assertEquals(1, resultCache.size());
+	}
+
+	@Test
+	void testInvalidateOnWrite() {
+		JsonArray result = (JsonArray) runJson("{\"select\":\"result_cache_table\",\"where\":\"id=1\"}")
+				.getJsonData();
+		assertEquals("Ada", result.get(0).getAsJsonObject().get("NAME").getAsString());
+		runJson("{\"update\":\"result_cache_table\",\"values\":{\"name\":\"Anne\"},\"where\":\"id=1\"}");
+		assertEquals(0, resultCache.size());
+		result = (JsonArray) runJson("{\"select\":\"result_cache_table\",\"where\":\"id=1\"}").getJsonData();
+		assertEquals("Anne", result.get(0).getAsJsonObject().get("NAME").getAsString());
+	}
+
+	@Test
+	void testTableTtl() {
+		long missCount = resultCache.stats().missCount();
+		runJson("{\"select\":\"result_cache_no_cache_table\"}");
+		runJson("{\"select\":\"result_cache_no_cache_table\"}");
+		assertEquals(0, resultCache.size());
+		assertEquals(missCount, resultCache.stats().missCount());
+	}
+
+	@Test
+	void testBypassInTransaction() {
+		long missCount = resultCache.stats().missCount();
+		JsonArray result = (JsonArray) runJson(
+				"{\"transaction\":[{\"update\":\"result_cache_table\",\"values\":{\"name\":\"Ada\"},\"where\":\"id=1\"},"
+						+ "{\"select\":\"result_cache_table\",\"where\":\"id=2\"}]}").getJsonData();
+		assertEquals("Kate", result.get(1).getAsJsonArray().get(0).getAsJsonObject().get("NAME").getAsString());
+		// 事务中的查询不读取也不写入缓存
+		assertEquals(0, resultCache.size());
+		assertEquals(missCount, resultCache.stats().missCount());
+	}
+
+}
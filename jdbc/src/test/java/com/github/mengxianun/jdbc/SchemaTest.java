@@ -0,0 +1,170 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.config.AssociationType;
+import com.github.mengxianun.core.config.ColumnConfig;
+import com.github.mengxianun.core.config.TableConfig;
+import com.github.mengxianun.core.schema.Column;
+import com.github.mengxianun.core.schema.DefaultColumn;
+import com.github.mengxianun.core.schema.DefaultSchema;
+import com.github.mengxianun.core.schema.DefaultTable;
+import com.github.mengxianun.core.schema.Schema;
+import com.github.mengxianun.core.schema.Table;
+import com.github.mengxianun.core.schema.TableType;
+import com.github.mengxianun.core.schema.relationship.RelationshipGraph;
+import com.github.mengxianun.core.schema.relationship.RelationshipPath;
+import com.google.gson.JsonObject;
+
+@DisplayName("Schema metadata lookup test")
+public class SchemaTest extends TestSupport {
+
+	@Test
+	void testTableName() {
+		Schema schema = new DefaultSchema("test");
+		DefaultTable upper = new DefaultTable("USER", TableType.TABLE, schema);
+		DefaultTable lower = new DefaultTable("user", TableType.TABLE, schema);
+		schema.addTable(upper);
+		schema.addTable(lower);
+		schema.addTable(new DefaultTable("USER", TableType.TABLE, schema));
+		assertEquals(2, schema.getTableCount());
+		assertSame(upper, schema.getTable("USER"));
+		assertSame(lower, schema.getTable("user"));
+		assertSame(upper, schema.getTable("User"));
+		schema.removeTable(upper);
+		assertSame(lower, schema.getTable("USER"));
+		assertNull(schema.getTable("role"));
+	}
+
+	@Test
+	void testTableAlias() {
+		Schema schema = new DefaultSchema("test");
+		DefaultTable user = new DefaultTable("t_user", TableType.TABLE, schema);
+		DefaultTable role = new DefaultTable("user", TableType.TABLE, schema);
+		schema.addTable(user);
+		schema.addTable(role);
+		assertSame(role, schema.getTable("user"));
+		JsonObject config = new JsonObject();
+		config.addProperty(TableConfig.ALIAS, "user");
+		user.setConfig(config);
+		// 别名优先于表名
+		assertSame(user, schema.getTable("USER"));
+		assertSame(user, schema.getTable("t_user"));
+		user.setConfig(new JsonObject());
+		assertSame(role, schema.getTable("user"));
+	}
+
+	@Test
+	void testColumn() {
+		Schema schema = new DefaultSchema("test");
+		DefaultTable table = new DefaultTable("t_user", TableType.TABLE, schema);
+		Column id = new DefaultColumn("ID", null, table);
+		Column name = new DefaultColumn("NAME", null, table);
+		table.addColumn(id);
+		table.addColumn(name);
+		table.addColumn(new DefaultColumn("ID", null, table));
+		assertEquals(2, table.getColumnCount());
+		assertSame(id, table.getColumn("id"));
+		assertNull(table.getColumn("uid"));
+		JsonObject config = new JsonObject();
+		config.addProperty(ColumnConfig.ALIAS, "uid");
+		id.setConfig(config);
+		assertSame(id, table.getColumn("UID"));
+		assertSame(name, table.getColumnByName("name"));
+	}
+
+	@Test
+	void testPrimaryKeys() {
+		Table table = App.getDefaultDataContext().getTable("upsert_table");
+		assertEquals(1, table.getPrimaryKeys().size());
+		assertEquals("ID", table.getPrimaryKeys().get(0).getName());
+		assertEquals(0, App.getDefaultDataContext().getTable("upsert_no_key_table").getPrimaryKeys().size());
+	}
+
+	@Test
+	void testRelationshipPaths() {
+		Schema schema = new DefaultSchema("test");
+		Column a = createIdColumn(schema, "A");
+		Column b = createIdColumn(schema, "B");
+		Column c = createIdColumn(schema, "C");
+		RelationshipGraph graph = new RelationshipGraph();
+		graph.addRelationship(a, b, AssociationType.ONE_TO_ONE);
+		graph.addRelationship(b, c, AssociationType.ONE_TO_ONE);
+		Set<RelationshipPath> paths = graph.getShortestRelationships(a.getTable(), c.getTable(), 6);
+		assertEquals(1, paths.size());
+		assertEquals(2, paths.iterator().next().size());
+		// 关联关系不变时路径只计算一次
+		assertSame(paths, graph.getShortestRelationships(a.getTable(), c.getTable(), 6));
+		assertTrue(graph.getShortestRelationships(c.getTable(), a.getTable(), 6).isEmpty());
+
+		graph.addRelationship(a, c, AssociationType.ONE_TO_ONE);
+		Set<RelationshipPath> newPaths = graph.getShortestRelationships(a.getTable(), c.getTable(), 6);
+		assertNotSame(paths, newPaths);
+		assertEquals(1, newPaths.size());
+		assertEquals(1, newPaths.iterator().next().size());
+		assertEquals(2, graph.getRelationships(a.getTable(), c.getTable(), table -> true, 6).size());
+
+		graph.deleteRelationship(a, c);
+		assertEquals(2, graph.getShortestRelationships(a.getTable(), c.getTable(), 6).iterator().next().size());
+	}
+
+	@Test
+	void testShortestRelationshipPaths() {
+		Schema schema = new DefaultSchema("test");
+		Column a = createIdColumn(schema, "A");
+		Column b = createIdColumn(schema, "B");
+		Column c = createIdColumn(schema, "C");
+		Column d = createIdColumn(schema, "D");
+		Column e = createIdColumn(schema, "E");
+		Column h = createIdColumn(schema, "H");
+		RelationshipGraph graph = new RelationshipGraph();
+		graph.addRelationship(a, d, AssociationType.ONE_TO_ONE);
+		graph.addRelationship(d, e, AssociationType.ONE_TO_ONE);
+		graph.addRelationship(e, c, AssociationType.ONE_TO_ONE);
+		graph.addRelationship(a, b, AssociationType.ONE_TO_ONE);
+		graph.addRelationship(b, c, AssociationType.ONE_TO_ONE);
+		graph.addRelationship(a, h, AssociationType.ONE_TO_ONE);
+		graph.addRelationship(h, c, AssociationType.ONE_TO_ONE);
+		Table tableA = a.getTable();
+		Table tableC = c.getTable();
+
+		Set<RelationshipPath> shortestPaths = graph.getShortestRelationships(tableA, tableC, 6);
+		assertEquals(2, shortestPaths.size());
+		shortestPaths.forEach(path -> assertEquals(2, path.size()));
+		assertTrue(graph.getShortestRelationships(tableA, tableC, 1).isEmpty());
+		assertTrue(graph.getShortestRelationships(tableC, tableA, 6).isEmpty());
+
+		// 中间表只能是 B
+		Set<RelationshipPath> viaPaths = graph.getRelationships(tableA, tableC, t -> t == b.getTable(), 6);
+		assertEquals(1, viaPaths.size());
+		assertSame(b.getTable(), viaPaths.iterator().next().getFirst().getForeignColumn().getTable());
+		// 中间表只能是 D 和 E, 路径长度为 3
+		assertTrue(graph.getRelationships(tableA, tableC, t -> t == d.getTable() || t == e.getTable(), 2).isEmpty());
+		assertEquals(1, graph.getRelationships(tableA, tableC, t -> t == d.getTable() || t == e.getTable(), 3).size());
+	}
+
+	@Test
+	void testDataContextColumnAlias() {
+		Column column = App.getDefaultDataContext().getColumn("alias_table_a", "A-NAME");
+		assertEquals("NAME", column.getName());
+	}
+
+	private Column createIdColumn(Schema schema, String tableName) {
+		DefaultTable table = new DefaultTable(tableName, TableType.TABLE, schema);
+		schema.addTable(table);
+		Column column = new DefaultColumn("ID", null, table);
+		table.addColumn(column);
+		return column;
+	}
+
+}
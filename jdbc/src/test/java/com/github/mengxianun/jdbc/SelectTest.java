@@ -3,6 +3,9 @@ package com.github.mengxianun.jdbc;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
+import java.util.Map;
+
 import org.json.JSONException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -237,4 +240,16 @@ public class SelectTest extends TestSupport {
 		assertEquals(2, firstElement.get("#").getAsInt());
 	}
 
+	@Test
+	void testDuplicateRecords() {
+		DataResultSet dataResultSet = runJson("{\"select\":\"select_table\",\"fields\":[\"age\"],\"order\":[\"-age\"]}");
+		// 单表查询不合并相同的记录
+		List<?> result = (List<?>) dataResultSet.getData();
+		assertEquals(6, result.size());
+		Object first = ((Map<?, ?>) result.get(0)).get("AGE");
+		assertEquals(first, ((Map<?, ?>) result.get(1)).get("AGE"));
+		// 整数类型的值为 Long
+		assertEquals(99L, first);
+	}
+
 }
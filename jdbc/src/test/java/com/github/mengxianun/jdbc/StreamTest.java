@@ -0,0 +1,61 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.DataResultSet;
+import com.github.mengxianun.core.config.ResultAttributes;
+import com.github.mengxianun.core.request.TotalMode;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+@DisplayName("Jdbc stream test")
+public class StreamTest extends TestSupport {
+
+	@Test
+	void testStreamTable() {
+		String json = readJson("json/select/select_table.json");
+		DataResultSet dataResultSet = runJson(json);
+		assertEquals(dataResultSet.getJsonData(), stream(json));
+	}
+
+	@Test
+	void testStreamLimit() {
+		String json = readJson("json/select/select_limit.json");
+		DataResultSet dataResultSet = runJson(json);
+		JsonObject result = stream(json).getAsJsonObject();
+		assertEquals(dataResultSet.getJsonData(), result);
+		assertEquals(2, result.getAsJsonArray(ResultAttributes.DATA).size());
+	}
+
+	@Test
+	void testStreamLimitTotalSkip() {
+		String json = "{\"select\":\"select_table\",\"limit\":[0,2],\"total\":\"skip\"}";
+		DataResultSet dataResultSet = runJson(json);
+		JsonObject result = stream(json).getAsJsonObject();
+		assertEquals(dataResultSet.getJsonData(), result);
+		assertEquals(-1, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(TotalMode.SKIP.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+		assertEquals(2, result.getAsJsonArray(ResultAttributes.DATA).size());
+	}
+
+	@Test
+	void testStreamJoin() {
+		String json = readJson("json/join/join.json");
+		DataResultSet dataResultSet = runJson(json);
+		assertEquals(dataResultSet.getJsonData(), stream(json));
+	}
+
+	JsonElement stream(String json) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		translator.translate(json, out);
+		return new JsonParser().parse(new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+}
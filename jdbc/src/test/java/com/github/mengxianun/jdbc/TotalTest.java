@@ -0,0 +1,83 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.cache.TotalCache;
+import com.github.mengxianun.core.config.ResultAttributes;
+import com.github.mengxianun.core.request.TotalMode;
+import com.google.gson.JsonObject;
+
+@DisplayName("Jdbc total test")
+public class TotalTest extends TestSupport {
+
+	@Test
+	void testExact() {
+		JsonObject result = (JsonObject) runJson("{\"select\":\"select_table\",\"limit\":[0,2]}").getJsonData();
+		assertEquals(6, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(TotalMode.EXACT.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+	}
+
+	@Test
+	void testSkip() {
+		JsonObject result = (JsonObject) runJson("{\"select\":\"select_table\",\"total\":\"skip\",\"limit\":[0,2]}")
+				.getJsonData();
+		assertEquals(-1, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(TotalMode.SKIP.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+		assertEquals(2, result.getAsJsonArray(ResultAttributes.DATA).size());
+		// 当前页记录数不足, 总数可以直接得出
+		result = (JsonObject) runJson("{\"select\":\"select_table\",\"total\":\"skip\",\"limit\":[4,10]}")
+				.getJsonData();
+		assertEquals(6, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(TotalMode.EXACT.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+	}
+
+	@Test
+	void testTableTotalMode() {
+		JsonObject result = (JsonObject) runJson("{\"select\":\"total_skip_table\",\"limit\":[0,2]}").getJsonData();
+		assertEquals(-1, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(TotalMode.SKIP.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+		// 请求中指定的方式优先
+		result = (JsonObject) runJson("{\"select\":\"total_skip_table\",\"total\":\"exact\",\"limit\":[0,2]}")
+				.getJsonData();
+		assertEquals(3, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(TotalMode.EXACT.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+	}
+
+	@Test
+	void testCached() {
+		TotalCache totalCache = App.getDefaultDataContext().getTotalCache();
+		totalCache.invalidateAll();
+		JsonObject result = (JsonObject) runJson(
+				"{\"select\":\"select_table\",\"where\":\"age>20\",\"total\":\"cached\",\"limit\":[0,2]}")
+						.getJsonData();
+		assertEquals(5, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(TotalMode.CACHED.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+		long hitCount = totalCache.stats().hitCount();
+		result = (JsonObject) runJson(
+				"{\"select\":\"select_table\",\"where\":\"age>20\",\"total\":\"cached\",\"limit\":[2,4]}")
+						.getJsonData();
+		assertEquals(5, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(hitCount + 1, totalCache.stats().hitCount());
+		assertEquals(1, totalCache.size());
+	}
+
+	@Test
+	void testEstimate() {
+		JsonObject result = (JsonObject) runJson("{\"select\":\"select_table\",\"total\":\"estimate\",\"limit\":[0,2]}")
+				.getJsonData();
+		assertEquals(TotalMode.ESTIMATE.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+		assertTrue(result.get(ResultAttributes.TOTAL).getAsLong() >= 0);
+		// H2 不支持执行计划估算, 查询精确总数
+		result = (JsonObject) runJson(
+				"{\"select\":\"select_table\",\"where\":\"age>20\",\"total\":\"estimate\",\"limit\":[0,2]}")
+						.getJsonData();
+		assertEquals(5, result.get(ResultAttributes.TOTAL).getAsLong());
+		assertEquals(TotalMode.EXACT.lowerName(), result.get(ResultAttributes.TOTAL_MODE).getAsString());
+	}
+
+}
@@ -3,11 +3,24 @@ package com.github.mengxianun.jdbc;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.mengxianun.core.Action;
 import com.github.mengxianun.core.DataResultSet;
+import com.github.mengxianun.core.NewAction;
+import com.github.mengxianun.core.config.ResultAttributes;
+import com.github.mengxianun.core.data.Summary;
+import com.github.mengxianun.core.data.summary.InsertSummary;
+import com.github.mengxianun.core.data.summary.MultiSummary;
 import com.github.mengxianun.core.exception.DataException;
+import com.github.mengxianun.core.parser.SimpleParser;
+import com.github.mengxianun.core.parser.action.CRUDActionParser;
+import com.google.common.collect.Lists;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
@@ -52,4 +65,80 @@ public class TransactionTest extends TestSupport {
 		assertEquals(1, result.get("A_ID").getAsLong());
 	}
 
+	@Test
+	void testTransactionBatch() {
+		DataResultSet dataResultSet = run(JSON_PARENT_PATH + "transaction_batch.json");
+		JsonArray result = (JsonArray) dataResultSet.getJsonData();
+		assertEquals(7, result.size());
+		long id1 = result.get(0).getAsJsonObject().get("ID").getAsLong();
+		long id2 = result.get(1).getAsJsonObject().get("ID").getAsLong();
+		long id3 = result.get(2).getAsJsonObject().get("ID").getAsLong();
+		assertEquals(id1 + 1, id2);
+		assertEquals(id2 + 1, id3);
+		assertEquals(1, result.get(3).getAsJsonObject().get(ResultAttributes.COUNT).getAsInt());
+		assertEquals(1, result.get(4).getAsJsonObject().get(ResultAttributes.COUNT).getAsInt());
+
+		JsonArray rows = (JsonArray) runJson(
+				"{\"select\":\"transaction_batch_table\",\"order\":\"id\"}").getJsonData();
+		assertEquals(3, rows.size());
+		assertEquals("b1_new", rows.get(0).getAsJsonObject().get("NAME").getAsString());
+		assertEquals("b2_new", rows.get(1).getAsJsonObject().get("NAME").getAsString());
+		assertEquals("b3", rows.get(2).getAsJsonObject().get("NAME").getAsString());
+
+		long id6 = result.get(5).getAsJsonObject().get("ID").getAsLong();
+		rows = (JsonArray) runJson("{\"select\":\"transaction_batch_ref\",\"order\":\"id\"}").getJsonData();
+		assertEquals(id3, rows.get(0).getAsJsonObject().get("A_ID").getAsLong());
+		assertEquals(id6, rows.get(1).getAsJsonObject().get("A_ID").getAsLong());
+	}
+
+	@Test
+	void testTransactionPageTotal() {
+		DataResultSet dataResultSet = run(JSON_PARENT_PATH + "transaction_page_total.json");
+		JsonArray result = (JsonArray) dataResultSet.getJsonData();
+		// 总数包含同一事务中尚未提交的记录
+		JsonObject page = result.get(2).getAsJsonObject();
+		assertEquals(1, page.getAsJsonArray(ResultAttributes.DATA).size());
+		assertEquals(3, page.get(ResultAttributes.TOTAL).getAsLong());
+	}
+
+	@Test
+	void testTransactionBatchReferenced() {
+		List<Integer> batchSizes = new ArrayList<>();
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL(DB_URL);
+		dataSource.setUser(DB_USERNAME);
+		dataSource.setPassword(DB_PASSWORD);
+		JdbcDataContext dataContext = new JdbcDataContext(dataSource) {
+
+			@Override
+			protected List<Summary> executeBatch(List<Action> actions) {
+				batchSizes.add(actions.size());
+				return super.executeBatch(actions);
+			}
+
+		};
+		try {
+			String[] requests = { "{\"insert\":\"transaction_batch_key_table\",\"values\":{\"name\":\"k1\"}}",
+					"{\"insert\":\"transaction_batch_key_table\",\"values\":{\"name\":\"k2\"}}",
+					"{\"insert\":\"transaction_batch_key_table\",\"values\":{\"name\":\"k3\"}}",
+					"{\"update\":\"transaction_batch_key_table\",\"values\":{\"name\":\"k1_new\"},\"where\":\"id=$1.ID\"}" };
+			NewAction[] actions = new NewAction[requests.length];
+			for (int i = 0; i < requests.length; i++) {
+				actions[i] = new CRUDActionParser(SimpleParser.parse(requests[i]), dataContext).parse();
+			}
+			MultiSummary multiSummary = dataContext.execute(actions);
+			// 被引用的新增请求单独执行, 其余新增请求批量执行
+			assertEquals(Lists.newArrayList(2), batchSizes);
+			List<Summary> summaries = multiSummary.getSummaries();
+			for (int i = 0; i < 3; i++) {
+				assertEquals(1, ((InsertSummary) summaries.get(i)).getInsertCount());
+			}
+			JsonArray rows = (JsonArray) runJson("{\"select\":\"transaction_batch_key_table\",\"order\":\"id\"}")
+					.getJsonData();
+			assertEquals("k1_new", rows.get(0).getAsJsonObject().get("NAME").getAsString());
+		} finally {
+			dataContext.destroy();
+		}
+	}
+
 }
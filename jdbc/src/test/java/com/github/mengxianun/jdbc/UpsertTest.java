@@ -0,0 +1,104 @@
+package com.github.mengxianun.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.mengxianun.core.App;
+import com.github.mengxianun.core.config.GlobalConfig;
+import com.github.mengxianun.core.config.ResultAttributes;
+import com.github.mengxianun.core.exception.DataException;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+@DisplayName("Jdbc upsert test")
+public class UpsertTest extends TestSupport {
+
+	// Druid 的 wall 过滤器按 MySQL 语法解析 H2 的语句, 无法解析 MERGE, 使用不经过连接池的数据源
+	private static final String SOURCE = "upsert_ds";
+
+	@BeforeAll
+	static void init() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL(DB_URL);
+		dataSource.setUser(DB_USERNAME);
+		dataSource.setPassword(DB_PASSWORD);
+		App.addDataContext(SOURCE, new JdbcDataContext(dataSource));
+	}
+
+	@AfterAll
+	static void destroy() {
+		App.deleteDataContext(SOURCE);
+	}
+
+	@Test
+	void testUpsertUpdate() {
+		JsonObject result = (JsonObject) runJson(
+				"{\"upsert\":\"" + SOURCE + ".upsert_table\",\"values\":{\"id\":1,\"code\":\"c1\",\"name\":\"Ada Lovelace\"}}")
+						.getJsonData();
+		assertEquals(1, result.get(ResultAttributes.COUNT).getAsInt());
+		JsonObject row = detail(1);
+		assertEquals("Ada Lovelace", row.get("NAME").getAsString());
+		assertEquals(20, row.get("AGE").getAsInt());
+	}
+
+	@Test
+	void testUpsertInsert() {
+		runJson("{\"upsert\":\"" + SOURCE + ".upsert_table\",\"values\":{\"id\":10,\"code\":\"c10\",\"name\":\"Tom\",\"age\":50}}");
+		JsonObject row = detail(10);
+		assertEquals("Tom", row.get("NAME").getAsString());
+		assertEquals(50, row.get("AGE").getAsInt());
+	}
+
+	@Test
+	void testUpsertBatch() {
+		JsonObject result = (JsonObject) runJson(
+				"{\"upsert\":\"" + SOURCE + ".upsert_table\",\"values\":[{\"id\":2,\"code\":\"c2\",\"name\":\"Kate Bush\"},{\"id\":21,\"code\":\"c21\",\"name\":\"Bob\"},{\"id\":22,\"code\":\"c22\",\"name\":\"Lily\"}]}")
+						.getJsonData();
+		assertEquals(3, result.get(ResultAttributes.COUNT).getAsInt());
+		assertEquals("Kate Bush", detail(2).get("NAME").getAsString());
+		assertEquals("Bob", detail(21).get("NAME").getAsString());
+		assertEquals("Lily", detail(22).get("NAME").getAsString());
+	}
+
+	@Test
+	void testUpsertConflict() {
+		runJson("{\"upsert\":\"" + SOURCE + ".upsert_table\",\"values\":{\"id\":3,\"code\":\"c3\",\"age\":41},\"conflict\":[\"code\"]}");
+		JsonObject row = detail(3);
+		assertEquals("Perry", row.get("NAME").getAsString());
+		assertEquals(41, row.get("AGE").getAsInt());
+	}
+
+	@Test
+	void testUpsertInTransaction() {
+		// 事务中的请求使用默认数据源
+		String defaultDataSource = App.getDefaultDataSource();
+		App.Config.set(GlobalConfig.DEFAULT_DATASOURCE, SOURCE);
+		try {
+			JsonArray result = (JsonArray) runJson(
+					"{\"transaction\":[{\"upsert\":\"upsert_table\",\"values\":{\"id\":31,\"code\":\"c31\",\"name\":\"x\"}},{\"upsert\":\"upsert_table\",\"values\":{\"id\":32,\"code\":\"c32\",\"name\":\"y\"}},{\"upsert\":\"upsert_table\",\"values\":{\"id\":31,\"code\":\"c31\",\"name\":\"z\"}}]}")
+							.getJsonData();
+			assertEquals(3, result.size());
+		} finally {
+			App.Config.set(GlobalConfig.DEFAULT_DATASOURCE, defaultDataSource);
+		}
+		assertEquals("z", detail(31).get("NAME").getAsString());
+		assertEquals("y", detail(32).get("NAME").getAsString());
+	}
+
+	@Test
+	void testUpsertWithoutKey() {
+		assertThrows(DataException.class,
+				() -> runJson("{\"upsert\":\"" + SOURCE + ".upsert_no_key_table\",\"values\":{\"name\":\"a\",\"age\":1}}"));
+	}
+
+	JsonObject detail(int id) {
+		return (JsonObject) runJson("{\"detail\":\"upsert_table\",\"where\":\"id=" + id + "\"}").getJsonData();
+	}
+
+}
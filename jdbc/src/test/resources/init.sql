@@ -30,6 +30,22 @@ INSERT INTO SELECT_DISTINCT_TABLE VALUES(3, 'Kate');
 ----------------------------------
 DROP TABLE IF EXISTS INSERT_TABLE;
 CREATE TABLE INSERT_TABLE(ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '', BIRTH DATE, CREATE_TIME TIMESTAMP);
+DROP TABLE IF EXISTS INSERT_BATCH_TABLE;
+CREATE TABLE INSERT_BATCH_TABLE(ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '', AGE INT);
+
+
+----------------------------------
+-- UPSERT TEST TABLES
+----------------------------------
+DROP TABLE IF EXISTS UPSERT_TABLE;
+CREATE TABLE UPSERT_TABLE(ID INT PRIMARY KEY, CODE VARCHAR(255) UNIQUE, NAME VARCHAR(255) DEFAULT '', AGE INT);
+DROP TABLE IF EXISTS UPSERT_NO_KEY_TABLE;
+CREATE TABLE UPSERT_NO_KEY_TABLE(NAME VARCHAR(255) DEFAULT '', AGE INT);
+
+-- UPSERT_TABLE
+INSERT INTO UPSERT_TABLE VALUES(1, 'c1', 'Ada', 20);
+INSERT INTO UPSERT_TABLE VALUES(2, 'c2', 'Kate', 30);
+INSERT INTO UPSERT_TABLE VALUES(3, 'c3', 'Perry', 40);
 
 
 ----------------------------------
@@ -198,6 +214,15 @@ CREATE TABLE TRANSACTION_PLACEHOLDER_A(ID INT AUTO_INCREMENT PRIMARY KEY, NAME V
 DROP TABLE IF EXISTS TRANSACTION_PLACEHOLDER_B;
 CREATE TABLE TRANSACTION_PLACEHOLDER_B(ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '', A_ID INT);
 
+DROP TABLE IF EXISTS TRANSACTION_BATCH_TABLE;
+CREATE TABLE TRANSACTION_BATCH_TABLE(ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '');
+
+DROP TABLE IF EXISTS TRANSACTION_BATCH_REF;
+CREATE TABLE TRANSACTION_BATCH_REF(ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '', A_ID INT);
+
+DROP TABLE IF EXISTS TRANSACTION_BATCH_KEY_TABLE;
+CREATE TABLE TRANSACTION_BATCH_KEY_TABLE(ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '');
+
 
 ----------------------------------
 -- ALIAS TEST TABLES
@@ -504,6 +529,44 @@ CREATE TABLE GLOBAL_COLUMNS_TIME_TABLE(ID INT PRIMARY KEY, MILLISECOND BIGINT, M
 INSERT INTO GLOBAL_COLUMNS_TIME_TABLE VALUES(1, 1573819744466, '1573819744466', '2019-11-15T20:09:04.466');
 
 
+----------------------------------
+-- RESULT CACHE TEST TABLES
+----------------------------------
+DROP TABLE IF EXISTS RESULT_CACHE_TABLE;
+CREATE TABLE RESULT_CACHE_TABLE(ID INT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '');
+DROP TABLE IF EXISTS RESULT_CACHE_NO_CACHE_TABLE;
+CREATE TABLE RESULT_CACHE_NO_CACHE_TABLE(ID INT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '');
+
+-- RESULT_CACHE_TABLE
+INSERT INTO RESULT_CACHE_TABLE VALUES(1, 'Ada');
+INSERT INTO RESULT_CACHE_TABLE VALUES(2, 'Kate');
+INSERT INTO RESULT_CACHE_NO_CACHE_TABLE VALUES(1, 'Ada');
+
+
+----------------------------------
+-- TOTAL MODE TEST TABLES
+----------------------------------
+DROP TABLE IF EXISTS TOTAL_SKIP_TABLE;
+CREATE TABLE TOTAL_SKIP_TABLE(ID INT PRIMARY KEY, NAME VARCHAR(255) DEFAULT '');
+
+-- TOTAL_SKIP_TABLE
+INSERT INTO TOTAL_SKIP_TABLE VALUES(1, 'Ada');
+INSERT INTO TOTAL_SKIP_TABLE VALUES(2, 'Kate');
+INSERT INTO TOTAL_SKIP_TABLE VALUES(3, 'Brenda');
+
+----------------------------------
+-- KEYSET LIMIT TEST TABLES
+----------------------------------
+DROP TABLE IF EXISTS KEYSET_NULL_TABLE;
+CREATE TABLE KEYSET_NULL_TABLE(ID INT PRIMARY KEY, SCORE INT);
+
+-- KEYSET_NULL_TABLE
+INSERT INTO KEYSET_NULL_TABLE VALUES(1, 10);
+INSERT INTO KEYSET_NULL_TABLE VALUES(2, NULL);
+INSERT INTO KEYSET_NULL_TABLE VALUES(3, 20);
+
+
+
 ----------------------------------
 -- CREATE VIEW
 ----------------------------------